@@ -0,0 +1,59 @@
+package net.dd.spring.guide.springboot.admin;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Guards the admin endpoints, which hand out recordings, audit records and pool controls,
+ * with a shared bearer token. Without a configured token the admin API is closed.
+ */
+public class AdminAccessFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private static final byte[] FORBIDDEN_BODY =
+            "{\"status\":\"FORBIDDEN\",\"message\":\"Admin API is not enabled\"}".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] UNAUTHORIZED_BODY =
+            "{\"status\":\"UNAUTHORIZED\",\"message\":\"Missing or invalid admin token\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final byte[] token;
+
+    public AdminAccessFilter(String token) {
+        this.token = token == null || token.isBlank() ? null : token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (token == null) {
+            reject(response, HttpStatus.FORBIDDEN, FORBIDDEN_BODY);
+            return;
+        }
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith(BEARER)
+                || !MessageDigest.isEqual(token, authorization.substring(BEARER.length()).getBytes(StandardCharsets.UTF_8))) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            reject(response, HttpStatus.UNAUTHORIZED, UNAUTHORIZED_BODY);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, byte[] body) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
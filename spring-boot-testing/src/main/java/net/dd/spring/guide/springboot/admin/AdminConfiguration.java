@@ -0,0 +1,21 @@
+package net.dd.spring.guide.springboot.admin;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(AdminProperties.class)
+public class AdminConfiguration {
+
+    @Bean
+    public FilterRegistrationBean<AdminAccessFilter> adminAccessFilter(AdminProperties properties) {
+        FilterRegistrationBean<AdminAccessFilter> registration = new FilterRegistrationBean<>(
+                new AdminAccessFilter(properties.getToken()));
+        registration.addUrlPatterns("/api/admin/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,17 @@
+package net.dd.spring.guide.springboot.admin;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.admin")
+public class AdminProperties {
+
+    /**
+     * Bearer token required by every {@code /api/admin} endpoint. Left empty, the admin API
+     * refuses all requests.
+     */
+    private String token;
+}
@@ -0,0 +1,18 @@
+package net.dd.spring.guide.springboot.aggregate;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+@EnableConfigurationProperties(AggregateProperties.class)
+@ConditionalOnProperty(prefix = "employee.aggregates", name = "enabled", havingValue = "true")
+public class AggregateConfiguration {
+
+    @Bean
+    public DomainHeadcounts domainHeadcounts(JdbcTemplate jdbcTemplate) {
+        return new DomainHeadcounts(jdbcTemplate);
+    }
+}
@@ -0,0 +1,18 @@
+package net.dd.spring.guide.springboot.aggregate;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.aggregates")
+public class AggregateProperties {
+
+    private boolean enabled;
+
+    /** How often the in-memory counts are compared with a group-by over the table. */
+    private Duration reconcileInterval = Duration.ofMinutes(15);
+}
@@ -0,0 +1,241 @@
+package net.dd.spring.guide.springboot.aggregate;
+
+import lombok.extern.slf4j.Slf4j;
+import net.dd.spring.guide.springboot.event.EmployeeChangeType;
+import net.dd.spring.guide.springboot.event.EmployeeChangedEvent;
+import net.dd.spring.guide.springboot.event.EmployeesImportedEvent;
+import net.dd.spring.guide.springboot.model.EmailNormalizer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Employee head-count per email domain, kept in memory.
+ *
+ * Built with one streaming pass over {@code (id, email_normalized)} after startup and then maintained
+ * from {@link EmployeeChangedEvent}s. Each employee id maps to a small integer domain code in
+ * a {@link LongIntHashMap} and the counts live in a {@code long[]} indexed by that code, so
+ * updates move one count from the old domain to the new one without boxing. Events that
+ * arrive during a rebuild are replayed on top of it; they carry the latest state of a row so
+ * replaying them is harmless. A periodic group-by over the table catches anything missed and
+ * triggers a rebuild when the counts drifted, which is also how rows written without events,
+ * such as a dataset load, are picked up.
+ *
+ * Only rows with an {@code email_normalized} are counted, by the scan and by the group-by
+ * alike; rows written through the entity always have one, legacy rows waiting for the
+ * backfill and duplicates parked by the unique index migration do not.
+ */
+@Slf4j
+public class DomainHeadcounts {
+
+    private static final int NO_DOMAIN = -1;
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String SCAN_SQL =
+            "select id, email_normalized from tbl_employees where email_normalized is not null";
+    // same split as domainOf: everything after the first '@'
+    private static final String COUNT_SQL =
+            "select substring(email_normalized, locate('@', email_normalized) + 1) as email_domain, count(*) as headcount"
+                    + " from tbl_employees where email_normalized is not null"
+                    + " group by substring(email_normalized, locate('@', email_normalized) + 1)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private Counts counts = new Counts(16);
+    private List<EmployeeChangedEvent> replay;
+    private long appliedChanges;
+    private volatile boolean ready;
+
+    public DomainHeadcounts(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildInBackground() {
+        Thread loader = new Thread(this::rebuild, "employee-headcount-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    public void rebuild() {
+        synchronized (this) {
+            if (replay != null) {
+                return;
+            }
+            replay = new ArrayList<>();
+        }
+        long start = System.nanoTime();
+        Counts rebuilt = new Counts(1024);
+        try {
+            // On MySQL the fetch size is only honoured with useCursorFetch=true on the JDBC url.
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SCAN_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(FETCH_SIZE);
+                return statement;
+            }, (ResultSet rs) -> {
+                rebuilt.set(rs.getLong(1), domainOf(rs.getString(2)));
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                replay = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            for (EmployeeChangedEvent event : replay) {
+                rebuilt.apply(event);
+            }
+            replay = null;
+            counts = rebuilt;
+            ready = true;
+        }
+        log.info("Employee domain head-counts loaded: {} employees in {} domains in {} ms",
+                rebuilt.employees(), rebuilt.domains.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (replay != null) {
+            replay.add(event);
+        }
+        counts.apply(event);
+        appliedChanges++;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onEmployeesImported(EmployeesImportedEvent event) {
+        for (EmployeeChangedEvent change : event.getChanges()) {
+            onEmployeeChanged(change);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Head-count per domain, largest first.
+     */
+    public synchronized Map<String, Long> getHeadcounts() {
+        return counts.sorted();
+    }
+
+    @Scheduled(fixedDelayString = "${employee.aggregates.reconcile-interval:PT15M}",
+            initialDelayString = "${employee.aggregates.reconcile-interval:PT15M}")
+    public void reconcile() {
+        if (!ready) {
+            return;
+        }
+        long changesBefore;
+        synchronized (this) {
+            changesBefore = appliedChanges;
+        }
+        Map<String, Long> actual = new HashMap<>();
+        jdbcTemplate.query(COUNT_SQL, (ResultSet rs) -> {
+            actual.put(rs.getString("email_domain"), rs.getLong("headcount"));
+        });
+        Map<String, Long> expected;
+        synchronized (this) {
+            if (appliedChanges != changesBefore) {
+                // writes committed while counting, the comparison would be meaningless
+                log.debug("Skipping head-count reconciliation, employees changed meanwhile");
+                return;
+            }
+            expected = counts.sorted();
+        }
+        if (!expected.equals(actual)) {
+            log.warn("Employee domain head-counts drifted from the table, rebuilding");
+            rebuild();
+        }
+    }
+
+    static String domainOf(String email) {
+        String normalized = EmailNormalizer.normalize(email);
+        if (normalized == null) {
+            return null;
+        }
+        return normalized.substring(normalized.indexOf('@') + 1);
+    }
+
+    private static final class Counts {
+        private final LongIntHashMap domainById;
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> domains = new ArrayList<>();
+        private long[] headcounts = new long[16];
+
+        private Counts(int expectedEmployees) {
+            domainById = new LongIntHashMap(expectedEmployees, NO_DOMAIN);
+        }
+
+        void apply(EmployeeChangedEvent event) {
+            if (event.getType() == EmployeeChangeType.DELETED || event.getEmployee() == null) {
+                decrement(domainById.remove(event.getEmployeeId()));
+            } else {
+                set(event.getEmployeeId(), domainOf(event.getEmployee().getEmail()));
+            }
+        }
+
+        void set(long id, String domain) {
+            if (domain == null) {
+                decrement(domainById.remove(id));
+                return;
+            }
+            int code = codeOf(domain);
+            int previous = domainById.put(id, code);
+            if (previous != code) {
+                decrement(previous);
+                headcounts[code]++;
+            }
+        }
+
+        int employees() {
+            return domainById.size();
+        }
+
+        Map<String, Long> sorted() {
+            Integer[] order = new Integer[domains.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(headcounts[b], headcounts[a]));
+            Map<String, Long> result = new LinkedHashMap<>();
+            for (int code : order) {
+                if (headcounts[code] > 0) {
+                    result.put(domains.get(code), headcounts[code]);
+                }
+            }
+            return result;
+        }
+
+        private void decrement(int code) {
+            if (code != NO_DOMAIN) {
+                headcounts[code]--;
+            }
+        }
+
+        private int codeOf(String domain) {
+            Integer code = codes.get(domain);
+            if (code == null) {
+                code = domains.size();
+                codes.put(domain, code);
+                domains.add(domain);
+                if (code == headcounts.length) {
+                    headcounts = Arrays.copyOf(headcounts, code * 2);
+                }
+            }
+            return code;
+        }
+    }
+}
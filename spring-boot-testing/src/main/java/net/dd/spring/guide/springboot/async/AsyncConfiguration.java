@@ -0,0 +1,42 @@
+package net.dd.spring.guide.springboot.async;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.function.IntSupplier;
+
+@Configuration
+@EnableConfigurationProperties(AsyncProperties.class)
+@ConditionalOnProperty(prefix = "employee.async", name = "enabled", havingValue = "true")
+public class AsyncConfiguration {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    public EmployeeDbExecutors employeeDbExecutors(DataSource dataSource, AsyncProperties properties,
+                                                   MeterRegistry meterRegistry) throws SQLException {
+        EmployeeDbExecutors executors = new EmployeeDbExecutors(poolSize(dataSource),
+                properties.getLookupThreads(), properties.getLookupQueueCapacity(), properties.getLookupTimeout(),
+                properties.getListThreads(), properties.getListQueueCapacity(), properties.getListTimeout());
+        new ExecutorServiceMetrics(executors.getLookupExecutor(), "employee-lookup", Tags.empty()).bindTo(meterRegistry);
+        new ExecutorServiceMetrics(executors.getListExecutor(), "employee-list", Tags.empty()).bindTo(meterRegistry);
+        return executors;
+    }
+
+    // read on every submission: the pool sizer changes the maximum at runtime
+    private static IntSupplier poolSize(DataSource dataSource) throws SQLException {
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+            return hikari::getMaximumPoolSize;
+        }
+        return () -> DEFAULT_POOL_SIZE;
+    }
+}
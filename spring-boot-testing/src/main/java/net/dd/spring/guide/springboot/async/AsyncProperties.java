@@ -0,0 +1,29 @@
+package net.dd.spring.guide.springboot.async;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.async")
+public class AsyncProperties {
+
+    private boolean enabled;
+
+    /** Threads for point lookups; 0 derives it from the connection pool size. */
+    private int lookupThreads;
+
+    /** Threads for list queries; 0 derives it from the connection pool size. */
+    private int listThreads;
+
+    private int lookupQueueCapacity = 200;
+
+    private int listQueueCapacity = 20;
+
+    private Duration lookupTimeout = Duration.ofSeconds(2);
+
+    private Duration listTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,200 @@
+package net.dd.spring.guide.springboot.async;
+
+import lombok.extern.slf4j.Slf4j;
+import net.dd.spring.guide.springboot.deadline.Deadline;
+import net.dd.spring.guide.springboot.exception.GatewayTimeoutException;
+import net.dd.spring.guide.springboot.exception.ServiceUnavailableException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bounded executors that run repository work for the async endpoints, one for point
+ * lookups and one for list queries, so slow lists can only ever occupy their own threads.
+ *
+ * A full queue fails the request immediately with 503 and a request that does not complete
+ * within its timeout fails with 504. Work still queued when its request has timed out is
+ * skipped instead of taking a connection for an answer nobody is waiting for, and work
+ * already running is interrupted. The work also runs under a {@link Deadline} no later than
+ * its timeout, so with deadlines enabled the statement itself is cancelled by its query
+ * timeout and the connection goes back to the pool.
+ *
+ * Together the two executors never run more queries than there are connections, so a
+ * thread that got past the queue never has to wait for the pool as well. Thread counts left
+ * at 0 are derived from the live pool size, re-read on every submission, so they follow the
+ * pool when it is resized at runtime.
+ */
+@Slf4j
+public class EmployeeDbExecutors implements DisposableBean {
+
+    private final ThreadPoolExecutor lookupExecutor;
+    private final ThreadPoolExecutor listExecutor;
+    private final Duration lookupTimeout;
+    private final Duration listTimeout;
+    private final IntSupplier poolSize;
+    private final int lookupThreads;
+    private final int listThreads;
+
+    private volatile int sizedForPool = -1;
+
+    public EmployeeDbExecutors(int lookupThreads, int lookupQueueCapacity, Duration lookupTimeout,
+                               int listThreads, int listQueueCapacity, Duration listTimeout) {
+        this(() -> lookupThreads + listThreads, lookupThreads, lookupQueueCapacity, lookupTimeout,
+                listThreads, listQueueCapacity, listTimeout);
+    }
+
+    /**
+     * @param lookupThreads threads for point lookups, 0 to take what the list executor leaves of the pool
+     * @param listThreads threads for list queries, 0 for a quarter of the pool
+     */
+    public EmployeeDbExecutors(IntSupplier poolSize, int lookupThreads, int lookupQueueCapacity, Duration lookupTimeout,
+                               int listThreads, int listQueueCapacity, Duration listTimeout) {
+        this.poolSize = poolSize;
+        this.lookupThreads = lookupThreads;
+        this.listThreads = listThreads;
+        this.lookupExecutor = newExecutor("employee-lookup", lookupQueueCapacity);
+        this.listExecutor = newExecutor("employee-list", listQueueCapacity);
+        this.lookupTimeout = lookupTimeout;
+        this.listTimeout = listTimeout;
+        followPoolSize();
+    }
+
+    public <T> CompletableFuture<T> lookup(Supplier<T> work) {
+        followPoolSize();
+        return submit(lookupExecutor, lookupTimeout, work);
+    }
+
+    public <T> CompletableFuture<T> list(Supplier<T> work) {
+        followPoolSize();
+        return submit(listExecutor, listTimeout, work);
+    }
+
+    public ThreadPoolExecutor getLookupExecutor() {
+        return lookupExecutor;
+    }
+
+    public ThreadPoolExecutor getListExecutor() {
+        return listExecutor;
+    }
+
+    @Override
+    public void destroy() {
+        lookupExecutor.shutdownNow();
+        listExecutor.shutdownNow();
+    }
+
+    private void followPoolSize() {
+        int connections = poolSize.getAsInt();
+        if (connections == sizedForPool) {
+            return;
+        }
+        synchronized (this) {
+            if (connections == sizedForPool) {
+                return;
+            }
+            int list = listThreads > 0 ? listThreads : Math.max(1, connections / 4);
+            int lookup = lookupThreads > 0 ? lookupThreads : Math.max(1, connections - list);
+            if (sizedForPool >= 0) {
+                log.info("Connection pool resized to {}, async executors now run {} lookup and {} list threads",
+                        connections, lookup, list);
+            }
+            resize(lookupExecutor, lookup);
+            resize(listExecutor, list);
+            sizedForPool = connections;
+        }
+    }
+
+    private static void resize(ThreadPoolExecutor executor, int threads) {
+        // the core size may never exceed the maximum, so the order depends on the direction
+        if (threads > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(threads);
+            executor.setCorePoolSize(threads);
+        } else {
+            executor.setCorePoolSize(threads);
+            executor.setMaximumPoolSize(threads);
+        }
+    }
+
+    private static <T> CompletableFuture<T> submit(ThreadPoolExecutor executor, Duration timeout, Supplier<T> work) {
+        long timeoutMillis = Deadline.boundMillis(timeout.toMillis());
+        if (timeoutMillis == 0) {
+            return CompletableFuture.failedFuture(GatewayTimeoutException.DEADLINE_EXCEEDED);
+        }
+        Deadline current = Deadline.current();
+        Deadline bound = current != null && current.remainingMillis() <= timeoutMillis
+                ? current : Deadline.after(Duration.ofMillis(timeoutMillis));
+        Task<T> task = new Task<>(bound, work);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(ServiceUnavailableException.EXECUTOR_SATURATED);
+        }
+        return task.result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    if (e instanceof TimeoutException) {
+                        task.cancel();
+                        throw new CompletionException(GatewayTimeoutException.QUERY_TIMED_OUT);
+                    }
+                    throw new CompletionException(e);
+                });
+    }
+
+    private static ThreadPoolExecutor newExecutor(String name, int queueCapacity) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(name + "-");
+        threadFactory.setDaemon(true);
+        return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private static final class Task<T> implements Runnable {
+
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final Deadline deadline;
+        private final Supplier<T> work;
+
+        // the thread running the work, guarded by this; cleared before the thread moves on
+        private Thread runner;
+
+        Task(Deadline deadline, Supplier<T> work) {
+            this.deadline = deadline;
+            this.work = work;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (result.isDone()) {
+                    return;
+                }
+                runner = Thread.currentThread();
+            }
+            try {
+                result.complete(Deadline.within(deadline, work));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                synchronized (this) {
+                    runner = null;
+                    // an interrupt meant for this work must not hit the next task of the thread
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        synchronized void cancel() {
+            if (runner != null) {
+                runner.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package net.dd.spring.guide.springboot.audit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(AuditProperties.class)
+@ConditionalOnProperty(prefix = "employee.audit", name = "enabled", havingValue = "true")
+public class AuditConfiguration {
+
+    @Bean
+    public AuditLog auditLog(AuditProperties properties, MeterRegistry meterRegistry) {
+        AuditLog auditLog = new AuditLog(Paths.get(properties.getDirectory()), properties.getSegmentSize(),
+                properties.getRingCapacity(), properties.getFlushInterval().toNanos(),
+                properties.getRetention().toMillis(), Clock.systemUTC());
+        FunctionCounter.builder("employee.audit.written", auditLog, AuditLog::getWrittenCount)
+                .register(meterRegistry);
+        FunctionCounter.builder("employee.audit.dropped", auditLog, AuditLog::getDroppedCount)
+                .description("Audit records lost because the ring buffer was full; should stay at zero")
+                .register(meterRegistry);
+        Gauge.builder("employee.audit.pending", auditLog, AuditLog::getPending)
+                .register(meterRegistry);
+        return auditLog;
+    }
+}
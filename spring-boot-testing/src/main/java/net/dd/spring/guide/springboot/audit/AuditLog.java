@@ -0,0 +1,320 @@
+package net.dd.spring.guide.springboot.audit;
+
+import lombok.extern.slf4j.Slf4j;
+import net.dd.spring.guide.springboot.event.EmployeeChangedEvent;
+import net.dd.spring.guide.springboot.event.EmployeesImportedEvent;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append-only audit trail of committed employee mutations.
+ *
+ * Committed changes are encoded on the publishing thread and offered to an
+ * {@link AuditRingBuffer}; that is all a request pays, it never touches the disk and never
+ * waits. If the ring is full the record is dropped and counted. A single writer thread
+ * drains the ring into fixed-size memory-mapped segment files, forces them to disk every
+ * flush interval and rotates to a new segment when the next record does not fit.
+ *
+ * Segment layout: a header of magic (4), version (4) and the creation time (8), then records
+ * as a 4 byte length followed by the {@link AuditRecord} bytes. The length is written after
+ * the bytes it covers, so a record torn by a crash reads as the end of the segment, which
+ * is also where the writer resumes after a restart.
+ *
+ * Whenever the writer rotates, and once on startup, it deletes the segments whose records
+ * are all older than the retention; a segment is known to be that old once the segment
+ * after it was created before the cutoff.
+ */
+@Slf4j
+public class AuditLog implements DisposableBean {
+
+    private static final int MAGIC = 0x41554454;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final String SEGMENT_SUFFIX = ".audit";
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long flushIntervalNanos;
+    private final long retentionMillis;
+    private final Clock clock;
+    private final AuditRingBuffer ring;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writer;
+
+    private volatile boolean running = true;
+
+    // written by the writer thread only; volatile so readers know how far the active segment is valid
+    private volatile long activeSegment;
+    private volatile int committedPosition;
+    private MappedByteBuffer active;
+    private volatile long written;
+
+    public AuditLog(Path directory, int segmentSize, int ringCapacity, long flushIntervalNanos,
+                    long retentionMillis, Clock clock) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.flushIntervalNanos = flushIntervalNanos;
+        this.retentionMillis = retentionMillis;
+        this.clock = clock;
+        this.ring = new AuditRingBuffer(ringCapacity);
+        try {
+            Files.createDirectories(directory);
+            resume();
+            purgeExpired();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open audit log in " + directory, e);
+        }
+        this.writer = new Thread(this::writeLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (event.isRemote()) {
+            // audited by the node that made the change
+            return;
+        }
+        append(AuditRecord.encode(clock.millis(), event.getType(), event.getEmployeeId(), event.getEmployee()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeesImported(EmployeesImportedEvent event) {
+        long now = clock.millis();
+        for (EmployeeChangedEvent change : event.getChanges()) {
+            append(AuditRecord.encode(now, change.getType(), change.getEmployeeId(), change.getEmployee()));
+        }
+    }
+
+    /**
+     * Queues an encoded record. Never blocks; returns {@code false} if the record was dropped.
+     */
+    public boolean append(byte[] record) {
+        if (record.length + 4 > segmentSize - HEADER_SIZE) {
+            throw new IllegalArgumentException("Audit record of " + record.length + " bytes exceeds the segment size");
+        }
+        if (ring.offer(record)) {
+            return true;
+        }
+        if (dropped.getAndIncrement() % 1000 == 0) {
+            log.error("Audit ring buffer full, dropped {} records so far", dropped.get());
+        }
+        return false;
+    }
+
+    /**
+     * Records with {@code from <= timestamp < to}, oldest first, at most {@code limit} of them.
+     */
+    public List<AuditRecord> read(long from, long to, int limit) throws IOException {
+        List<AuditRecord> result = new ArrayList<>();
+        List<Path> segments = segments();
+        for (int i = 0; i < segments.size() && result.size() < limit; i++) {
+            // a segment holds records from its creation until the next segment was created
+            try {
+                if (i + 1 < segments.size() && startOf(segments.get(i + 1)) < from) {
+                    continue;
+                }
+                ByteBuffer segment = readSegment(segments.get(i));
+                if (segment.getLong(8) >= to) {
+                    break;
+                }
+                scan(segment, result, from, to, limit);
+            } catch (NoSuchFileException e) {
+                // purged by the writer after we listed it, its records were past retention anyway
+            }
+        }
+        return result;
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getWrittenCount() {
+        return written;
+    }
+
+    public int getPending() {
+        return ring.size();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        writer.join(10_000);
+    }
+
+    private void writeLoop() {
+        long lastFlush = System.nanoTime();
+        boolean dirty = false;
+        while (true) {
+            byte[] record = ring.poll();
+            if (record != null) {
+                try {
+                    write(record);
+                    dirty = true;
+                } catch (IOException | RuntimeException e) {
+                    log.error("Failed to write audit record", e);
+                }
+            } else if (!running) {
+                break;
+            } else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+            if (dirty && System.nanoTime() - lastFlush >= flushIntervalNanos) {
+                active.force();
+                dirty = false;
+                lastFlush = System.nanoTime();
+            }
+        }
+        if (dirty) {
+            active.force();
+        }
+    }
+
+    private void write(byte[] record) throws IOException {
+        int position = committedPosition;
+        if (position + 4 + record.length > segmentSize) {
+            active.force();
+            openSegment(activeSegment + 1);
+            purgeExpired();
+            position = committedPosition;
+        }
+        active.position(position + 4);
+        active.put(record);
+        active.putInt(position, record.length);
+        committedPosition = position + 4 + record.length;
+        written++;
+    }
+
+    private void resume() throws IOException {
+        List<Path> segments = segments();
+        if (segments.isEmpty()) {
+            openSegment(1);
+            return;
+        }
+        Path last = segments.get(segments.size() - 1);
+        long index = indexOf(last);
+        try (FileChannel channel = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            active = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        activeSegment = index;
+        committedPosition = endOf(active);
+        log.info("Resuming audit log at {} offset {}", last.getFileName(), committedPosition);
+    }
+
+    private void openSegment(long index) throws IOException {
+        Path file = directory.resolve(String.format("%020d%s", index, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // mapping past the end grows the file to its fixed size
+            active = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        active.putInt(0, MAGIC);
+        active.putInt(4, VERSION);
+        active.putLong(8, clock.millis());
+        active.force();
+        // readers check the position first and the segment second, see readSegment
+        activeSegment = index;
+        committedPosition = HEADER_SIZE;
+    }
+
+    private void purgeExpired() throws IOException {
+        List<Path> segments = segments();
+        // the last segment is the active one and is never purged
+        if (segments.size() < 2) {
+            return;
+        }
+        long cutoff = clock.millis() - retentionMillis;
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (startOf(segments.get(i + 1)) >= cutoff) {
+                break;
+            }
+            Files.deleteIfExists(segments.get(i));
+            log.info("Purged audit segment {} past retention", segments.get(i).getFileName());
+        }
+    }
+
+    private ByteBuffer readSegment(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (segment.getInt(0) != MAGIC || segment.getInt(4) != VERSION) {
+                throw new IOException("Not an audit segment: " + file);
+            }
+            int committed = committedPosition;
+            if (indexOf(file) == activeSegment) {
+                // do not look past what the writer has completed
+                segment.limit(Math.min(segment.limit(), committed));
+            }
+            return segment;
+        }
+    }
+
+    private static void scan(ByteBuffer segment, List<AuditRecord> result, long from, long to, int limit) {
+        int position = HEADER_SIZE;
+        while (position + 4 <= segment.limit() && result.size() < limit) {
+            int length = segment.getInt(position);
+            if (length <= 0 || position + 4 + length > segment.limit()) {
+                break;
+            }
+            ByteBuffer record = segment.duplicate();
+            record.position(position + 4).limit(position + 4 + length);
+            AuditRecord decoded = AuditRecord.decode(record);
+            if (decoded.getTimestamp() >= from && decoded.getTimestamp() < to) {
+                result.add(decoded);
+            }
+            position += 4 + length;
+        }
+    }
+
+    private static int endOf(ByteBuffer segment) {
+        int position = HEADER_SIZE;
+        while (position + 4 <= segment.capacity()) {
+            int length = segment.getInt(position);
+            if (length <= 0 || position + 4 + length > segment.capacity()) {
+                break;
+            }
+            position += 4 + length;
+        }
+        return position;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static long startOf(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            return header.getLong(8);
+        }
+    }
+
+    private static long indexOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,28 @@
+package net.dd.spring.guide.springboot.audit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.audit")
+public class AuditProperties {
+
+    private boolean enabled;
+
+    private String directory = "audit";
+
+    /** Size of each memory-mapped segment file; records never span two segments. */
+    private int segmentSize = 64 * 1024 * 1024;
+
+    /** Records buffered between the request threads and the writer, rounded up to a power of two. */
+    private int ringCapacity = 65536;
+
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /** How long records are kept; older segments are deleted when the writer rotates. */
+    private Duration retention = Duration.ofDays(30);
+}
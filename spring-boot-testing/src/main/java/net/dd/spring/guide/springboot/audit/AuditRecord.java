@@ -0,0 +1,84 @@
+package net.dd.spring.guide.springboot.audit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import net.dd.spring.guide.springboot.event.EmployeeChangeType;
+import net.dd.spring.guide.springboot.model.Employee;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One audited employee mutation.
+ *
+ * Binary layout: timestamp (8), change type (1), employee id (8), then first name, last name
+ * and email, each as a 2 byte length ({@code -1} for null) followed by UTF-8 bytes.
+ */
+@Getter
+@AllArgsConstructor
+public class AuditRecord {
+
+    private static final EmployeeChangeType[] TYPES = EmployeeChangeType.values();
+
+    private final long timestamp;
+    private final EmployeeChangeType type;
+    private final long employeeId;
+    private final String firstName;
+    private final String lastName;
+    private final String email;
+
+    public static byte[] encode(long timestamp, EmployeeChangeType type, long employeeId, Employee employee) {
+        byte[] firstName = utf8(employee == null ? null : employee.getFirstName());
+        byte[] lastName = utf8(employee == null ? null : employee.getLastName());
+        byte[] email = utf8(employee == null ? null : employee.getEmail());
+        ByteBuffer buffer = ByteBuffer.allocate(8 + 1 + 8 + size(firstName) + size(lastName) + size(email));
+        buffer.putLong(timestamp);
+        buffer.put((byte) type.ordinal());
+        buffer.putLong(employeeId);
+        putString(buffer, firstName);
+        putString(buffer, lastName);
+        putString(buffer, email);
+        return buffer.array();
+    }
+
+    public static AuditRecord decode(ByteBuffer buffer) {
+        long timestamp = buffer.getLong();
+        EmployeeChangeType type = TYPES[buffer.get()];
+        long employeeId = buffer.getLong();
+        return new AuditRecord(timestamp, type, employeeId, getString(buffer), getString(buffer), getString(buffer));
+    }
+
+    private static byte[] utf8(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Audited value too long: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    private static int size(byte[] value) {
+        return 2 + (value == null ? 0 : value.length);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+        } else {
+            buffer.putShort((short) value.length);
+            buffer.put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
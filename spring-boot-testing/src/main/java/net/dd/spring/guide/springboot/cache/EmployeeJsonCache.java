@@ -0,0 +1,195 @@
+package net.dd.spring.guide.springboot.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.dd.spring.guide.springboot.event.EmployeeChangedEvent;
+import net.dd.spring.guide.springboot.event.EmployeesImportedEvent;
+import net.dd.spring.guide.springboot.model.Employee;
+import net.dd.spring.guide.springboot.model.EmployeeLookup;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache of JSON encoded employee responses: one fragment per employee plus list pages
+ * assembled from those fragments.
+ *
+ * Writes bump a global epoch before invalidating. Callers take a {@link #stamp()} before
+ * reading from the service and hand it back when storing; an entry is only kept if no
+ * write happened in between, so a read racing with a write can never cache the old state.
+ */
+public class EmployeeJsonCache {
+
+    public static final String ALL_EMPLOYEES_KEY = "all";
+
+    private final ObjectMapper objectMapper;
+    private final int maxEmployees;
+    private final int maxPages;
+
+    private final AtomicLong epoch = new AtomicLong();
+    private final Map<Long, byte[]> fragments = new ConcurrentHashMap<>();
+    private final Map<String, PreEncodedJson> pages = new ConcurrentHashMap<>();
+
+    public EmployeeJsonCache(ObjectMapper objectMapper, JsonCacheProperties properties) {
+        this.objectMapper = objectMapper;
+        this.maxEmployees = properties.getMaxEmployees();
+        this.maxPages = properties.getMaxPages();
+    }
+
+    // shared by the blocking and the async endpoints, so either one can serve what the other encoded
+    public static String pageKey(int page, int size, String firstName, String lastName) {
+        return "page:" + page + ":" + size + ":" + firstName + ":" + lastName;
+    }
+
+    public long stamp() {
+        return epoch.get();
+    }
+
+    public PreEncodedJson getEmployee(long id) {
+        byte[] fragment = fragments.get(id);
+        return fragment == null ? null : PreEncodedJson.object(fragment);
+    }
+
+    public PreEncodedJson putEmployee(Employee employee, long stamp) {
+        return PreEncodedJson.object(fragment(employee, stamp));
+    }
+
+    public PreEncodedJson getPage(String key) {
+        return pages.get(key);
+    }
+
+    public PreEncodedJson putPage(String key, List<Employee> employees, long stamp) {
+        byte[][] pageFragments = new byte[employees.size()][];
+        for (int i = 0; i < pageFragments.length; i++) {
+            pageFragments[i] = fragment(employees.get(i), stamp);
+        }
+        PreEncodedJson page = PreEncodedJson.array(pageFragments);
+        if (stamp == epoch.get()) {
+            if (pages.size() >= maxPages) {
+                pages.clear();
+            }
+            pages.put(key, page);
+            if (stamp != epoch.get()) {
+                pages.remove(key, page);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Multi-get response for {@code ids}, in request order. Ids with a cached fragment are
+     * answered from it; only the others are passed to {@code loader}, and what it finds is
+     * cached like any other read.
+     */
+    public PreEncodedJson getLookups(List<Long> ids, Function<List<Long>, List<EmployeeLookup>> loader) {
+        long stamp = stamp();
+        byte[][] cached = new byte[ids.size()][];
+        List<Long> misses = new ArrayList<>();
+        for (int i = 0; i < cached.length; i++) {
+            cached[i] = fragments.get(ids.get(i));
+            if (cached[i] == null) {
+                misses.add(ids.get(i));
+            }
+        }
+        Map<Long, byte[]> loaded = new HashMap<>(misses.size() * 2);
+        if (!misses.isEmpty()) {
+            for (EmployeeLookup lookup : loader.apply(misses)) {
+                if (lookup.isFound()) {
+                    loaded.put(lookup.getId(), fragment(lookup.getEmployee(), stamp));
+                }
+            }
+        }
+        byte[][] entries = new byte[cached.length][];
+        for (int i = 0; i < entries.length; i++) {
+            long id = ids.get(i);
+            byte[] employee = cached[i] != null ? cached[i] : loaded.get(id);
+            entries[i] = employee != null ? foundEntry(id, employee) : missingEntry(id);
+        }
+        return PreEncodedJson.array(entries);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        invalidate(event.getEmployeeId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeesImported(EmployeesImportedEvent event) {
+        epoch.incrementAndGet();
+        for (EmployeeChangedEvent change : event.getChanges()) {
+            fragments.remove(change.getEmployeeId());
+        }
+        pages.clear();
+    }
+
+    public void invalidate(long id) {
+        epoch.incrementAndGet();
+        fragments.remove(id);
+        // membership and order of any page may have changed
+        pages.clear();
+    }
+
+    public void invalidateAll() {
+        epoch.incrementAndGet();
+        fragments.clear();
+        pages.clear();
+    }
+
+    private byte[] fragment(Employee employee, long stamp) {
+        byte[] cached = fragments.get(employee.getId());
+        if (cached != null) {
+            return cached;
+        }
+        byte[] encoded = encode(employee);
+        if (stamp == epoch.get()) {
+            if (fragments.size() >= maxEmployees) {
+                evictSome();
+            }
+            fragments.put(employee.getId(), encoded);
+            if (stamp != epoch.get()) {
+                fragments.remove(employee.getId(), encoded);
+            }
+        }
+        return encoded;
+    }
+
+    // the same shape Jackson gives EmployeeLookup
+    private static byte[] foundEntry(long id, byte[] employee) {
+        byte[] prefix = ("{\"id\":" + id + ",\"found\":true,\"employee\":").getBytes(StandardCharsets.UTF_8);
+        byte[] entry = new byte[prefix.length + employee.length + 1];
+        System.arraycopy(prefix, 0, entry, 0, prefix.length);
+        System.arraycopy(employee, 0, entry, prefix.length, employee.length);
+        entry[entry.length - 1] = '}';
+        return entry;
+    }
+
+    private static byte[] missingEntry(long id) {
+        return ("{\"id\":" + id + ",\"found\":false,\"employee\":null}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void evictSome() {
+        // approximate bound: drop roughly a tenth of the entries in hash order
+        int toEvict = Math.max(1, maxEmployees / 10);
+        Iterator<Long> ids = fragments.keySet().iterator();
+        while (toEvict-- > 0 && ids.hasNext()) {
+            ids.next();
+            ids.remove();
+        }
+    }
+
+    private byte[] encode(Employee employee) {
+        try {
+            return objectMapper.writeValueAsBytes(employee);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to encode employee " + employee.getId(), e);
+        }
+    }
+}
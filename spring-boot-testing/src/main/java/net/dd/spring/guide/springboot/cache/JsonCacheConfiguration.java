@@ -0,0 +1,18 @@
+package net.dd.spring.guide.springboot.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(JsonCacheProperties.class)
+@ConditionalOnProperty(prefix = "employee.json-cache", name = "enabled", havingValue = "true")
+public class JsonCacheConfiguration {
+
+    @Bean
+    public EmployeeJsonCache employeeJsonCache(ObjectMapper objectMapper, JsonCacheProperties properties) {
+        return new EmployeeJsonCache(objectMapper, properties);
+    }
+}
@@ -0,0 +1,19 @@
+package net.dd.spring.guide.springboot.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.json-cache")
+public class JsonCacheProperties {
+
+    private boolean enabled;
+
+    /** Approximate bound on cached per-employee fragments. */
+    private int maxEmployees = 100_000;
+
+    /** Approximate bound on cached list pages. */
+    private int maxPages = 1_000;
+}
@@ -0,0 +1,59 @@
+package net.dd.spring.guide.springboot.cache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A JSON response body that is already encoded: either a single object fragment or an
+ * array assembled from per-element fragments. Fragments are shared with the cache, so
+ * composing a list costs an array of references, not a copy of the bytes.
+ */
+public final class PreEncodedJson {
+
+    private static final byte[] EMPTY_ARRAY = {'[', ']'};
+
+    private final byte[][] fragments;
+    private final boolean array;
+    private final long contentLength;
+
+    private PreEncodedJson(byte[][] fragments, boolean array) {
+        this.fragments = fragments;
+        this.array = array;
+        long length = array ? 2 + Math.max(0, fragments.length - 1) : 0;
+        for (byte[] fragment : fragments) {
+            length += fragment.length;
+        }
+        this.contentLength = length;
+    }
+
+    public static PreEncodedJson object(byte[] fragment) {
+        return new PreEncodedJson(new byte[][]{fragment}, false);
+    }
+
+    public static PreEncodedJson array(byte[][] fragments) {
+        return new PreEncodedJson(fragments, true);
+    }
+
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        if (!array) {
+            out.write(fragments[0]);
+            return;
+        }
+        if (fragments.length == 0) {
+            out.write(EMPTY_ARRAY);
+            return;
+        }
+        out.write('[');
+        for (int i = 0; i < fragments.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(fragments[i]);
+        }
+        out.write(']');
+    }
+}
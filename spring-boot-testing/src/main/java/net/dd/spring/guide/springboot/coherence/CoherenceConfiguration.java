@@ -0,0 +1,31 @@
+package net.dd.spring.guide.springboot.coherence;
+
+import net.dd.spring.guide.springboot.repository.EmployeeRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(CoherenceProperties.class)
+@ConditionalOnProperty(prefix = "employee.coherence", name = "enabled", havingValue = "true")
+public class CoherenceConfiguration {
+
+    @Bean
+    public EmployeeChangeLog employeeChangeLog(EmployeeChangeRepository employeeChangeRepository,
+                                               CoherenceProperties properties) {
+        return new EmployeeChangeLog(employeeChangeRepository, properties.getNodeId(), Clock.systemUTC());
+    }
+
+    @Bean
+    public EmployeeChangeTailer employeeChangeTailer(EmployeeChangeRepository employeeChangeRepository,
+                                                     EmployeeRepository employeeRepository,
+                                                     ApplicationEventPublisher eventPublisher,
+                                                     CoherenceProperties properties) {
+        return new EmployeeChangeTailer(employeeChangeRepository, employeeRepository, eventPublisher, properties,
+                Clock.systemUTC());
+    }
+}
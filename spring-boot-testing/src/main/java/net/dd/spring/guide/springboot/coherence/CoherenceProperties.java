@@ -0,0 +1,31 @@
+package net.dd.spring.guide.springboot.coherence;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.coherence")
+public class CoherenceProperties {
+
+    private boolean enabled;
+
+    /** Identifies this node's own entries in the change table; random per start by default. */
+    private String nodeId = UUID.randomUUID().toString();
+
+    private Duration pollInterval = Duration.ofMillis(500);
+
+    private int batchSize = 500;
+
+    /**
+     * How long a missing change id is re-checked. Ids are assigned at insert but become
+     * visible at commit, so a slow transaction can commit after a higher id was read.
+     */
+    private Duration gapTimeout = Duration.ofSeconds(30);
+
+    private Duration retention = Duration.ofHours(1);
+}
@@ -0,0 +1,34 @@
+package net.dd.spring.guide.springboot.coherence;
+
+import lombok.*;
+import net.dd.spring.guide.springboot.event.EmployeeChangeType;
+
+import javax.persistence.*;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+
+@Entity
+@Table(name = "tbl_employee_changes", indexes = @Index(name = "idx_employee_changes_created_at", columnList = "created_at"))
+public class EmployeeChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(name = "employee_id", nullable = false)
+    private long employeeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 8)
+    private EmployeeChangeType changeType;
+
+    @Column(name = "node_id", nullable = false, length = 36)
+    private String nodeId;
+
+    @Column(name = "created_at", nullable = false)
+    private long createdAt;
+}
@@ -0,0 +1,55 @@
+package net.dd.spring.guide.springboot.coherence;
+
+import net.dd.spring.guide.springboot.event.EmployeeChangedEvent;
+import net.dd.spring.guide.springboot.event.EmployeesImportedEvent;
+import org.springframework.context.event.EventListener;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appends every local employee change to {@code tbl_employee_changes}.
+ *
+ * This is a plain {@link EventListener}: it runs synchronously inside the service
+ * transaction, so the change row commits or rolls back together with the employee row.
+ */
+public class EmployeeChangeLog {
+
+    private final EmployeeChangeRepository employeeChangeRepository;
+    private final String nodeId;
+    private final Clock clock;
+
+    public EmployeeChangeLog(EmployeeChangeRepository employeeChangeRepository, String nodeId, Clock clock) {
+        this.employeeChangeRepository = employeeChangeRepository;
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    @EventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (event.isRemote()) {
+            return;
+        }
+        employeeChangeRepository.save(toChange(event, clock.millis()));
+    }
+
+    @EventListener
+    public void onEmployeesImported(EmployeesImportedEvent event) {
+        long now = clock.millis();
+        List<EmployeeChange> changes = new ArrayList<>(event.getChanges().size());
+        for (EmployeeChangedEvent change : event.getChanges()) {
+            changes.add(toChange(change, now));
+        }
+        employeeChangeRepository.saveAll(changes);
+    }
+
+    private EmployeeChange toChange(EmployeeChangedEvent event, long createdAt) {
+        return EmployeeChange.builder()
+                .employeeId(event.getEmployeeId())
+                .changeType(event.getType())
+                .nodeId(nodeId)
+                .createdAt(createdAt)
+                .build();
+    }
+}
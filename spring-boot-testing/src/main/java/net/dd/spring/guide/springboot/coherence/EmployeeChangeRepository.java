@@ -0,0 +1,28 @@
+package net.dd.spring.guide.springboot.coherence;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface EmployeeChangeRepository extends JpaRepository<EmployeeChange, Long> {
+
+    @Query("select c from EmployeeChange c where c.id > :afterId order by c.id")
+    List<EmployeeChange> findAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("select c from EmployeeChange c where c.id in :ids order by c.id")
+    List<EmployeeChange> findByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select coalesce(max(c.id), 0) from EmployeeChange c")
+    long findMaxId();
+
+    @Transactional
+    @Modifying
+    @Query("delete from EmployeeChange c where c.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") long cutoff);
+}
@@ -0,0 +1,140 @@
+package net.dd.spring.guide.springboot.coherence;
+
+import lombok.extern.slf4j.Slf4j;
+import net.dd.spring.guide.springboot.event.EmployeeChangeType;
+import net.dd.spring.guide.springboot.event.EmployeeChangedEvent;
+import net.dd.spring.guide.springboot.model.Employee;
+import net.dd.spring.guide.springboot.repository.EmployeeRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replays employee changes committed by other nodes as remote {@link EmployeeChangedEvent}s,
+ * so every local cache listening to change events stays coherent within one poll interval.
+ *
+ * The change table is read by increasing id in batches. Because ids are taken at insert time
+ * but become visible at commit, an id skipped over may still appear; such gaps are re-checked
+ * on every poll until they show up or the gap timeout passes (rolled back transactions leave
+ * permanent gaps). Changes of one batch are coalesced per employee and the current rows are
+ * read back with a single IN query, so listeners get the latest state rather than a bare id.
+ */
+@Slf4j
+public class EmployeeChangeTailer {
+
+    // larger jumps come from the id generator itself (e.g. auto-increment lock modes), not from open transactions
+    private static final int MAX_TRACKED_GAP = 1000;
+
+    private final EmployeeChangeRepository employeeChangeRepository;
+    private final EmployeeRepository employeeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String nodeId;
+    private final int batchSize;
+    private final long gapTimeoutMillis;
+    private final Duration retention;
+    private final Clock clock;
+
+    // change id -> time it was first seen missing
+    private final Map<Long, Long> gaps = new LinkedHashMap<>();
+    private long lastSeenId = -1;
+
+    public EmployeeChangeTailer(EmployeeChangeRepository employeeChangeRepository,
+                                EmployeeRepository employeeRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                CoherenceProperties properties, Clock clock) {
+        this.employeeChangeRepository = employeeChangeRepository;
+        this.employeeRepository = employeeRepository;
+        this.eventPublisher = eventPublisher;
+        this.nodeId = properties.getNodeId();
+        this.batchSize = properties.getBatchSize();
+        this.gapTimeoutMillis = properties.getGapTimeout().toMillis();
+        this.retention = properties.getRetention();
+        this.clock = clock;
+    }
+
+    @Scheduled(fixedDelayString = "${employee.coherence.poll-interval:PT0.5S}")
+    public synchronized void poll() {
+        if (lastSeenId < 0) {
+            // caches are loaded from the current table state, only later changes matter
+            lastSeenId = employeeChangeRepository.findMaxId();
+            return;
+        }
+        List<EmployeeChange> changes = new ArrayList<>();
+        if (!gaps.isEmpty()) {
+            for (EmployeeChange change : employeeChangeRepository.findByIds(gaps.keySet())) {
+                gaps.remove(change.getId());
+                changes.add(change);
+            }
+            expireGaps();
+        }
+        List<EmployeeChange> batch;
+        do {
+            batch = employeeChangeRepository.findAfter(lastSeenId, PageRequest.of(0, batchSize));
+            for (EmployeeChange change : batch) {
+                recordGaps(change.getId());
+                lastSeenId = change.getId();
+                changes.add(change);
+            }
+            publish(changes);
+            changes.clear();
+        } while (batch.size() == batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${employee.coherence.purge-interval:PT10M}")
+    public void purge() {
+        int purged = employeeChangeRepository.deleteCreatedBefore(clock.millis() - retention.toMillis());
+        if (purged > 0) {
+            log.debug("Purged {} employee change rows", purged);
+        }
+    }
+
+    private void recordGaps(long id) {
+        if (id - lastSeenId - 1 > MAX_TRACKED_GAP) {
+            return;
+        }
+        long now = clock.millis();
+        for (long missing = lastSeenId + 1; missing < id; missing++) {
+            gaps.put(missing, now);
+        }
+    }
+
+    private void expireGaps() {
+        long cutoff = clock.millis() - gapTimeoutMillis;
+        Iterator<Long> seenAt = gaps.values().iterator();
+        while (seenAt.hasNext()) {
+            if (seenAt.next() < cutoff) {
+                seenAt.remove();
+            }
+        }
+    }
+
+    private void publish(List<EmployeeChange> changes) {
+        Map<Long, EmployeeChangeType> remoteChanges = new LinkedHashMap<>();
+        for (EmployeeChange change : changes) {
+            if (!nodeId.equals(change.getNodeId())) {
+                remoteChanges.put(change.getEmployeeId(), change.getChangeType());
+            }
+        }
+        if (remoteChanges.isEmpty()) {
+            return;
+        }
+        Map<Long, Employee> current = new HashMap<>(remoteChanges.size() * 2);
+        for (Employee employee : employeeRepository.findAllById(remoteChanges.keySet())) {
+            current.put(employee.getId(), employee);
+        }
+        for (Map.Entry<Long, EmployeeChangeType> change : remoteChanges.entrySet()) {
+            Employee employee = current.get(change.getKey());
+            EmployeeChangeType type = employee == null ? EmployeeChangeType.DELETED : change.getValue();
+            eventPublisher.publishEvent(EmployeeChangedEvent.remote(type, change.getKey(), employee));
+        }
+    }
+}
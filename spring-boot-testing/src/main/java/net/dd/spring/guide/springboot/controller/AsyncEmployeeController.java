@@ -0,0 +1,114 @@
+package net.dd.spring.guide.springboot.controller;
+
+import net.dd.spring.guide.springboot.async.EmployeeDbExecutors;
+import net.dd.spring.guide.springboot.cache.EmployeeJsonCache;
+import net.dd.spring.guide.springboot.cache.PreEncodedJson;
+import net.dd.spring.guide.springboot.exception.InvalidRequestException;
+import net.dd.spring.guide.springboot.service.EmployeeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Read endpoints of {@link EmployeeController} that release the Tomcat thread while the
+ * query runs on {@link EmployeeDbExecutors}.
+ *
+ * They share the {@link EmployeeJsonCache} entries of the blocking endpoints: a cached page
+ * or employee is answered on the request thread without touching an executor, misses are
+ * read and encoded on the executor thread.
+ */
+@RestController
+@RequestMapping("/api/async/employees")
+@ConditionalOnProperty(prefix = "employee.async", name = "enabled", havingValue = "true")
+public class AsyncEmployeeController {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_IDS_PER_LOOKUP = 1000;
+
+    private EmployeeService employeeService;
+
+    private EmployeeDbExecutors employeeDbExecutors;
+
+    private EmployeeJsonCache jsonCache;
+
+    public AsyncEmployeeController(EmployeeService employeeService, EmployeeDbExecutors employeeDbExecutors) {
+        this.employeeService = employeeService;
+        this.employeeDbExecutors = employeeDbExecutors;
+    }
+
+    @Autowired(required = false)
+    public void setJsonCache(EmployeeJsonCache jsonCache) {
+        this.jsonCache = jsonCache;
+    }
+
+    @GetMapping
+    public CompletableFuture<Object> getAllEmployees(){
+        if (jsonCache == null) {
+            return employeeDbExecutors.list(employeeService::getAllEmployees);
+        }
+        PreEncodedJson cached = jsonCache.getPage(EmployeeJsonCache.ALL_EMPLOYEES_KEY);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        long stamp = jsonCache.stamp();
+        return employeeDbExecutors.list(() -> jsonCache.putPage(EmployeeJsonCache.ALL_EMPLOYEES_KEY,
+                employeeService.getAllEmployees(), stamp));
+    }
+
+    @GetMapping(params = {"page", "!ids"})
+    public CompletableFuture<Object> getEmployeesPage(@RequestParam("page") int page,
+                                                              @RequestParam(value = "size", defaultValue = "50") int size,
+                                                              @RequestParam(value = "firstName", required = false) String firstName,
+                                                              @RequestParam(value = "lastName", required = false) String lastName){
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (jsonCache == null) {
+            return employeeDbExecutors.list(() -> employeeService.getEmployeesPage(page, size, firstName, lastName));
+        }
+        String key = EmployeeJsonCache.pageKey(page, size, firstName, lastName);
+        PreEncodedJson cached = jsonCache.getPage(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        long stamp = jsonCache.stamp();
+        return employeeDbExecutors.list(() -> jsonCache.putPage(key,
+                employeeService.getEmployeesPage(page, size, firstName, lastName), stamp));
+    }
+
+    @GetMapping(params = "ids")
+    public CompletableFuture<Object> getEmployeesByIds(@RequestParam("ids") List<Long> employeeIds){
+        if (jsonCache == null) {
+            return employeeDbExecutors.lookup(() -> employeeService.getEmployeesByIds(employeeIds));
+        }
+        if (employeeIds.size() > MAX_IDS_PER_LOOKUP) {
+            throw new InvalidRequestException("At most " + MAX_IDS_PER_LOOKUP + " ids can be requested at once");
+        }
+        return employeeDbExecutors.lookup(() -> jsonCache.getLookups(employeeIds, employeeService::getEmployeesByIds));
+    }
+
+    @GetMapping("{id}")
+    public CompletableFuture<ResponseEntity<?>> getEmployeeById(@PathVariable("id") long employeeId){
+        if (jsonCache == null) {
+            return employeeDbExecutors.lookup(() -> employeeService.getEmployeeById(employeeId)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build()));
+        }
+        PreEncodedJson cached = jsonCache.getEmployee(employeeId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(ResponseEntity.ok(cached));
+        }
+        long stamp = jsonCache.stamp();
+        return employeeDbExecutors.lookup(() -> employeeService.getEmployeeById(employeeId)
+                .<ResponseEntity<?>>map(employee -> ResponseEntity.ok(jsonCache.putEmployee(employee, stamp)))
+                .orElseGet(() -> ResponseEntity.notFound().build()));
+    }
+}
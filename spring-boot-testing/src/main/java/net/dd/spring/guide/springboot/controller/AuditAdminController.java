@@ -0,0 +1,40 @@
+package net.dd.spring.guide.springboot.controller;
+
+import net.dd.spring.guide.springboot.audit.AuditLog;
+import net.dd.spring.guide.springboot.audit.AuditRecord;
+import net.dd.spring.guide.springboot.exception.InvalidRequestException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/audit")
+@ConditionalOnProperty(prefix = "employee.audit", name = "enabled", havingValue = "true")
+public class AuditAdminController {
+
+    private static final int MAX_LIMIT = 10_000;
+
+    private AuditLog auditLog;
+
+    public AuditAdminController(AuditLog auditLog) {
+        this.auditLog = auditLog;
+    }
+
+    // GET /api/admin/audit?from=2024-01-01T00:00:00Z&to=2024-01-02T00:00:00Z[&limit=1000] - oldest first
+    @GetMapping
+    public List<AuditRecord> read(@RequestParam("from") Instant from,
+                                  @RequestParam(value = "to", required = false) Instant to,
+                                  @RequestParam(value = "limit", defaultValue = "1000") int limit) throws IOException {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        long toMillis = to == null ? Long.MAX_VALUE : to.toEpochMilli();
+        return auditLog.read(from.toEpochMilli(), toMillis, limit);
+    }
+}
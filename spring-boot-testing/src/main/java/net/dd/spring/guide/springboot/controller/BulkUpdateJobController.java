@@ -0,0 +1,43 @@
+package net.dd.spring.guide.springboot.controller;
+
+import net.dd.spring.guide.springboot.job.BulkUpdateJob;
+import net.dd.spring.guide.springboot.job.BulkUpdateJobService;
+import net.dd.spring.guide.springboot.job.BulkUpdateRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/jobs")
+public class BulkUpdateJobController {
+
+    private BulkUpdateJobService bulkUpdateJobService;
+
+    public BulkUpdateJobController(BulkUpdateJobService bulkUpdateJobService) {
+        this.bulkUpdateJobService = bulkUpdateJobService;
+    }
+
+    // e.g. {"operation":"REWRITE_EMAIL_DOMAIN","from":"old.com","to":"new.com"}; runs in the background
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public BulkUpdateJob createJob(@RequestBody BulkUpdateRequest request) {
+        return bulkUpdateJobService.createJob(request);
+    }
+
+    @GetMapping
+    public List<BulkUpdateJob> getJobs() {
+        return bulkUpdateJobService.getJobs();
+    }
+
+    // progress is lastProcessedId against maxId
+    @GetMapping("{id}")
+    public BulkUpdateJob getJob(@PathVariable("id") long jobId) {
+        return bulkUpdateJobService.getJob(jobId);
+    }
+
+    @PostMapping("{id}/cancel")
+    public BulkUpdateJob cancelJob(@PathVariable("id") long jobId) {
+        return bulkUpdateJobService.cancelJob(jobId);
+    }
+}
@@ -0,0 +1,44 @@
+package net.dd.spring.guide.springboot.controller;
+
+import net.dd.spring.guide.springboot.aggregate.DomainHeadcounts;
+import net.dd.spring.guide.springboot.exception.ServiceUnavailableException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/employees/aggregates")
+@ConditionalOnProperty(prefix = "employee.aggregates", name = "enabled", havingValue = "true")
+public class EmployeeAggregateController {
+
+    private DomainHeadcounts domainHeadcounts;
+
+    public EmployeeAggregateController(DomainHeadcounts domainHeadcounts) {
+        this.domainHeadcounts = domainHeadcounts;
+    }
+
+    // GET /api/employees/aggregates/domains[?top=10] - head-count per email domain, largest first
+    @GetMapping("domains")
+    public Map<String, Long> getDomainHeadcounts(@RequestParam(value = "top", required = false) Integer top) {
+        if (!domainHeadcounts.isReady()) {
+            throw new ServiceUnavailableException("Aggregates are still loading, retry later");
+        }
+        Map<String, Long> headcounts = domainHeadcounts.getHeadcounts();
+        if (top == null || top >= headcounts.size()) {
+            return headcounts;
+        }
+        Map<String, Long> limited = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : headcounts.entrySet()) {
+            if (limited.size() == top) {
+                break;
+            }
+            limited.put(entry.getKey(), entry.getValue());
+        }
+        return limited;
+    }
+}
@@ -1,23 +1,44 @@
 package net.dd.spring.guide.springboot.controller;
 
+import net.dd.spring.guide.springboot.cache.EmployeeJsonCache;
+import net.dd.spring.guide.springboot.cache.PreEncodedJson;
+import net.dd.spring.guide.springboot.exception.InvalidRequestException;
 import net.dd.spring.guide.springboot.model.Employee;
+import net.dd.spring.guide.springboot.model.EmployeeField;
+import net.dd.spring.guide.springboot.model.EmployeeQuery;
+import net.dd.spring.guide.springboot.model.EmployeeUpsert;
 import net.dd.spring.guide.springboot.service.EmployeeService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/employees")
 public class EmployeeController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    // offset paging reads and discards every earlier row, deep pages belong to /query
+    private static final int MAX_PAGE = 10_000;
+    // checked here as well as in the service, which only sees the ids the JSON cache missed
+    private static final int MAX_IDS_PER_LOOKUP = 1000;
+
     private EmployeeService employeeService;
 
+    private EmployeeJsonCache jsonCache;
+
     public EmployeeController(EmployeeService employeeService) {
         this.employeeService = employeeService;
     }
 
+    @Autowired(required = false)
+    public void setJsonCache(EmployeeJsonCache jsonCache) {
+        this.jsonCache = jsonCache;
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public Employee createEmployee(@RequestBody Employee employee){
@@ -25,17 +46,125 @@ public class EmployeeController {
     }
 
     @GetMapping
-    public List<Employee> getAllEmployees(){
-        return employeeService.getAllEmployees();
+    public Object getAllEmployees(){
+        if (jsonCache == null) {
+            return employeeService.getAllEmployees();
+        }
+        PreEncodedJson cached = jsonCache.getPage(EmployeeJsonCache.ALL_EMPLOYEES_KEY);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = jsonCache.stamp();
+        return jsonCache.putPage(EmployeeJsonCache.ALL_EMPLOYEES_KEY, employeeService.getAllEmployees(), stamp);
+    }
+
+    // GET /api/employees?page=0&size=50[&firstName=..][&lastName=..] - ordered by id
+    @GetMapping(params = {"page", "!ids", "!fields"})
+    public Object getEmployeesPage(@RequestParam("page") int page,
+                                   @RequestParam(value = "size", defaultValue = "50") int size,
+                                   @RequestParam(value = "firstName", required = false) String firstName,
+                                   @RequestParam(value = "lastName", required = false) String lastName){
+        if (page < 0 || page > MAX_PAGE || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("page must be between 0 and " + MAX_PAGE
+                    + " and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (jsonCache == null) {
+            return employeeService.getEmployeesPage(page, size, firstName, lastName);
+        }
+        String key = EmployeeJsonCache.pageKey(page, size, firstName, lastName);
+        PreEncodedJson cached = jsonCache.getPage(key);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = jsonCache.stamp();
+        return jsonCache.putPage(key, employeeService.getEmployeesPage(page, size, firstName, lastName), stamp);
+    }
+
+    // GET /api/employees?fields=id,email - only the requested columns are selected and serialized
+    @GetMapping(params = {"fields", "!ids"})
+    public List<Map<String, Object>> getAllEmployees(@RequestParam("fields") String fields){
+        return employeeService.getAllEmployees(EmployeeField.parse(fields));
+    }
+
+    // GET /api/employees?ids=1,2,3 - results in request order, missing ids flagged with found=false
+    @GetMapping(params = "ids")
+    public Object getEmployeesByIds(@RequestParam("ids") List<Long> employeeIds){
+        return lookup(employeeIds);
+    }
+
+    // same as above for id lists too long for a query string
+    @PostMapping("lookup")
+    public Object lookupEmployees(@RequestBody List<Long> employeeIds){
+        return lookup(employeeIds);
+    }
+
+    // GET /api/employees/query?lastName=Da&firstName=B&sort=lastName,desc&limit=50 - prefix filters,
+    // only combinations an index can serve are accepted, limit is required and capped; the email prefix
+    // is case-insensitive, name prefixes follow the database collation
+    @GetMapping("query")
+    public List<Employee> queryEmployees(@RequestParam(value = "firstName", required = false) String firstName,
+                                         @RequestParam(value = "lastName", required = false) String lastName,
+                                         @RequestParam(value = "email", required = false) String email,
+                                         @RequestParam(value = "sort", required = false) String sort,
+                                         @RequestParam("limit") int limit){
+        return employeeService.queryEmployees(new EmployeeQuery(firstName, lastName, email, sort, limit));
+    }
+
+    // same parameters as above, returns the chosen index and the database's EXPLAIN output
+    @GetMapping("query/explain")
+    public Map<String, Object> explainEmployeeQuery(@RequestParam(value = "firstName", required = false) String firstName,
+                                                    @RequestParam(value = "lastName", required = false) String lastName,
+                                                    @RequestParam(value = "email", required = false) String email,
+                                                    @RequestParam(value = "sort", required = false) String sort,
+                                                    @RequestParam("limit") int limit){
+        return employeeService.explainEmployeeQuery(new EmployeeQuery(firstName, lastName, email, sort, limit));
+    }
+
+    private Object lookup(List<Long> employeeIds) {
+        if (jsonCache == null) {
+            return employeeService.getEmployeesByIds(employeeIds);
+        }
+        if (employeeIds.size() > MAX_IDS_PER_LOOKUP) {
+            throw new InvalidRequestException("At most " + MAX_IDS_PER_LOOKUP + " ids can be requested at once");
+        }
+        return jsonCache.getLookups(employeeIds, employeeService::getEmployeesByIds);
     }
 
     @GetMapping("{id}")
-    public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") long employeeId){
+    public ResponseEntity<?> getEmployeeById(@PathVariable("id") long employeeId){
+        if (jsonCache == null) {
+            return employeeService.getEmployeeById(employeeId)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        }
+        PreEncodedJson cached = jsonCache.getEmployee(employeeId);
+        if (cached != null) {
+            return ResponseEntity.ok(cached);
+        }
+        long stamp = jsonCache.stamp();
         return employeeService.getEmployeeById(employeeId)
+                .map(employee -> ResponseEntity.ok(jsonCache.putEmployee(employee, stamp)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(path = "{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getEmployeeById(@PathVariable("id") long employeeId,
+                                                               @RequestParam("fields") String fields){
+        return employeeService.getEmployeeById(employeeId, EmployeeField.parse(fields))
                 .map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    @GetMapping("search")
+    public List<?> searchEmployees(@RequestParam("firstName") String firstName,
+                                   @RequestParam("lastName") String lastName,
+                                   @RequestParam(value = "fields", required = false) String fields){
+        if (fields == null) {
+            return employeeService.searchEmployees(firstName, lastName);
+        }
+        return employeeService.searchEmployees(firstName, lastName, EmployeeField.parse(fields));
+    }
+
     @PutMapping("{id}")
     public ResponseEntity<Employee> updateEmployee(@PathVariable("id") long employeeId,
                                                    @RequestBody Employee employee){
@@ -53,6 +182,21 @@ public class EmployeeController {
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    // PUT /api/employees/by-email/{email} - creates or updates in one statement, 201 when created
+    @PutMapping("by-email/{email:.+}")
+    public ResponseEntity<Employee> upsertEmployeeByEmail(@PathVariable("email") String email,
+                                                          @RequestBody Employee employee){
+        employee.setEmail(email);
+        EmployeeUpsert result = employeeService.upsertEmployeesByEmail(List.of(employee)).get(0);
+        return new ResponseEntity<>(result.getEmployee(), result.isCreated() ? HttpStatus.CREATED : HttpStatus.OK);
+    }
+
+    // batched variant of the above, one result per entry in request order
+    @PutMapping("by-email")
+    public List<EmployeeUpsert> upsertEmployeesByEmail(@RequestBody List<Employee> employees){
+        return employeeService.upsertEmployeesByEmail(employees);
+    }
+
     @DeleteMapping("{id}")
     public ResponseEntity<String> deleteEmployee(@PathVariable("id") long employeeId){
 
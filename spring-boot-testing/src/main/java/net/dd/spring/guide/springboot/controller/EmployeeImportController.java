@@ -0,0 +1,39 @@
+package net.dd.spring.guide.springboot.controller;
+
+import net.dd.spring.guide.springboot.importer.EmployeeCsvImporter;
+import net.dd.spring.guide.springboot.importer.ImportReport;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/employees/import")
+public class EmployeeImportController {
+
+    private static final String TEXT_CSV = "text/csv";
+
+    private EmployeeCsvImporter employeeCsvImporter;
+
+    public EmployeeImportController(EmployeeCsvImporter employeeCsvImporter) {
+        this.employeeCsvImporter = employeeCsvImporter;
+    }
+
+    // raw CSV body, read straight from the request stream without buffering it first
+    @PostMapping(consumes = {TEXT_CSV, MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ImportReport importEmployees(HttpServletRequest request) throws IOException {
+        try (InputStream body = request.getInputStream()) {
+            return employeeCsvImporter.importStream(body);
+        }
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ImportReport importEmployees(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream body = file.getInputStream()) {
+            return employeeCsvImporter.importStream(body);
+        }
+    }
+}
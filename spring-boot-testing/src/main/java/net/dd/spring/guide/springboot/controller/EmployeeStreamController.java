@@ -0,0 +1,26 @@
+package net.dd.spring.guide.springboot.controller;
+
+import net.dd.spring.guide.springboot.event.EmployeeChangeFeed;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/employees")
+public class EmployeeStreamController {
+
+    private EmployeeChangeFeed employeeChangeFeed;
+
+    public EmployeeStreamController(EmployeeChangeFeed employeeChangeFeed) {
+        this.employeeChangeFeed = employeeChangeFeed;
+    }
+
+    // events: created / updated / deleted, plus reset when the client has missed events and must reload
+    @GetMapping(path = "stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return employeeChangeFeed.subscribe(lastEventId);
+    }
+}
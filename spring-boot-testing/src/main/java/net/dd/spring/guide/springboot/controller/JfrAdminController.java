@@ -0,0 +1,59 @@
+package net.dd.spring.guide.springboot.controller;
+
+import net.dd.spring.guide.springboot.jfr.JfrRecordingManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/jfr")
+@ConditionalOnProperty(prefix = "employee.jfr", name = "enabled", havingValue = "true")
+public class JfrAdminController {
+
+    private JfrRecordingManager jfrRecordingManager;
+
+    public JfrAdminController(JfrRecordingManager jfrRecordingManager) {
+        this.jfrRecordingManager = jfrRecordingManager;
+    }
+
+    @GetMapping
+    public Map<String, Object> getStatus() {
+        return jfrRecordingManager.status();
+    }
+
+    // POST /api/admin/jfr/start?duration=PT2M - capped by employee.jfr.max-duration
+    @PostMapping("start")
+    public Map<String, Object> start(@RequestParam(value = "duration", required = false) Duration duration) {
+        return jfrRecordingManager.start(duration);
+    }
+
+    // stops the recording and downloads it; open the file with JDK Mission Control
+    @PostMapping("stop")
+    public ResponseEntity<StreamingResponseBody> stop() throws Exception {
+        Path file = jfrRecordingManager.stop();
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(Files.size(file))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"")
+                .body(body);
+    }
+}
@@ -0,0 +1,27 @@
+package net.dd.spring.guide.springboot.controller;
+
+import net.dd.spring.guide.springboot.pool.AdaptivePoolSizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/pool")
+@ConditionalOnProperty(prefix = "employee.pool-sizing", name = "enabled", havingValue = "true")
+public class PoolAdminController {
+
+    private AdaptivePoolSizer adaptivePoolSizer;
+
+    public PoolAdminController(AdaptivePoolSizer adaptivePoolSizer) {
+        this.adaptivePoolSizer = adaptivePoolSizer;
+    }
+
+    // observed load since startup and the static pool settings it calls for
+    @GetMapping
+    public Map<String, Object> getReport() {
+        return adaptivePoolSizer.report();
+    }
+}
@@ -0,0 +1,33 @@
+package net.dd.spring.guide.springboot.controller;
+
+import net.dd.spring.guide.springboot.snapshot.EmployeeSnapshotStore;
+import net.dd.spring.guide.springboot.snapshot.SnapshotStats;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/snapshot")
+@ConditionalOnProperty(prefix = "employee.snapshot", name = "enabled", havingValue = "true")
+public class SnapshotAdminController {
+
+    private EmployeeSnapshotStore employeeSnapshotStore;
+
+    public SnapshotAdminController(EmployeeSnapshotStore employeeSnapshotStore) {
+        this.employeeSnapshotStore = employeeSnapshotStore;
+    }
+
+    // rows, bytes per row of the columnar snapshot and the estimated bytes per row as entities
+    @GetMapping
+    public SnapshotStats getStats() {
+        return employeeSnapshotStore.getStats();
+    }
+
+    @PostMapping("reload")
+    public SnapshotStats reload() {
+        employeeSnapshotStore.load();
+        return employeeSnapshotStore.getStats();
+    }
+}
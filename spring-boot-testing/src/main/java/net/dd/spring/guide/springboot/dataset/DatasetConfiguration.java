@@ -0,0 +1,29 @@
+package net.dd.spring.guide.springboot.dataset;
+
+import net.dd.spring.guide.springboot.repository.EmployeeBatchInserter;
+import net.dd.spring.guide.springboot.repository.EmployeeRepository;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@Profile("dataset")
+@EnableConfigurationProperties(DatasetProperties.class)
+public class DatasetConfiguration {
+
+    @Bean
+    public EmployeeDatasetLoader employeeDatasetLoader(EmployeeBatchInserter batchInserter,
+                                                       PlatformTransactionManager transactionManager) {
+        return new EmployeeDatasetLoader(batchInserter, transactionManager);
+    }
+
+    @Bean
+    public DatasetRunner datasetRunner(EmployeeDatasetLoader employeeDatasetLoader,
+                                       EmployeeRepository employeeRepository,
+                                       ConfigurableApplicationContext context, DatasetProperties properties) {
+        return new DatasetRunner(employeeDatasetLoader, employeeRepository, context, properties);
+    }
+}
@@ -0,0 +1,25 @@
+package net.dd.spring.guide.springboot.dataset;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.dataset")
+public class DatasetProperties {
+
+    /** Generated rows, indexes 0 to count - 1, the table should hold when the load is done. */
+    private long count = 1_000_000;
+
+    private long seed = 42;
+
+    /** Rows per transaction. */
+    private int chunkSize = 10_000;
+
+    /** Rows per JDBC batch. */
+    private int batchSize = 1000;
+
+    /** Shut the application down once the load is done. */
+    private boolean exitWhenDone = true;
+}
@@ -0,0 +1,73 @@
+package net.dd.spring.guide.springboot.dataset;
+
+import lombok.extern.slf4j.Slf4j;
+import net.dd.spring.guide.springboot.model.Employee;
+import net.dd.spring.guide.springboot.repository.EmployeeRepository;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+
+/**
+ * Command line entry point of the {@code dataset} profile: generates rows up to index
+ * {@code employee.dataset.count} into {@code tbl_employees} and exits.
+ *
+ * <pre>
+ * java -jar app.jar --spring.profiles.active=dataset --employee.dataset.count=5000000 --employee.dataset.seed=7
+ * </pre>
+ *
+ * Generation continues after the newest row of the same seed, recognised by its email, so an
+ * interrupted load can simply be rerun. Rows written by the application or generated with
+ * another seed are skipped over and do not count towards the target.
+ */
+@Slf4j
+public class DatasetRunner implements ApplicationRunner {
+
+    private final EmployeeDatasetLoader loader;
+    private final EmployeeRepository employeeRepository;
+    private final ConfigurableApplicationContext context;
+    private final DatasetProperties properties;
+
+    public DatasetRunner(EmployeeDatasetLoader loader, EmployeeRepository employeeRepository,
+                         ConfigurableApplicationContext context, DatasetProperties properties) {
+        this.loader = loader;
+        this.employeeRepository = employeeRepository;
+        this.context = context;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        EmployeeDatasetGenerator generator = new EmployeeDatasetGenerator(properties.getSeed());
+        long next = lastGeneratedIndex(generator) + 1;
+        if (next >= properties.getCount()) {
+            log.info("tbl_employees already holds generated rows up to {}, nothing to generate", next);
+        } else {
+            log.info("Generating employees {} to {} with seed {}", next, properties.getCount(), properties.getSeed());
+            loader.load(generator, next, properties.getCount(), properties.getChunkSize(), properties.getBatchSize());
+        }
+        if (properties.isExitWhenDone()) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    // chunks are inserted in index order, so the newest generated row by id carries the highest index
+    long lastGeneratedIndex(EmployeeDatasetGenerator generator) {
+        long before = Long.MAX_VALUE;
+        while (true) {
+            List<Employee> page = employeeRepository.findTop1000ByIdLessThanOrderByIdDesc(before);
+            for (Employee employee : page) {
+                long index = generator.indexOf(employee.getEmail());
+                if (index >= 0) {
+                    return index;
+                }
+            }
+            if (page.isEmpty()) {
+                return -1;
+            }
+            before = page.get(page.size() - 1).getId();
+        }
+    }
+}
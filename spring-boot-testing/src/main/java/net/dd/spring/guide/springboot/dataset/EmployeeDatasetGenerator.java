@@ -0,0 +1,120 @@
+package net.dd.spring.guide.springboot.dataset;
+
+import net.dd.spring.guide.springboot.model.Employee;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic employees.
+ *
+ * Row {@code i} only depends on the seed and {@code i}: each row draws from a
+ * {@link SplittableRandom} seeded with both, so a dataset of a million rows is a prefix of
+ * the one with ten million, and a load can be resumed or extended from any index. Names
+ * and email domains follow a skewed distribution, a few very common values and a long
+ * tail, so name lookups and domain aggregates see realistic selectivity. Emails embed the
+ * row index in base 36 and are therefore unique for a given seed.
+ */
+public class EmployeeDatasetGenerator {
+
+    private static final long ROW_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+            "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen",
+            "Ramesh", "Priya", "Dipanjan", "Ananya", "Rahul", "Sneha", "Arjun", "Kavya", "Satyaranjan", "Bidisa",
+            "Wei", "Mei", "Hiroshi", "Yuki", "Min-jun", "Seo-yeon", "Mohammed", "Fatima", "Omar", "Aisha",
+            "Lucas", "Sofia", "Mateo", "Valentina", "Noah", "Emma", "Liam", "Olivia", "Lukas", "Mia",
+            "Ivan", "Olga", "Piotr", "Zofia", "Kwame", "Amara", "Chinedu", "Ngozi", "Tony", "Pepper"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Das", "Fadatare", "Sharma", "Patel", "Singh", "Kumar", "Gupta", "Reddy", "Iyer", "Banerjee",
+            "Wang", "Li", "Zhang", "Chen", "Tanaka", "Suzuki", "Kim", "Lee", "Park", "Nguyen",
+            "Khan", "Ahmed", "Hassan", "Ali", "Silva", "Santos", "Oliveira", "Muller", "Schmidt", "Schneider",
+            "Rossi", "Russo", "Dubois", "Martin", "Ivanov", "Kowalski", "Nowak", "Mensah", "Okafor", "Adeyemi",
+            "O'Brien", "Murphy", "Kelly", "Stark", "Potts", "Rogers", "Banner", "Romanoff", "Barton", "Parker"
+    };
+
+    // roughly: a few consumer providers dominate, then a long tail of company domains
+    private static final String[] DOMAINS = {
+            "gmail.com", "gmail.com", "gmail.com", "gmail.com", "gmail.com", "gmail.com",
+            "hotmail.com", "hotmail.com", "hotmail.com", "outlook.com", "outlook.com", "yahoo.com", "yahoo.com",
+            "icloud.com", "protonmail.com", "acme.com", "initech.com", "globex.com", "umbrella.com", "stark.com",
+            "wayne-enterprises.com", "hooli.com", "piedpiper.com", "soylent.com", "cyberdyne.com", "tyrell.com"
+    };
+
+    private final long seed;
+
+    public EmployeeDatasetGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * The employee at {@code index}; ids are left unset so the database assigns them.
+     */
+    public Employee generate(long index) {
+        SplittableRandom random = new SplittableRandom(seed + index * ROW_GAMMA);
+        String firstName = FIRST_NAMES[skewed(random, FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[skewed(random, LAST_NAMES.length)];
+        String domain = DOMAINS[random.nextInt(DOMAINS.length)];
+        return Employee.builder()
+                .firstName(firstName)
+                .lastName(lastName)
+                .email(localPart(random, firstName, lastName) + "." + Long.toString(index, 36) + "@" + domain)
+                .build();
+    }
+
+    /**
+     * The index {@code email} was generated at with this seed, or {@code -1} if it was not
+     * generated by this generator.
+     */
+    public long indexOf(String email) {
+        if (email == null) {
+            return -1;
+        }
+        int at = email.lastIndexOf('@');
+        int dot = email.lastIndexOf('.', at);
+        if (at < 0 || dot < 0) {
+            return -1;
+        }
+        long index;
+        try {
+            index = Long.parseLong(email.substring(dot + 1, at), 36);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        return index >= 0 && generate(index).getEmail().equals(email) ? index : -1;
+    }
+
+    public List<Employee> generate(long fromIndex, int count) {
+        List<Employee> employees = new ArrayList<>(count);
+        for (long index = fromIndex; index < fromIndex + count; index++) {
+            employees.add(generate(index));
+        }
+        return employees;
+    }
+
+    // the product of two uniform picks favours low indexes: the first entries are the most common
+    private static int skewed(SplittableRandom random, int size) {
+        return (int) ((long) random.nextInt(size) * random.nextInt(1, size + 1) / size);
+    }
+
+    private static String localPart(SplittableRandom random, String firstName, String lastName) {
+        String first = firstName.toLowerCase(Locale.ROOT).replaceAll("[^a-z]", "");
+        String last = lastName.toLowerCase(Locale.ROOT).replaceAll("[^a-z]", "");
+        switch (random.nextInt(4)) {
+            case 0:
+                return first + "." + last;
+            case 1:
+                return first.charAt(0) + last;
+            case 2:
+                return first + "_" + last;
+            default:
+                return last + first.charAt(0);
+        }
+    }
+}
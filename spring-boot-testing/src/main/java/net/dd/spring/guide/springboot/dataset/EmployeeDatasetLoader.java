@@ -0,0 +1,60 @@
+package net.dd.spring.guide.springboot.dataset;
+
+import lombok.extern.slf4j.Slf4j;
+import net.dd.spring.guide.springboot.model.Employee;
+import net.dd.spring.guide.springboot.repository.EmployeeBatchInserter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Loads generated employees through {@link EmployeeBatchInserter}, one transaction per chunk.
+ *
+ * Loads bypass the service, so no change events are published: caches and other nodes should
+ * be started (or restarted) after a load, domain head-counts catch up at their next
+ * reconciliation. On MySQL keep
+ * {@code rewriteBatchedStatements=true} on the JDBC url so each batch goes out as one
+ * multi-row insert.
+ */
+@Slf4j
+public class EmployeeDatasetLoader {
+
+    private static final long PROGRESS_INTERVAL_ROWS = 100_000;
+
+    private final EmployeeBatchInserter batchInserter;
+    private final TransactionTemplate transactionTemplate;
+
+    public EmployeeDatasetLoader(EmployeeBatchInserter batchInserter, PlatformTransactionManager transactionManager) {
+        this.batchInserter = batchInserter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Inserts rows {@code fromIndex} (inclusive) to {@code toIndex} (exclusive) of the dataset.
+     *
+     * @return the number of rows inserted
+     */
+    public long load(EmployeeDatasetGenerator generator, long fromIndex, long toIndex, int chunkSize, int batchSize) {
+        long start = System.nanoTime();
+        long nextProgress = PROGRESS_INTERVAL_ROWS;
+        for (long index = fromIndex; index < toIndex; index += chunkSize) {
+            List<Employee> chunk = generator.generate(index, (int) Math.min(chunkSize, toIndex - index));
+            transactionTemplate.executeWithoutResult(status -> batchInserter.insert(chunk, batchSize));
+            long loaded = index + chunk.size() - fromIndex;
+            if (loaded >= nextProgress) {
+                log.info("Loaded {} of {} employees ({} rows/s)", loaded, toIndex - fromIndex, rate(loaded, start));
+                nextProgress += PROGRESS_INTERVAL_ROWS;
+            }
+        }
+        long loaded = Math.max(0, toIndex - fromIndex);
+        log.info("Loaded {} employees in {} ms ({} rows/s)", loaded, (System.nanoTime() - start) / 1_000_000,
+                rate(loaded, start));
+        return loaded;
+    }
+
+    private static long rate(long rows, long startNanos) {
+        long elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+        return rows * 1_000_000_000L / elapsedNanos;
+    }
+}
@@ -0,0 +1,87 @@
+package net.dd.spring.guide.springboot.deadline;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Point in time by which the current request must have been answered.
+ *
+ * {@link DeadlineFilter} sets it for the request thread and {@link #propagate(Supplier)}
+ * carries it onto worker threads. Code that waits, or talks to the database, bounds itself
+ * by the remaining budget instead of only by its own fixed timeout. Threads without a
+ * deadline (feature disabled, background jobs) see {@code null} and are not bounded.
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    public long remainingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(expiresAtNanos - System.nanoTime());
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Returns the shorter of the given timeout and what is left of the current deadline,
+     * never less than zero.
+     */
+    public static long boundMillis(long timeoutMillis) {
+        Deadline deadline = CURRENT.get();
+        return deadline == null ? timeoutMillis : Math.max(0, Math.min(timeoutMillis, deadline.remainingMillis()));
+    }
+
+    /**
+     * Runs the work with the given deadline as the current one, restoring the previous one
+     * afterwards.
+     */
+    public static <T> T within(Deadline deadline, Supplier<T> work) {
+        Deadline previous = attach(deadline);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Binds the work to the deadline of the calling thread, for handing it to an executor.
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> work) {
+        Deadline deadline = CURRENT.get();
+        if (deadline == null) {
+            return work;
+        }
+        return () -> within(deadline, work);
+    }
+
+    static Deadline attach(Deadline deadline) {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(deadline);
+        return previous;
+    }
+
+    static void restore(Deadline previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
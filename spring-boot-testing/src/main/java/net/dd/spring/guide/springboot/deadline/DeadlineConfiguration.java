@@ -0,0 +1,63 @@
+package net.dd.spring.guide.springboot.deadline;
+
+import net.dd.spring.guide.springboot.limiter.EndpointClass;
+import net.dd.spring.guide.springboot.service.EmployeeService;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties(DeadlineProperties.class)
+@ConditionalOnProperty(prefix = "employee.deadlines", name = "enabled", havingValue = "true")
+public class DeadlineConfiguration {
+
+    @Bean
+    public static BeanPostProcessor deadlinePostProcessor(ObjectProvider<DeadlineProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof DeadlineDataSource)) {
+                    return new DeadlineDataSource((DataSource) bean, minConnectionBudgetMillis());
+                }
+                if (bean instanceof EmployeeService) {
+                    ProxyFactory proxyFactory = new ProxyFactory(bean);
+                    proxyFactory.addAdvice(new DeadlineInterceptor(minConnectionBudgetMillis()));
+                    return proxyFactory.getProxy(bean.getClass().getClassLoader());
+                }
+                return bean;
+            }
+
+            private long minConnectionBudgetMillis() {
+                return properties.getObject().getMinConnectionBudget().toMillis();
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<DeadlineFilter> deadlineFilter(DeadlineProperties properties) {
+        Map<EndpointClass, Duration> defaults = new EnumMap<>(EndpointClass.class);
+        defaults.put(EndpointClass.READ, properties.getReadTimeout());
+        defaults.put(EndpointClass.WRITE, properties.getWriteTimeout());
+        defaults.put(EndpointClass.LIST, properties.getListTimeout());
+        defaults.put(EndpointClass.HEAVY, properties.getHeavyTimeout());
+        FilterRegistrationBean<DeadlineFilter> registration = new FilterRegistrationBean<>(
+                new DeadlineFilter(properties.getHeader(), defaults, properties.getMaxTimeout(),
+                        new HashSet<>(properties.getExemptPaths())));
+        registration.addUrlPatterns("/api/employees/*", "/api/async/employees/*");
+        // The budget starts when the request arrives, ahead of the concurrency limiter.
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+}
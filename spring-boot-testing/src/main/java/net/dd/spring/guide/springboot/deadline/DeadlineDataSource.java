@@ -0,0 +1,194 @@
+package net.dd.spring.guide.springboot.deadline;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.pool.HikariPool;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+
+/**
+ * Bounds JDBC work on the current thread by its {@link Deadline}.
+ *
+ * No connection is requested when less than the minimum budget is left, since the pool
+ * checkout and one round trip would not fit anyway. A Hikari pool checkout waits at most for
+ * the remaining budget rather than the pool's {@code connectionTimeout}; with any other pool
+ * the wait is bounded by the pool alone, and a connection obtained after the deadline passed
+ * is handed straight back.
+ *
+ * Each statement execution sets the query timeout to the remaining budget unless the caller
+ * set a shorter one (a JPA query timeout hint). JDBC only takes whole seconds, so the budget
+ * is rounded up: a statement started with 300 ms left may run for up to a second, and the
+ * request then answers that much past its deadline. When the timeout expires the driver
+ * cancels the statement on the server (Connector/J issues {@code KILL QUERY}) and throws
+ * {@link SQLTimeoutException}, which Spring translates into a {@code QueryTimeoutException}.
+ * Without a deadline connections and statements are passed through untouched.
+ */
+public class DeadlineDataSource extends DelegatingDataSource {
+
+    private final long minConnectionBudgetMillis;
+
+    public DeadlineDataSource(DataSource targetDataSource, long minConnectionBudgetMillis) {
+        super(targetDataSource);
+        this.minConnectionBudgetMillis = minConnectionBudgetMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return obtainTargetDataSource().getConnection();
+        }
+        checkBudget(deadline);
+        return bounded(checkout(deadline), deadline);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return obtainTargetDataSource().getConnection(username, password);
+        }
+        checkBudget(deadline);
+        return bounded(obtainTargetDataSource().getConnection(username, password), deadline);
+    }
+
+    private void checkBudget(Deadline deadline) throws SQLTimeoutException {
+        long remaining = deadline.remainingMillis();
+        if (remaining < minConnectionBudgetMillis) {
+            throw new SQLTimeoutException("Request deadline leaves " + Math.max(0, remaining)
+                    + " ms, less than the " + minConnectionBudgetMillis + " ms needed for a query");
+        }
+    }
+
+    private Connection checkout(Deadline deadline) throws SQLException {
+        DataSource target = obtainTargetDataSource();
+        if (target.isWrapperFor(HikariDataSource.class)) {
+            HikariDataSource hikari = target.unwrap(HikariDataSource.class);
+            // null until the first checkout has started the pool
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            long budget = deadline.remainingMillis();
+            if (pool instanceof HikariPool && budget < hikari.getConnectionTimeout()) {
+                try {
+                    return ((HikariPool) pool).getConnection(Math.max(1, budget));
+                } catch (SQLTransientConnectionException e) {
+                    SQLTimeoutException timeout = new SQLTimeoutException(
+                            "Request deadline passed while waiting " + budget + " ms for a connection");
+                    timeout.initCause(e);
+                    throw timeout;
+                }
+            }
+        }
+        return target.getConnection();
+    }
+
+    private static Connection bounded(Connection connection, Deadline deadline) throws SQLException {
+        if (deadline.isExpired()) {
+            connection.close();
+            throw new SQLTimeoutException("Request deadline passed while waiting for a connection");
+        }
+        return (Connection) Proxy.newProxyInstance(DeadlineDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "createStatement":
+                    return statement(Statement.class, (Statement) DeadlineDataSource.invoke(target, method, args));
+                case "prepareStatement":
+                    return statement(PreparedStatement.class, (Statement) DeadlineDataSource.invoke(target, method, args));
+                case "prepareCall":
+                    return statement(CallableStatement.class, (Statement) DeadlineDataSource.invoke(target, method, args));
+                default:
+                    return DeadlineDataSource.invoke(target, method, args);
+            }
+        }
+
+        private static Object statement(Class<? extends Statement> type, Statement statement) {
+            return Proxy.newProxyInstance(DeadlineDataSource.class.getClassLoader(), new Class<?>[]{type},
+                    new StatementHandler(statement));
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private int requestedTimeoutSeconds;
+        private boolean bounded;
+
+        private StatementHandler(Statement target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("equals")) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            if (name.equals("setQueryTimeout")) {
+                requestedTimeoutSeconds = (Integer) args[0];
+                bounded = false;
+            } else if (name.startsWith("execute")) {
+                applyDeadline();
+            }
+            return DeadlineDataSource.invoke(target, method, args);
+        }
+
+        private void applyDeadline() throws SQLException {
+            Deadline deadline = Deadline.current();
+            if (deadline == null) {
+                if (bounded) {
+                    target.setQueryTimeout(requestedTimeoutSeconds);
+                    bounded = false;
+                }
+                return;
+            }
+            long remaining = deadline.remainingMillis();
+            if (remaining <= 0) {
+                throw new SQLTimeoutException("Request deadline passed before the statement was sent");
+            }
+            int seconds = (int) Math.min(Integer.MAX_VALUE, (remaining + 999) / 1000);
+            if (requestedTimeoutSeconds > 0 && requestedTimeoutSeconds <= seconds) {
+                seconds = requestedTimeoutSeconds;
+            }
+            target.setQueryTimeout(seconds);
+            bounded = true;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package net.dd.spring.guide.springboot.deadline;
+
+import net.dd.spring.guide.springboot.limiter.EndpointClass;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Starts the {@link Deadline} of an employee API request when it arrives, from the timeout
+ * the client sent in the deadline header or else the default of its {@link EndpointClass}.
+ * Exempt paths (bulk imports, streams) run without one.
+ */
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    private final String header;
+    private final Map<EndpointClass, Duration> defaultTimeouts;
+    private final long maxTimeoutMillis;
+    private final Set<String> exemptPaths;
+
+    public DeadlineFilter(String header, Map<EndpointClass, Duration> defaultTimeouts, Duration maxTimeout,
+                          Set<String> exemptPaths) {
+        this.header = header;
+        this.defaultTimeouts = defaultTimeouts;
+        this.maxTimeoutMillis = maxTimeout.toMillis();
+        this.exemptPaths = exemptPaths;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return exemptPaths.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Duration timeout;
+        String requested = request.getHeader(header);
+        if (requested == null) {
+            timeout = defaultTimeouts.get(EndpointClass.of(request));
+        } else {
+            long millis = parseMillis(requested);
+            if (millis <= 0) {
+                reject(response, header + " must be a positive number of milliseconds");
+                return;
+            }
+            timeout = Duration.ofMillis(Math.min(millis, maxTimeoutMillis));
+        }
+        Deadline previous = Deadline.attach(Deadline.after(timeout));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Deadline.restore(previous);
+        }
+    }
+
+    private static long parseMillis(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void reject(HttpServletResponse response, String message) throws IOException {
+        byte[] body = ("{\"status\":\"BAD_REQUEST\",\"message\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+        response.setStatus(HttpStatus.BAD_REQUEST.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
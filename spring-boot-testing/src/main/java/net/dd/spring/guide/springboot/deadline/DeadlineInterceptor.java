@@ -0,0 +1,54 @@
+package net.dd.spring.guide.springboot.deadline;
+
+import net.dd.spring.guide.springboot.exception.GatewayTimeoutException;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.sql.SQLTimeoutException;
+
+/**
+ * Applies the current {@link Deadline} around calls of the employee service.
+ *
+ * A call whose remaining budget could not cover a connection checkout fails with 504 before
+ * it opens a transaction, and a statement cancelled by the deadline surfaces as 504 rather
+ * than a generic server error, whatever layer translated it.
+ */
+class DeadlineInterceptor implements MethodInterceptor {
+
+    private final long minConnectionBudgetMillis;
+
+    DeadlineInterceptor(long minConnectionBudgetMillis) {
+        this.minConnectionBudgetMillis = minConnectionBudgetMillis;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return invocation.proceed();
+        }
+        if (deadline.remainingMillis() < minConnectionBudgetMillis) {
+            throw GatewayTimeoutException.DEADLINE_EXCEEDED;
+        }
+        try {
+            return invocation.proceed();
+        } catch (RuntimeException e) {
+            if (isTimeout(e)) {
+                throw GatewayTimeoutException.QUERY_TIMED_OUT;
+            }
+            throw e;
+        }
+    }
+
+    // Hibernate, Spring and the transaction manager each wrap the driver's exception differently
+    private static boolean isTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof QueryTimeoutException || cause instanceof SQLTimeoutException
+                    || cause instanceof javax.persistence.QueryTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,39 @@
+package net.dd.spring.guide.springboot.deadline;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.deadlines")
+public class DeadlineProperties {
+
+    private boolean enabled;
+
+    /** Request header in which clients send their timeout, in milliseconds. */
+    private String header = "X-Request-Timeout";
+
+    private Duration readTimeout = Duration.ofSeconds(2);
+
+    private Duration writeTimeout = Duration.ofSeconds(5);
+
+    private Duration listTimeout = Duration.ofSeconds(10);
+
+    private Duration heavyTimeout = Duration.ofSeconds(10);
+
+    /** Upper bound for timeouts sent by clients. */
+    private Duration maxTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Paths that get no deadline: bulk endpoints that run for as long as their input takes
+     * and would otherwise be cut off halfway, and long-lived streams.
+     */
+    private List<String> exemptPaths = List.of("/api/employees/import", "/api/employees/stream");
+
+    /** Remaining budget below which no connection is requested and the call fails with 504. */
+    private Duration minConnectionBudget = Duration.ofMillis(10);
+}
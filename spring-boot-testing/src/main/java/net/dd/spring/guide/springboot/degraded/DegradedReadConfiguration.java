@@ -0,0 +1,41 @@
+package net.dd.spring.guide.springboot.degraded;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(DegradedReadProperties.class)
+@ConditionalOnProperty(prefix = "employee.degraded-reads", name = "enabled", havingValue = "true")
+public class DegradedReadConfiguration {
+
+    @Bean
+    public StaleWhileRevalidateReads staleWhileRevalidateReads(DataSource dataSource, DegradedReadProperties properties,
+                                                               MeterRegistry meterRegistry) {
+        StaleWhileRevalidateReads reads = new StaleWhileRevalidateReads(dataSource, properties, Clock.systemUTC());
+        Gauge.builder("employee.degraded", reads, r -> r.isDegraded() ? 1 : 0)
+                .description("1 while reads are served from last known values and writes are rejected")
+                .register(meterRegistry);
+        Gauge.builder("employee.degraded-reads.entries", reads, StaleWhileRevalidateReads::getSize)
+                .register(meterRegistry);
+        FunctionCounter.builder("employee.degraded-reads.stale", reads, StaleWhileRevalidateReads::getStaleReadCount)
+                .description("Reads answered with a last known value")
+                .register(meterRegistry);
+        return reads;
+    }
+
+    @Bean
+    public FilterRegistrationBean<StaleReadFilter> staleReadFilter() {
+        FilterRegistrationBean<StaleReadFilter> registration = new FilterRegistrationBean<>(new StaleReadFilter());
+        registration.addUrlPatterns("/api/employees/*");
+        return registration;
+    }
+}
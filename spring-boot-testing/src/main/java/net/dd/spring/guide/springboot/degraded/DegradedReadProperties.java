@@ -0,0 +1,38 @@
+package net.dd.spring.guide.springboot.degraded;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.degraded-reads")
+public class DegradedReadProperties {
+
+    private boolean enabled;
+
+    /** Consecutive failed reads after which writes are rejected. */
+    private int failureThreshold = 5;
+
+    /**
+     * Time a read may wait on the pool or its query before further reads of employees with a
+     * last known value are answered from it without going to the database.
+     */
+    private Duration maxWait = Duration.ofMillis(500);
+
+    /** Threads refreshing last known values in the background while reads are answered stale. */
+    private int refreshThreads = 2;
+
+    private int refreshQueueCapacity = 1000;
+
+    /** Approximate bound on employees kept as last known values. */
+    private int maxEntries = 100_000;
+
+    /** How often the database is probed after a failed read. */
+    private Duration probeInterval = Duration.ofSeconds(1);
+
+    /** Time a probe may take to validate a connection before it counts as failed. */
+    private Duration probeTimeout = Duration.ofSeconds(1);
+}
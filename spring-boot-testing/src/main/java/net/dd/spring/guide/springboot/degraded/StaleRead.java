@@ -0,0 +1,51 @@
+package net.dd.spring.guide.springboot.degraded;
+
+/**
+ * Carries the age of a stale value from the service to the web layer of the same request.
+ *
+ * Only threads inside a request scope opened by {@link StaleReadFilter} record anything, so
+ * reads on executor threads never leave a marker behind, and the filter drops the scope when
+ * the request ends whether or not the web layer consumed it.
+ */
+public final class StaleRead {
+
+    private static final long FRESH = -1;
+
+    private static final ThreadLocal<long[]> AGE_MILLIS = new ThreadLocal<>();
+
+    private StaleRead() {
+    }
+
+    static void open() {
+        AGE_MILLIS.set(new long[]{FRESH});
+    }
+
+    static void close() {
+        AGE_MILLIS.remove();
+    }
+
+    static void mark(long ageMillis) {
+        long[] age = AGE_MILLIS.get();
+        if (age != null) {
+            age[0] = ageMillis;
+        }
+    }
+
+    static void clear() {
+        mark(FRESH);
+    }
+
+    /**
+     * Returns the age of the stale value served on this thread, or {@code -1} if the last
+     * read was fresh, and resets the marker.
+     */
+    public static long consume() {
+        long[] age = AGE_MILLIS.get();
+        if (age == null) {
+            return FRESH;
+        }
+        long ageMillis = age[0];
+        age[0] = FRESH;
+        return ageMillis;
+    }
+}
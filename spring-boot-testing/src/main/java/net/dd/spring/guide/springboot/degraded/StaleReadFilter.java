@@ -0,0 +1,28 @@
+package net.dd.spring.guide.springboot.degraded;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Scopes {@link StaleRead} markers to one request, so a marker left by a request that never
+ * reached {@link StaleResponseAdvice} (a failed write, an error response) cannot end up on
+ * the next request served by the same pooled thread.
+ */
+public class StaleReadFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        StaleRead.open();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            StaleRead.close();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package net.dd.spring.guide.springboot.degraded;
+
+import net.dd.spring.guide.springboot.controller.EmployeeController;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Marks responses built from a last known value with {@code Age} and
+ * {@code Warning: 110 - "Response is Stale"}.
+ */
+@ControllerAdvice(assignableTypes = EmployeeController.class)
+@ConditionalOnProperty(prefix = "employee.degraded-reads", name = "enabled", havingValue = "true")
+public class StaleResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    private static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        long ageMillis = StaleRead.consume();
+        if (ageMillis >= 0) {
+            response.getHeaders().set(HttpHeaders.AGE, String.valueOf(ageMillis / 1000));
+            response.getHeaders().set(HttpHeaders.WARNING, STALE_WARNING);
+        }
+        return body;
+    }
+}
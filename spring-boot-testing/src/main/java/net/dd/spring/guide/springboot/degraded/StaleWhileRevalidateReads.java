@@ -0,0 +1,361 @@
+package net.dd.spring.guide.springboot.degraded;
+
+import lombok.extern.slf4j.Slf4j;
+import net.dd.spring.guide.springboot.deadline.Deadline;
+import net.dd.spring.guide.springboot.event.EmployeeChangeType;
+import net.dd.spring.guide.springboot.event.EmployeeChangedEvent;
+import net.dd.spring.guide.springboot.exception.ServiceUnavailableException;
+import net.dd.spring.guide.springboot.model.Employee;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Clock;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Serves employee point reads and multi-gets from the last known value when the database
+ * is slow or fails them.
+ *
+ * Reads run on the caller's thread, inside its transaction and persistence context, and go
+ * to the database while it is healthy. Their results and all committed writes are remembered
+ * per id. When a read fails with a data access or transaction error (a query or pool timeout
+ * included), the last value known for that id is returned instead and marked through
+ * {@link StaleRead}; without one the read fails with 503. A multi-get is served stale only
+ * when every requested id has a last known value, marked with the age of the oldest.
+ *
+ * Reads do not queue behind a database that is known to be in trouble: while degraded, or
+ * while any read has been waiting on the pool or its query for longer than
+ * {@code maxWait}, a read whose ids all have a last known value is answered from it
+ * straight away, and the value is refreshed on a small background executor, at most one
+ * refresh per id at a time. Loaders must therefore not depend on the caller's thread. Reads
+ * without a last known value still go to the database, there is nothing else to answer with.
+ *
+ * Writes are rejected up front only once the database looks down rather than slow for one
+ * query: after {@code failureThreshold} consecutive failed reads, or when the pool probe
+ * that runs after any failed read cannot validate a connection. A successful read, refresh
+ * or probe ends it.
+ *
+ * A statement cancelled because the request's own {@link Deadline} ran out says nothing
+ * about the database: it is answered from the last known value if there is one, rethrown
+ * otherwise, and never counted as a failure.
+ */
+@Slf4j
+public class StaleWhileRevalidateReads implements DisposableBean {
+
+    private final DataSource dataSource;
+    private final int failureThreshold;
+    private final int probeTimeoutSeconds;
+    private final int maxEntries;
+    private final long maxWaitNanos;
+    private final Clock clock;
+
+    private final ScheduledExecutorService prober;
+    private final Executor refresher;
+    private final Map<Long, LastKnown> lastKnown = new ConcurrentHashMap<>();
+    // start of the database read each thread is currently waiting on
+    private final Map<Thread, Long> inFlight = new ConcurrentHashMap<>();
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong staleReads = new AtomicLong();
+
+    private volatile boolean degraded;
+
+    public StaleWhileRevalidateReads(DataSource dataSource, DegradedReadProperties properties, Clock clock) {
+        this(dataSource, properties, clock, refreshExecutor(properties));
+    }
+
+    StaleWhileRevalidateReads(DataSource dataSource, DegradedReadProperties properties, Clock clock,
+                              Executor refresher) {
+        this.dataSource = dataSource;
+        this.failureThreshold = Math.max(1, properties.getFailureThreshold());
+        this.probeTimeoutSeconds = (int) Math.max(1, properties.getProbeTimeout().toSeconds());
+        this.maxEntries = properties.getMaxEntries();
+        this.maxWaitNanos = properties.getMaxWait().toNanos();
+        this.clock = clock;
+        this.refresher = refresher;
+        CustomizableThreadFactory probeThreads = new CustomizableThreadFactory("degraded-probe-");
+        probeThreads.setDaemon(true);
+        this.prober = Executors.newSingleThreadScheduledExecutor(probeThreads);
+        long probeMillis = properties.getProbeInterval().toMillis();
+        prober.scheduleWithFixedDelay(this::probe, probeMillis, probeMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public Optional<Employee> getById(long id, Supplier<Optional<Employee>> loader) {
+        StaleRead.clear();
+        LastKnown known = lastKnown.get(id);
+        if (known != null && (degraded || readsStalled())) {
+            refresh(id, () -> loaded(id, load(loader)));
+            return stale(known);
+        }
+        Optional<Employee> employee;
+        try {
+            employee = load(loader);
+        } catch (QueryTimeoutException e) {
+            if (Deadline.current() == null) {
+                recordFailure(e.getMessage());
+            } else if (!lastKnown.containsKey(id)) {
+                throw e;
+            }
+            return stale(id);
+        } catch (DataAccessException | TransactionException e) {
+            recordFailure(e.getMessage());
+            return stale(id);
+        }
+        loaded(id, employee);
+        return employee;
+    }
+
+    /**
+     * Like {@link #getById(long, Supplier)} for several ids at once; the loader returns the
+     * employees it found by id.
+     */
+    public Map<Long, Employee> getByIds(Collection<Long> ids, Supplier<Map<Long, Employee>> loader) {
+        StaleRead.clear();
+        if ((degraded || readsStalled()) && lastKnown.keySet().containsAll(ids)) {
+            List<Long> refreshed = List.copyOf(ids);
+            refresh(refreshed, () -> loaded(refreshed, load(loader)));
+            return stale(ids);
+        }
+        Map<Long, Employee> employees;
+        try {
+            employees = load(loader);
+        } catch (QueryTimeoutException e) {
+            if (Deadline.current() == null) {
+                recordFailure(e.getMessage());
+            } else if (!lastKnown.keySet().containsAll(ids)) {
+                throw e;
+            }
+            return stale(ids);
+        } catch (DataAccessException | TransactionException e) {
+            recordFailure(e.getMessage());
+            return stale(ids);
+        }
+        loaded(ids, employees);
+        return employees;
+    }
+
+    public boolean isDegraded() {
+        return degraded;
+    }
+
+    public long getStaleReadCount() {
+        return staleReads.get();
+    }
+
+    public int getSize() {
+        return lastKnown.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (event.getType() == EmployeeChangeType.DELETED || event.getEmployee() == null) {
+            lastKnown.remove(event.getEmployeeId());
+        } else {
+            remember(event.getEmployee());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        prober.shutdownNow();
+        if (refresher instanceof ExecutorService) {
+            ((ExecutorService) refresher).shutdownNow();
+        }
+    }
+
+    private <T> T load(Supplier<T> loader) {
+        Thread reader = Thread.currentThread();
+        inFlight.put(reader, System.nanoTime());
+        try {
+            return loader.get();
+        } finally {
+            inFlight.remove(reader);
+        }
+    }
+
+    private boolean readsStalled() {
+        long now = System.nanoTime();
+        for (long started : inFlight.values()) {
+            if (now - started > maxWaitNanos) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void loaded(long id, Optional<Employee> employee) {
+        recordSuccess();
+        if (employee.isPresent()) {
+            remember(employee.get());
+        } else {
+            lastKnown.remove(id);
+        }
+    }
+
+    private void loaded(Collection<Long> ids, Map<Long, Employee> employees) {
+        recordSuccess();
+        for (Long id : ids) {
+            Employee employee = employees.get(id);
+            if (employee != null) {
+                remember(employee);
+            } else {
+                lastKnown.remove(id);
+            }
+        }
+    }
+
+    private void refresh(Object key, Runnable reload) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    reload.run();
+                } catch (DataAccessException | TransactionException e) {
+                    recordFailure(e.getMessage());
+                } catch (RuntimeException e) {
+                    log.warn("Failed to refresh last known employees {}", key, e);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // refreshes are best effort, the next stale read schedules it again
+            refreshing.remove(key);
+        }
+    }
+
+    private Optional<Employee> stale(long id) {
+        LastKnown known = lastKnown.get(id);
+        if (known == null) {
+            throw ServiceUnavailableException.DATABASE_DEGRADED;
+        }
+        return stale(known);
+    }
+
+    private Optional<Employee> stale(LastKnown known) {
+        staleReads.incrementAndGet();
+        StaleRead.mark(clock.millis() - known.readAt);
+        return Optional.of(copyOf(known.employee));
+    }
+
+    private Map<Long, Employee> stale(Collection<Long> ids) {
+        Map<Long, Employee> employees = new HashMap<>(ids.size() * 2);
+        long oldest = Long.MAX_VALUE;
+        for (Long id : ids) {
+            LastKnown known = lastKnown.get(id);
+            if (known == null) {
+                throw ServiceUnavailableException.DATABASE_DEGRADED;
+            }
+            employees.put(id, copyOf(known.employee));
+            oldest = Math.min(oldest, known.readAt);
+        }
+        staleReads.incrementAndGet();
+        StaleRead.mark(ids.isEmpty() ? 0 : clock.millis() - oldest);
+        return employees;
+    }
+
+    private void remember(Employee employee) {
+        if (lastKnown.size() >= maxEntries && !lastKnown.containsKey(employee.getId())) {
+            // approximate bound: drop roughly a tenth of the entries in hash order
+            int toEvict = Math.max(1, maxEntries / 10);
+            Iterator<Long> ids = lastKnown.keySet().iterator();
+            while (toEvict-- > 0 && ids.hasNext()) {
+                ids.next();
+                ids.remove();
+            }
+        }
+        lastKnown.put(employee.getId(), new LastKnown(copyOf(employee), clock.millis()));
+    }
+
+    private void recordFailure(String reason) {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            markDegraded(failureThreshold + " consecutive reads failed, last: " + reason);
+        }
+    }
+
+    private void recordSuccess() {
+        if (consecutiveFailures.get() != 0) {
+            consecutiveFailures.set(0);
+        }
+        if (degraded) {
+            degraded = false;
+            log.info("Employee reads recovered");
+        }
+    }
+
+    private void markDegraded(String reason) {
+        if (!degraded) {
+            degraded = true;
+            log.warn("Employee database degraded, rejecting writes: {}", reason);
+        }
+    }
+
+    void probe() {
+        if (!degraded && consecutiveFailures.get() == 0) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            if (connection.isValid(probeTimeoutSeconds)) {
+                recordSuccess();
+            } else {
+                markDegraded("probe connection is not valid");
+            }
+        } catch (Exception e) {
+            markDegraded("probe failed: " + e.getMessage());
+        }
+    }
+
+    // callers may modify what they get (the update endpoint does), so nothing shared is handed out
+    private static Employee copyOf(Employee employee) {
+        return Employee.builder()
+                .id(employee.getId())
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email(employee.getEmail())
+                .build();
+    }
+
+    private static ExecutorService refreshExecutor(DegradedReadProperties properties) {
+        CustomizableThreadFactory refreshThreads = new CustomizableThreadFactory("degraded-refresh-");
+        refreshThreads.setDaemon(true);
+        return new ThreadPoolExecutor(properties.getRefreshThreads(), properties.getRefreshThreads(),
+                0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(properties.getRefreshQueueCapacity()),
+                refreshThreads);
+    }
+
+    private static final class LastKnown {
+        private final Employee employee;
+        private final long readAt;
+
+        private LastKnown(Employee employee, long readAt) {
+            this.employee = employee;
+            this.readAt = readAt;
+        }
+    }
+}
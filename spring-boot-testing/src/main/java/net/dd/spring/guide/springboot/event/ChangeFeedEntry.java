@@ -0,0 +1,37 @@
+package net.dd.spring.guide.springboot.event;
+
+import net.dd.spring.guide.springboot.model.Employee;
+
+/**
+ * One slot of the change feed ring buffer, also used as the SSE event payload.
+ */
+public class ChangeFeedEntry {
+
+    private final long sequence;
+    private final EmployeeChangeType type;
+    private final long employeeId;
+    private final Employee employee;
+
+    public ChangeFeedEntry(long sequence, EmployeeChangedEvent event) {
+        this.sequence = sequence;
+        this.type = event.getType();
+        this.employeeId = event.getEmployeeId();
+        this.employee = event.getEmployee();
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public EmployeeChangeType getType() {
+        return type;
+    }
+
+    public long getEmployeeId() {
+        return employeeId;
+    }
+
+    public Employee getEmployee() {
+        return employee;
+    }
+}
@@ -0,0 +1,35 @@
+package net.dd.spring.guide.springboot.event;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.change-feed")
+public class ChangeFeedProperties {
+
+    /** Number of recent events kept for Last-Event-ID resumption, rounded up to a power of two. */
+    private int capacity = 4096;
+
+    /** Threads writing events to subscribers. */
+    private int dispatchThreads = 4;
+
+    /**
+     * Events buffered per subscriber. A subscriber further behind is disconnected and resumes
+     * with Last-Event-ID when it reconnects.
+     */
+    private int subscriberQueueCapacity = 1024;
+
+    /**
+     * Time a single write to a subscriber may take before the subscriber is dropped and its
+     * dispatch thread replaced.
+     */
+    private Duration sendTimeout = Duration.ofSeconds(10);
+
+    private Duration emitterTimeout = Duration.ofMinutes(30);
+
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+}
@@ -0,0 +1,307 @@
+package net.dd.spring.guide.springboot.event;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans committed employee changes out to SSE subscribers.
+ *
+ * Events live in a fixed size ring buffer indexed by sequence number, which doubles as the
+ * SSE event id, and are handed to every subscriber's own bounded queue as they are
+ * published. A subscriber whose queue is full is disconnected right away; when it
+ * reconnects with {@code Last-Event-ID} it resumes from the ring if the id is still there
+ * and the backlog fits its queue, otherwise it receives a {@code reset} event telling it to
+ * reload the full list. Memory is bounded by the ring plus one queue per subscriber.
+ *
+ * Subscribers hold no request thread (servlet async); writes happen on a small dispatch
+ * pool and each subscriber is drained by at most one dispatch thread at a time. Writes to a
+ * servlet response block, so a watchdog drops any subscriber whose single write has taken
+ * longer than the send timeout and adds a dispatch thread in place of the one stuck on its
+ * socket until that write returns. One slow client can delay only itself.
+ */
+@Slf4j
+@Component
+public class EmployeeChangeFeed {
+
+    private static final String RESET_EVENT = "reset";
+    private static final long NOT_SENDING = Long.MIN_VALUE;
+
+    private final ChangeFeedEntry[] ring;
+    private final int mask;
+    private final long emitterTimeoutMillis;
+    private final int queueCapacity;
+    private final long sendTimeoutNanos;
+    private final int dispatchThreads;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor dispatcher;
+    private final ScheduledExecutorService heartbeat;
+
+    private long lastSequence;
+    private volatile long head;
+    // dispatch threads added in place of threads stuck on a slow subscriber, guarded by dispatcher
+    private int replacedDispatchers;
+
+    public EmployeeChangeFeed(ChangeFeedProperties properties, MeterRegistry meterRegistry) {
+        int capacity = Integer.highestOneBit(Math.max(2, properties.getCapacity() - 1)) << 1;
+        this.ring = new ChangeFeedEntry[capacity];
+        this.mask = capacity - 1;
+        this.emitterTimeoutMillis = properties.getEmitterTimeout().toMillis();
+        this.queueCapacity = properties.getSubscriberQueueCapacity();
+        this.sendTimeoutNanos = properties.getSendTimeout().toNanos();
+        this.dispatchThreads = properties.getDispatchThreads();
+        this.dispatcher = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads("change-feed-dispatch"));
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(daemonThreads("change-feed-heartbeat"));
+        long heartbeatMillis = properties.getHeartbeatInterval().toMillis();
+        heartbeat.scheduleAtFixedRate(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        long watchdogMillis = Math.max(1, properties.getSendTimeout().toMillis() / 2);
+        heartbeat.scheduleAtFixedRate(this::dropStalledSubscribers, watchdogMillis, watchdogMillis, TimeUnit.MILLISECONDS);
+        Gauge.builder("employee.change-feed.subscribers", subscribers, Set::size).register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        append(event);
+        for (Subscriber subscriber : subscribers) {
+            schedule(subscriber);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeesImported(EmployeesImportedEvent event) {
+        for (EmployeeChangedEvent change : event.getChanges()) {
+            append(change);
+        }
+        for (Subscriber subscriber : subscribers) {
+            schedule(subscriber);
+        }
+    }
+
+    public SseEmitter subscribe(Long lastEventId) {
+        return subscribe(new SseEmitter(emitterTimeoutMillis), lastEventId);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, Long lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter, queueCapacity);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        // registered under the append lock, so every event is either replayed or queued, never both
+        synchronized (this) {
+            long currentHead = head;
+            subscriber.resetSequence = currentHead;
+            if (lastEventId != null) {
+                if (lastEventId > currentHead || lastEventId < oldestSequence(currentHead) - 1) {
+                    // unknown id (the node restarted) or already overwritten: the client has a gap
+                    subscriber.resetPending = true;
+                } else {
+                    for (long sequence = lastEventId + 1; sequence <= currentHead; sequence++) {
+                        if (!subscriber.queue.offer(read(sequence))) {
+                            subscriber.queue.clear();
+                            subscriber.resetPending = true;
+                            break;
+                        }
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        schedule(subscriber);
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private synchronized void append(EmployeeChangedEvent event) {
+        long sequence = ++lastSequence;
+        ChangeFeedEntry entry = new ChangeFeedEntry(sequence, event);
+        ring[(int) (sequence & mask)] = entry;
+        head = sequence;
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.queue.offer(entry)) {
+                // fell behind; it will resume from the ring or get a reset when it reconnects
+                subscriber.overflowed = true;
+                remove(subscriber);
+                schedule(subscriber);
+            }
+        }
+    }
+
+    private ChangeFeedEntry read(long sequence) {
+        ChangeFeedEntry entry = ring[(int) (sequence & mask)];
+        return entry != null && entry.getSequence() == sequence ? entry : null;
+    }
+
+    private long oldestSequence(long currentHead) {
+        return Math.max(1, currentHead - ring.length + 1);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(() -> drain(subscriber));
+            } catch (RuntimeException e) {
+                subscriber.scheduled.set(false);
+                log.warn("Unable to dispatch change feed events", e);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            if (subscriber.overflowed) {
+                subscriber.emitter.complete();
+                return;
+            }
+            boolean sent = false;
+            if (subscriber.resetPending) {
+                send(subscriber, SseEmitter.event()
+                        .id(String.valueOf(subscriber.resetSequence))
+                        .name(RESET_EVENT)
+                        .data("{\"sequence\":" + subscriber.resetSequence + "}", MediaType.APPLICATION_JSON));
+                subscriber.resetPending = false;
+                sent = true;
+            }
+            ChangeFeedEntry entry;
+            while (!subscriber.closed && (entry = subscriber.queue.poll()) != null) {
+                send(subscriber, SseEmitter.event()
+                        .id(String.valueOf(entry.getSequence()))
+                        .name(entry.getType().name().toLowerCase())
+                        .data(entry, MediaType.APPLICATION_JSON));
+                sent = true;
+            }
+            if (subscriber.heartbeatDue && !sent && !subscriber.closed) {
+                send(subscriber, SseEmitter.event().comment("heartbeat"));
+            }
+            subscriber.heartbeatDue = false;
+        } catch (IOException | IllegalStateException e) {
+            remove(subscriber);
+            return;
+        } finally {
+            subscriber.scheduled.set(false);
+            if (subscriber.replaced.compareAndSet(true, false)) {
+                restoreDispatcher();
+            }
+        }
+        if (subscriber.overflowed || (!subscriber.closed && !subscriber.queue.isEmpty())) {
+            schedule(subscriber);
+        }
+    }
+
+    private static void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+        subscriber.sendStartedNanos = System.nanoTime();
+        try {
+            subscriber.emitter.send(event);
+        } finally {
+            subscriber.sendStartedNanos = NOT_SENDING;
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            schedule(subscriber);
+        }
+    }
+
+    private void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.sendStartedNanos;
+            if (started != NOT_SENDING && now - started > sendTimeoutNanos) {
+                // the emitter cannot be completed while the write holds it; it fails once the socket times out
+                log.info("Dropping change feed subscriber stuck in a write for {} ms",
+                        TimeUnit.NANOSECONDS.toMillis(now - started));
+                remove(subscriber);
+                replaceDispatcher(subscriber);
+            }
+        }
+    }
+
+    private void replaceDispatcher(Subscriber subscriber) {
+        synchronized (dispatcher) {
+            // at most doubles the pool, beyond that stuck writes are dropped but not replaced
+            if (replacedDispatchers == dispatchThreads) {
+                return;
+            }
+            replacedDispatchers++;
+            dispatcher.setMaximumPoolSize(dispatchThreads + replacedDispatchers);
+            dispatcher.setCorePoolSize(dispatchThreads + replacedDispatchers);
+            subscriber.replaced.set(true);
+        }
+        if (!subscriber.scheduled.get() && subscriber.replaced.compareAndSet(true, false)) {
+            // the write returned in the meantime and its drain has already finished
+            restoreDispatcher();
+        }
+    }
+
+    private void restoreDispatcher() {
+        synchronized (dispatcher) {
+            replacedDispatchers--;
+            dispatcher.setCorePoolSize(dispatchThreads + replacedDispatchers);
+            dispatcher.setMaximumPoolSize(dispatchThreads + replacedDispatchers);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+        subscriber.queue.clear();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        dispatcher.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix + "-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final BlockingQueue<ChangeFeedEntry> queue;
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        final AtomicBoolean replaced = new AtomicBoolean();
+        long resetSequence;
+        volatile boolean resetPending;
+        volatile boolean heartbeatDue;
+        volatile boolean overflowed;
+        volatile boolean closed;
+        volatile long sendStartedNanos = NOT_SENDING;
+
+        Subscriber(SseEmitter emitter, int queueCapacity) {
+            this.emitter = emitter;
+            this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package net.dd.spring.guide.springboot.event;
+
+public enum EmployeeChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,69 @@
+package net.dd.spring.guide.springboot.event;
+
+import net.dd.spring.guide.springboot.model.Employee;
+
+/**
+ * Published by the service layer for every employee mutation. Listeners that need the
+ * committed state register with {@code @TransactionalEventListener}.
+ *
+ * The employee is a copy taken at publish time, so listeners never observe later changes
+ * made to the managed entity. It is {@code null} for deletions.
+ *
+ * Remote events replay a change committed by another node. They carry the state read back
+ * from the database when the change was picked up, which may already include later writes.
+ */
+public class EmployeeChangedEvent {
+
+    private final EmployeeChangeType type;
+    private final long employeeId;
+    private final Employee employee;
+    private final boolean remote;
+
+    private EmployeeChangedEvent(EmployeeChangeType type, long employeeId, Employee employee, boolean remote) {
+        this.type = type;
+        this.employeeId = employeeId;
+        this.employee = employee;
+        this.remote = remote;
+    }
+
+    public static EmployeeChangedEvent created(Employee employee) {
+        return new EmployeeChangedEvent(EmployeeChangeType.CREATED, employee.getId(), copyOf(employee), false);
+    }
+
+    public static EmployeeChangedEvent updated(Employee employee) {
+        return new EmployeeChangedEvent(EmployeeChangeType.UPDATED, employee.getId(), copyOf(employee), false);
+    }
+
+    public static EmployeeChangedEvent deleted(long employeeId) {
+        return new EmployeeChangedEvent(EmployeeChangeType.DELETED, employeeId, null, false);
+    }
+
+    public static EmployeeChangedEvent remote(EmployeeChangeType type, long employeeId, Employee current) {
+        return new EmployeeChangedEvent(type, employeeId, current == null ? null : copyOf(current), true);
+    }
+
+    public EmployeeChangeType getType() {
+        return type;
+    }
+
+    public long getEmployeeId() {
+        return employeeId;
+    }
+
+    public Employee getEmployee() {
+        return employee;
+    }
+
+    public boolean isRemote() {
+        return remote;
+    }
+
+    private static Employee copyOf(Employee employee) {
+        return Employee.builder()
+                .id(employee.getId())
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email(employee.getEmail())
+                .build();
+    }
+}
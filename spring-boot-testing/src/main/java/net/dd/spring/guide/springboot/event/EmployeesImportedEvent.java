@@ -0,0 +1,31 @@
+package net.dd.spring.guide.springboot.event;
+
+import net.dd.spring.guide.springboot.model.Employee;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Published once per chunk written by a bulk load, in the chunk's transaction, instead of one
+ * {@link EmployeeChangedEvent} per row. Listeners that keep derived state handle it the same way
+ * as the equivalent sequence of {@link EmployeeChangedEvent#created(Employee) created} events,
+ * which {@link #getChanges()} returns in id order.
+ */
+public class EmployeesImportedEvent {
+
+    private final List<EmployeeChangedEvent> changes;
+
+    public EmployeesImportedEvent(List<Employee> employees) {
+        List<EmployeeChangedEvent> created = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            created.add(EmployeeChangedEvent.created(employee));
+        }
+        created.sort((a, b) -> Long.compare(a.getEmployeeId(), b.getEmployeeId()));
+        this.changes = Collections.unmodifiableList(created);
+    }
+
+    public List<EmployeeChangedEvent> getChanges() {
+        return changes;
+    }
+}
@@ -0,0 +1,39 @@
+package net.dd.spring.guide.springboot.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Base class for expected business outcomes (not found, duplicate, conflict).
+ *
+ * These are part of normal request handling, so they are created without a stack trace or
+ * suppression list. Instances built with a fixed message carry no request specific state and
+ * may be shared as constants; their error body is encoded once by
+ * {@link RestResponseEntityExceptionHandler}.
+ */
+public abstract class BusinessException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final boolean fixedMessage;
+
+    protected BusinessException(HttpStatus status, String message) {
+        this(status, message, null, false);
+    }
+
+    protected BusinessException(HttpStatus status, String message, Throwable cause) {
+        this(status, message, cause, false);
+    }
+
+    protected BusinessException(HttpStatus status, String message, Throwable cause, boolean fixedMessage) {
+        super(message, cause, false, false);
+        this.status = status;
+        this.fixedMessage = fixedMessage;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public boolean isFixedMessage() {
+        return fixedMessage;
+    }
+}
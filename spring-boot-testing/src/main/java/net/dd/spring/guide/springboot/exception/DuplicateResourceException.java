@@ -0,0 +1,20 @@
+package net.dd.spring.guide.springboot.exception;
+
+public class DuplicateResourceException extends ResourceConflictException {
+
+    // the rejected email is in the request already; leaving it out keeps one shared, pre-encoded body
+    public static final DuplicateResourceException EMAIL_TAKEN =
+            new DuplicateResourceException("Employee already exist with given email", true);
+
+    public DuplicateResourceException(String message){
+        super(message);
+    }
+
+    public DuplicateResourceException(String message, Throwable cause){
+        super(message, cause);
+    }
+
+    private DuplicateResourceException(String message, boolean fixedMessage){
+        super(message, fixedMessage);
+    }
+}
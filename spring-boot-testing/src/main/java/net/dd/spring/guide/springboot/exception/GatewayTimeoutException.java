@@ -0,0 +1,20 @@
+package net.dd.spring.guide.springboot.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class GatewayTimeoutException extends BusinessException {
+
+    public static final GatewayTimeoutException QUERY_TIMED_OUT =
+            new GatewayTimeoutException("Query did not complete in time", true);
+
+    public static final GatewayTimeoutException DEADLINE_EXCEEDED =
+            new GatewayTimeoutException("Request deadline exceeded", true);
+
+    public GatewayTimeoutException(String message){
+        super(HttpStatus.GATEWAY_TIMEOUT, message);
+    }
+
+    private GatewayTimeoutException(String message, boolean fixedMessage){
+        super(HttpStatus.GATEWAY_TIMEOUT, message, null, fixedMessage);
+    }
+}
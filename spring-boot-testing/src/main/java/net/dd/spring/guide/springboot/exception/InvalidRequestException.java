@@ -0,0 +1,10 @@
+package net.dd.spring.guide.springboot.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class InvalidRequestException extends BusinessException {
+
+    public InvalidRequestException(String message){
+        super(HttpStatus.BAD_REQUEST, message);
+    }
+}
@@ -0,0 +1,21 @@
+package net.dd.spring.guide.springboot.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ResourceConflictException extends BusinessException {
+
+    public static final ResourceConflictException CONSTRAINT_VIOLATED =
+            new ResourceConflictException("Request conflicts with an existing resource", true);
+
+    public ResourceConflictException(String message){
+        super(HttpStatus.CONFLICT, message);
+    }
+
+    public ResourceConflictException(String message, Throwable cause){
+        super(HttpStatus.CONFLICT, message, cause);
+    }
+
+    protected ResourceConflictException(String message, boolean fixedMessage){
+        super(HttpStatus.CONFLICT, message, null, fixedMessage);
+    }
+}
@@ -1,12 +1,21 @@
 package net.dd.spring.guide.springboot.exception;
 
-public class ResourceNotFoundException extends RuntimeException{
+import org.springframework.http.HttpStatus;
+
+public class ResourceNotFoundException extends BusinessException {
+
+    public static final ResourceNotFoundException EMPLOYEE_NOT_FOUND =
+            new ResourceNotFoundException("Employee not found", true);
 
     public ResourceNotFoundException(String message){
-        super(message);
+        super(HttpStatus.NOT_FOUND, message);
     }
 
     public ResourceNotFoundException(String message, Throwable cause){
-        super(message, cause);
+        super(HttpStatus.NOT_FOUND, message, cause);
+    }
+
+    private ResourceNotFoundException(String message, boolean fixedMessage){
+        super(HttpStatus.NOT_FOUND, message, null, fixedMessage);
     }
 }
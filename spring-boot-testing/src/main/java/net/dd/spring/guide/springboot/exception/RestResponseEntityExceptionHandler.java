@@ -1,20 +1,60 @@
 package net.dd.spring.guide.springboot.exception;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import net.dd.spring.guide.springboot.model.ErrorMessage;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @ControllerAdvice
 public class RestResponseEntityExceptionHandler extends ResponseEntityExceptionHandler {
-    @ExceptionHandler(ResourceNotFoundException.class)
-    @ResponseBody
-    @ResponseStatus(HttpStatus.NOT_ACCEPTABLE)
-    public ErrorMessage employeeNotFoundHandler(ResourceNotFoundException exception) {
-        return new ErrorMessage(HttpStatus.NOT_ACCEPTABLE, exception.getMessage());
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final ObjectMapper objectMapper;
+
+    // Keyed by identity; only shared fixed-message constants end up here, so it stays tiny.
+    private final Map<BusinessException, byte[]> encodedBodies = new ConcurrentHashMap<>();
+
+    public RestResponseEntityExceptionHandler(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @ExceptionHandler(BusinessException.class)
+    public ResponseEntity<Object> businessExceptionHandler(BusinessException exception) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(exception.getStatus())
+                .contentType(MediaType.APPLICATION_JSON);
+        if (exception.getStatus() == HttpStatus.SERVICE_UNAVAILABLE) {
+            response.header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        }
+        if (exception.isFixedMessage()) {
+            return response.body(encodedBodies.computeIfAbsent(exception, this::encode));
+        }
+        return response.body(new ErrorMessage(exception.getStatus(), exception.getMessage()));
+    }
+
+    // statements cancelled by their query timeout, wherever they were issued from
+    @ExceptionHandler(QueryTimeoutException.class)
+    public ResponseEntity<Object> queryTimeoutExceptionHandler(QueryTimeoutException exception) {
+        return businessExceptionHandler(GatewayTimeoutException.QUERY_TIMED_OUT);
+    }
+
+    // a concurrent write won the race past the service level checks, e.g. two creates of one email
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Object> dataIntegrityViolationExceptionHandler(DataIntegrityViolationException exception) {
+        return businessExceptionHandler(ResourceConflictException.CONSTRAINT_VIOLATED);
     }
 
     @ExceptionHandler(Exception.class)
@@ -23,4 +63,12 @@ public class RestResponseEntityExceptionHandler extends ResponseEntityExceptionH
     public ErrorMessage genericExceptionHandler(Exception exception) {
         return new ErrorMessage(HttpStatus.INTERNAL_SERVER_ERROR, exception.getMessage());
     }
+
+    private byte[] encode(BusinessException exception) {
+        try {
+            return objectMapper.writeValueAsBytes(new ErrorMessage(exception.getStatus(), exception.getMessage()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to encode error body for " + exception.getClass().getName(), e);
+        }
+    }
 }
@@ -0,0 +1,20 @@
+package net.dd.spring.guide.springboot.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ServiceUnavailableException extends BusinessException {
+
+    public static final ServiceUnavailableException EXECUTOR_SATURATED =
+            new ServiceUnavailableException("Server is overloaded, retry later", true);
+
+    public static final ServiceUnavailableException DATABASE_DEGRADED =
+            new ServiceUnavailableException("Database is degraded, retry later", true);
+
+    public ServiceUnavailableException(String message){
+        super(HttpStatus.SERVICE_UNAVAILABLE, message);
+    }
+
+    private ServiceUnavailableException(String message, boolean fixedMessage){
+        super(HttpStatus.SERVICE_UNAVAILABLE, message, null, fixedMessage);
+    }
+}
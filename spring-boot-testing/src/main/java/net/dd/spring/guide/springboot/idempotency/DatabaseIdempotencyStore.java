@@ -0,0 +1,106 @@
+package net.dd.spring.guide.springboot.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Shared store for deployments with several nodes behind a load balancer, so a retry that
+ * lands on another node still replays the original response. A small in-memory store sits
+ * in front of it to keep hot replays off the database.
+ *
+ * A request claims its key with a {@link IdempotencyRecord#PENDING} row before it runs; the
+ * primary key makes a concurrent duplicate on another node fail the insert and wait for the
+ * response instead. A claim older than the claim timeout is assumed to belong to a node that
+ * died and may be taken over. Every claim carries a random owner token and only the current
+ * owner may complete or release it, so a node that was slow rather than dead cannot overwrite
+ * the response of the node that took its claim over.
+ */
+@Slf4j
+public class DatabaseIdempotencyStore implements IdempotencyStore {
+
+    private final IdempotencyRecordRepository repository;
+    private final InMemoryIdempotencyStore localStore;
+    private final long ttlMillis;
+    private final long claimTimeoutMillis;
+    private final Clock clock;
+    // owner tokens of the claims held by this node; the filter runs one request per key at a time
+    private final ConcurrentMap<String, String> claims = new ConcurrentHashMap<>();
+
+    public DatabaseIdempotencyStore(IdempotencyRecordRepository repository, InMemoryIdempotencyStore localStore,
+                                    Duration ttl, Duration claimTimeout, Clock clock) {
+        this.repository = repository;
+        this.localStore = localStore;
+        this.ttlMillis = ttl.toMillis();
+        this.claimTimeoutMillis = claimTimeout.toMillis();
+        this.clock = clock;
+    }
+
+    @Override
+    public StoredResponse find(String key) {
+        StoredResponse response = localStore.find(key);
+        if (response != null) {
+            return response;
+        }
+        return repository.findById(key)
+                .filter(record -> record.getStatus() != IdempotencyRecord.PENDING)
+                .filter(record -> clock.millis() - record.getCreatedAt() <= ttlMillis)
+                .map(record -> {
+                    StoredResponse stored = new StoredResponse(record.getStatus(), record.getContentType(),
+                            record.getBody(), record.getRequestHash(), record.getCreatedAt());
+                    localStore.save(key, stored);
+                    return stored;
+                })
+                .orElse(null);
+    }
+
+    @Override
+    public boolean claim(String key, String requestHash) {
+        long now = clock.millis();
+        String owner = UUID.randomUUID().toString();
+        boolean claimed;
+        try {
+            claimed = repository.insertPending(key, requestHash, owner, now) == 1;
+        } catch (DataIntegrityViolationException e) {
+            claimed = repository.takeOverPending(key, requestHash, owner, now, now - claimTimeoutMillis) == 1;
+        }
+        if (claimed) {
+            claims.put(key, owner);
+        }
+        return claimed;
+    }
+
+    @Override
+    public void release(String key) {
+        String owner = claims.remove(key);
+        if (owner != null) {
+            repository.deletePending(key, owner);
+        }
+    }
+
+    @Override
+    public void save(String key, StoredResponse response) {
+        String owner = claims.remove(key);
+        if (owner == null || repository.completePending(key, owner, response.getStatus(), response.getContentType(),
+                response.getBody(), response.getRequestHash(), response.getCreatedAt()) == 0) {
+            // the claim timed out and another node took it over; its response is the one to replay
+            log.warn("Lost the claim on idempotency key {}, response not stored", key);
+            return;
+        }
+        localStore.save(key, response);
+    }
+
+    @Scheduled(fixedDelayString = "${employee.idempotency.purge-interval:PT10M}")
+    public void purgeExpired() {
+        int purged = repository.deleteCreatedBefore(clock.millis() - ttlMillis);
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+}
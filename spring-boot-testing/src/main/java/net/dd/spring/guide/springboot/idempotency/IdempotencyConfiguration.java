@@ -0,0 +1,39 @@
+package net.dd.spring.guide.springboot.idempotency;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+@ConditionalOnProperty(prefix = "employee.idempotency", name = "enabled", havingValue = "true")
+public class IdempotencyConfiguration {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(IdempotencyProperties properties,
+                                             IdempotencyRecordRepository idempotencyRecordRepository) {
+        InMemoryIdempotencyStore localStore = new InMemoryIdempotencyStore(properties.getMaxEntries(),
+                properties.getTtl(), Clock.systemUTC());
+        if (properties.getStore() == IdempotencyProperties.StoreType.DATABASE) {
+            return new DatabaseIdempotencyStore(idempotencyRecordRepository, localStore, properties.getTtl(),
+                    properties.getClaimTimeout(), Clock.systemUTC());
+        }
+        return localStore;
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore idempotencyStore,
+                                                                       IdempotencyProperties properties) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+                new IdempotencyFilter(idempotencyStore, properties.getWaitTimeout(),
+                        properties.getMaxBodySize(), Clock.systemUTC()));
+        registration.addUrlPatterns("/api/employees");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
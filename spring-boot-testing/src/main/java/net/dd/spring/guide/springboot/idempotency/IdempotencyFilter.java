@@ -0,0 +1,292 @@
+package net.dd.spring.guide.springboot.idempotency;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Honours the {@code Idempotency-Key} header on {@code POST /api/employees}.
+ *
+ * The first request for a key runs normally and its response (status, content type and
+ * body) is recorded; later requests with the same key get that response replayed without
+ * reaching the controller or the repository. Requests that arrive while the first one is
+ * still running wait for its result instead of executing a second time: on the same node
+ * through an in-flight map, across nodes through the store's claim. Server errors are not
+ * recorded, so a retry after a 5xx really retries.
+ *
+ * A key is bound to the request it first arrived with (a SHA-256 over method, path and
+ * body). Reusing it for a different request is a client bug and answered with 422 rather
+ * than with the unrelated stored response. The body has to be held in memory for that and for
+ * the controller, so bodies larger than the configured limit are rejected with 413 before
+ * anything is claimed.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 128;
+    private static final long CLAIM_POLL_MILLIS = 50;
+    private static final DataSize DEFAULT_MAX_BODY_SIZE = DataSize.ofMegabytes(1);
+
+    private final IdempotencyStore store;
+    private final long waitTimeoutMillis;
+    private final long maxBodyBytes;
+    private final Clock clock;
+    private final ConcurrentMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyFilter(IdempotencyStore store, Duration waitTimeout, Clock clock) {
+        this(store, waitTimeout, DEFAULT_MAX_BODY_SIZE, clock);
+    }
+
+    public IdempotencyFilter(IdempotencyStore store, Duration waitTimeout, DataSize maxBodySize, Clock clock) {
+        this.store = store;
+        this.waitTimeoutMillis = waitTimeout.toMillis();
+        this.maxBodyBytes = maxBodySize.toBytes();
+        this.clock = clock;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        byte[] body = request.getContentLengthLong() > maxBodyBytes ? null : readBody(request.getInputStream());
+        if (body == null) {
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Request body exceeds " + maxBodyBytes + " bytes and cannot be made idempotent");
+            return;
+        }
+        String requestHash = requestHash(request, body);
+
+        StoredResponse stored = store.find(key);
+        if (stored != null) {
+            replay(stored, requestHash, response);
+            return;
+        }
+
+        CompletableFuture<StoredResponse> claim = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(key, claim);
+        if (running != null) {
+            awaitAndReplay(running, requestHash, response);
+            return;
+        }
+        boolean claimed = false;
+        try {
+            // the first request may have finished between the lookup and the claim
+            stored = store.find(key);
+            if (stored != null) {
+                claim.complete(stored);
+                replay(stored, requestHash, response);
+                return;
+            }
+            if (!store.claim(key, requestHash)) {
+                // running on another node
+                stored = awaitStored(key);
+                if (stored == null) {
+                    claim.completeExceptionally(new TimeoutException());
+                    writeError(response, HttpStatus.CONFLICT, "A request with the same Idempotency-Key is in progress");
+                } else {
+                    claim.complete(stored);
+                    replay(stored, requestHash, response);
+                }
+                return;
+            }
+            claimed = true;
+            ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+            filterChain.doFilter(new CachedBodyRequest(request, body), responseWrapper);
+            StoredResponse result = new StoredResponse(responseWrapper.getStatus(), responseWrapper.getContentType(),
+                    responseWrapper.getContentAsByteArray(), requestHash, clock.millis());
+            if (result.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                store.save(key, result);
+            } else {
+                store.release(key);
+            }
+            claimed = false;
+            claim.complete(result);
+            responseWrapper.copyBodyToResponse();
+        } catch (IOException | ServletException | RuntimeException e) {
+            claim.completeExceptionally(e);
+            throw e;
+        } finally {
+            if (claimed) {
+                store.release(key);
+            }
+            inFlight.remove(key, claim);
+        }
+    }
+
+    // stops at the limit, so a client sending without or ignoring Content-Length cannot exhaust the heap
+    private byte[] readBody(InputStream in) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            total += read;
+            if (total > maxBodyBytes) {
+                return null;
+            }
+            body.write(buffer, 0, read);
+        }
+        return body.toByteArray();
+    }
+
+    private StoredResponse awaitStored(String key) throws IOException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTimeoutMillis);
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(CLAIM_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            StoredResponse stored = store.find(key);
+            if (stored != null) {
+                return stored;
+            }
+        }
+        return null;
+    }
+
+    private void awaitAndReplay(CompletableFuture<StoredResponse> running, String requestHash,
+                                HttpServletResponse response) throws IOException {
+        try {
+            replay(running.get(waitTimeoutMillis, TimeUnit.MILLISECONDS), requestHash, response);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writeError(response, HttpStatus.CONFLICT, "A request with the same Idempotency-Key is in progress");
+        } catch (TimeoutException | ExecutionException e) {
+            writeError(response, HttpStatus.CONFLICT, "A request with the same Idempotency-Key is in progress");
+        }
+    }
+
+    private static void replay(StoredResponse stored, String requestHash, HttpServletResponse response)
+            throws IOException {
+        if (stored.getRequestHash() != null && !stored.getRequestHash().equals(requestHash)) {
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used for a different request");
+            return;
+        }
+        response.setStatus(stored.getStatus());
+        if (stored.getContentType() != null) {
+            response.setContentType(stored.getContentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.getBody().length);
+        response.getOutputStream().write(stored.getBody());
+    }
+
+    private static String requestHash(HttpServletRequest request, byte[] body) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+        digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+        digest.update(body);
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        byte[] body = ("{\"status\":\"" + status.name() + "\",\"message\":\"" + message + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    // the body was read for the fingerprint, so it is served again from memory
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package net.dd.spring.guide.springboot.idempotency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.idempotency")
+public class IdempotencyProperties {
+
+    public enum StoreType {
+        MEMORY,
+        DATABASE
+    }
+
+    private boolean enabled;
+
+    private StoreType store = StoreType.MEMORY;
+
+    /** How long a stored response is replayed. */
+    private Duration ttl = Duration.ofHours(24);
+
+    /** Upper bound of the node local store. */
+    private int maxEntries = 10_000;
+
+    /** How long a concurrent duplicate waits for the in-flight original. */
+    private Duration waitTimeout = Duration.ofSeconds(10);
+
+    /** Largest request body fingerprinted and buffered for a keyed request; larger ones get 413. */
+    private DataSize maxBodySize = DataSize.ofMegabytes(1);
+
+    /** Age after which another node may take over an unfinished claim (database store only). */
+    private Duration claimTimeout = Duration.ofMinutes(1);
+}
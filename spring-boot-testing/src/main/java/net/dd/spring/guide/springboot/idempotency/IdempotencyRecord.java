@@ -0,0 +1,42 @@
+package net.dd.spring.guide.springboot.idempotency;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+
+@Entity
+@Table(name = "tbl_idempotency_keys")
+public class IdempotencyRecord {
+
+    /** Status of a key claimed by a request that has not completed yet. */
+    public static final int PENDING = 0;
+
+    @Id
+    @Column(name = "idempotency_key", length = 128)
+    private String key;
+
+    @Column(nullable = false)
+    private int status;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Lob
+    private byte[] body;
+
+    @Column(name = "request_hash", length = 64)
+    private String requestHash;
+
+    @Column(name = "created_at", nullable = false)
+    private long createdAt;
+
+    /** Token of the claim that may complete this record, {@code null} once completed. */
+    @Column(name = "claim_owner", length = 36)
+    private String owner;
+}
@@ -0,0 +1,45 @@
+package net.dd.spring.guide.springboot.idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") long cutoff);
+
+    // a plain insert, save() would merge into a row claimed by another node
+    @Transactional
+    @Modifying
+    @Query(value = "insert into tbl_idempotency_keys (idempotency_key, status, request_hash, created_at, claim_owner)"
+            + " values (:key, 0, :requestHash, :now, :owner)", nativeQuery = true)
+    int insertPending(@Param("key") String key, @Param("requestHash") String requestHash, @Param("owner") String owner,
+                      @Param("now") long now);
+
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.requestHash = :requestHash, r.owner = :owner, r.createdAt = :now"
+            + " where r.key = :key and r.status = 0 and r.createdAt < :staleBefore")
+    int takeOverPending(@Param("key") String key, @Param("requestHash") String requestHash,
+                        @Param("owner") String owner, @Param("now") long now, @Param("staleBefore") long staleBefore);
+
+    // only the current owner may complete a claim, a node whose claim was taken over updates nothing
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.status = :status, r.contentType = :contentType, r.body = :body,"
+            + " r.requestHash = :requestHash, r.createdAt = :createdAt, r.owner = null"
+            + " where r.key = :key and r.owner = :owner and r.status = 0")
+    int completePending(@Param("key") String key, @Param("owner") String owner, @Param("status") int status,
+                        @Param("contentType") String contentType, @Param("body") byte[] body,
+                        @Param("requestHash") String requestHash, @Param("createdAt") long createdAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.key = :key and r.owner = :owner and r.status = 0")
+    int deletePending(@Param("key") String key, @Param("owner") String owner);
+}
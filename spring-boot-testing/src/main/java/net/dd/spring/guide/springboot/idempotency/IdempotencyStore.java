@@ -0,0 +1,28 @@
+package net.dd.spring.guide.springboot.idempotency;
+
+public interface IdempotencyStore {
+
+    /**
+     * @return the response stored for the key, or {@code null} if none or if it has expired
+     */
+    StoredResponse find(String key);
+
+    /**
+     * Reserves the key for a request about to run. Duplicates on the same node already wait
+     * in {@link IdempotencyFilter}; this only has to exclude other nodes, so node local
+     * stores always succeed.
+     *
+     * @return {@code false} if another node is running a request with this key
+     */
+    default boolean claim(String key, String requestHash) {
+        return true;
+    }
+
+    /**
+     * Drops a claim whose request produced nothing worth replaying, so it can be retried.
+     */
+    default void release(String key) {
+    }
+
+    void save(String key, StoredResponse response);
+}
@@ -0,0 +1,50 @@
+package net.dd.spring.guide.springboot.idempotency;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Node local store bounded both by entry count (least recently used first) and by age.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final long ttlMillis;
+    private final Clock clock;
+    private final Map<String, StoredResponse> responses;
+
+    public InMemoryIdempotencyStore(int maxEntries, Duration ttl, Clock clock) {
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.responses = new LinkedHashMap<String, StoredResponse>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > maxEntries || isExpired(eldest.getValue());
+            }
+        };
+    }
+
+    @Override
+    public synchronized StoredResponse find(String key) {
+        StoredResponse response = responses.get(key);
+        if (response != null && isExpired(response)) {
+            responses.remove(key);
+            return null;
+        }
+        return response;
+    }
+
+    @Override
+    public synchronized void save(String key, StoredResponse response) {
+        responses.put(key, response);
+    }
+
+    public synchronized int size() {
+        return responses.size();
+    }
+
+    private boolean isExpired(StoredResponse response) {
+        return clock.millis() - response.getCreatedAt() > ttlMillis;
+    }
+}
@@ -0,0 +1,46 @@
+package net.dd.spring.guide.springboot.idempotency;
+
+/**
+ * Response recorded for an idempotency key and replayed verbatim on retries, together with
+ * the fingerprint of the request that produced it ({@code null} if unknown).
+ */
+public class StoredResponse {
+
+    private final int status;
+    private final String contentType;
+    private final byte[] body;
+    private final String requestHash;
+    private final long createdAt;
+
+    public StoredResponse(int status, String contentType, byte[] body, long createdAt) {
+        this(status, contentType, body, null, createdAt);
+    }
+
+    public StoredResponse(int status, String contentType, byte[] body, String requestHash, long createdAt) {
+        this.status = status;
+        this.contentType = contentType;
+        this.body = body;
+        this.requestHash = requestHash;
+        this.createdAt = createdAt;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+}
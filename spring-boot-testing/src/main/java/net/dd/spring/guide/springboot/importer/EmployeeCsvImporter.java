@@ -0,0 +1,345 @@
+package net.dd.spring.guide.springboot.importer;
+
+import lombok.extern.slf4j.Slf4j;
+import net.dd.spring.guide.springboot.event.EmployeesImportedEvent;
+import net.dd.spring.guide.springboot.model.EmailNormalizer;
+import net.dd.spring.guide.springboot.model.Employee;
+import net.dd.spring.guide.springboot.repository.EmployeeBatchInserter;
+import net.dd.spring.guide.springboot.repository.EmployeeRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Streams {@code firstName,lastName,email} CSV into {@code tbl_employees}.
+ *
+ * Lines are read sequentially and cut into chunks; chunks are parsed and validated in
+ * parallel, then persisted strictly in order on the calling thread: one IN lookup to drop
+ * emails that already exist, one JDBC batch insert, one transaction per chunk. Because a
+ * chunk is committed before the next one is checked, duplicates across chunks are caught by
+ * the database lookup and nothing proportional to the file size is kept in memory; at most
+ * {@code 2 * parallelism} chunks are alive at any time.
+ *
+ * A chunk that hits a unique key violation anyway, because another writer inserted one of
+ * its emails after the lookup, is retried row by row and the conflicting rows are reported
+ * as duplicates instead of failing the import. Lines longer than the configured maximum are
+ * skipped and reported as row errors.
+ *
+ * Each committed chunk is read back and announced as one {@link EmployeesImportedEvent}, so
+ * caches, the change feed and the change log see imported rows like any other create.
+ */
+@Slf4j
+@Service
+public class EmployeeCsvImporter {
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final int MAX_COLUMN_LENGTH = 255;
+    private static final String LINE_TOO_LONG = "Line exceeds the maximum line length";
+
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeBatchInserter batchInserter;
+    private final TransactionTemplate transactionTemplate;
+    private final ImportProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public EmployeeCsvImporter(EmployeeRepository employeeRepository, EmployeeBatchInserter batchInserter,
+                               PlatformTransactionManager transactionManager, ImportProperties properties,
+                               ApplicationEventPublisher eventPublisher) {
+        this.employeeRepository = employeeRepository;
+        this.batchInserter = batchInserter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public ImportReport importStream(InputStream inputStream) throws IOException {
+        try (LineSource source = LineSource.of(inputStream, properties.getMaxLineLength())) {
+            return run(source);
+        }
+    }
+
+    public ImportReport importFile(Path file) throws IOException {
+        try (LineSource source = new MappedLineReader(file, properties.getMaxLineLength())) {
+            return run(source);
+        }
+    }
+
+    private ImportReport run(LineSource source) throws IOException {
+        ImportReport report = new ImportReport(properties.getMaxReportedErrors());
+        long start = System.nanoTime();
+        int maxInFlight = properties.getParallelism() * 2;
+        ExecutorService parsers = Executors.newFixedThreadPool(properties.getParallelism(), parserThreadFactory());
+        Deque<Future<ParsedChunk>> inFlight = new ArrayDeque<>(maxInFlight);
+        long nextProgressReport = properties.getProgressIntervalRows();
+        try {
+            long lineNumber = 0;
+            long chunkFirstLine = 1;
+            List<String> lines = new ArrayList<>(properties.getChunkSize());
+            for (;;) {
+                String line;
+                try {
+                    line = source.readLine();
+                    if (line == null) {
+                        break;
+                    }
+                } catch (LineTooLongException e) {
+                    // kept as a null placeholder, parse reports it under its line number
+                    line = null;
+                }
+                lineNumber++;
+                if (lineNumber == 1 && line != null && isHeader(line)) {
+                    chunkFirstLine = 2;
+                    continue;
+                }
+                lines.add(line);
+                if (lines.size() == properties.getChunkSize()) {
+                    inFlight.add(submit(parsers, chunkFirstLine, lines));
+                    lines = new ArrayList<>(properties.getChunkSize());
+                    chunkFirstLine = lineNumber + 1;
+                }
+                while (inFlight.size() >= maxInFlight) {
+                    persist(await(inFlight.poll()), report);
+                }
+                if (report.getRowsRead() >= nextProgressReport) {
+                    logProgress(report, start);
+                    nextProgressReport += properties.getProgressIntervalRows();
+                }
+            }
+            if (!lines.isEmpty()) {
+                inFlight.add(submit(parsers, chunkFirstLine, lines));
+            }
+            while (!inFlight.isEmpty()) {
+                persist(await(inFlight.poll()), report);
+            }
+        } finally {
+            parsers.shutdownNow();
+        }
+        report.finish(System.nanoTime() - start);
+        log.info("Imported {} of {} rows ({} duplicates, {} invalid) in {} ms, {} rows/s",
+                report.getRowsImported(), report.getRowsRead(), report.getDuplicateRows(),
+                report.getInvalidRows(), report.getElapsedMillis(), Math.round(report.getRowsPerSecond()));
+        return report;
+    }
+
+    private Future<ParsedChunk> submit(ExecutorService parsers, long firstLine, List<String> lines) {
+        return parsers.submit(() -> parse(firstLine, lines));
+    }
+
+    private void persist(ParsedChunk chunk, ImportReport report) {
+        report.addRowsRead(chunk.rowCount);
+        for (RowError error : chunk.errors) {
+            report.invalid(error.getLine(), error.getMessage());
+        }
+        if (chunk.employees.isEmpty()) {
+            return;
+        }
+
+        // duplicates are detected on the normalized email, the same key findByEmail uses
+        Set<String> emails = new HashSet<>(chunk.employees.size() * 2);
+        List<Employee> candidates = new ArrayList<>(chunk.employees.size());
+        List<Long> candidateLines = new ArrayList<>(chunk.employees.size());
+        for (int i = 0; i < chunk.employees.size(); i++) {
+            Employee employee = chunk.employees.get(i);
+            if (!emails.add(EmailNormalizer.normalize(employee.getEmail()))) {
+                report.duplicate(chunk.lines.get(i), employee.getEmail());
+            } else {
+                candidates.add(employee);
+                candidateLines.add(chunk.lines.get(i));
+            }
+        }
+
+        Set<String> existing = findExistingEmails(emails);
+        List<Employee> toInsert = new ArrayList<>(candidates.size());
+        List<Long> toInsertLines = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            Employee employee = candidates.get(i);
+            if (existing.contains(EmailNormalizer.normalize(employee.getEmail()))) {
+                report.duplicate(candidateLines.get(i), employee.getEmail());
+            } else {
+                toInsert.add(employee);
+                toInsertLines.add(candidateLines.get(i));
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return;
+        }
+        try {
+            insert(toInsert);
+            report.addImported(toInsert.size());
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent writer took some of these emails after the lookup; the chunk was
+            // rolled back as a whole, so retry its rows one by one to find the conflicts
+            log.info("Chunk starting at line {} conflicts with concurrent writes, inserting row by row",
+                    toInsertLines.get(0));
+            for (int i = 0; i < toInsert.size(); i++) {
+                Employee employee = toInsert.get(i);
+                try {
+                    insert(List.of(employee));
+                    report.addImported(1);
+                } catch (DuplicateKeyException rowException) {
+                    report.duplicate(toInsertLines.get(i), employee.getEmail());
+                } catch (DataIntegrityViolationException rowException) {
+                    report.invalid(toInsertLines.get(i), "Rejected by the database: "
+                            + rowException.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private void insert(List<Employee> employees) {
+        transactionTemplate.executeWithoutResult(status -> {
+            batchInserter.insert(employees, properties.getBatchSize());
+            // the batch reports no generated ids, read the rows back by their unique email
+            eventPublisher.publishEvent(new EmployeesImportedEvent(findInserted(employees)));
+        });
+    }
+
+    private Set<String> findExistingEmails(Set<String> emails) {
+        Set<String> existing = new HashSet<>();
+        List<String> batch = new ArrayList<>(properties.getLookupSize());
+        for (String email : emails) {
+            batch.add(email);
+            if (batch.size() == properties.getLookupSize()) {
+                existing.addAll(employeeRepository.findExistingEmails(batch));
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            existing.addAll(employeeRepository.findExistingEmails(batch));
+        }
+        return existing;
+    }
+
+    private List<Employee> findInserted(List<Employee> inserted) {
+        List<Employee> employees = new ArrayList<>(inserted.size());
+        List<String> batch = new ArrayList<>(properties.getLookupSize());
+        for (Employee employee : inserted) {
+            batch.add(employee.getEmail());
+            if (batch.size() == properties.getLookupSize()) {
+                employees.addAll(employeeRepository.findAllByEmails(batch));
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            employees.addAll(employeeRepository.findAllByEmails(batch));
+        }
+        return employees;
+    }
+
+    static ParsedChunk parse(long firstLine, List<String> lines) {
+        ParsedChunk chunk = new ParsedChunk(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            long lineNumber = firstLine + i;
+            String line = lines.get(i);
+            if (line == null) {
+                chunk.rowCount++;
+                chunk.errors.add(new RowError(lineNumber, LINE_TOO_LONG));
+                continue;
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.rowCount++;
+            List<String> fields;
+            try {
+                fields = CsvLineParser.parse(line);
+            } catch (IllegalArgumentException e) {
+                chunk.errors.add(new RowError(lineNumber, e.getMessage()));
+                continue;
+            }
+            String error = validate(fields);
+            if (error != null) {
+                chunk.errors.add(new RowError(lineNumber, error));
+                continue;
+            }
+            chunk.employees.add(Employee.builder()
+                    .firstName(fields.get(0))
+                    .lastName(fields.get(1))
+                    .email(fields.get(2))
+                    .build());
+            chunk.lines.add(lineNumber);
+        }
+        return chunk;
+    }
+
+    private static String validate(List<String> fields) {
+        if (fields.size() != 3) {
+            return "Expected 3 columns (firstName,lastName,email) but found " + fields.size();
+        }
+        for (String field : fields) {
+            if (field.isEmpty()) {
+                return "Empty column";
+            }
+            if (field.length() > MAX_COLUMN_LENGTH) {
+                return "Column longer than " + MAX_COLUMN_LENGTH + " characters";
+            }
+        }
+        if (!EMAIL.matcher(fields.get(2)).matches()) {
+            return "Invalid email:" + fields.get(2);
+        }
+        return null;
+    }
+
+    private static boolean isHeader(String line) {
+        String normalized = line.replace("\uFEFF", "").replace("_", "").replace("\"", "").toLowerCase();
+        return normalized.startsWith("firstname,");
+    }
+
+    private static ParsedChunk await(Future<ParsedChunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to parse chunk", e.getCause());
+        }
+    }
+
+    private static void logProgress(ImportReport report, long start) {
+        double seconds = (System.nanoTime() - start) / 1_000_000_000d;
+        log.info("Import progress: {} rows read, {} imported, {} rows/s",
+                report.getRowsRead(), report.getRowsImported(), Math.round(report.getRowsRead() / seconds));
+    }
+
+    private static ThreadFactory parserThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "csv-import-parser-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    static final class ParsedChunk {
+        final List<Employee> employees;
+        final List<Long> lines;
+        final List<RowError> errors = new ArrayList<>();
+        long rowCount;
+
+        ParsedChunk(int capacity) {
+            this.employees = new ArrayList<>(capacity);
+            this.lines = new ArrayList<>(capacity);
+        }
+    }
+}
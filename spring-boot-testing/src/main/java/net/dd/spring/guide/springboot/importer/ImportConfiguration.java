@@ -0,0 +1,31 @@
+package net.dd.spring.guide.springboot.importer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.util.List;
+
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(ImportProperties.class)
+public class ImportConfiguration {
+
+    // java -jar spring-boot-testing.jar --import-file=/data/employees.csv
+    @Bean
+    public ApplicationRunner csvImportRunner(EmployeeCsvImporter employeeCsvImporter) {
+        return args -> {
+            List<String> files = args.getOptionValues("import-file");
+            if (files == null) {
+                return;
+            }
+            for (String file : files) {
+                log.info("Importing employees from {}", file);
+                employeeCsvImporter.importFile(Path.of(file));
+            }
+        };
+    }
+}
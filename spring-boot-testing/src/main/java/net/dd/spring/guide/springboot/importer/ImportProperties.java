@@ -0,0 +1,34 @@
+package net.dd.spring.guide.springboot.importer;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.import")
+public class ImportProperties {
+
+    /** Rows handed to one parse task and persisted in one transaction. */
+    private int chunkSize = 5000;
+
+    /** Rows per JDBC batch within a chunk. */
+    private int batchSize = 1000;
+
+    /** Threads parsing and validating chunks. */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /** Maximum number of emails in one existence lookup. */
+    private int lookupSize = 1000;
+
+    /**
+     * Longest accepted line, in characters for uploads and in bytes for local files. Longer
+     * lines are skipped and reported as row errors, so input without line breaks cannot
+     * exhaust the heap.
+     */
+    private int maxLineLength = 4096;
+
+    private int maxReportedErrors = 1000;
+
+    private long progressIntervalRows = 100_000;
+}
@@ -0,0 +1,68 @@
+package net.dd.spring.guide.springboot.importer;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Row errors are kept up to a configured cap so the report
+ * itself stays bounded however bad the input is.
+ */
+@Getter
+public class ImportReport {
+
+    private long rowsRead;
+    private long rowsImported;
+    private long duplicateRows;
+    private long invalidRows;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private boolean errorsTruncated;
+
+    private final List<RowError> errors = new ArrayList<>();
+
+    @Getter(AccessLevel.NONE)
+    private final int maxErrors;
+
+    ImportReport(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    public List<RowError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    void addRowsRead(long rows) {
+        rowsRead += rows;
+    }
+
+    void addImported(long rows) {
+        rowsImported += rows;
+    }
+
+    void invalid(long line, String message) {
+        invalidRows++;
+        addError(line, message);
+    }
+
+    void duplicate(long line, String email) {
+        duplicateRows++;
+        addError(line, "Employee already exist with given email:" + email);
+    }
+
+    void finish(long elapsedNanos) {
+        elapsedMillis = elapsedNanos / 1_000_000;
+        rowsPerSecond = elapsedNanos == 0 ? 0 : rowsRead * 1_000_000_000d / elapsedNanos;
+    }
+
+    private void addError(long line, String message) {
+        if (errors.size() < maxErrors) {
+            errors.add(new RowError(line, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package net.dd.spring.guide.springboot.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Sequential source of CSV lines. Implementations hold at most one line of a bounded
+ * length (plus a fixed size read buffer) at a time.
+ */
+interface LineSource extends Closeable {
+
+    /**
+     * @return the next line without its terminator, or {@code null} at end of input
+     * @throws LineTooLongException if the line exceeds the maximum length; it has been
+     *                              skipped and the next call returns the following line
+     */
+    String readLine() throws IOException;
+
+    static LineSource of(InputStream inputStream, int maxLineLength) {
+        Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+        return new LineSource() {
+            private final char[] buffer = new char[1 << 16];
+            private final StringBuilder line = new StringBuilder();
+            private int position;
+            private int limit;
+
+            @Override
+            public String readLine() throws IOException {
+                line.setLength(0);
+                boolean readAny = false;
+                boolean tooLong = false;
+                for (;;) {
+                    if (position == limit) {
+                        limit = reader.read(buffer);
+                        position = 0;
+                        if (limit < 0) {
+                            limit = 0;
+                            break;
+                        }
+                    }
+                    readAny = true;
+                    int start = position;
+                    while (position < limit && buffer[position] != '\n') {
+                        position++;
+                    }
+                    if (!tooLong) {
+                        if (line.length() + position - start > maxLineLength + 1) {
+                            // keep skipping up to the terminator, without buffering any of it
+                            tooLong = true;
+                            line.setLength(0);
+                        } else {
+                            line.append(buffer, start, position - start);
+                        }
+                    }
+                    if (position < limit) {
+                        position++;
+                        break;
+                    }
+                }
+                if (!readAny) {
+                    return null;
+                }
+                int length = line.length();
+                if (length > 0 && line.charAt(length - 1) == '\r') {
+                    length--;
+                }
+                if (tooLong || length > maxLineLength) {
+                    throw new LineTooLongException(maxLineLength);
+                }
+                return line.substring(0, length);
+            }
+
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+}
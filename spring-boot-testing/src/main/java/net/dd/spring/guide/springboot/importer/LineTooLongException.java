@@ -0,0 +1,14 @@
+package net.dd.spring.guide.springboot.importer;
+
+import java.io.IOException;
+
+/**
+ * Thrown by a {@link LineSource} for a line longer than its maximum length. The line has
+ * been skipped up to and including its terminator, so reading can continue with the next.
+ */
+class LineTooLongException extends IOException {
+
+    LineTooLongException(int maxLineLength) {
+        super("Line exceeds the maximum length of " + maxLineLength);
+    }
+}
@@ -0,0 +1,92 @@
+package net.dd.spring.guide.springboot.importer;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads lines from a local file through a sliding read-only memory mapped window, so the
+ * file is paged in by the OS instead of being copied through heap buffers. Only one window
+ * is referenced at a time, which keeps the footprint fixed for files of any size (a single
+ * mapping cannot exceed 2 GB anyway). Lines are limited to a maximum length in bytes, so a
+ * file without line breaks cannot grow the line buffer either.
+ */
+class MappedLineReader implements LineSource {
+
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int maxLineLength;
+    private long nextWindowStart;
+    private MappedByteBuffer window;
+    private byte[] line = new byte[256];
+
+    MappedLineReader(Path file, int maxLineLength) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.maxLineLength = maxLineLength;
+    }
+
+    @Override
+    public String readLine() throws IOException {
+        int length = 0;
+        boolean readAny = false;
+        boolean tooLong = false;
+        for (;;) {
+            if (window == null || !window.hasRemaining()) {
+                if (!mapNextWindow()) {
+                    return readAny ? decode(length, tooLong) : null;
+                }
+            }
+            byte b = window.get();
+            readAny = true;
+            if (b == '\n') {
+                return decode(length, tooLong);
+            }
+            if (tooLong) {
+                // skip up to the terminator without buffering
+                continue;
+            }
+            // one byte of slack for a trailing '\r'
+            if (length > maxLineLength) {
+                tooLong = true;
+                continue;
+            }
+            if (length == line.length) {
+                line = Arrays.copyOf(line, Math.min(length * 2, maxLineLength + 1));
+            }
+            line[length++] = b;
+        }
+    }
+
+    private boolean mapNextWindow() throws IOException {
+        if (nextWindowStart >= fileSize) {
+            return false;
+        }
+        long size = Math.min(WINDOW_SIZE, fileSize - nextWindowStart);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, nextWindowStart, size);
+        nextWindowStart += size;
+        return true;
+    }
+
+    private String decode(int length, boolean tooLong) throws LineTooLongException {
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        if (tooLong || length > maxLineLength) {
+            throw new LineTooLongException(maxLineLength);
+        }
+        return new String(line, 0, length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+}
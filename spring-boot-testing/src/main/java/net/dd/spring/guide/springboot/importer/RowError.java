@@ -0,0 +1,11 @@
+package net.dd.spring.guide.springboot.importer;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class RowError {
+    private final long line;
+    private final String message;
+}
@@ -0,0 +1,27 @@
+package net.dd.spring.guide.springboot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("net.dd.employee.Query")
+@Label("Employee Query")
+@Category({"Employee", "Repository"})
+@Description("A call into EmployeeRepository")
+@StackTrace(false)
+public class EmployeeQueryEvent extends Event {
+
+    @Label("Query")
+    @Description("Repository method, e.g. findByJPQLNamedParam")
+    String query;
+
+    @Label("Rows")
+    @Description("Number of rows returned, -1 when not applicable")
+    int rows;
+
+    @Label("Failed")
+    boolean failed;
+}
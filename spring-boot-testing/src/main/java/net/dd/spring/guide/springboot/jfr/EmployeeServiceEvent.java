@@ -0,0 +1,26 @@
+package net.dd.spring.guide.springboot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("net.dd.employee.ServiceCall")
+@Label("Employee Service Call")
+@Category({"Employee", "Service"})
+@Description("A call into EmployeeService")
+@StackTrace(false)
+public class EmployeeServiceEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Rows")
+    @Description("Number of employees returned, -1 when not applicable")
+    int rows;
+
+    @Label("Failed")
+    boolean failed;
+}
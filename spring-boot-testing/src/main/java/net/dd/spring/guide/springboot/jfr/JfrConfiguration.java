@@ -0,0 +1,44 @@
+package net.dd.spring.guide.springboot.jfr;
+
+import net.dd.spring.guide.springboot.repository.EmployeeRepository;
+import net.dd.spring.guide.springboot.service.EmployeeService;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(JfrProperties.class)
+@ConditionalOnProperty(prefix = "employee.jfr", name = "enabled", havingValue = "true")
+public class JfrConfiguration {
+
+    @Bean
+    public static BeanPostProcessor jfrEventProxyPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof EmployeeRepository) {
+                    return withEvents(bean, JfrEventInterceptor.repository());
+                }
+                if (bean instanceof EmployeeService) {
+                    return withEvents(bean, JfrEventInterceptor.service());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean(destroyMethod = "closeRecording")
+    public JfrRecordingManager jfrRecordingManager(JfrProperties properties) {
+        return new JfrRecordingManager(properties);
+    }
+
+    private static Object withEvents(Object bean, MethodInterceptor interceptor) {
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.addAdvice(interceptor);
+        return proxyFactory.getProxy(bean.getClass().getClassLoader());
+    }
+}
@@ -0,0 +1,99 @@
+package net.dd.spring.guide.springboot.jfr;
+
+import jdk.jfr.Event;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Emits an {@link EmployeeServiceEvent} or {@link EmployeeQueryEvent} around every call of
+ * the proxy it is applied to.
+ *
+ * When no recording enables the event type, {@code isEnabled()} is a constant false after
+ * JIT compilation and the unused event instance is removed by escape analysis, so the call
+ * costs a branch. Fields are only filled in for events that will be committed.
+ */
+abstract class JfrEventInterceptor<E extends Event> implements MethodInterceptor {
+
+    static JfrEventInterceptor<EmployeeServiceEvent> service() {
+        return new JfrEventInterceptor<>() {
+            @Override
+            EmployeeServiceEvent newEvent() {
+                return new EmployeeServiceEvent();
+            }
+
+            @Override
+            void describe(EmployeeServiceEvent event, String method, int rows, boolean failed) {
+                event.method = method;
+                event.rows = rows;
+                event.failed = failed;
+            }
+        };
+    }
+
+    static JfrEventInterceptor<EmployeeQueryEvent> repository() {
+        return new JfrEventInterceptor<>() {
+            @Override
+            EmployeeQueryEvent newEvent() {
+                return new EmployeeQueryEvent();
+            }
+
+            @Override
+            void describe(EmployeeQueryEvent event, String method, int rows, boolean failed) {
+                event.query = method;
+                event.rows = rows;
+                event.failed = failed;
+            }
+        };
+    }
+
+    abstract E newEvent();
+
+    abstract void describe(E event, String method, int rows, boolean failed);
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        E event = newEvent();
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+        event.begin();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                describe(event, invocation.getMethod().getName(), failed ? -1 : rows(result), failed);
+                event.commit();
+            }
+        }
+    }
+
+    private static int rows(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof Map) {
+            return 1;
+        }
+        if (result == null || result instanceof Number || result instanceof Boolean) {
+            return -1;
+        }
+        // single entity, or a stream whose size is not known yet
+        return result instanceof java.util.stream.BaseStream ? -1 : 1;
+    }
+}
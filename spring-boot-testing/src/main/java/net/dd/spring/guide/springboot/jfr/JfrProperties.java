@@ -0,0 +1,30 @@
+package net.dd.spring.guide.springboot.jfr;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.jfr")
+public class JfrProperties {
+
+    private boolean enabled;
+
+    /**
+     * JDK settings the recording starts from, "default" (~1% overhead) or "profile". Events
+     * exposing the environment and system properties are disabled on top of either.
+     */
+    private String settings = "default";
+
+    /** Upper bound on how long a recording runs; it stops by itself afterwards. */
+    private Duration maxDuration = Duration.ofMinutes(10);
+
+    /** Upper bound on the size of the recording kept on disk, in bytes. */
+    private long maxSize = 100L * 1024 * 1024;
+
+    /** Employee events shorter than this are not recorded. */
+    private Duration threshold = Duration.ZERO;
+}
@@ -0,0 +1,121 @@
+package net.dd.spring.guide.springboot.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import net.dd.spring.guide.springboot.exception.InvalidRequestException;
+import net.dd.spring.guide.springboot.exception.ResourceConflictException;
+import net.dd.spring.guide.springboot.exception.ResourceNotFoundException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Owns the single on-demand recording started through the admin endpoint. The recording is
+ * bounded in both duration and size, so a forgotten one stops and stays small by itself.
+ *
+ * Recordings leave the process through the admin API, so events that capture the JVM's
+ * environment, system properties, command line or child processes, where credentials tend
+ * to live, are switched off whatever the chosen settings enable.
+ */
+@Slf4j
+public class JfrRecordingManager {
+
+    static final List<String> SENSITIVE_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable",
+            "jdk.InitialSystemProperty",
+            "jdk.JVMInformation",
+            "jdk.SystemProcess");
+
+    private final JfrProperties properties;
+
+    private Recording recording;
+
+    public JfrRecordingManager(JfrProperties properties) {
+        this.properties = properties;
+    }
+
+    public synchronized Map<String, Object> start(Duration duration) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new ResourceConflictException("A recording is already running");
+        }
+        Duration maxDuration = properties.getMaxDuration();
+        Duration effective = duration == null || duration.compareTo(maxDuration) > 0 ? maxDuration : duration;
+        if (effective.isNegative() || effective.isZero()) {
+            throw new InvalidRequestException("duration must be positive");
+        }
+        closeRecording();
+        try {
+            Recording newRecording = new Recording(settings());
+            newRecording.setName("employee-on-demand");
+            newRecording.setDuration(effective);
+            newRecording.setMaxSize(properties.getMaxSize());
+            newRecording.setToDisk(true);
+            newRecording.enable(EmployeeServiceEvent.class).withThreshold(properties.getThreshold());
+            newRecording.enable(EmployeeQueryEvent.class).withThreshold(properties.getThreshold());
+            newRecording.start();
+            recording = newRecording;
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Unable to load JFR settings " + properties.getSettings(), e);
+        }
+        log.info("Started JFR recording for at most {}", effective);
+        return status();
+    }
+
+    /**
+     * Stops the recording if still running and dumps it to a temporary file that the caller
+     * must delete.
+     */
+    public synchronized Path stop() {
+        if (recording == null) {
+            throw new ResourceNotFoundException("No recording to stop");
+        }
+        try {
+            if (recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+            }
+            Path file = Files.createTempFile("employee-", ".jfr");
+            recording.dump(file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            closeRecording();
+        }
+    }
+
+    Map<String, String> settings() throws IOException, ParseException {
+        Map<String, String> settings = new HashMap<>(Configuration.getConfiguration(properties.getSettings()).getSettings());
+        for (String event : SENSITIVE_EVENTS) {
+            settings.put(event + "#enabled", "false");
+        }
+        return settings;
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", recording == null ? "NONE" : recording.getState().name());
+        if (recording != null) {
+            status.put("startTime", recording.getStartTime());
+            status.put("duration", recording.getDuration());
+            status.put("maxSize", recording.getMaxSize());
+        }
+        return status;
+    }
+
+    public synchronized void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package net.dd.spring.guide.springboot.job;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(BulkUpdateProperties.class)
+public class BulkUpdateConfiguration {
+}
@@ -0,0 +1,71 @@
+package net.dd.spring.guide.springboot.job;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+
+@Entity
+@Table(name = "tbl_bulk_update_jobs")
+public class BulkUpdateJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    // a cancel, a lease takeover and a chunk commit each bump it, so none can overwrite another
+    @Version
+    private long version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private BulkUpdateOperation operation;
+
+    @Column(name = "from_value", nullable = false)
+    private String fromValue;
+
+    @Column(name = "to_value", nullable = false)
+    private String toValue;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private BulkUpdateStatus status;
+
+    @Column(name = "chunk_size", nullable = false)
+    private int chunkSize;
+
+    // rows inserted after the job was created are outside its range
+    @Column(name = "max_id", nullable = false)
+    private long maxId;
+
+    // everything up to and including this id is committed
+    @Column(name = "last_processed_id", nullable = false)
+    private long lastProcessedId;
+
+    @Column(name = "rows_updated", nullable = false)
+    private long rowsUpdated;
+
+    // rows left unchanged because the new value is already taken, e.g. a rewritten email
+    @Column(name = "rows_skipped", nullable = false)
+    private long rowsSkipped;
+
+    @Column(length = 36)
+    private String owner;
+
+    @Column(name = "lease_until", nullable = false)
+    private long leaseUntil;
+
+    @Column(name = "created_at", nullable = false)
+    private long createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private long updatedAt;
+
+    @Column(length = 1000)
+    private String error;
+}
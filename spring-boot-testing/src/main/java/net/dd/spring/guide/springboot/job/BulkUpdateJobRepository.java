@@ -0,0 +1,26 @@
+package net.dd.spring.guide.springboot.job;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface BulkUpdateJobRepository extends JpaRepository<BulkUpdateJob, Long> {
+
+    // takes a pending job, or a running one whose owner stopped renewing its lease
+    @Transactional
+    @Modifying
+    @Query("update BulkUpdateJob j set j.status = :running, j.owner = :owner, j.leaseUntil = :leaseUntil,"
+            + " j.version = j.version + 1 where j.id = :id and (j.status = :pending or (j.status = :running and j.leaseUntil < :now))")
+    int claim(@Param("id") long id, @Param("owner") String owner, @Param("now") long now,
+              @Param("leaseUntil") long leaseUntil, @Param("pending") BulkUpdateStatus pending,
+              @Param("running") BulkUpdateStatus running);
+
+    @Query("select j.id from BulkUpdateJob j where j.status = :pending or (j.status = :running and j.leaseUntil < :now)"
+            + " order by j.id")
+    List<Long> findClaimable(@Param("now") long now, @Param("pending") BulkUpdateStatus pending,
+                             @Param("running") BulkUpdateStatus running);
+}
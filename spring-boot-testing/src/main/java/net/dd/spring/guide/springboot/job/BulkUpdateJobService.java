@@ -0,0 +1,287 @@
+package net.dd.spring.guide.springboot.job;
+
+import lombok.extern.slf4j.Slf4j;
+import net.dd.spring.guide.springboot.event.EmployeeChangedEvent;
+import net.dd.spring.guide.springboot.exception.InvalidRequestException;
+import net.dd.spring.guide.springboot.exception.ResourceConflictException;
+import net.dd.spring.guide.springboot.exception.ResourceNotFoundException;
+import net.dd.spring.guide.springboot.model.EmailNormalizer;
+import net.dd.spring.guide.springboot.model.Employee;
+import net.dd.spring.guide.springboot.repository.EmployeeRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs {@link BulkUpdateJob}s in chunks of consecutive id ranges.
+ *
+ * Every chunk is one short transaction that selects the affected rows of its range, updates
+ * them with a JDBC batch, publishes an {@link EmployeeChangedEvent} per row and advances the
+ * job's {@code last_processed_id}. Progress therefore commits together with the data, and a
+ * job interrupted by a crash resumes at the first uncommitted chunk. Jobs are claimed with a
+ * lease that each chunk renews; pending jobs and jobs whose owner stopped renewing are
+ * picked up at startup and by a periodic scan, on whichever node gets there first.
+ *
+ * The job row is versioned: a chunk commit that races a cancel or a lease takeover fails
+ * and rolls back with its data, and the next attempt sees the new status or owner. Email
+ * rewrites skip rows whose new address already belongs to another employee and count them.
+ */
+@Slf4j
+@Service
+public class BulkUpdateJobService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final int MAX_CANCEL_ATTEMPTS = 3;
+
+    private static final String SELECT_SQL =
+            "select id, first_name, last_name, email from tbl_employees where id > ? and id <= ? and ";
+    private static final String UPDATE_SQL =
+            "update tbl_employees set first_name = ?, last_name = ?, email = ?, email_normalized = ?, email_hash = ?"
+                    + " where id = ?";
+
+    private final BulkUpdateJobRepository jobRepository;
+    private final EmployeeRepository employeeRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BulkUpdateProperties properties;
+    private final Clock clock = Clock.systemUTC();
+
+    private final ExecutorService runner;
+    private final Set<Long> scheduled = ConcurrentHashMap.newKeySet();
+
+    public BulkUpdateJobService(BulkUpdateJobRepository jobRepository, EmployeeRepository employeeRepository,
+                                JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                ApplicationEventPublisher eventPublisher, BulkUpdateProperties properties) {
+        this.jobRepository = jobRepository;
+        this.employeeRepository = employeeRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("bulk-update-");
+        threadFactory.setDaemon(true);
+        this.runner = Executors.newSingleThreadExecutor(threadFactory);
+    }
+
+    public BulkUpdateJob createJob(BulkUpdateRequest request) {
+        int chunkSize = request.getChunkSize() == null ? properties.getDefaultChunkSize() : request.getChunkSize();
+        if (request.getOperation() == null || isBlank(request.getFrom()) || isBlank(request.getTo())) {
+            throw new InvalidRequestException("operation, from and to are required");
+        }
+        if (chunkSize < 1 || chunkSize > properties.getMaxChunkSize()) {
+            throw new InvalidRequestException("chunkSize must be between 1 and " + properties.getMaxChunkSize());
+        }
+        long now = clock.millis();
+        BulkUpdateJob job = jobRepository.save(BulkUpdateJob.builder()
+                .operation(request.getOperation())
+                .fromValue(request.getFrom())
+                .toValue(request.getTo())
+                .status(BulkUpdateStatus.PENDING)
+                .chunkSize(chunkSize)
+                .maxId(employeeRepository.findMaxId())
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        schedule(job.getId());
+        return job;
+    }
+
+    public BulkUpdateJob getJob(long id) {
+        return jobRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Bulk update job not found: " + id));
+    }
+
+    public List<BulkUpdateJob> getJobs() {
+        return jobRepository.findAll(Sort.by(Sort.Direction.DESC, "id"));
+    }
+
+    public BulkUpdateJob cancelJob(long id) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return tryCancel(id);
+            } catch (OptimisticLockingFailureException e) {
+                // a chunk committed in between; retry against its state
+                if (attempt == MAX_CANCEL_ATTEMPTS) {
+                    throw new ResourceConflictException("Bulk update job " + id + " is busy, retry the cancel");
+                }
+            }
+        }
+    }
+
+    private BulkUpdateJob tryCancel(long id) {
+        return transactionTemplate.execute(status -> {
+            BulkUpdateJob job = getJob(id);
+            if (job.getStatus() != BulkUpdateStatus.PENDING && job.getStatus() != BulkUpdateStatus.RUNNING) {
+                throw new ResourceConflictException("Bulk update job " + id + " is already " + job.getStatus());
+            }
+            // the runner sees this at its next chunk
+            job.setStatus(BulkUpdateStatus.CANCELLED);
+            job.setUpdatedAt(clock.millis());
+            return job;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${employee.jobs.scan-interval:PT1M}", initialDelayString = "${employee.jobs.scan-interval:PT1M}")
+    public void scheduleClaimableJobs() {
+        for (Long id : jobRepository.findClaimable(clock.millis(), BulkUpdateStatus.PENDING, BulkUpdateStatus.RUNNING)) {
+            schedule(id);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+
+    private void schedule(long id) {
+        if (scheduled.add(id)) {
+            runner.execute(() -> {
+                try {
+                    run(id);
+                } finally {
+                    scheduled.remove(id);
+                }
+            });
+        }
+    }
+
+    private void run(long id) {
+        long now = clock.millis();
+        if (jobRepository.claim(id, properties.getNodeId(), now, now + properties.getLease().toMillis(),
+                BulkUpdateStatus.PENDING, BulkUpdateStatus.RUNNING) == 0) {
+            return;
+        }
+        log.info("Running bulk update job {}", id);
+        try {
+            while (true) {
+                Boolean more;
+                try {
+                    more = transactionTemplate.execute(status -> processChunk(id));
+                } catch (OptimisticLockingFailureException e) {
+                    // cancelled or taken over while the chunk ran; it rolled back and the
+                    // next attempt sees the new status or owner
+                    continue;
+                }
+                if (!Boolean.TRUE.equals(more)) {
+                    break;
+                }
+                Thread.sleep(properties.getThrottle().toMillis());
+            }
+        } catch (InterruptedException e) {
+            // shutdown: the lease expires and the job resumes from its last chunk
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Bulk update job {} failed", id, e);
+            fail(id, e);
+        }
+    }
+
+    /**
+     * Processes the next id range of the job, returns whether there is more to do.
+     */
+    private boolean processChunk(long id) {
+        BulkUpdateJob job = getJob(id);
+        if (job.getStatus() != BulkUpdateStatus.RUNNING || !properties.getNodeId().equals(job.getOwner())) {
+            return false;
+        }
+        long from = job.getLastProcessedId();
+        long to = Math.min(job.getMaxId(), from + job.getChunkSize());
+        BulkUpdateOperation operation = job.getOperation();
+
+        List<Employee> employees = jdbcTemplate.query(SELECT_SQL + operation.getPredicate(),
+                (rs, rowNum) -> Employee.builder()
+                        .id(rs.getLong("id"))
+                        .firstName(rs.getString("first_name"))
+                        .lastName(rs.getString("last_name"))
+                        .email(rs.getString("email"))
+                        .build(),
+                from, to, operation.predicateArgument(job.getFromValue()));
+        for (Employee employee : employees) {
+            operation.apply(employee, job.getFromValue(), job.getToValue());
+        }
+        int skipped = operation.changesEmail() ? skipTakenEmails(employees) : 0;
+        if (!employees.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, employees, employees.size(), (ps, employee) -> {
+                String normalized = EmailNormalizer.normalize(employee.getEmail());
+                ps.setString(1, employee.getFirstName());
+                ps.setString(2, employee.getLastName());
+                ps.setString(3, employee.getEmail());
+                ps.setString(4, normalized);
+                ps.setLong(5, EmailNormalizer.hash(normalized));
+                ps.setLong(6, employee.getId());
+            });
+            for (Employee employee : employees) {
+                eventPublisher.publishEvent(EmployeeChangedEvent.updated(employee));
+            }
+        }
+
+        long now = clock.millis();
+        job.setLastProcessedId(to);
+        job.setRowsUpdated(job.getRowsUpdated() + employees.size());
+        job.setRowsSkipped(job.getRowsSkipped() + skipped);
+        job.setLeaseUntil(now + properties.getLease().toMillis());
+        job.setUpdatedAt(now);
+        if (to >= job.getMaxId()) {
+            job.setStatus(BulkUpdateStatus.COMPLETED);
+            log.info("Bulk update job {} completed, {} rows updated, {} skipped", id, job.getRowsUpdated(),
+                    job.getRowsSkipped());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Removes the rows whose new email is already stored for another employee, which the
+     * unique email index would otherwise reject together with the whole batch.
+     */
+    private int skipTakenEmails(List<Employee> employees) {
+        if (employees.isEmpty()) {
+            return 0;
+        }
+        List<String> emails = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            emails.add(employee.getEmail());
+        }
+        Set<String> taken = new HashSet<>(employeeRepository.findExistingEmails(emails));
+        if (taken.isEmpty()) {
+            return 0;
+        }
+        int before = employees.size();
+        employees.removeIf(employee -> taken.contains(EmailNormalizer.normalize(employee.getEmail())));
+        return before - employees.size();
+    }
+
+    private void fail(long id, RuntimeException cause) {
+        String message = String.valueOf(cause.getMessage());
+        transactionTemplate.executeWithoutResult(status -> {
+            BulkUpdateJob job = getJob(id);
+            job.setStatus(BulkUpdateStatus.FAILED);
+            job.setError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+            job.setUpdatedAt(clock.millis());
+        });
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,73 @@
+package net.dd.spring.guide.springboot.job;
+
+import net.dd.spring.guide.springboot.model.EmailNormalizer;
+import net.dd.spring.guide.springboot.model.Employee;
+
+import java.util.Locale;
+
+/**
+ * Set based changes a {@link BulkUpdateJob} can apply. Each operation contributes the SQL
+ * predicate selecting the affected rows of a chunk and the change applied to each of them.
+ */
+public enum BulkUpdateOperation {
+
+    // email_normalized like '%@<from>'; the predicate argument is built by predicateArgument
+    REWRITE_EMAIL_DOMAIN("email_normalized like ? escape '!'") {
+        @Override
+        String predicateArgument(String from) {
+            return "%@" + escapeLike(EmailNormalizer.normalize(from));
+        }
+
+        @Override
+        void apply(Employee employee, String from, String to) {
+            String email = employee.getEmail();
+            int at = email.lastIndexOf('@');
+            employee.setEmail(email.substring(0, at + 1) + to.trim());
+        }
+
+        @Override
+        boolean changesEmail() {
+            return true;
+        }
+    },
+    RENAME_FIRST_NAME("first_name = ?") {
+        @Override
+        void apply(Employee employee, String from, String to) {
+            employee.setFirstName(to);
+        }
+    },
+    RENAME_LAST_NAME("last_name = ?") {
+        @Override
+        void apply(Employee employee, String from, String to) {
+            employee.setLastName(to);
+        }
+    };
+
+    private final String predicate;
+
+    BulkUpdateOperation(String predicate) {
+        this.predicate = predicate;
+    }
+
+    String getPredicate() {
+        return predicate;
+    }
+
+    String predicateArgument(String from) {
+        return from;
+    }
+
+    abstract void apply(Employee employee, String from, String to);
+
+    /**
+     * Whether the operation changes a unique column, so that updated rows may collide with
+     * rows that already hold the new value.
+     */
+    boolean changesEmail() {
+        return false;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_").toLowerCase(Locale.ROOT);
+    }
+}
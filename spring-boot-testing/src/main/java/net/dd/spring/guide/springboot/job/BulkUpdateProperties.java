@@ -0,0 +1,26 @@
+package net.dd.spring.guide.springboot.job;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.jobs")
+public class BulkUpdateProperties {
+
+    private String nodeId = UUID.randomUUID().toString();
+
+    private int defaultChunkSize = 1000;
+
+    private int maxChunkSize = 10_000;
+
+    /** Pause after every chunk, leaves room for regular traffic on the same rows and connections. */
+    private Duration throttle = Duration.ofMillis(50);
+
+    /** A running job whose lease is not renewed for this long is taken over by another node. */
+    private Duration lease = Duration.ofMinutes(2);
+}
@@ -0,0 +1,18 @@
+package net.dd.spring.guide.springboot.job;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class BulkUpdateRequest {
+
+    private BulkUpdateOperation operation;
+
+    private String from;
+
+    private String to;
+
+    // optional, defaults to employee.jobs.default-chunk-size
+    private Integer chunkSize;
+}
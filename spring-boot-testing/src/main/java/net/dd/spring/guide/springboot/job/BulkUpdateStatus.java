@@ -0,0 +1,9 @@
+package net.dd.spring.guide.springboot.job;
+
+public enum BulkUpdateStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    CANCELLED,
+    FAILED
+}
@@ -0,0 +1,119 @@
+package net.dd.spring.guide.springboot.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gradient based concurrency limiter.
+ *
+ * The limit grows while the latency of recent requests stays close to the long term
+ * baseline and shrinks in proportion to how far it has drifted above it, so when the
+ * database slows down the number of requests allowed in flight follows it down instead of
+ * letting them queue on Tomcat threads. Failed or timed out requests back the limit off
+ * multiplicatively.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double baselineDecay;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private volatile double limit;
+    private double baselineRttNanos;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      double smoothing, int baselineWindow) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid limit bounds for " + name + ": " + minLimit + ".." + maxLimit);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.baselineDecay = 2.0 / (baselineWindow + 1);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Claims a slot if the current limit allows it. Never blocks; a {@code false}
+     * result means the caller should shed the request.
+     */
+    public boolean tryAcquire() {
+        for (;;) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a slot claimed by {@link #tryAcquire()} and feeds the observed latency
+     * back into the limit.
+     *
+     * @param rttNanos time the request spent in flight
+     * @param dropped  whether the request failed in a way that indicates overload
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        update(rttNanos, dropped, inFlightAtCompletion);
+    }
+
+    private synchronized void update(long rttNanos, boolean dropped, int inFlightAtCompletion) {
+        double current = limit;
+        double next;
+        if (dropped) {
+            next = current * BACKOFF_RATIO;
+        } else {
+            if (baselineRttNanos == 0) {
+                baselineRttNanos = rttNanos;
+            } else {
+                baselineRttNanos += (rttNanos - baselineRttNanos) * baselineDecay;
+            }
+            // Only probe upwards when the limit is actually being used, otherwise an idle
+            // endpoint would drift to maxLimit and offer no protection on the next spike.
+            if (inFlightAtCompletion < current / 2) {
+                return;
+            }
+            double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, baselineRttNanos / Math.max(1, rttNanos)));
+            double queueAllowance = Math.sqrt(current);
+            next = current * gradient + queueAllowance;
+            next = current * (1 - smoothing) + next * smoothing;
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getAcceptedCount() {
+        return accepted.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+}
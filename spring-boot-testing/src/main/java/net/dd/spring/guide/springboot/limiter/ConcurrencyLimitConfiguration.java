@@ -0,0 +1,66 @@
+package net.dd.spring.guide.springboot.limiter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+@ConditionalOnProperty(prefix = "employee.concurrency-limit", name = "enabled", havingValue = "true")
+public class ConcurrencyLimitConfiguration {
+
+    @Bean
+    public EndpointLimiters employeeEndpointLimiters(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        Map<EndpointClass, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(EndpointClass.class);
+        limiters.put(EndpointClass.READ, createLimiter(EndpointClass.READ, properties.getRead(), meterRegistry));
+        limiters.put(EndpointClass.WRITE, createLimiter(EndpointClass.WRITE, properties.getWrite(), meterRegistry));
+        limiters.put(EndpointClass.LIST, createLimiter(EndpointClass.LIST, properties.getList(), meterRegistry));
+        limiters.put(EndpointClass.HEAVY, createLimiter(EndpointClass.HEAVY, properties.getHeavy(), meterRegistry));
+        return new EndpointLimiters(limiters);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            EndpointLimiters employeeEndpointLimiters, ConcurrencyLimitProperties properties) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(employeeEndpointLimiters, properties.getRetryAfterSeconds()));
+        registration.addUrlPatterns("/api/employees/*", "/api/async/employees/*");
+        // Shed load before any other filter spends work on the request.
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    private static AdaptiveConcurrencyLimiter createLimiter(EndpointClass endpointClass,
+                                                            ConcurrencyLimitProperties.Limit limit,
+                                                            MeterRegistry meterRegistry) {
+        String name = endpointClass.name().toLowerCase();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(name, limit.getInitial(),
+                limit.getMin(), limit.getMax(), limit.getSmoothing(), limit.getBaselineWindow());
+
+        Gauge.builder("employee.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("endpoint", name)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("employee.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("endpoint", name)
+                .description("Requests currently holding a concurrency slot")
+                .register(meterRegistry);
+        FunctionCounter.builder("employee.concurrency.accepted", limiter, AdaptiveConcurrencyLimiter::getAcceptedCount)
+                .tag("endpoint", name)
+                .register(meterRegistry);
+        FunctionCounter.builder("employee.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejectedCount)
+                .tag("endpoint", name)
+                .description("Requests shed with 503; rate() of this counter is the rejection rate")
+                .register(meterRegistry);
+        return limiter;
+    }
+}
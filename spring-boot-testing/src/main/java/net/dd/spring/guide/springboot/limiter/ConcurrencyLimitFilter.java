@@ -0,0 +1,121 @@
+package net.dd.spring.guide.springboot.limiter;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sheds employee API requests with 503 + Retry-After once the limiter of their
+ * {@link EndpointClass} is saturated, instead of letting them wait for a connection.
+ *
+ * A request that goes async keeps its permit until the async processing completes or
+ * times out, not just until the servlet thread returns, so the async endpoints are limited
+ * by the work they actually have in flight. The SSE feed holds a connection to the client,
+ * not to the database, and is not limited.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final byte[] OVERLOADED_BODY =
+            "{\"status\":\"SERVICE_UNAVAILABLE\",\"message\":\"Server is overloaded, retry later\"}"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    private final EndpointLimiters limiters;
+    private final String retryAfterSeconds;
+
+    public ConcurrencyLimitFilter(EndpointLimiters limiters, int retryAfterSeconds) {
+        this.limiters = limiters;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().endsWith("/stream");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter limiter = limiters.get(EndpointClass.of(request));
+        if (!limiter.tryAcquire()) {
+            reject(response);
+            return;
+        }
+        Permit permit = new Permit(limiter, response);
+        boolean failed = true;
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(permit);
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                permit.release(failed);
+            }
+        }
+    }
+
+    // released exactly once: on return of the servlet thread or at the end of async processing
+    private static final class Permit implements AsyncListener {
+
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final HttpServletResponse response;
+        private final long start = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(AdaptiveConcurrencyLimiter limiter, HttpServletResponse response) {
+            this.limiter = limiter;
+            this.response = response;
+        }
+
+        void release(boolean failed) {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(System.nanoTime() - start, failed || isOverloadStatus(response.getStatus()));
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(false);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(true);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    private static boolean isOverloadStatus(int status) {
+        return status == HttpStatus.SERVICE_UNAVAILABLE.value() || status == HttpStatus.GATEWAY_TIMEOUT.value();
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(OVERLOADED_BODY.length);
+        response.getOutputStream().write(OVERLOADED_BODY);
+    }
+}
@@ -0,0 +1,42 @@
+package net.dd.spring.guide.springboot.limiter;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled;
+
+    private int retryAfterSeconds = 1;
+
+    private Limit read = new Limit(40, 4, 200);
+
+    private Limit write = new Limit(20, 2, 100);
+
+    private Limit list = new Limit(8, 1, 32);
+
+    private Limit heavy = new Limit(4, 1, 16);
+
+    @Getter
+    @Setter
+    public static class Limit {
+        private int initial;
+        private int min;
+        private int max;
+        private double smoothing = 0.2;
+        private int baselineWindow = 600;
+
+        public Limit() {
+        }
+
+        public Limit(int initial, int min, int max) {
+            this.initial = initial;
+            this.min = min;
+            this.max = max;
+        }
+    }
+}
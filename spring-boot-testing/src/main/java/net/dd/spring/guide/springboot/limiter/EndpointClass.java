@@ -0,0 +1,65 @@
+package net.dd.spring.guide.springboot.limiter;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Groups employee API requests that share a cost profile, so that a burst of
+ * expensive full-list calls cannot consume the concurrency budget of cheap point lookups.
+ *
+ * Lookups of a few ids are point reads; filtered queries, their explain plans and lookups of
+ * more ids than a page holds fan out over many rows or index ranges and are {@link #HEAVY}.
+ */
+public enum EndpointClass {
+    READ,
+    WRITE,
+    LIST,
+    HEAVY;
+
+    /** Id lookups above this many ids cost like a page of rows rather than a point read. */
+    static final int MAX_READ_IDS = 50;
+
+    private static final String EMPLOYEES_PATH = "/api/employees";
+    private static final String ASYNC_EMPLOYEES_PATH = "/api/async/employees";
+    private static final String QUERY_PATH = EMPLOYEES_PATH + "/query";
+    private static final String LOOKUP_PATH = EMPLOYEES_PATH + "/lookup";
+
+    public static EndpointClass of(HttpServletRequest request) {
+        String method = request.getMethod();
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        if ("POST".equals(method) && LOOKUP_PATH.equals(path)) {
+            // exists for id lists too long for a query string
+            return HEAVY;
+        }
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return WRITE;
+        }
+        if (path.equals(QUERY_PATH) || path.startsWith(QUERY_PATH + "/")) {
+            return HEAVY;
+        }
+        if (EMPLOYEES_PATH.equals(path) || ASYNC_EMPLOYEES_PATH.equals(path)) {
+            String[] ids = request.getParameterValues("ids");
+            if (ids == null) {
+                return LIST;
+            }
+            return countIds(ids) > MAX_READ_IDS ? HEAVY : READ;
+        }
+        return READ;
+    }
+
+    // ids=1,2,3 and ids=1&ids=2&ids=3 bind to the same list
+    private static int countIds(String[] values) {
+        int count = 0;
+        for (String value : values) {
+            count++;
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) == ',') {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
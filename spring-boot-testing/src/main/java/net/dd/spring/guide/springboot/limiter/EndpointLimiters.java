@@ -0,0 +1,26 @@
+package net.dd.spring.guide.springboot.limiter;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The set of limiters guarding the employee API, one per {@link EndpointClass}.
+ */
+public class EndpointLimiters {
+
+    private final Map<EndpointClass, AdaptiveConcurrencyLimiter> limiters;
+
+    public EndpointLimiters(Map<EndpointClass, AdaptiveConcurrencyLimiter> limiters) {
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            if (!limiters.containsKey(endpointClass)) {
+                throw new IllegalArgumentException("No limiter configured for " + endpointClass);
+            }
+        }
+        this.limiters = Collections.unmodifiableMap(new EnumMap<>(limiters));
+    }
+
+    public AdaptiveConcurrencyLimiter get(EndpointClass endpointClass) {
+        return limiters.get(endpointClass);
+    }
+}
@@ -0,0 +1,39 @@
+package net.dd.spring.guide.springboot.model;
+
+import java.util.Locale;
+
+/**
+ * Canonical form and lookup hash of employee emails.
+ *
+ * Emails are compared case-insensitively, ignoring surrounding whitespace. The hash is a
+ * 64 bit FNV-1a over the UTF-16 code units of the normalized form followed by a murmur3
+ * finalizer; it is persisted in {@code email_hash}, so it must never change without
+ * re-running the backfill. It only narrows the index lookup: matches are always
+ * re-checked against the normalized email.
+ */
+public final class EmailNormalizer {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private EmailNormalizer() {
+    }
+
+    public static String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static long hash(String normalizedEmail) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < normalizedEmail.length(); i++) {
+            hash ^= normalizedEmail.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
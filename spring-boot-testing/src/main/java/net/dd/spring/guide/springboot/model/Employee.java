@@ -1,5 +1,6 @@
 package net.dd.spring.guide.springboot.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 
 import javax.persistence.*;
@@ -11,7 +12,14 @@ import javax.persistence.*;
 @Builder
 
 @Entity
-@Table(name = "tbl_employees")
+@Table(name = "tbl_employees",
+        indexes = {
+                @Index(name = "idx_employees_email_hash", columnList = "email_hash"),
+                // back the prefix filters and sorts of EmployeeQueryPlanner
+                @Index(name = "idx_employees_last_first", columnList = "last_name, first_name"),
+                @Index(name = "idx_employees_first_name", columnList = "first_name")
+        },
+        uniqueConstraints = @UniqueConstraint(name = "uk_employees_email_normalized", columnNames = "email_normalized"))
 public class Employee {
 
     @Id
@@ -26,4 +34,20 @@ public class Employee {
 
     @Column(nullable = false)
     private String email;
+
+    // derived from email on every write, see EmailNormalizer
+    @JsonIgnore
+    @Column(name = "email_normalized")
+    private String emailNormalized;
+
+    @JsonIgnore
+    @Column(name = "email_hash")
+    private Long emailHash;
+
+    @PrePersist
+    @PreUpdate
+    void normalizeEmail() {
+        emailNormalized = EmailNormalizer.normalize(email);
+        emailHash = emailNormalized == null ? null : EmailNormalizer.hash(emailNormalized);
+    }
 }
@@ -0,0 +1,56 @@
+package net.dd.spring.guide.springboot.model;
+
+import net.dd.spring.guide.springboot.exception.InvalidRequestException;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Employee properties that can be requested through {@code ?fields=}. The names are the
+ * JSON property names, which are also the JPA attribute names.
+ */
+public enum EmployeeField {
+    ID("id"),
+    FIRST_NAME("firstName"),
+    LAST_NAME("lastName"),
+    EMAIL("email");
+
+    private final String attribute;
+
+    EmployeeField(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * Parses a comma separated field list such as {@code id,email}.
+     */
+    public static Set<EmployeeField> parse(String fields) {
+        Set<EmployeeField> parsed = EnumSet.noneOf(EmployeeField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty()) {
+                parsed.add(fromAttribute(trimmed));
+            }
+        }
+        if (parsed.isEmpty()) {
+            throw new InvalidRequestException("At least one field must be requested");
+        }
+        return parsed;
+    }
+
+    private static EmployeeField fromAttribute(String attribute) {
+        for (EmployeeField field : values()) {
+            if (field.attribute.equals(attribute)) {
+                return field;
+            }
+        }
+        throw new InvalidRequestException("Unknown field '" + attribute + "', expected one of "
+                + Arrays.stream(values()).map(EmployeeField::getAttribute).collect(Collectors.joining(",")));
+    }
+}
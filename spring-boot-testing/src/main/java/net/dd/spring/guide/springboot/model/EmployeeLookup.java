@@ -0,0 +1,24 @@
+package net.dd.spring.guide.springboot.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One entry of a multi-get response. Entries come back in request order; ids that do not
+ * exist are reported with {@code found = false} and no employee rather than being omitted.
+ */
+@Getter
+@AllArgsConstructor
+public class EmployeeLookup {
+    private final long id;
+    private final boolean found;
+    private final Employee employee;
+
+    public static EmployeeLookup found(Employee employee) {
+        return new EmployeeLookup(employee.getId(), true, employee);
+    }
+
+    public static EmployeeLookup missing(long id) {
+        return new EmployeeLookup(id, false, null);
+    }
+}
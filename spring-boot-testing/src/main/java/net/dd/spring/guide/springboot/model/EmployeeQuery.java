@@ -0,0 +1,20 @@
+package net.dd.spring.guide.springboot.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Filter and sort request of {@code GET /api/employees/query}: optional prefixes of first
+ * name, last name and email, a sort such as {@code lastName,desc} and a mandatory limit.
+ * Which combinations are accepted, and how each prefix is normalized, is decided by the query
+ * planner in the repository layer.
+ */
+@Getter
+@AllArgsConstructor
+public class EmployeeQuery {
+    private final String firstNamePrefix;
+    private final String lastNamePrefix;
+    private final String emailPrefix;
+    private final String sort;
+    private final int limit;
+}
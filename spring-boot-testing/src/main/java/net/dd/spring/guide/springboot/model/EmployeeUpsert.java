@@ -0,0 +1,14 @@
+package net.dd.spring.guide.springboot.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of an upsert by email. Batches report one entry per input, in request order.
+ */
+@Getter
+@AllArgsConstructor
+public class EmployeeUpsert {
+    private final boolean created;
+    private final Employee employee;
+}
@@ -0,0 +1,160 @@
+package net.dd.spring.guide.springboot.pool;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resizes the Hikari pool within configured bounds following {@link PoolSizingPolicy}.
+ *
+ * Wait and hold times come from the {@code hikaricp.connections.acquire} and
+ * {@code hikaricp.connections.usage} timers, active and pending counts from the pool MXBean.
+ * The observations are also summarized into a recommendation for static settings, see
+ * {@link #report()}.
+ */
+@Slf4j
+public class AdaptivePoolSizer {
+
+    private static final double RECOMMENDED_HEADROOM = 1.5;
+
+    private final HikariDataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final PoolSizingPolicy policy;
+
+    private long lastTick;
+    private long lastAcquires;
+    private double lastWaitNanos;
+    private double lastUsageNanos;
+
+    private long observedNanos;
+    private long observedAcquires;
+    private double observedWaitNanos;
+    private double observedUsageNanos;
+    private double peakMeanInUse;
+    private int peakPending;
+    private final Map<PoolSizingPolicy.Action, Long> decisions = new EnumMap<>(PoolSizingPolicy.Action.class);
+    private PoolSizingPolicy.Action lastAction = PoolSizingPolicy.Action.HOLD;
+
+    public AdaptivePoolSizer(HikariDataSource dataSource, MeterRegistry meterRegistry, PoolSizingPolicy policy) {
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+        this.policy = policy;
+        this.lastTick = System.nanoTime();
+    }
+
+    @Scheduled(fixedDelayString = "${employee.pool-sizing.interval:PT10S}")
+    public synchronized void adjust() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        Timer acquire = timer("hikaricp.connections.acquire");
+        Timer usage = timer("hikaricp.connections.usage");
+        if (pool == null || acquire == null || usage == null) {
+            // the pool and its meters only exist once the first connection was requested
+            return;
+        }
+        long now = System.nanoTime();
+        long acquires = acquire.count();
+        double waitNanos = acquire.totalTime(TimeUnit.NANOSECONDS);
+        double usageNanos = usage.totalTime(TimeUnit.NANOSECONDS);
+
+        PoolSample sample = new PoolSample(now - lastTick, acquires - lastAcquires, (long) (waitNanos - lastWaitNanos),
+                (long) (usageNanos - lastUsageNanos), pool.getActiveConnections(), pool.getThreadsAwaitingConnection());
+        lastTick = now;
+        lastAcquires = acquires;
+        lastWaitNanos = waitNanos;
+        lastUsageNanos = usageNanos;
+        apply(sample);
+    }
+
+    /**
+     * Decides on one interval's sample and resizes the pool accordingly; split from
+     * {@link #adjust()} so the decisions can be driven with synthetic samples.
+     */
+    synchronized void apply(PoolSample sample) {
+        HikariConfigMXBean config = dataSource.getHikariConfigMXBean();
+        int current = config.getMaximumPoolSize();
+        PoolSizingPolicy.Decision decision = policy.decide(current, sample);
+        record(sample, decision.getAction());
+        if (decision.getSize() != current) {
+            log.info("Resizing connection pool {} -> {} ({}, avg wait {} ms, avg hold {} ms, pending {})",
+                    current, decision.getSize(), decision.getAction(),
+                    TimeUnit.NANOSECONDS.toMillis(sample.getAverageWaitNanos()),
+                    TimeUnit.NANOSECONDS.toMillis(sample.getAverageUsageNanos()), sample.getPending());
+            if (decision.getSize() > current) {
+                config.setMaximumPoolSize(decision.getSize());
+                config.setMinimumIdle(Math.min(config.getMinimumIdle(), decision.getSize()));
+            } else {
+                config.setMinimumIdle(Math.min(config.getMinimumIdle(), decision.getSize()));
+                config.setMaximumPoolSize(decision.getSize());
+            }
+        } else if (decision.getAction() == PoolSizingPolicy.Action.DATABASE_BOUND
+                && lastAction != PoolSizingPolicy.Action.DATABASE_BOUND) {
+            log.warn("Connection waits are caused by slow queries (avg hold {} ms, baseline {} ms); "
+                            + "not growing the pool, the database is the bottleneck",
+                    TimeUnit.NANOSECONDS.toMillis(sample.getAverageUsageNanos()),
+                    TimeUnit.NANOSECONDS.toMillis(policy.getBaselineUsageNanos()));
+        } else if (decision.getAction() == PoolSizingPolicy.Action.POOL_BOUND
+                && lastAction != PoolSizingPolicy.Action.POOL_BOUND) {
+            log.warn("Connection pool saturated at its maximum of {} connections", current);
+        }
+        lastAction = decision.getAction();
+    }
+
+    /**
+     * Summarizes what was observed since startup and recommends static pool settings for it.
+     */
+    public synchronized Map<String, Object> report() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        HikariConfigMXBean config = dataSource.getHikariConfigMXBean();
+        report.put("maximumPoolSize", config.getMaximumPoolSize());
+        report.put("minimumIdle", config.getMinimumIdle());
+        report.put("observedSeconds", TimeUnit.NANOSECONDS.toSeconds(observedNanos));
+        report.put("acquires", observedAcquires);
+        report.put("averageWaitMillis", observedAcquires == 0 ? 0 : observedWaitNanos / observedAcquires / 1e6);
+        report.put("averageHoldMillis", observedAcquires == 0 ? 0 : observedUsageNanos / observedAcquires / 1e6);
+        report.put("averageInUse", observedNanos == 0 ? 0 : observedUsageNanos / observedNanos);
+        report.put("peakInUse", peakMeanInUse);
+        report.put("peakPending", peakPending);
+        report.put("decisions", getDecisions());
+
+        Map<String, Object> recommended = new LinkedHashMap<>();
+        recommended.put("maximumPoolSize", Math.max(1, (int) Math.ceil(peakMeanInUse * RECOMMENDED_HEADROOM)));
+        recommended.put("minimumIdle", Math.max(1, (int) Math.ceil(observedNanos == 0 ? 0 : observedUsageNanos / observedNanos)));
+        if (decisions.getOrDefault(PoolSizingPolicy.Action.DATABASE_BOUND, 0L) > 0) {
+            recommended.put("note", "Waits were caused by slow queries; a larger pool will not help, look at the database");
+        } else if (decisions.getOrDefault(PoolSizingPolicy.Action.POOL_BOUND, 0L) > 0) {
+            recommended.put("note", "The pool was saturated at its upper bound; raise employee.pool-sizing.max-size");
+        }
+        report.put("recommended", recommended);
+        return report;
+    }
+
+    /**
+     * How many intervals ended in each decision since startup.
+     */
+    public synchronized Map<PoolSizingPolicy.Action, Long> getDecisions() {
+        return new EnumMap<>(decisions);
+    }
+
+    private void record(PoolSample sample, PoolSizingPolicy.Action action) {
+        observedNanos += sample.getIntervalNanos();
+        observedAcquires += sample.getAcquires();
+        observedWaitNanos += sample.getTotalWaitNanos();
+        observedUsageNanos += sample.getTotalUsageNanos();
+        peakMeanInUse = Math.max(peakMeanInUse, sample.getMeanInUse());
+        peakPending = Math.max(peakPending, sample.getPending());
+        decisions.merge(action, 1L, Long::sum);
+    }
+
+    private Timer timer(String name) {
+        return meterRegistry.find(name).tag("pool", dataSource.getPoolName()).timer();
+    }
+}
@@ -0,0 +1,32 @@
+package net.dd.spring.guide.springboot.pool;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Pool activity over one sizing interval.
+ */
+@Getter
+@AllArgsConstructor
+public class PoolSample {
+    private final long intervalNanos;
+    private final long acquires;
+    private final long totalWaitNanos;
+    /** Sum of the time connections were held, which is dominated by query time. */
+    private final long totalUsageNanos;
+    private final int active;
+    private final int pending;
+
+    public long getAverageWaitNanos() {
+        return acquires == 0 ? 0 : totalWaitNanos / acquires;
+    }
+
+    public long getAverageUsageNanos() {
+        return acquires == 0 ? 0 : totalUsageNanos / acquires;
+    }
+
+    /** Average number of connections in use over the interval (Little's law). */
+    public double getMeanInUse() {
+        return intervalNanos == 0 ? 0 : (double) totalUsageNanos / intervalNanos;
+    }
+}
@@ -0,0 +1,25 @@
+package net.dd.spring.guide.springboot.pool;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+@Configuration
+@EnableConfigurationProperties(PoolSizingProperties.class)
+@ConditionalOnProperty(prefix = "employee.pool-sizing", name = "enabled", havingValue = "true")
+public class PoolSizingConfiguration {
+
+    @Bean
+    public AdaptivePoolSizer adaptivePoolSizer(DataSource dataSource, MeterRegistry meterRegistry,
+                                               PoolSizingProperties properties) throws SQLException {
+        PoolSizingPolicy policy = new PoolSizingPolicy(properties.getMinSize(), properties.getMaxSize(),
+                properties.getTargetWait().toNanos(), properties.getShrinkUtilization(), properties.getBottleneckRatio());
+        return new AdaptivePoolSizer(dataSource.unwrap(HikariDataSource.class), meterRegistry, policy);
+    }
+}
@@ -0,0 +1,89 @@
+package net.dd.spring.guide.springboot.pool;
+
+/**
+ * Decides the next maximum pool size from the activity of the last interval.
+ *
+ * A pool that makes callers wait grows by a quarter, unless connections are also being held
+ * much longer than usual: then the database is what is slow, and more connections would only
+ * queue more concurrent queries on it, so the size is held. A pool whose connections are on
+ * average mostly idle shrinks by one per interval. The baseline hold time only learns from
+ * unsaturated intervals, so a slow database cannot raise its own baseline.
+ */
+public class PoolSizingPolicy {
+
+    private static final double BASELINE_SMOOTHING = 0.1;
+
+    public enum Action {
+        GROW,
+        SHRINK,
+        HOLD,
+        /** saturated at the maximum allowed size */
+        POOL_BOUND,
+        /** saturated because queries slowed down */
+        DATABASE_BOUND
+    }
+
+    private final int minSize;
+    private final int maxSize;
+    private final long targetWaitNanos;
+    private final double shrinkUtilization;
+    private final double bottleneckRatio;
+
+    private double baselineUsageNanos;
+
+    public PoolSizingPolicy(int minSize, int maxSize, long targetWaitNanos,
+                            double shrinkUtilization, double bottleneckRatio) {
+        if (minSize < 1 || maxSize < minSize) {
+            throw new IllegalArgumentException("Invalid pool size bounds: " + minSize + ".." + maxSize);
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.targetWaitNanos = targetWaitNanos;
+        this.shrinkUtilization = shrinkUtilization;
+        this.bottleneckRatio = bottleneckRatio;
+    }
+
+    public Decision decide(int currentSize, PoolSample sample) {
+        boolean saturated = sample.getPending() > 0 || sample.getAverageWaitNanos() > targetWaitNanos;
+        if (saturated) {
+            if (baselineUsageNanos > 0 && sample.getAverageUsageNanos() > baselineUsageNanos * bottleneckRatio) {
+                return new Decision(Action.DATABASE_BOUND, currentSize);
+            }
+            if (currentSize >= maxSize) {
+                return new Decision(Action.POOL_BOUND, currentSize);
+            }
+            return new Decision(Action.GROW, Math.min(maxSize, currentSize + Math.max(1, currentSize / 4)));
+        }
+        if (sample.getAcquires() > 0) {
+            long usage = sample.getAverageUsageNanos();
+            baselineUsageNanos = baselineUsageNanos == 0
+                    ? usage : baselineUsageNanos + (usage - baselineUsageNanos) * BASELINE_SMOOTHING;
+        }
+        if (currentSize > minSize && sample.getMeanInUse() < currentSize * shrinkUtilization) {
+            return new Decision(Action.SHRINK, currentSize - 1);
+        }
+        return new Decision(Action.HOLD, Math.max(minSize, Math.min(maxSize, currentSize)));
+    }
+
+    public long getBaselineUsageNanos() {
+        return (long) baselineUsageNanos;
+    }
+
+    public static final class Decision {
+        private final Action action;
+        private final int size;
+
+        public Decision(Action action, int size) {
+            this.action = action;
+            this.size = size;
+        }
+
+        public Action getAction() {
+            return action;
+        }
+
+        public int getSize() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package net.dd.spring.guide.springboot.pool;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.pool-sizing")
+public class PoolSizingProperties {
+
+    private boolean enabled;
+
+    private int minSize = 4;
+
+    private int maxSize = 40;
+
+    private Duration interval = Duration.ofSeconds(10);
+
+    /** Average time to acquire a connection above which the pool counts as saturated. */
+    private Duration targetWait = Duration.ofMillis(5);
+
+    /** Share of the pool in use below which it is shrunk by one connection per interval. */
+    private double shrinkUtilization = 0.5;
+
+    /**
+     * How far the average connection hold time may rise above its baseline while the pool is
+     * saturated before the database, not the pool, is considered the bottleneck.
+     */
+    private double bottleneckRatio = 2.0;
+}
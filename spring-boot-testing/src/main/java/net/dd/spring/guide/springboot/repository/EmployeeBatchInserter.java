@@ -0,0 +1,40 @@
+package net.dd.spring.guide.springboot.repository;
+
+import net.dd.spring.guide.springboot.model.EmailNormalizer;
+import net.dd.spring.guide.springboot.model.Employee;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Plain JDBC batch insert into {@code tbl_employees}.
+ *
+ * {@link Employee} uses IDENTITY ids, which makes Hibernate give up on JDBC batching and
+ * issue one round trip per row, so bulk loads go through here instead of
+ * {@link EmployeeRepository#saveAll(Iterable)}. Callers own the transaction.
+ */
+@Repository
+public class EmployeeBatchInserter {
+
+    private static final String INSERT_SQL =
+            "insert into tbl_employees (first_name, last_name, email, email_normalized, email_hash) values (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmployeeBatchInserter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insert(List<Employee> employees, int batchSize) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, employees, batchSize, (ps, employee) -> {
+            ps.setString(1, employee.getFirstName());
+            ps.setString(2, employee.getLastName());
+            ps.setString(3, employee.getEmail());
+            // entity callbacks do not run for plain JDBC
+            String normalized = EmailNormalizer.normalize(employee.getEmail());
+            ps.setString(4, normalized);
+            ps.setLong(5, EmailNormalizer.hash(normalized));
+        });
+    }
+}
@@ -0,0 +1,79 @@
+package net.dd.spring.guide.springboot.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import net.dd.spring.guide.springboot.model.EmailNormalizer;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Fills {@code email_normalized} and {@code email_hash} for rows written before those
+ * columns existed. Until that is done {@link EmployeeRepository#findByEmail(String)} cannot
+ * see such rows, so it runs as an {@link ApplicationRunner}: the application only reports
+ * itself ready for traffic once every row is covered.
+ *
+ * Rows are processed in id order, one short transaction per chunk.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class EmployeeEmailBackfill implements ApplicationRunner {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final String SELECT_SQL =
+            "select id, email from tbl_employees where email_hash is null and id > ? order by id limit " + CHUNK_SIZE;
+    private static final String UPDATE_SQL =
+            "update tbl_employees set email_normalized = ?, email_hash = ? where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public EmployeeEmailBackfill(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long lastId = 0;
+        long updated = 0;
+        List<EmailRow> rows;
+        do {
+            rows = jdbcTemplate.query(SELECT_SQL,
+                    (rs, rowNum) -> new EmailRow(rs.getLong("id"), rs.getString("email")), lastId);
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<EmailRow> chunk = rows;
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(UPDATE_SQL, chunk, chunk.size(), (ps, row) -> {
+                        String normalized = EmailNormalizer.normalize(row.email);
+                        ps.setString(1, normalized);
+                        ps.setLong(2, EmailNormalizer.hash(normalized));
+                        ps.setLong(3, row.id);
+                    }));
+            lastId = rows.get(rows.size() - 1).id;
+            updated += rows.size();
+        } while (rows.size() == CHUNK_SIZE);
+        if (updated > 0) {
+            log.info("Backfilled normalized email for {} employees", updated);
+        }
+    }
+
+    private static final class EmailRow {
+        private final long id;
+        private final String email;
+
+        private EmailRow(long id, String email) {
+            this.id = id;
+            this.email = email;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package net.dd.spring.guide.springboot.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Puts the unique index on {@code email_normalized} in place once {@link EmployeeEmailBackfill}
+ * has filled the column. Rows written before emails were compared case-insensitively may share
+ * a normalized email; the oldest row keeps it and the later ones are quarantined by clearing
+ * their {@code email_normalized}, so they stay reachable by id but no longer by email. The index
+ * is then created if missing and startup fails if it still is not there, since upserts by email
+ * and the duplicate check rely on it.
+ *
+ * Hibernate is told not to manage this constraint itself
+ * ({@code hibernate.schema_update.unique_constraint_strategy=SKIP}).
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class EmployeeEmailIndexMigration implements ApplicationRunner {
+
+    static final String INDEX_NAME = "uk_employees_email_normalized";
+
+    private static final String TABLE_NAME = "tbl_employees";
+    private static final String COLUMN_NAME = "email_normalized";
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final String DUPLICATES_SQL =
+            "select e.id from tbl_employees e where e.email_normalized is not null and exists"
+                    + " (select 1 from tbl_employees k where k.email_normalized = e.email_normalized and k.id < e.id)"
+                    + " order by e.id";
+    private static final String QUARANTINE_SQL =
+            "update tbl_employees set email_normalized = null where id = ?";
+    private static final String CREATE_INDEX_SQL =
+            "create unique index " + INDEX_NAME + " on " + TABLE_NAME + " (" + COLUMN_NAME + ")";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public EmployeeEmailIndexMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (hasUniqueIndex()) {
+            return;
+        }
+        List<Long> duplicates = jdbcTemplate.queryForList(DUPLICATES_SQL, Long.class);
+        for (int from = 0; from < duplicates.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = duplicates.subList(from, Math.min(from + CHUNK_SIZE, duplicates.size()));
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(QUARANTINE_SQL, chunk, chunk.size(), (ps, id) -> ps.setLong(1, id)));
+        }
+        if (!duplicates.isEmpty()) {
+            log.warn("Cleared the normalized email of {} employees sharing it with an older employee, first id {}",
+                    duplicates.size(), duplicates.get(0));
+        }
+        jdbcTemplate.execute(CREATE_INDEX_SQL);
+        if (!hasUniqueIndex()) {
+            throw new IllegalStateException("Unique index " + INDEX_NAME + " on " + TABLE_NAME + " is missing");
+        }
+        log.info("Created unique index {}", INDEX_NAME);
+    }
+
+    // any unique index over exactly email_normalized counts, whatever name the schema gave it
+    boolean hasUniqueIndex() {
+        Boolean found = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String table = metaData.storesUpperCaseIdentifiers() ? TABLE_NAME.toUpperCase(Locale.ROOT) : TABLE_NAME;
+            Map<String, Integer> columnCounts = new HashMap<>();
+            Map<String, Boolean> coversColumn = new HashMap<>();
+            try (ResultSet rs = metaData.getIndexInfo(
+                    connection.getCatalog(), connection.getSchema(), table, true, false)) {
+                while (rs.next()) {
+                    String index = rs.getString("INDEX_NAME");
+                    String column = rs.getString("COLUMN_NAME");
+                    if (index == null || column == null) {
+                        continue;
+                    }
+                    columnCounts.merge(index, 1, Integer::sum);
+                    coversColumn.merge(index, COLUMN_NAME.equalsIgnoreCase(column), Boolean::logicalOr);
+                }
+            }
+            return columnCounts.entrySet().stream()
+                    .anyMatch(entry -> entry.getValue() == 1 && coversColumn.get(entry.getKey()));
+        });
+        return Boolean.TRUE.equals(found);
+    }
+}
@@ -0,0 +1,25 @@
+package net.dd.spring.guide.springboot.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs EXPLAIN for the SQL form of an {@link EmployeeQueryPlan}; the rows come back as the
+ * database reports them (one PLAN column on H2, the usual EXPLAIN columns on MySQL).
+ */
+@Repository
+public class EmployeeQueryExplainer {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmployeeQueryExplainer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<Map<String, Object>> explain(EmployeeQueryPlan plan) {
+        return jdbcTemplate.queryForList("explain " + plan.getSql(), plan.getSqlArguments().toArray());
+    }
+}
@@ -0,0 +1,25 @@
+package net.dd.spring.guide.springboot.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import net.dd.spring.guide.springboot.model.Employee;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * An accepted {@link net.dd.spring.guide.springboot.model.EmployeeQuery}: the index it is
+ * served from, the JPA form that is executed and the equivalent SQL used for EXPLAIN.
+ */
+@Getter
+@AllArgsConstructor
+public class EmployeeQueryPlan {
+    private final String index;
+    private final Specification<Employee> specification;
+    private final Sort sort;
+    private final int limit;
+    private final boolean limitCapped;
+    private final String sql;
+    private final List<Object> sqlArguments;
+}
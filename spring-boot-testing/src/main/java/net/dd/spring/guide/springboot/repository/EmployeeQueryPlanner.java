@@ -0,0 +1,193 @@
+package net.dd.spring.guide.springboot.repository;
+
+import net.dd.spring.guide.springboot.exception.InvalidRequestException;
+import net.dd.spring.guide.springboot.model.EmailNormalizer;
+import net.dd.spring.guide.springboot.model.Employee;
+import net.dd.spring.guide.springboot.model.EmployeeQuery;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Turns an {@link EmployeeQuery} into an {@link EmployeeQueryPlan}, accepting only what an
+ * index of {@code tbl_employees} can serve without a filesort.
+ *
+ * Every prefix filter is a range over the leading column of one index, and the result must
+ * be sorted by that same column, in either direction, so the database reads the index in
+ * order and stops after {@code limit} rows. Without filters any indexed column can be sorted
+ * on. The remaining index columns and the id are appended to the sort, which matches the
+ * index order and makes the result deterministic. Everything else is rejected with a message
+ * listing what would be accepted, and limits above {@link #MAX_LIMIT} are capped.
+ *
+ * All prefixes are trimmed. The email prefix is also lower-cased by {@link EmailNormalizer}
+ * because it is matched against {@code email_normalized}. Names are stored as entered, so name
+ * prefixes keep their case and are compared under the column collation: case-insensitive with
+ * MySQL's default utf8mb4 collation, case-sensitive on H2.
+ */
+public final class EmployeeQueryPlanner {
+
+    public static final int MAX_LIMIT = 500;
+
+    private static final char LIKE_ESCAPE = '!';
+
+    enum Access {
+        PRIMARY("PRIMARY", "id"),
+        EMAIL("uk_employees_email_normalized", "email"),
+        LAST_NAME("idx_employees_last_first", "lastName", "firstName"),
+        FIRST_NAME("idx_employees_first_name", "firstName");
+
+        private final String index;
+        private final List<String> attributes;
+
+        Access(String index, String... attributes) {
+            this.index = index;
+            this.attributes = Arrays.asList(attributes);
+        }
+
+        String leading() {
+            return attributes.get(0);
+        }
+    }
+
+    private EmployeeQueryPlanner() {
+    }
+
+    public static EmployeeQueryPlan plan(EmployeeQuery query) {
+        if (query.getLimit() < 1) {
+            throw new InvalidRequestException("limit must be at least 1");
+        }
+        String firstName = trimToNull(query.getFirstNamePrefix());
+        String lastName = trimToNull(query.getLastNamePrefix());
+        String email = trimToNull(EmailNormalizer.normalize(query.getEmailPrefix()));
+        String[] sort = parseSort(query.getSort());
+
+        Access access;
+        if (email != null) {
+            if (firstName != null || lastName != null) {
+                throw new InvalidRequestException("email cannot be combined with name filters");
+            }
+            access = Access.EMAIL;
+        } else if (lastName != null) {
+            // first name narrows the last name range using the second column of the same index
+            access = Access.LAST_NAME;
+        } else if (firstName != null) {
+            access = Access.FIRST_NAME;
+        } else {
+            access = sort == null ? Access.PRIMARY : accessSortedBy(sort[0]);
+        }
+        if (sort != null && !sort[0].equals(access.leading())) {
+            throw new InvalidRequestException("With these filters results can only be sorted by " + access.leading()
+                    + " (indexed by " + access.index + ")");
+        }
+        Sort.Direction direction = sort == null ? Sort.Direction.ASC : Sort.Direction.fromString(sort[1]);
+
+        List<String> orderBy = new ArrayList<>(access.attributes);
+        if (!orderBy.contains("id")) {
+            orderBy.add("id");
+        }
+        int limit = Math.min(query.getLimit(), MAX_LIMIT);
+
+        Specification<Employee> specification = Specification.where(null);
+        StringBuilder sql = new StringBuilder("select id, first_name, last_name, email from tbl_employees");
+        List<Object> arguments = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        if (email != null) {
+            specification = specification.and(startsWith("emailNormalized", email));
+            conditions.add("email_normalized like ? escape '" + LIKE_ESCAPE + "'");
+            arguments.add(likePrefix(email));
+        }
+        if (lastName != null) {
+            specification = specification.and(startsWith("lastName", lastName));
+            conditions.add("last_name like ? escape '" + LIKE_ESCAPE + "'");
+            arguments.add(likePrefix(lastName));
+        }
+        if (firstName != null) {
+            specification = specification.and(startsWith("firstName", firstName));
+            conditions.add("first_name like ? escape '" + LIKE_ESCAPE + "'");
+            arguments.add(likePrefix(firstName));
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" where ").append(String.join(" and ", conditions));
+        }
+        sql.append(" order by ").append(orderBy.stream()
+                .map(attribute -> column(attribute) + " " + direction.name().toLowerCase())
+                .collect(Collectors.joining(", ")));
+        sql.append(" limit ?");
+        arguments.add(limit);
+
+        Sort jpaSort = Sort.by(direction, orderBy.stream().map(EmployeeQueryPlanner::sortAttribute).toArray(String[]::new));
+        return new EmployeeQueryPlan(access.index, specification, jpaSort, limit, limit < query.getLimit(),
+                sql.toString(), arguments);
+    }
+
+    private static Access accessSortedBy(String attribute) {
+        for (Access access : Access.values()) {
+            if (access.leading().equals(attribute)) {
+                return access;
+            }
+        }
+        throw new InvalidRequestException("Cannot sort by '" + attribute + "', expected one of "
+                + Arrays.stream(Access.values()).map(Access::leading).collect(Collectors.joining(",")));
+    }
+
+    // "lastName" or "lastName,desc"
+    private static String[] parseSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return null;
+        }
+        String[] parts = sort.split(",");
+        if (parts.length > 2) {
+            throw new InvalidRequestException("sort must be '<field>' or '<field>,asc|desc'");
+        }
+        String direction = parts.length == 2 ? parts[1].trim().toLowerCase() : "asc";
+        if (!direction.equals("asc") && !direction.equals("desc")) {
+            throw new InvalidRequestException("sort direction must be asc or desc");
+        }
+        String attribute = parts[0].trim();
+        accessSortedBy(attribute);
+        return new String[]{attribute, direction};
+    }
+
+    private static Specification<Employee> startsWith(String attribute, String prefix) {
+        String pattern = likePrefix(prefix);
+        return (root, query, cb) -> cb.like(root.get(attribute), pattern, LIKE_ESCAPE);
+    }
+
+    private static String likePrefix(String prefix) {
+        StringBuilder pattern = new StringBuilder(prefix.length() + 2);
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = prefix.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                pattern.append(LIKE_ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+
+    // email is served from its normalized column, which is what the unique index covers
+    private static String sortAttribute(String attribute) {
+        return attribute.equals("email") ? "emailNormalized" : attribute;
+    }
+
+    private static String column(String attribute) {
+        switch (attribute) {
+            case "firstName":
+                return "first_name";
+            case "lastName":
+                return "last_name";
+            case "email":
+                return "email_normalized";
+            default:
+                return attribute;
+        }
+    }
+
+    private static String trimToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -1,15 +1,97 @@
 package net.dd.spring.guide.springboot.repository;
 
+import net.dd.spring.guide.springboot.model.EmailNormalizer;
 import net.dd.spring.guide.springboot.model.Employee;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeRepositoryCustom {
+
+    // case-insensitive; probes the fixed width hash index, the normalized email guards against collisions.
+    // Rows stored before emails were compared case-insensitively may share a normalized email, the oldest wins.
+    default Optional<Employee> findByEmail(String email) {
+        String normalized = EmailNormalizer.normalize(email);
+        if (normalized == null) {
+            return Optional.empty();
+        }
+        List<Employee> matches = findByEmailHash(EmailNormalizer.hash(normalized), normalized);
+        return matches.isEmpty() ? Optional.empty() : Optional.of(matches.get(0));
+    }
+
+    @Query("select e from Employee e where e.emailHash = :hash and e.emailNormalized = :normalized order by e.id")
+    List<Employee> findByEmailHash(@Param("hash") long hash, @Param("normalized") String normalized);
+
+    List<Employee> findByFirstNameAndLastName(String firstName, String lastName);
+
+    // keyset page walking the table backwards from the newest rows
+    List<Employee> findTop1000ByIdLessThanOrderByIdDesc(long id);
+
+    // streams the whole table in id order; must be consumed inside a transaction and closed.
+    // On MySQL the fetch size is only honoured with useCursorFetch=true on the JDBC url.
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select e from Employee e order by e.id")
+    Stream<Employee> streamAllOrderedById();
+
+    // set based existence check used by bulk loads, one IN query per chunk instead of one lookup per row.
+    // Returns the normalized form of the given emails that are already stored.
+    default List<String> findExistingEmails(Collection<String> emails) {
+        Set<String> normalized = new LinkedHashSet<>(emails.size() * 2);
+        List<Long> hashes = new ArrayList<>(emails.size());
+        for (String email : emails) {
+            String candidate = EmailNormalizer.normalize(email);
+            if (candidate != null && normalized.add(candidate)) {
+                hashes.add(EmailNormalizer.hash(candidate));
+            }
+        }
+        if (hashes.isEmpty()) {
+            return List.of();
+        }
+        List<String> existing = findNormalizedEmailsByHash(hashes);
+        existing.retainAll(normalized);
+        return existing;
+    }
+
+    @Query("select e.emailNormalized from Employee e where e.emailHash in :hashes")
+    List<String> findNormalizedEmailsByHash(@Param("hashes") Collection<Long> hashes);
+
+    // set based counterpart of findByEmail; the result is unordered
+    default List<Employee> findAllByEmails(Collection<String> emails) {
+        Set<String> normalized = new LinkedHashSet<>(emails.size() * 2);
+        for (String email : emails) {
+            String candidate = EmailNormalizer.normalize(email);
+            if (candidate != null) {
+                normalized.add(candidate);
+            }
+        }
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        List<Long> hashes = new ArrayList<>(normalized.size());
+        for (String candidate : normalized) {
+            hashes.add(EmailNormalizer.hash(candidate));
+        }
+        List<Employee> employees = findAllByEmailHash(hashes);
+        employees.removeIf(employee -> !normalized.contains(employee.getEmailNormalized()));
+        return employees;
+    }
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+    @Query("select e from Employee e where e.emailHash in :hashes")
+    List<Employee> findAllByEmailHash(@Param("hashes") Collection<Long> hashes);
 
-    Optional<Employee> findByEmail(String email);
+    @Query("select coalesce(max(e.id), 0) from Employee e")
+    long findMaxId();
 
     // define custom query using JPQL with index params
     @Query("select e from Employee e where e.firstName = ?1 and e.lastName = ?2")
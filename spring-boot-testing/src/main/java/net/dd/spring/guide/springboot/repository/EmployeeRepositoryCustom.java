@@ -0,0 +1,28 @@
+package net.dd.spring.guide.springboot.repository;
+
+import net.dd.spring.guide.springboot.model.Employee;
+import net.dd.spring.guide.springboot.model.EmployeeField;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Column restricted reads: only the requested columns are selected and no entity is
+ * materialized, each row comes back as a field name to value map in {@link EmployeeField}
+ * order.
+ */
+public interface EmployeeRepositoryCustom {
+
+    List<Map<String, Object>> findAllProjected(Set<EmployeeField> fields);
+
+    Optional<Map<String, Object>> findProjectedById(long id, Set<EmployeeField> fields);
+
+    List<Map<String, Object>> findProjectedByName(String firstName, String lastName, Set<EmployeeField> fields);
+
+    // first limit matches, without the count query a Page would run; see EmployeeQueryPlanner
+    List<Employee> findLimited(Specification<Employee> specification, Sort sort, int limit);
+}
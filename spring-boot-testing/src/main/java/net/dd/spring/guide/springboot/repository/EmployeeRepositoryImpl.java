@@ -0,0 +1,89 @@
+package net.dd.spring.guide.springboot.repository;
+
+import net.dd.spring.guide.springboot.model.Employee;
+import net.dd.spring.guide.springboot.model.EmployeeField;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+// picked up by Spring Data as the implementation of EmployeeRepositoryCustom
+class EmployeeRepositoryImpl implements EmployeeRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findAllProjected(Set<EmployeeField> fields) {
+        return query(fields, (cb, root) -> null);
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findProjectedById(long id, Set<EmployeeField> fields) {
+        List<Map<String, Object>> rows = query(fields, (cb, root) -> cb.equal(root.get("id"), id));
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    @Override
+    public List<Map<String, Object>> findProjectedByName(String firstName, String lastName, Set<EmployeeField> fields) {
+        return query(fields, (cb, root) -> cb.and(
+                cb.equal(root.get("firstName"), firstName),
+                cb.equal(root.get("lastName"), lastName)));
+    }
+
+    @Override
+    public List<Employee> findLimited(Specification<Employee> specification, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Employee> query = cb.createQuery(Employee.class);
+        Root<Employee> root = query.from(Employee.class);
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    private List<Map<String, Object>> query(Set<EmployeeField> fields,
+                                            BiFunction<CriteriaBuilder, Root<Employee>, Predicate> restriction) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Employee> root = query.from(Employee.class);
+
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (EmployeeField field : fields) {
+            selections.add(root.get(field.getAttribute()).alias(field.getAttribute()));
+        }
+        query.multiselect(selections);
+        Predicate predicate = restriction.apply(cb, root);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        List<Tuple> tuples = entityManager.createQuery(query).getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>(fields.size() * 2);
+            for (EmployeeField field : fields) {
+                row.put(field.getAttribute(), tuple.get(field.getAttribute()));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
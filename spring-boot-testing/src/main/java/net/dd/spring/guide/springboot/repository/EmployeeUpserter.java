@@ -0,0 +1,63 @@
+package net.dd.spring.guide.springboot.repository;
+
+import net.dd.spring.guide.springboot.model.EmailNormalizer;
+import net.dd.spring.guide.springboot.model.Employee;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Single statement insert-or-update of employees keyed by normalized email, backed by the
+ * unique constraint on {@code email_normalized}: {@code INSERT ... AS new ON DUPLICATE KEY UPDATE}
+ * on MySQL (8.0.19+, the row alias replaces the deprecated {@code VALUES()}) and {@code MERGE ... KEY} on H2. Like {@link EmployeeBatchInserter} this bypasses
+ * the entity callbacks, so the derived email columns are filled here. Callers own the
+ * transaction.
+ */
+@Repository
+public class EmployeeUpserter {
+
+    private static final String MYSQL_UPSERT_SQL =
+            "insert into tbl_employees (first_name, last_name, email, email_normalized, email_hash) values (?, ?, ?, ?, ?)"
+                    + " as new on duplicate key update first_name = new.first_name, last_name = new.last_name,"
+                    + " email = new.email";
+    private static final String H2_UPSERT_SQL =
+            "merge into tbl_employees (first_name, last_name, email, email_normalized, email_hash) key (email_normalized)"
+                    + " values (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile String upsertSql;
+
+    public EmployeeUpserter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void upsert(List<Employee> employees) {
+        jdbcTemplate.batchUpdate(upsertSql(), employees, employees.size(), (ps, employee) -> {
+            String normalized = EmailNormalizer.normalize(employee.getEmail());
+            ps.setString(1, employee.getFirstName());
+            ps.setString(2, employee.getLastName());
+            ps.setString(3, employee.getEmail());
+            ps.setString(4, normalized);
+            ps.setLong(5, EmailNormalizer.hash(normalized));
+        });
+    }
+
+    private String upsertSql() {
+        String sql = upsertSql;
+        if (sql == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            if ("MySQL".equalsIgnoreCase(product)) {
+                sql = MYSQL_UPSERT_SQL;
+            } else if ("H2".equalsIgnoreCase(product)) {
+                sql = H2_UPSERT_SQL;
+            } else {
+                throw new IllegalStateException("Upsert by email is not supported on " + product);
+            }
+            upsertSql = sql;
+        }
+        return sql;
+    }
+}
@@ -1,14 +1,29 @@
 package net.dd.spring.guide.springboot.service;
 
 import net.dd.spring.guide.springboot.model.Employee;
+import net.dd.spring.guide.springboot.model.EmployeeField;
+import net.dd.spring.guide.springboot.model.EmployeeLookup;
+import net.dd.spring.guide.springboot.model.EmployeeQuery;
+import net.dd.spring.guide.springboot.model.EmployeeUpsert;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 public interface EmployeeService {
     Employee saveEmployee(Employee employee);
     List<Employee> getAllEmployees();
+    List<Map<String, Object>> getAllEmployees(Set<EmployeeField> fields);
+    List<Employee> getEmployeesPage(int page, int size, String firstName, String lastName);
     Optional<Employee> getEmployeeById(long id);
+    Optional<Map<String, Object>> getEmployeeById(long id, Set<EmployeeField> fields);
+    List<Employee> searchEmployees(String firstName, String lastName);
+    List<Map<String, Object>> searchEmployees(String firstName, String lastName, Set<EmployeeField> fields);
+    List<EmployeeLookup> getEmployeesByIds(List<Long> ids);
+    List<Employee> queryEmployees(EmployeeQuery query);
+    Map<String, Object> explainEmployeeQuery(EmployeeQuery query);
     Employee updateEmployee(Employee updatedEmployee);
+    List<EmployeeUpsert> upsertEmployeesByEmail(List<Employee> employees);
     void deleteEmployee(long id);
 }
@@ -1,52 +1,260 @@
 package net.dd.spring.guide.springboot.service.impl;
 
+import net.dd.spring.guide.springboot.degraded.StaleWhileRevalidateReads;
+import net.dd.spring.guide.springboot.event.EmployeeChangedEvent;
+import net.dd.spring.guide.springboot.model.EmailNormalizer;
 import net.dd.spring.guide.springboot.model.Employee;
+import net.dd.spring.guide.springboot.model.EmployeeField;
+import net.dd.spring.guide.springboot.model.EmployeeLookup;
+import net.dd.spring.guide.springboot.model.EmployeeQuery;
+import net.dd.spring.guide.springboot.model.EmployeeUpsert;
 import net.dd.spring.guide.springboot.service.EmployeeService;
+import net.dd.spring.guide.springboot.exception.DuplicateResourceException;
+import net.dd.spring.guide.springboot.exception.InvalidRequestException;
 import net.dd.spring.guide.springboot.exception.ResourceNotFoundException;
+import net.dd.spring.guide.springboot.exception.ServiceUnavailableException;
+import net.dd.spring.guide.springboot.repository.EmployeeQueryExplainer;
+import net.dd.spring.guide.springboot.repository.EmployeeQueryPlan;
+import net.dd.spring.guide.springboot.repository.EmployeeQueryPlanner;
 import net.dd.spring.guide.springboot.repository.EmployeeRepository;
+import net.dd.spring.guide.springboot.repository.EmployeeUpserter;
+import net.dd.spring.guide.springboot.snapshot.EmployeeSnapshotStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class EmployeeServiceImpl implements EmployeeService {
 
+    static final int MAX_IDS_PER_LOOKUP = 1000;
+    // keeps each IN list well below driver and optimizer limits
+    static final int LOOKUP_CHUNK_SIZE = 500;
+    static final int MAX_UPSERTS_PER_BATCH = 1000;
+
     private EmployeeRepository employeeRepository;
+    private EmployeeUpserter employeeUpserter;
+    private EmployeeQueryExplainer queryExplainer;
+    private ApplicationEventPublisher eventPublisher;
+    private EmployeeSnapshotStore snapshotStore;
+    private StaleWhileRevalidateReads staleReads;
 
     @Autowired
-    public EmployeeServiceImpl(EmployeeRepository employeeRepository) {
+    public EmployeeServiceImpl(EmployeeRepository employeeRepository, EmployeeUpserter employeeUpserter,
+                               EmployeeQueryExplainer queryExplainer, ApplicationEventPublisher eventPublisher) {
         this.employeeRepository = employeeRepository;
+        this.employeeUpserter = employeeUpserter;
+        this.queryExplainer = queryExplainer;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // optional, present when employee.snapshot.enabled=true
+    @Autowired(required = false)
+    public void setSnapshotStore(EmployeeSnapshotStore snapshotStore) {
+        this.snapshotStore = snapshotStore;
+    }
+
+    // optional, present when employee.degraded-reads.enabled=true
+    @Autowired(required = false)
+    public void setStaleReads(StaleWhileRevalidateReads staleReads) {
+        this.staleReads = staleReads;
     }
 
     @Override
+    @Transactional
     public Employee saveEmployee(Employee employee) {
+        checkWritable();
 
         Optional<Employee> savedEmployee = employeeRepository.findByEmail(employee.getEmail());
         if(savedEmployee.isPresent()){
-            throw new ResourceNotFoundException("Employee already exist with given email:" + employee.getEmail());
+            throw DuplicateResourceException.EMAIL_TAKEN;
         }
-        return employeeRepository.save(employee);
+        Employee createdEmployee = employeeRepository.save(employee);
+        eventPublisher.publishEvent(EmployeeChangedEvent.created(createdEmployee));
+        return createdEmployee;
     }
 
     @Override
     public List<Employee> getAllEmployees() {
+        if (isSnapshotReady()) {
+            return snapshotStore.getAll();
+        }
         return employeeRepository.findAll();
     }
 
+    @Override
+    public List<Employee> getEmployeesPage(int page, int size, String firstName, String lastName) {
+        if (isSnapshotReady()) {
+            return snapshotStore.query(firstName, lastName, Math.multiplyExact(page, size), size);
+        }
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.by("id"));
+        if (firstName == null && lastName == null) {
+            return employeeRepository.findAll(pageRequest).getContent();
+        }
+        Employee probe = Employee.builder().firstName(firstName).lastName(lastName).build();
+        ExampleMatcher matcher = ExampleMatcher.matching().withIgnorePaths("id");
+        return employeeRepository.findAll(Example.of(probe, matcher), pageRequest).getContent();
+    }
+
+    @Override
+    public List<Map<String, Object>> getAllEmployees(Set<EmployeeField> fields) {
+        return employeeRepository.findAllProjected(fields);
+    }
+
     @Override
     public Optional<Employee> getEmployeeById(long id) {
+        if (staleReads != null) {
+            return staleReads.getById(id, () -> employeeRepository.findById(id));
+        }
         return employeeRepository.findById(id);
     }
 
     @Override
+    public Optional<Map<String, Object>> getEmployeeById(long id, Set<EmployeeField> fields) {
+        return employeeRepository.findProjectedById(id, fields);
+    }
+
+    @Override
+    public List<Employee> searchEmployees(String firstName, String lastName) {
+        return employeeRepository.findByFirstNameAndLastName(firstName, lastName);
+    }
+
+    @Override
+    public List<Map<String, Object>> searchEmployees(String firstName, String lastName, Set<EmployeeField> fields) {
+        return employeeRepository.findProjectedByName(firstName, lastName, fields);
+    }
+
+    @Override
+    public List<EmployeeLookup> getEmployeesByIds(List<Long> ids) {
+        if (ids.size() > MAX_IDS_PER_LOOKUP) {
+            throw new InvalidRequestException("At most " + MAX_IDS_PER_LOOKUP + " ids can be requested at once");
+        }
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, Employee> employeesById = staleReads != null
+                ? staleReads.getByIds(distinctIds, () -> findAllById(distinctIds))
+                : findAllById(distinctIds);
+
+        List<EmployeeLookup> lookups = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Employee employee = employeesById.get(id);
+            lookups.add(employee != null ? EmployeeLookup.found(employee) : EmployeeLookup.missing(id));
+        }
+        return lookups;
+    }
+
+    private Map<Long, Employee> findAllById(List<Long> distinctIds) {
+        Map<Long, Employee> employeesById = new HashMap<>(distinctIds.size() * 2);
+        for (int from = 0; from < distinctIds.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, distinctIds.size()));
+            for (Employee employee : employeeRepository.findAllById(chunk)) {
+                employeesById.put(employee.getId(), employee);
+            }
+        }
+        return employeesById;
+    }
+
+    @Override
+    public List<Employee> queryEmployees(EmployeeQuery query) {
+        EmployeeQueryPlan plan = EmployeeQueryPlanner.plan(query);
+        return employeeRepository.findLimited(plan.getSpecification(), plan.getSort(), plan.getLimit());
+    }
+
+    @Override
+    public Map<String, Object> explainEmployeeQuery(EmployeeQuery query) {
+        EmployeeQueryPlan plan = EmployeeQueryPlanner.plan(query);
+        Map<String, Object> explain = new LinkedHashMap<>();
+        explain.put("index", plan.getIndex());
+        explain.put("limit", plan.getLimit());
+        explain.put("limitCapped", plan.isLimitCapped());
+        explain.put("sql", plan.getSql());
+        explain.put("plan", queryExplainer.explain(plan));
+        return explain;
+    }
+
+    @Override
+    @Transactional
     public Employee updateEmployee(Employee updatedEmployee) {
-        return employeeRepository.save(updatedEmployee);
+        checkWritable();
+        Employee savedEmployee = employeeRepository.save(updatedEmployee);
+        eventPublisher.publishEvent(EmployeeChangedEvent.updated(savedEmployee));
+        return savedEmployee;
     }
 
     @Override
+    @Transactional
+    public List<EmployeeUpsert> upsertEmployeesByEmail(List<Employee> employees) {
+        checkWritable();
+        if (employees.size() > MAX_UPSERTS_PER_BATCH) {
+            throw new InvalidRequestException("At most " + MAX_UPSERTS_PER_BATCH + " employees can be upserted at once");
+        }
+        // the last entry for an email wins, as if the entries had been sent one by one
+        Map<String, Employee> latestByEmail = new LinkedHashMap<>(employees.size() * 2);
+        for (Employee employee : employees) {
+            String normalized = EmailNormalizer.normalize(employee.getEmail());
+            if (normalized == null || employee.getFirstName() == null || employee.getLastName() == null) {
+                throw new InvalidRequestException("firstName, lastName and email are required");
+            }
+            latestByEmail.put(normalized, employee);
+        }
+
+        // Which emails existed is read before the upsert in the same transaction. A concurrent
+        // insert of the same email in between still ends up updated, it is only reported as created.
+        Set<String> existing = new HashSet<>(employeeRepository.findExistingEmails(latestByEmail.keySet()));
+        employeeUpserter.upsert(new ArrayList<>(latestByEmail.values()));
+
+        Map<String, Employee> stored = new HashMap<>(latestByEmail.size() * 2);
+        for (Employee employee : employeeRepository.findAllByEmails(latestByEmail.keySet())) {
+            stored.put(employee.getEmailNormalized(), employee);
+            eventPublisher.publishEvent(existing.contains(employee.getEmailNormalized())
+                    ? EmployeeChangedEvent.updated(employee)
+                    : EmployeeChangedEvent.created(employee));
+        }
+
+        List<EmployeeUpsert> results = new ArrayList<>(employees.size());
+        Set<String> seen = new HashSet<>(latestByEmail.size() * 2);
+        for (Employee employee : employees) {
+            String normalized = EmailNormalizer.normalize(employee.getEmail());
+            boolean created = !existing.contains(normalized) && seen.add(normalized);
+            results.add(new EmployeeUpsert(created, stored.get(normalized)));
+        }
+        return results;
+    }
+
+    @Override
+    @Transactional
     public void deleteEmployee(long id) {
-        employeeRepository.deleteById(id);
+        checkWritable();
+        try {
+            employeeRepository.deleteById(id);
+        } catch (EmptyResultDataAccessException e) {
+            throw ResourceNotFoundException.EMPLOYEE_NOT_FOUND;
+        }
+        eventPublisher.publishEvent(EmployeeChangedEvent.deleted(id));
+    }
+
+    // while the database is degraded writes fail fast instead of queueing for a connection
+    private void checkWritable() {
+        if (staleReads != null && staleReads.isDegraded()) {
+            throw ServiceUnavailableException.DATABASE_DEGRADED;
+        }
+    }
+
+    private boolean isSnapshotReady() {
+        return snapshotStore != null && snapshotStore.isReady();
     }
 }
@@ -0,0 +1,98 @@
+package net.dd.spring.guide.springboot.snapshot;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Low cardinality string column (first and last names): each row stores an int code into
+ * a packed dictionary of distinct values. Values are resolved back to codes through an open
+ * addressing table of codes, four bytes per slot instead of a {@code HashMap} entry and a
+ * second copy of every string on heap.
+ */
+final class DictionaryColumn {
+
+    static final int NO_CODE = -1;
+
+    private final int[] codes;
+    private final PackedStrings dictionary;
+    private final int[] codesByHash;
+
+    private DictionaryColumn(int[] codes, PackedStrings dictionary, int[] codesByHash) {
+        this.codes = codes;
+        this.dictionary = dictionary;
+        this.codesByHash = codesByHash;
+    }
+
+    String get(int row) {
+        return dictionary.get(codes[row]);
+    }
+
+    int code(int row) {
+        return codes[row];
+    }
+
+    /**
+     * Resolves a value to its code once per query, so row filtering is an int compare.
+     */
+    int codeOf(String value) {
+        int mask = codesByHash.length - 1;
+        for (int slot = slot(value, mask); ; slot = (slot + 1) & mask) {
+            int code = codesByHash[slot];
+            if (code == NO_CODE || dictionary.get(code).equals(value)) {
+                return code;
+            }
+        }
+    }
+
+    long heapBytes() {
+        return 16 + codes.length * 4L + dictionary.heapBytes() + 16 + codesByHash.length * 4L;
+    }
+
+    private static int slot(String value, int mask) {
+        int hash = value.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    long offHeapBytes() {
+        return dictionary.offHeapBytes();
+    }
+
+    static final class Builder {
+        private final Map<String, Integer> codesByValue = new HashMap<>();
+        private final PackedStrings.Builder dictionary = new PackedStrings.Builder();
+        private int[] codes;
+        private int size;
+
+        Builder(int expectedRows) {
+            this.codes = new int[Math.max(16, expectedRows)];
+        }
+
+        void add(String value) {
+            Integer code = codesByValue.get(value);
+            if (code == null) {
+                code = dictionary.add(value);
+                codesByValue.put(value, code);
+            }
+            if (size == codes.length) {
+                codes = Arrays.copyOf(codes, codes.length * 2);
+            }
+            codes[size++] = code;
+        }
+
+        DictionaryColumn build(boolean offHeap) {
+            // at most half full, so probing always reaches an empty slot
+            int[] codesByHash = new int[Integer.highestOneBit(Math.max(1, codesByValue.size()) * 2) * 2];
+            Arrays.fill(codesByHash, NO_CODE);
+            int mask = codesByHash.length - 1;
+            for (Map.Entry<String, Integer> entry : codesByValue.entrySet()) {
+                int slot = slot(entry.getKey(), mask);
+                while (codesByHash[slot] != NO_CODE) {
+                    slot = (slot + 1) & mask;
+                }
+                codesByHash[slot] = entry.getValue();
+            }
+            return new DictionaryColumn(Arrays.copyOf(codes, size), dictionary.build(offHeap), codesByHash);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package net.dd.spring.guide.springboot.snapshot;
+
+import net.dd.spring.guide.springboot.model.Employee;
+
+import java.util.Arrays;
+
+/**
+ * Immutable columnar copy of {@code tbl_employees}, rows sorted by id.
+ */
+final class EmployeeColumns {
+
+    static final EmployeeColumns EMPTY = new Builder(0, false).build();
+
+    private final long[] ids;
+    private final DictionaryColumn firstNames;
+    private final DictionaryColumn lastNames;
+    private final PackedStrings emails;
+    private final long entityBytesEstimate;
+
+    private EmployeeColumns(long[] ids, DictionaryColumn firstNames, DictionaryColumn lastNames,
+                            PackedStrings emails, long entityBytesEstimate) {
+        this.ids = ids;
+        this.firstNames = firstNames;
+        this.lastNames = lastNames;
+        this.emails = emails;
+        this.entityBytesEstimate = entityBytesEstimate;
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    long id(int row) {
+        return ids[row];
+    }
+
+    int indexOf(long id) {
+        return Arrays.binarySearch(ids, id);
+    }
+
+    DictionaryColumn firstNames() {
+        return firstNames;
+    }
+
+    DictionaryColumn lastNames() {
+        return lastNames;
+    }
+
+    Employee toEmployee(int row) {
+        return Employee.builder()
+                .id(ids[row])
+                .firstName(firstNames.get(row))
+                .lastName(lastNames.get(row))
+                .email(emails.get(row))
+                .build();
+    }
+
+    long heapBytes() {
+        return 16 + ids.length * 8L + firstNames.heapBytes() + lastNames.heapBytes() + emails.heapBytes();
+    }
+
+    long offHeapBytes() {
+        return firstNames.offHeapBytes() + lastNames.offHeapBytes() + emails.offHeapBytes();
+    }
+
+    long entityBytesEstimate() {
+        return entityBytesEstimate;
+    }
+
+    /**
+     * Accepts rows in ascending id order.
+     */
+    static final class Builder {
+        // Employee: 12 byte header + long + 3 compressed references, plus its slot in an ArrayList
+        private static final int EMPLOYEE_SHALLOW_BYTES = 32 + 4;
+
+        private final boolean offHeap;
+        private long[] ids;
+        private final DictionaryColumn.Builder firstNames;
+        private final DictionaryColumn.Builder lastNames;
+        private final PackedStrings.Builder emails = new PackedStrings.Builder();
+        private int size;
+        private long lastId = Long.MIN_VALUE;
+        private long entityBytesEstimate;
+
+        Builder(int expectedRows, boolean offHeap) {
+            this.offHeap = offHeap;
+            this.ids = new long[Math.max(16, expectedRows)];
+            this.firstNames = new DictionaryColumn.Builder(expectedRows);
+            this.lastNames = new DictionaryColumn.Builder(expectedRows);
+        }
+
+        void add(Employee employee) {
+            if (employee.getId() <= lastId) {
+                throw new IllegalArgumentException("Rows must be added in ascending id order");
+            }
+            lastId = employee.getId();
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+            ids[size++] = employee.getId();
+            firstNames.add(employee.getFirstName());
+            lastNames.add(employee.getLastName());
+            emails.add(employee.getEmail());
+            entityBytesEstimate += EMPLOYEE_SHALLOW_BYTES + stringBytes(employee.getFirstName())
+                    + stringBytes(employee.getLastName()) + stringBytes(employee.getEmail());
+        }
+
+        EmployeeColumns build() {
+            return new EmployeeColumns(Arrays.copyOf(ids, size), firstNames.build(offHeap), lastNames.build(offHeap),
+                    emails.build(offHeap), entityBytesEstimate);
+        }
+
+        // String object (24 bytes) plus its backing byte[] (16 byte header), compact Latin-1 strings assumed
+        private static long stringBytes(String value) {
+            return 24 + align(16 + value.length());
+        }
+
+        private static long align(long bytes) {
+            return (bytes + 7) & ~7L;
+        }
+    }
+}
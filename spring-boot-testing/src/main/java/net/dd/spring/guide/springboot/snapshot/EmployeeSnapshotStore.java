@@ -0,0 +1,322 @@
+package net.dd.spring.guide.springboot.snapshot;
+
+import lombok.extern.slf4j.Slf4j;
+import net.dd.spring.guide.springboot.event.EmployeeChangedEvent;
+import net.dd.spring.guide.springboot.event.EmployeesImportedEvent;
+import net.dd.spring.guide.springboot.model.Employee;
+import net.dd.spring.guide.springboot.repository.EmployeeRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * In-process, read-only copy of all employees in a compact columnar layout, for listing
+ * endpoints that can tolerate a little staleness.
+ *
+ * The table is streamed once at startup into {@link EmployeeColumns}. Committed writes are
+ * then put into a small id-ordered concurrent overlay which takes precedence over the
+ * columns. Once it grows past the compaction threshold a background thread folds a copy of
+ * it into new columns without touching the database, then swaps them in together with the
+ * changes that arrived meanwhile; writers never pay for the fold. Readers take the current
+ * {@link State} from a volatile field and never block.
+ */
+@Slf4j
+public class EmployeeSnapshotStore {
+
+    private static final int CLEAR_INTERVAL = 1000;
+    // overlay marker for a deleted row, concurrent maps do not take null values
+    private static final Employee DELETED = new Employee();
+
+    private final EmployeeRepository employeeRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final SnapshotProperties properties;
+    private final Executor compactor;
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+
+    private volatile State state = new State(EmployeeColumns.EMPTY, new ConcurrentSkipListMap<>(), false);
+    private volatile long lastLoadMillis;
+
+    public EmployeeSnapshotStore(EmployeeRepository employeeRepository, EntityManager entityManager,
+                                 PlatformTransactionManager transactionManager, SnapshotProperties properties) {
+        this(employeeRepository, entityManager, transactionManager, properties,
+                Executors.newSingleThreadExecutor(compactorThreadFactory()));
+    }
+
+    EmployeeSnapshotStore(EmployeeRepository employeeRepository, EntityManager entityManager,
+                          PlatformTransactionManager transactionManager, SnapshotProperties properties,
+                          Executor compactor) {
+        this.employeeRepository = employeeRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.properties = properties;
+        this.compactor = compactor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        Thread loader = new Thread(this::load, "employee-snapshot-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    public void load() {
+        long start = System.nanoTime();
+        EmployeeColumns columns = readOnlyTransaction.execute(status -> {
+            EmployeeColumns.Builder builder = new EmployeeColumns.Builder((int) employeeRepository.count(),
+                    properties.isOffHeap());
+            try (Stream<Employee> employees = employeeRepository.streamAllOrderedById()) {
+                Iterator<Employee> iterator = employees.iterator();
+                int sinceClear = 0;
+                while (iterator.hasNext()) {
+                    builder.add(iterator.next());
+                    if (++sinceClear == CLEAR_INTERVAL) {
+                        // keep the persistence context from retaining every streamed entity
+                        entityManager.clear();
+                        sinceClear = 0;
+                    }
+                }
+            }
+            return builder.build();
+        });
+        synchronized (this) {
+            // changes that arrived while streaming stay in the overlay and win over the streamed rows
+            state = new State(columns, state.overlay, state.overlaySize, true);
+        }
+        compactIfNeeded();
+        lastLoadMillis = (System.nanoTime() - start) / 1_000_000;
+        SnapshotStats stats = getStats();
+        log.info("Employee snapshot loaded: {} rows in {} ms, {} bytes/row vs ~{} bytes/row as entities",
+                stats.getRows(), lastLoadMillis, Math.round(stats.getBytesPerRow()),
+                Math.round(stats.getEntityBytesPerRow()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        apply(event.getEmployeeId(), event.getEmployee());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeesImported(EmployeesImportedEvent event) {
+        Map<Long, Employee> changes = new TreeMap<>();
+        for (EmployeeChangedEvent change : event.getChanges()) {
+            changes.put(change.getEmployeeId(), change.getEmployee());
+        }
+        applyAll(changes);
+    }
+
+    /**
+     * Records the latest state of a row, {@code null} meaning it was deleted.
+     */
+    public void apply(long id, Employee employee) {
+        applyAll(Collections.singletonMap(id, employee));
+    }
+
+    /**
+     * Records the latest state of several rows, {@code null} values meaning deletions.
+     */
+    public void applyAll(Map<Long, Employee> changes) {
+        // the lock only keeps writes from landing in an overlay that a compaction is replacing
+        synchronized (this) {
+            State current = state;
+            for (Map.Entry<Long, Employee> change : changes.entrySet()) {
+                Employee employee = change.getValue() == null ? DELETED : change.getValue();
+                if (current.overlay.put(change.getKey(), employee) == null) {
+                    current.overlaySize.incrementAndGet();
+                }
+            }
+        }
+        compactIfNeeded();
+    }
+
+    public boolean isReady() {
+        return state.ready;
+    }
+
+    public void shutdown() {
+        if (compactor instanceof ExecutorService) {
+            ((ExecutorService) compactor).shutdownNow();
+        }
+    }
+
+    public List<Employee> getAll() {
+        return query(null, null, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Rows in id order, optionally restricted to an exact first and/or last name.
+     */
+    public List<Employee> query(String firstName, String lastName, int offset, int limit) {
+        State current = state;
+        List<Employee> result = new ArrayList<>(Math.min(limit, current.base.size() + current.overlaySize.get()));
+        int[] skipped = {0};
+        scan(current.base, current.overlay, firstName, lastName, employee -> {
+            if (skipped[0] < offset) {
+                skipped[0]++;
+            } else {
+                result.add(employee);
+            }
+            return result.size() < limit;
+        });
+        return result;
+    }
+
+    /**
+     * Merges the id-ordered columns with the id-ordered overlay, materializing one matching
+     * row at a time, until the visitor returns {@code false}.
+     */
+    private static void scan(EmployeeColumns base, NavigableMap<Long, Employee> overlay,
+                             String firstName, String lastName, RowVisitor visitor) {
+        int firstNameCode = firstName == null ? DictionaryColumn.NO_CODE : base.firstNames().codeOf(firstName);
+        int lastNameCode = lastName == null ? DictionaryColumn.NO_CODE : base.lastNames().codeOf(lastName);
+        boolean baseCanMatch = (firstName == null || firstNameCode != DictionaryColumn.NO_CODE)
+                && (lastName == null || lastNameCode != DictionaryColumn.NO_CODE);
+
+        Iterator<Map.Entry<Long, Employee>> pending = overlay.entrySet().iterator();
+        Map.Entry<Long, Employee> next = pending.hasNext() ? pending.next() : null;
+        int row = 0;
+        while (row < base.size() || next != null) {
+            Employee candidate;
+            if (next != null && (row >= base.size() || next.getKey() <= base.id(row))) {
+                if (row < base.size() && next.getKey() == base.id(row)) {
+                    // the overlay holds a newer version (or the deletion) of this row
+                    row++;
+                }
+                Employee changed = next.getValue();
+                candidate = changed != DELETED && matches(changed, firstName, lastName) ? copyOf(changed) : null;
+                next = pending.hasNext() ? pending.next() : null;
+            } else {
+                candidate = baseCanMatch
+                        && (firstName == null || base.firstNames().code(row) == firstNameCode)
+                        && (lastName == null || base.lastNames().code(row) == lastNameCode)
+                        ? base.toEmployee(row) : null;
+                row++;
+            }
+            if (candidate != null && !visitor.visit(candidate)) {
+                return;
+            }
+        }
+    }
+
+    public SnapshotStats getStats() {
+        State current = state;
+        EmployeeColumns base = current.base;
+        int rows = base.size();
+        long heapBytes = base.heapBytes();
+        long offHeapBytes = base.offHeapBytes();
+        return new SnapshotStats(current.ready, rows, current.overlaySize.get(), heapBytes, offHeapBytes,
+                rows == 0 ? 0 : (double) (heapBytes + offHeapBytes) / rows,
+                rows == 0 ? 0 : (double) base.entityBytesEstimate() / rows,
+                lastLoadMillis);
+    }
+
+    private void compactIfNeeded() {
+        State current = state;
+        if (current.ready && current.overlaySize.get() >= properties.getCompactionThreshold()
+                && compactionScheduled.compareAndSet(false, true)) {
+            try {
+                compactor.execute(this::compact);
+            } catch (RejectedExecutionException e) {
+                compactionScheduled.set(false);
+            }
+        }
+    }
+
+    private void compact() {
+        try {
+            State current = state;
+            // point in time copy; changes made while folding stay in the overlay
+            TreeMap<Long, Employee> folded = new TreeMap<>(current.overlay);
+            EmployeeColumns.Builder builder = new EmployeeColumns.Builder(current.base.size() + folded.size(),
+                    properties.isOffHeap());
+            scan(current.base, folded, null, null, employee -> {
+                builder.add(employee);
+                return true;
+            });
+            EmployeeColumns columns = builder.build();
+            synchronized (this) {
+                if (state.base != current.base) {
+                    // reloaded meanwhile, the fold is based on stale columns
+                    return;
+                }
+                ConcurrentSkipListMap<Long, Employee> remaining = new ConcurrentSkipListMap<>(state.overlay);
+                for (Map.Entry<Long, Employee> change : folded.entrySet()) {
+                    // only entries not replaced since the copy are in the new columns
+                    remaining.remove(change.getKey(), change.getValue());
+                }
+                state = new State(columns, remaining, true);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Employee snapshot compaction failed, changes stay in the overlay", e);
+        } finally {
+            compactionScheduled.set(false);
+        }
+        compactIfNeeded();
+    }
+
+    private static ThreadFactory compactorThreadFactory() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("employee-snapshot-compactor-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    private static boolean matches(Employee employee, String firstName, String lastName) {
+        return (firstName == null || firstName.equals(employee.getFirstName()))
+                && (lastName == null || lastName.equals(employee.getLastName()));
+    }
+
+    private static Employee copyOf(Employee employee) {
+        return Employee.builder()
+                .id(employee.getId())
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email(employee.getEmail())
+                .build();
+    }
+
+    private interface RowVisitor {
+        boolean visit(Employee employee);
+    }
+
+    private static final class State {
+        final EmployeeColumns base;
+        final ConcurrentSkipListMap<Long, Employee> overlay;
+        // ConcurrentSkipListMap.size() walks the map
+        final AtomicInteger overlaySize;
+        final boolean ready;
+
+        State(EmployeeColumns base, ConcurrentSkipListMap<Long, Employee> overlay, boolean ready) {
+            this(base, overlay, new AtomicInteger(overlay.size()), ready);
+        }
+
+        State(EmployeeColumns base, ConcurrentSkipListMap<Long, Employee> overlay, AtomicInteger overlaySize,
+              boolean ready) {
+            this.base = base;
+            this.overlay = overlay;
+            this.overlaySize = overlaySize;
+            this.ready = ready;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package net.dd.spring.guide.springboot.snapshot;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Immutable string column stored as consecutive UTF-8 bytes plus an offset array. A row
+ * costs its encoded length and four bytes of offset, instead of a String object, its byte
+ * array and a reference. The bytes may live off-heap in a direct buffer.
+ */
+final class PackedStrings {
+
+    private final ByteBuffer data;
+    private final int[] offsets;
+    private final int size;
+
+    private PackedStrings(ByteBuffer data, int[] offsets, int size) {
+        this.data = data;
+        this.offsets = offsets;
+        this.size = size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    String get(int index) {
+        int start = offsets[index];
+        int length = offsets[index + 1] - start;
+        if (data.hasArray()) {
+            return new String(data.array(), data.arrayOffset() + start, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        ByteBuffer view = data.duplicate();
+        view.position(start);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    long heapBytes() {
+        return 16 + offsets.length * 4L + (data.isDirect() ? 0 : data.capacity());
+    }
+
+    long offHeapBytes() {
+        return data.isDirect() ? data.capacity() : 0;
+    }
+
+    static final class Builder {
+        private byte[] bytes = new byte[1024];
+        private int length;
+        private int[] offsets = new int[65];
+        private int size;
+
+        int add(String value) {
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            if (length + encoded.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + encoded.length));
+            }
+            System.arraycopy(encoded, 0, bytes, length, encoded.length);
+            length += encoded.length;
+            if (size + 2 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[++size] = length;
+            return size - 1;
+        }
+
+        PackedStrings build(boolean offHeap) {
+            ByteBuffer data;
+            if (offHeap) {
+                data = ByteBuffer.allocateDirect(length);
+                data.put(bytes, 0, length);
+                data.flip();
+            } else {
+                data = ByteBuffer.wrap(Arrays.copyOf(bytes, length));
+            }
+            return new PackedStrings(data, Arrays.copyOf(offsets, size + 1), size);
+        }
+    }
+}
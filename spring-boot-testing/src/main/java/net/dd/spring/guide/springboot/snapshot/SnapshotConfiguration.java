@@ -0,0 +1,23 @@
+package net.dd.spring.guide.springboot.snapshot;
+
+import net.dd.spring.guide.springboot.repository.EmployeeRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+
+@Configuration
+@EnableConfigurationProperties(SnapshotProperties.class)
+@ConditionalOnProperty(prefix = "employee.snapshot", name = "enabled", havingValue = "true")
+public class SnapshotConfiguration {
+
+    @Bean
+    public EmployeeSnapshotStore employeeSnapshotStore(EmployeeRepository employeeRepository, EntityManager entityManager,
+                                                       PlatformTransactionManager transactionManager,
+                                                       SnapshotProperties properties) {
+        return new EmployeeSnapshotStore(employeeRepository, entityManager, transactionManager, properties);
+    }
+}
@@ -0,0 +1,19 @@
+package net.dd.spring.guide.springboot.snapshot;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.snapshot")
+public class SnapshotProperties {
+
+    private boolean enabled;
+
+    /** Keep the string columns in direct buffers outside the Java heap. */
+    private boolean offHeap;
+
+    /** Number of pending changes that triggers folding them into a new columnar snapshot. */
+    private int compactionThreshold = 1024;
+}
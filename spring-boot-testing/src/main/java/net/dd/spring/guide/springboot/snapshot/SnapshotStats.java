@@ -0,0 +1,18 @@
+package net.dd.spring.guide.springboot.snapshot;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SnapshotStats {
+    private final boolean ready;
+    private final int rows;
+    private final int pendingChanges;
+    private final long heapBytes;
+    private final long offHeapBytes;
+    private final double bytesPerRow;
+    /** Estimated retained size per row of the same data held as a {@code List<Employee>}. */
+    private final double entityBytesPerRow;
+    private final long lastLoadMillis;
+}
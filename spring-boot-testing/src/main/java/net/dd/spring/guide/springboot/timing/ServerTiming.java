@@ -0,0 +1,138 @@
+package net.dd.spring.guide.springboot.timing;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Phase timings of the current request, collected on the request thread and rendered as a
+ * {@code Server-Timing} header.
+ *
+ * Instances only exist while {@link ServerTimingFilter} is active, so every recording
+ * method is reached through {@link #current()} and costs a thread local read when the
+ * feature is off for a request. All times come from {@link System#nanoTime()}.
+ */
+public final class ServerTiming {
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final int maxRepositoryEntries;
+    private final List<RepositoryCall> repositoryCalls = new ArrayList<>();
+
+    private int statements;
+    private long parseStartNanos;
+    private long parseNanos = -1;
+    private long serviceNanos;
+    private int serviceCalls;
+    private long otherRepositoryNanos;
+    private int otherRepositoryCalls;
+    private int otherRepositoryStatements;
+    private long serializationStartNanos;
+
+    private ServerTiming(int maxRepositoryEntries) {
+        this.maxRepositoryEntries = maxRepositoryEntries;
+    }
+
+    static ServerTiming begin(int maxRepositoryEntries) {
+        ServerTiming timing = new ServerTiming(maxRepositoryEntries);
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public static ServerTiming current() {
+        return CURRENT.get();
+    }
+
+    public int getStatementCount() {
+        return statements;
+    }
+
+    public void statementExecuted() {
+        statements++;
+    }
+
+    public void parseStarted() {
+        parseStartNanos = System.nanoTime();
+    }
+
+    public void parseFinished() {
+        parseNanos = System.nanoTime() - parseStartNanos;
+    }
+
+    public void serviceCalled(long nanos) {
+        serviceNanos += nanos;
+        serviceCalls++;
+    }
+
+    public void repositoryCalled(Method method, long nanos, int statementCount) {
+        if (repositoryCalls.size() < maxRepositoryEntries) {
+            repositoryCalls.add(new RepositoryCall(method, nanos, statementCount));
+        } else {
+            otherRepositoryNanos += nanos;
+            otherRepositoryCalls++;
+            otherRepositoryStatements += statementCount;
+        }
+    }
+
+    public void serializationStarted() {
+        if (serializationStartNanos == 0) {
+            serializationStartNanos = System.nanoTime();
+        }
+    }
+
+    String toHeaderValue() {
+        long now = System.nanoTime();
+        StringBuilder header = new StringBuilder(64 + repositoryCalls.size() * 48);
+        if (parseNanos >= 0) {
+            append(header, "parse", parseNanos, null);
+        }
+        if (serviceCalls > 0) {
+            append(header, "service", serviceNanos, serviceCalls == 1 ? null : serviceCalls + " calls");
+        }
+        for (int i = 0; i < repositoryCalls.size(); i++) {
+            RepositoryCall call = repositoryCalls.get(i);
+            append(header, "db" + i, call.nanos, call.method.getName() + ", " + statements(call.statements));
+        }
+        if (otherRepositoryCalls > 0) {
+            append(header, "db-other", otherRepositoryNanos,
+                    otherRepositoryCalls + " calls, " + statements(otherRepositoryStatements));
+        }
+        if (serializationStartNanos != 0) {
+            append(header, "serialize", now - serializationStartNanos, null);
+        }
+        append(header, "total", now - startNanos, statements(statements));
+        return header.toString();
+    }
+
+    private static String statements(int count) {
+        return count == 1 ? "1 statement" : count + " statements";
+    }
+
+    private static void append(StringBuilder header, String name, long nanos, String description) {
+        if (header.length() > 0) {
+            header.append(", ");
+        }
+        header.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0));
+        if (description != null) {
+            header.append(";desc=\"").append(description).append('"');
+        }
+    }
+
+    private static final class RepositoryCall {
+        private final Method method;
+        private final long nanos;
+        private final int statements;
+
+        private RepositoryCall(Method method, long nanos, int statements) {
+            this.method = method;
+            this.nanos = nanos;
+            this.statements = statements;
+        }
+    }
+}
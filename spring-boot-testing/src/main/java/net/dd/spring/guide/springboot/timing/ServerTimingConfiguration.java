@@ -0,0 +1,62 @@
+package net.dd.spring.guide.springboot.timing;
+
+import net.dd.spring.guide.springboot.repository.EmployeeRepository;
+import net.dd.spring.guide.springboot.service.EmployeeService;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Wires {@code Server-Timing} support. Nothing here exists unless
+ * {@code employee.server-timing.enabled=true}; the service and repository are then wrapped
+ * in timing proxies, otherwise they are left untouched.
+ */
+@Configuration
+@EnableConfigurationProperties(ServerTimingProperties.class)
+@ConditionalOnProperty(prefix = "employee.server-timing", name = "enabled", havingValue = "true")
+public class ServerTimingConfiguration {
+
+    @Bean
+    public static BeanPostProcessor serverTimingProxyPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof EmployeeRepository) {
+                    return timed(bean, true);
+                }
+                if (bean instanceof EmployeeService) {
+                    return timed(bean, false);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCountingCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCountingInspector());
+    }
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(ServerTimingProperties properties) {
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(
+                new ServerTimingFilter(properties.getMaxRepositoryEntries()));
+        registration.addUrlPatterns("/api/employees", "/api/employees/*");
+        // inside the limiter and idempotency filters, so replays and rejections carry no timing
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 30);
+        return registration;
+    }
+
+    private static Object timed(Object bean, boolean repository) {
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.addAdvice(new ServerTimingInterceptor(repository));
+        return proxyFactory.getProxy(bean.getClass().getClassLoader());
+    }
+}
@@ -0,0 +1,47 @@
+package net.dd.spring.guide.springboot.timing;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Collects {@link ServerTiming} for a request and adds it as a {@code Server-Timing} header.
+ *
+ * The body is buffered so the header can still be set once serialization has finished.
+ * Streaming endpoints (SSE feed, CSV import) are left alone.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final int maxRepositoryEntries;
+
+    public ServerTimingFilter(int maxRepositoryEntries) {
+        this.maxRepositoryEntries = maxRepositoryEntries;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return uri.endsWith("/stream") || uri.endsWith("/import");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        ServerTiming timing = ServerTiming.begin(maxRepositoryEntries);
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, wrapper);
+            wrapper.setHeader(SERVER_TIMING_HEADER, timing.toHeaderValue());
+        } finally {
+            ServerTiming.end();
+            wrapper.copyBodyToResponse();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package net.dd.spring.guide.springboot.timing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Times calls on the employee service or repository proxies it is applied to.
+ */
+class ServerTimingInterceptor implements MethodInterceptor {
+
+    private final boolean repository;
+
+    ServerTimingInterceptor(boolean repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        ServerTiming timing = ServerTiming.current();
+        if (timing == null) {
+            return invocation.proceed();
+        }
+        int statementsBefore = timing.getStatementCount();
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            long nanos = System.nanoTime() - start;
+            if (repository) {
+                timing.repositoryCalled(invocation.getMethod(), nanos, timing.getStatementCount() - statementsBefore);
+            } else {
+                timing.serviceCalled(nanos);
+            }
+        }
+    }
+}
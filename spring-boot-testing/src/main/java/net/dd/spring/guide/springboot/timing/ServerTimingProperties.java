@@ -0,0 +1,16 @@
+package net.dd.spring.guide.springboot.timing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.server-timing")
+public class ServerTimingProperties {
+
+    private boolean enabled;
+
+    /** Repository calls reported individually; further calls are folded into one entry. */
+    private int maxRepositoryEntries = 16;
+}
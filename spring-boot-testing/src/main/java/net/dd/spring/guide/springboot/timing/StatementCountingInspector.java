@@ -0,0 +1,19 @@
+package net.dd.spring.guide.springboot.timing;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares for the current timed request. Statements
+ * issued through plain JDBC are not seen.
+ */
+public class StatementCountingInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        ServerTiming timing = ServerTiming.current();
+        if (timing != null) {
+            timing.statementExecuted();
+        }
+        return sql;
+    }
+}
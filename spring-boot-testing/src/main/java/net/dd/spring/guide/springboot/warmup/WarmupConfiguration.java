@@ -0,0 +1,26 @@
+package net.dd.spring.guide.springboot.warmup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.dd.spring.guide.springboot.repository.EmployeeRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(WarmupProperties.class)
+@ConditionalOnProperty(prefix = "employee.warmup", name = "enabled", havingValue = "true")
+public class WarmupConfiguration {
+
+    @Bean
+    public WarmupRunner warmupRunner(ApplicationContext applicationContext, EmployeeRepository employeeRepository,
+                                     DataSource dataSource, ApplicationEventPublisher eventPublisher,
+                                     MeterRegistry meterRegistry, WarmupProperties properties) {
+        return new WarmupRunner(applicationContext, employeeRepository, dataSource, eventPublisher,
+                meterRegistry, properties);
+    }
+}
@@ -0,0 +1,26 @@
+package net.dd.spring.guide.springboot.warmup;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.warmup")
+public class WarmupProperties {
+
+    private boolean enabled;
+
+    /** Hard stop; the application becomes ready after this even if iterations remain. */
+    private Duration maxDuration = Duration.ofSeconds(30);
+
+    private int iterations = 2000;
+
+    /** Number of real employees the workload reads. */
+    private int sampleSize = 100;
+
+    /** Connections opened at once to fill the pool; 0 uses the pool's minimum idle. */
+    private int connections;
+}
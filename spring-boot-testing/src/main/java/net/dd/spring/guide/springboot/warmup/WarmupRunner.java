@@ -0,0 +1,211 @@
+package net.dd.spring.guide.springboot.warmup;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.dd.spring.guide.springboot.model.Employee;
+import net.dd.spring.guide.springboot.repository.EmployeeRepository;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Replays a read-only workload built from real rows before the application reports itself
+ * ready, so the first production requests do not pay for cold JIT, an empty connection
+ * pool, unbuilt Jackson serializers and empty caches.
+ *
+ * It runs as the last {@link ApplicationRunner}: Spring Boot publishes
+ * {@link ReadinessState#ACCEPTING_TRAFFIC} only after all runners returned. Readiness is
+ * set to refusing explicitly first so the probe is unambiguous while the server is already
+ * listening. The workload is sent as real HTTP requests to the local server, so Tomcat,
+ * the filter chain, the dispatcher, the message converters and the caches behind the
+ * controllers are all exercised the way production traffic will exercise them. Without a
+ * running web server only the connection pool is primed.
+ *
+ * Warmup never fails startup: errors are logged and the application becomes ready anyway.
+ */
+@Slf4j
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final int PAGE_SIZE = 50;
+    private static final int IDS_PER_LOOKUP = 20;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+
+    private final ApplicationContext applicationContext;
+    private final EmployeeRepository employeeRepository;
+    private final DataSource dataSource;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final WarmupProperties properties;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(REQUEST_TIMEOUT)
+            .build();
+
+    private final AtomicLong firstIterationMicros = new AtomicLong();
+    private final AtomicLong lastIterationMicros = new AtomicLong();
+    private final AtomicLong completedIterations = new AtomicLong();
+    private final AtomicLong failedRequests = new AtomicLong();
+
+    public WarmupRunner(ApplicationContext applicationContext, EmployeeRepository employeeRepository,
+                        DataSource dataSource, ApplicationEventPublisher eventPublisher,
+                        MeterRegistry meterRegistry, WarmupProperties properties) {
+        this.applicationContext = applicationContext;
+        this.employeeRepository = employeeRepository;
+        this.dataSource = dataSource;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+        Gauge.builder("employee.warmup.iterations", completedIterations, AtomicLong::get)
+                .description("Workload iterations completed during warmup")
+                .register(meterRegistry);
+        Gauge.builder("employee.warmup.failed-requests", failedRequests, AtomicLong::get)
+                .description("Warmup requests answered with an error status")
+                .register(meterRegistry);
+        Gauge.builder("employee.warmup.first-iteration", firstIterationMicros, AtomicLong::get)
+                .baseUnit("microseconds")
+                .description("Duration of the first, cold warmup iteration")
+                .register(meterRegistry);
+        Gauge.builder("employee.warmup.last-iteration", lastIterationMicros, AtomicLong::get)
+                .baseUnit("microseconds")
+                .description("Duration of the last warmup iteration; compare with first-iteration")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        long start = System.nanoTime();
+        long deadline = start + properties.getMaxDuration().toNanos();
+        try {
+            primeConnectionPool();
+            String baseUrl = baseUrl();
+            if (baseUrl == null) {
+                log.info("No local web server, warmup only primed the connection pool");
+            } else {
+                runWorkload(baseUrl, deadline);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Warmup interrupted, continuing startup");
+        } catch (Exception e) {
+            log.warn("Warmup aborted, continuing startup", e);
+        }
+        long elapsed = System.nanoTime() - start;
+        Timer.builder("employee.warmup.duration")
+                .description("Time spent warming up before accepting traffic")
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Warmup finished in {} ms after {} iterations ({} failed requests), first iteration {} us, last {} us",
+                TimeUnit.NANOSECONDS.toMillis(elapsed), completedIterations.get(), failedRequests.get(),
+                firstIterationMicros.get(), lastIterationMicros.get());
+        // Spring Boot reports ACCEPTING_TRAFFIC once every runner has returned
+    }
+
+    private void primeConnectionPool() throws SQLException {
+        int connections = properties.getConnections();
+        if (connections <= 0 && dataSource.isWrapperFor(HikariDataSource.class)) {
+            connections = dataSource.unwrap(HikariDataSource.class).getMinimumIdle();
+        }
+        List<Connection> opened = new ArrayList<>(Math.max(0, connections));
+        try {
+            for (int i = 0; i < connections; i++) {
+                opened.add(dataSource.getConnection());
+            }
+        } finally {
+            for (Connection connection : opened) {
+                connection.close();
+            }
+        }
+    }
+
+    // the server is already listening when runners are called, it only refuses traffic through readiness
+    private String baseUrl() {
+        if (!(applicationContext instanceof WebServerApplicationContext)) {
+            return null;
+        }
+        WebServerApplicationContext webContext = (WebServerApplicationContext) applicationContext;
+        if (webContext.getWebServer() == null || webContext.getWebServer().getPort() <= 0) {
+            return null;
+        }
+        String contextPath = applicationContext.getEnvironment().getProperty("server.servlet.context-path", "");
+        return "http://localhost:" + webContext.getWebServer().getPort() + contextPath;
+    }
+
+    private void runWorkload(String baseUrl, long deadline) throws Exception {
+        List<Employee> sample = employeeRepository
+                .findAll(PageRequest.of(0, Math.max(1, properties.getSampleSize()), Sort.by("id")))
+                .getContent();
+        for (int i = 0; i < properties.getIterations() && System.nanoTime() < deadline; i++) {
+            long iterationStart = System.nanoTime();
+            runIteration(baseUrl, sample, i);
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - iterationStart);
+            if (i == 0) {
+                firstIterationMicros.set(micros);
+            }
+            lastIterationMicros.set(micros);
+            completedIterations.incrementAndGet();
+        }
+    }
+
+    private void runIteration(String baseUrl, List<Employee> sample, int iteration) throws Exception {
+        get(baseUrl + "/api/employees?page=0&size=" + PAGE_SIZE);
+        if (sample.isEmpty()) {
+            return;
+        }
+        Employee employee = sample.get(iteration % sample.size());
+        get(baseUrl + "/api/employees/" + employee.getId());
+        get(baseUrl + "/api/employees/" + employee.getId() + "?fields=id,email");
+        get(baseUrl + "/api/employees/search?firstName=" + encode(employee.getFirstName())
+                + "&lastName=" + encode(employee.getLastName()));
+        // no read endpoint looks employees up by email, the repository path is warmed directly
+        employeeRepository.findByEmail(employee.getEmail());
+
+        List<Long> ids = new ArrayList<>(IDS_PER_LOOKUP);
+        for (int i = 0; i < IDS_PER_LOOKUP && i < sample.size(); i++) {
+            ids.add(sample.get((iteration + i) % sample.size()).getId());
+        }
+        get(baseUrl + "/api/employees?ids=" + ids.stream().map(String::valueOf).collect(Collectors.joining(",")));
+    }
+
+    private void get(String url) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() >= 400 && failedRequests.getAndIncrement() == 0) {
+            log.warn("Warmup request {} answered {}", url, response.statusCode());
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
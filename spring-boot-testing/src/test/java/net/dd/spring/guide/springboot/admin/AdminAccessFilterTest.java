@@ -0,0 +1,61 @@
+package net.dd.spring.guide.springboot.admin;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdminAccessFilterTest {
+
+    // JUnit test for a closed admin API
+    @DisplayName("JUnit test for admin filter without a configured token")
+    @Test
+    public void givenNoToken_whenAdminRequest_thenForbidden() throws Exception {
+        // given - precondition or setup
+        AdminAccessFilter filter = new AdminAccessFilter("");
+        MockHttpServletRequest request = adminRequest("anything");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // when -  action or the behaviour that we are going test
+        filter.doFilter(request, response, chain);
+
+        // then - verify the output
+        assertThat(response.getStatus()).isEqualTo(403);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    // JUnit test for token checks
+    @DisplayName("JUnit test for admin filter checking the bearer token")
+    @Test
+    public void givenToken_whenAdminRequests_thenOnlyMatchingTokenPasses() throws Exception {
+        // given - precondition or setup
+        AdminAccessFilter filter = new AdminAccessFilter("s3cret");
+        MockHttpServletResponse wrong = new MockHttpServletResponse();
+        MockHttpServletResponse missing = new MockHttpServletResponse();
+        MockHttpServletResponse valid = new MockHttpServletResponse();
+        MockFilterChain passed = new MockFilterChain();
+
+        // when -  action or the behaviour that we are going test
+        filter.doFilter(adminRequest("s3cre"), wrong, new MockFilterChain());
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/admin/jfr/stop"), missing, new MockFilterChain());
+        filter.doFilter(adminRequest("s3cret"), valid, passed);
+
+        // then - verify the output
+        assertThat(wrong.getStatus()).isEqualTo(401);
+        assertThat(missing.getStatus()).isEqualTo(401);
+        assertThat(missing.getHeader(HttpHeaders.WWW_AUTHENTICATE)).isEqualTo("Bearer");
+        assertThat(valid.getStatus()).isEqualTo(200);
+        assertThat(passed.getRequest()).isNotNull();
+    }
+
+    private static MockHttpServletRequest adminRequest(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/admin/jfr/stop");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,107 @@
+package net.dd.spring.guide.springboot.aggregate;
+
+import net.dd.spring.guide.springboot.event.EmployeeChangedEvent;
+import net.dd.spring.guide.springboot.model.Employee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DomainHeadcountsTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private DomainHeadcounts headcounts;
+
+    @BeforeEach
+    public void setup() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:headcounts;DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("create table tbl_employees (id bigint primary key, email varchar(255),"
+                + " email_normalized varchar(255))");
+        insert(1L, "Dipanjan@Hotmail.com");
+        insert(2L, "das.dtx@hotmail.com");
+        insert(3L, "tony@gmail.com");
+        headcounts = new DomainHeadcounts(jdbcTemplate);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.execute("drop table tbl_employees");
+    }
+
+    // JUnit test for the initial streaming pass
+    @DisplayName("JUnit test for rebuild method")
+    @Test
+    public void givenEmployeeTable_whenRebuild_thenCountsPerDomainLargestFirst() {
+        // when -  action or the behaviour that we are going test
+        headcounts.rebuild();
+
+        // then - verify the output
+        assertThat(headcounts.isReady()).isTrue();
+        assertThat(headcounts.getHeadcounts()).containsExactly(Map.entry("hotmail.com", 2L), Map.entry("gmail.com", 1L));
+    }
+
+    // JUnit test for incremental maintenance
+    @DisplayName("JUnit test for onEmployeeChanged method")
+    @Test
+    public void givenLoadedCounts_whenEmployeesChange_thenCountsFollow() {
+        // given - precondition or setup
+        headcounts.rebuild();
+
+        // when -  action or the behaviour that we are going test
+        headcounts.onEmployeeChanged(EmployeeChangedEvent.created(employee(4L, "ramesh@gmail.com")));
+        headcounts.onEmployeeChanged(EmployeeChangedEvent.updated(employee(1L, "dipanjan@gmail.com")));
+        headcounts.onEmployeeChanged(EmployeeChangedEvent.updated(employee(3L, "TONY@gmail.com")));
+        headcounts.onEmployeeChanged(EmployeeChangedEvent.deleted(2L));
+
+        // then - verify the output
+        assertThat(headcounts.getHeadcounts()).containsExactly(Map.entry("gmail.com", 3L));
+    }
+
+    // JUnit test for reconciliation
+    @DisplayName("JUnit test for reconcile method with a change that bypassed the events")
+    @Test
+    public void givenRowWrittenWithoutEvent_whenReconcile_thenCountsCorrected() {
+        // given - precondition or setup
+        headcounts.rebuild();
+        insert(5L, "pepper@stark.com");
+
+        // when -  action or the behaviour that we are going test
+        headcounts.reconcile();
+
+        // then - verify the output
+        assertThat(headcounts.getHeadcounts()).containsEntry("stark.com", 1L).hasSize(3);
+    }
+
+    // JUnit test for rows without a normalized email
+    @DisplayName("JUnit test for rebuild and reconcile methods with a row missing its normalized email")
+    @Test
+    public void givenRowWithoutNormalizedEmail_whenRebuildAndReconcile_thenSkippedByBoth() {
+        // given - precondition or setup
+        jdbcTemplate.update("insert into tbl_employees (id, email, email_normalized) values (?, ?, null)",
+                6L, "legacy@hotmail.com");
+
+        // when -  action or the behaviour that we are going test
+        headcounts.rebuild();
+        Map<String, Long> rebuilt = headcounts.getHeadcounts();
+        headcounts.reconcile();
+
+        // then - verify the output
+        assertThat(rebuilt).containsExactly(Map.entry("hotmail.com", 2L), Map.entry("gmail.com", 1L));
+        assertThat(headcounts.getHeadcounts()).isEqualTo(rebuilt);
+    }
+
+    private void insert(long id, String email) {
+        jdbcTemplate.update("insert into tbl_employees (id, email, email_normalized) values (?, ?, ?)",
+                id, email, email.toLowerCase());
+    }
+
+    private static Employee employee(long id, String email) {
+        return Employee.builder().id(id).firstName("First").lastName("Last").email(email).build();
+    }
+}
@@ -0,0 +1,42 @@
+package net.dd.spring.guide.springboot.aggregate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongIntHashMapTest {
+
+    // JUnit test comparing against HashMap under random puts and removes
+    @DisplayName("JUnit test for put, get and remove methods")
+    @Test
+    public void givenRandomOperations_whenComparedWithHashMap_thenSameContents() {
+        // given - precondition or setup
+        LongIntHashMap map = new LongIntHashMap(4, -1);
+        Map<Long, Integer> expected = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(42);
+
+        // when -  action or the behaviour that we are going test
+        for (int i = 0; i < 200_000; i++) {
+            long key = 1 + random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(key);
+                assertThat(map.remove(key)).isEqualTo(removed == null ? -1 : removed);
+            } else {
+                int value = random.nextInt(100);
+                Integer previous = expected.put(key, value);
+                assertThat(map.put(key, value)).isEqualTo(previous == null ? -1 : previous);
+            }
+        }
+
+        // then - verify the output
+        assertThat(map.size()).isEqualTo(expected.size());
+        for (long key = 1; key <= 5_000; key++) {
+            assertThat(map.get(key)).isEqualTo(expected.getOrDefault(key, -1));
+        }
+    }
+}
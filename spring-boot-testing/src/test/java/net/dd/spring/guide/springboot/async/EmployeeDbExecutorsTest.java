@@ -0,0 +1,197 @@
+package net.dd.spring.guide.springboot.async;
+
+import net.dd.spring.guide.springboot.deadline.Deadline;
+import net.dd.spring.guide.springboot.exception.GatewayTimeoutException;
+import net.dd.spring.guide.springboot.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmployeeDbExecutorsTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private EmployeeDbExecutors executors;
+
+    @BeforeEach
+    public void setup() {
+        executors = new EmployeeDbExecutors(1, 1, Duration.ofSeconds(5), 1, 1, Duration.ofMillis(50));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        executors.destroy();
+    }
+
+    // JUnit test for a completed lookup
+    @DisplayName("JUnit test for lookup method")
+    @Test
+    public void givenIdleExecutor_whenLookup_thenResultReturned() throws Exception {
+        // when -  action or the behaviour that we are going test
+        CompletableFuture<String> result = executors.lookup(() -> "employee");
+
+        // then - verify the output
+        assertThat(result.get(1, TimeUnit.SECONDS)).isEqualTo("employee");
+    }
+
+    // JUnit test for queue-full rejection
+    @DisplayName("JUnit test for lookup method with a full queue")
+    @Test
+    public void givenSaturatedExecutor_whenLookup_thenServiceUnavailable() {
+        // given - precondition or setup
+        executors.lookup(this::block);
+        executors.lookup(this::block);
+
+        // when -  action or the behaviour that we are going test
+        CompletableFuture<String> rejected = executors.lookup(() -> "employee");
+
+        // then - verify the output
+        assertThatThrownBy(rejected::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCause(ServiceUnavailableException.EXECUTOR_SATURATED);
+    }
+
+    // JUnit test for the per-request timeout
+    @DisplayName("JUnit test for list method exceeding its timeout")
+    @Test
+    public void givenSlowQuery_whenList_thenGatewayTimeoutAndQueuedWorkSkipped() throws Exception {
+        // given - precondition or setup
+        AtomicBoolean queuedWorkRan = new AtomicBoolean();
+        CompletableFuture<String> slow = executors.list(this::blockUninterruptibly);
+        CompletableFuture<String> queued = executors.list(() -> {
+            queuedWorkRan.set(true);
+            return "employees";
+        });
+
+        // when -  action or the behaviour that we are going test
+        Throwable slowFailure = catchCause(slow);
+        Throwable queuedFailure = catchCause(queued);
+        release.countDown();
+        executors.getListExecutor().shutdown();
+        executors.getListExecutor().awaitTermination(1, TimeUnit.SECONDS);
+
+        // then - verify the output
+        assertThat(slowFailure).isSameAs(GatewayTimeoutException.QUERY_TIMED_OUT);
+        assertThat(queuedFailure).isSameAs(GatewayTimeoutException.QUERY_TIMED_OUT);
+        assertThat(queuedWorkRan).isFalse();
+    }
+
+    // JUnit test for cancelling running work
+    @DisplayName("JUnit test for list method interrupting work past its timeout")
+    @Test
+    public void givenRunningQuery_whenTimedOut_thenWorkerInterrupted() throws Exception {
+        // given - precondition or setup
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        // when -  action or the behaviour that we are going test
+        CompletableFuture<String> slow = executors.list(() -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+                return "done";
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                return "cancelled";
+            }
+        });
+        Throwable failure = catchCause(slow);
+
+        // then - verify the output
+        assertThat(failure).isSameAs(GatewayTimeoutException.QUERY_TIMED_OUT);
+        assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(executors.list(() -> Thread.currentThread().isInterrupted()).get(1, TimeUnit.SECONDS)).isFalse();
+    }
+
+    // JUnit test for following the connection pool size
+    @DisplayName("JUnit test for deriving thread counts from a pool resized at runtime")
+    @Test
+    public void givenDerivedThreadCounts_whenPoolResized_thenExecutorsFollow() throws Exception {
+        // given - precondition or setup
+        AtomicInteger poolSize = new AtomicInteger(8);
+        EmployeeDbExecutors derived = new EmployeeDbExecutors(poolSize::get, 0, 10, Duration.ofSeconds(1),
+                0, 10, Duration.ofSeconds(1));
+        int lookupBefore = derived.getLookupExecutor().getMaximumPoolSize();
+        int listBefore = derived.getListExecutor().getMaximumPoolSize();
+
+        // when -  action or the behaviour that we are going test
+        poolSize.set(4);
+        derived.lookup(() -> "employee").get(1, TimeUnit.SECONDS);
+        derived.destroy();
+
+        // then - verify the output
+        assertThat(lookupBefore).isEqualTo(6);
+        assertThat(listBefore).isEqualTo(2);
+        assertThat(derived.getLookupExecutor().getMaximumPoolSize()).isEqualTo(3);
+        assertThat(derived.getListExecutor().getMaximumPoolSize()).isEqualTo(1);
+    }
+
+    // JUnit test for a request deadline shorter than the executor timeout
+    @DisplayName("JUnit test for lookup method under a request deadline")
+    @Test
+    public void givenRequestDeadline_whenLookup_thenDeadlineBoundsWaitAndReachesWorker() throws Exception {
+        // given - precondition or setup
+        Deadline deadline = Deadline.after(Duration.ofMillis(50));
+        AtomicReference<Deadline> seenByWorker = new AtomicReference<>();
+
+        // when -  action or the behaviour that we are going test
+        CompletableFuture<String> slow = Deadline.within(deadline, () -> executors.lookup(() -> {
+            seenByWorker.set(Deadline.current());
+            return block();
+        }));
+        Throwable failure = catchCause(slow);
+
+        // then - verify the output
+        assertThat(failure).isSameAs(GatewayTimeoutException.QUERY_TIMED_OUT);
+        assertThat(seenByWorker.get()).isSameAs(deadline);
+    }
+
+    private String block() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+
+    // like a driver call that does not react to interrupts
+    private String blockUninterruptibly() {
+        boolean interrupted = false;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (release.getCount() > 0 && System.nanoTime() < deadline) {
+            try {
+                release.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+
+    private static Throwable catchCause(CompletableFuture<?> future) throws InterruptedException {
+        try {
+            future.get(1, TimeUnit.SECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (java.util.concurrent.TimeoutException e) {
+            throw new AssertionError("future did not complete", e);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package net.dd.spring.guide.springboot.audit;
+
+import net.dd.spring.guide.springboot.event.EmployeeChangeType;
+import net.dd.spring.guide.springboot.event.EmployeeChangedEvent;
+import net.dd.spring.guide.springboot.model.Employee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditLogTest {
+
+    private static final int SEGMENT_SIZE = 1024;
+
+    @TempDir
+    Path directory;
+
+    private final TickingClock clock = new TickingClock();
+
+    private AuditLog auditLog;
+
+    @BeforeEach
+    public void setup() {
+        auditLog = open();
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        auditLog.destroy();
+    }
+
+    // JUnit test for writing and reading back records
+    @DisplayName("JUnit test for read method")
+    @Test
+    public void givenAuditedChanges_whenRead_thenRecordsInTimeRange() throws Exception {
+        // given - precondition or setup
+        auditLog.onEmployeeChanged(EmployeeChangedEvent.created(employee(1L, "Dipanjan")));
+        auditLog.onEmployeeChanged(EmployeeChangedEvent.updated(employee(1L, "Bidisa")));
+        auditLog.onEmployeeChanged(EmployeeChangedEvent.deleted(1L));
+        awaitWritten(3);
+
+        // when -  action or the behaviour that we are going test
+        List<AuditRecord> all = auditLog.read(0, Long.MAX_VALUE, 100);
+        List<AuditRecord> second = auditLog.read(1002, 1003, 100);
+
+        // then - verify the output
+        assertThat(all).extracting(AuditRecord::getType)
+                .containsExactly(EmployeeChangeType.CREATED, EmployeeChangeType.UPDATED, EmployeeChangeType.DELETED);
+        assertThat(all.get(2).getEmail()).isNull();
+        assertThat(second).singleElement().extracting(AuditRecord::getFirstName).isEqualTo("Bidisa");
+    }
+
+    // JUnit test for segment rotation and restart
+    @DisplayName("JUnit test for rotation across segments and resuming after a restart")
+    @Test
+    public void givenManyRecordsAndRestart_whenRead_thenAllSegmentsScannedInOrder() throws Exception {
+        // given - precondition or setup
+        for (long id = 1; id <= 40; id++) {
+            auditLog.onEmployeeChanged(EmployeeChangedEvent.created(employee(id, "Employee" + id)));
+        }
+        awaitWritten(40);
+        auditLog.destroy();
+        auditLog = open();
+        for (long id = 41; id <= 50; id++) {
+            auditLog.onEmployeeChanged(EmployeeChangedEvent.created(employee(id, "Employee" + id)));
+        }
+        awaitWritten(10);
+
+        // when -  action or the behaviour that we are going test
+        List<AuditRecord> records = auditLog.read(0, Long.MAX_VALUE, 1000);
+        List<AuditRecord> tail = auditLog.read(records.get(45).getTimestamp(), Long.MAX_VALUE, 1000);
+
+        // then - verify the output
+        assertThat(segmentCount()).isGreaterThan(1);
+        assertThat(records).extracting(AuditRecord::getEmployeeId)
+                .containsExactlyElementsOf(Stream.iterate(1L, id -> id + 1).limit(50).collect(Collectors.toList()));
+        assertThat(tail).extracting(AuditRecord::getEmployeeId).containsExactly(46L, 47L, 48L, 49L, 50L);
+    }
+
+    // JUnit test for segment retention
+    @DisplayName("JUnit test for deleting segments past retention on rotation")
+    @Test
+    public void givenRetention_whenSegmentsRotate_thenExpiredSegmentsDeleted() throws Exception {
+        // given - precondition or setup
+        auditLog.destroy();
+        // with the ticking clock only the segment before the active one is still inside retention
+        auditLog = open(1);
+
+        // when -  action or the behaviour that we are going test
+        for (long id = 1; id <= 40; id++) {
+            auditLog.onEmployeeChanged(EmployeeChangedEvent.created(employee(id, "Employee" + id)));
+        }
+        awaitWritten(40);
+
+        // then - verify the output
+        List<AuditRecord> records = auditLog.read(0, Long.MAX_VALUE, 1000);
+        long first = records.get(0).getEmployeeId();
+        assertThat(segmentCount()).isEqualTo(2);
+        assertThat(first).isGreaterThan(1L);
+        assertThat(records).extracting(AuditRecord::getEmployeeId)
+                .containsExactlyElementsOf(Stream.iterate(first, id -> id + 1).limit(41 - first).collect(Collectors.toList()));
+    }
+
+    // JUnit test for remote changes
+    @DisplayName("JUnit test for onEmployeeChanged method with a change from another node")
+    @Test
+    public void givenRemoteChange_whenOnEmployeeChanged_thenNotAudited() throws Exception {
+        // when -  action or the behaviour that we are going test
+        auditLog.onEmployeeChanged(EmployeeChangedEvent.remote(EmployeeChangeType.UPDATED, 1L, employee(1L, "Tony")));
+        auditLog.onEmployeeChanged(EmployeeChangedEvent.deleted(2L));
+        awaitWritten(1);
+
+        // then - verify the output
+        assertThat(auditLog.read(0, Long.MAX_VALUE, 100)).extracting(AuditRecord::getEmployeeId).containsExactly(2L);
+    }
+
+    private AuditLog open() {
+        return open(Duration.ofDays(30).toMillis());
+    }
+
+    private AuditLog open(long retentionMillis) {
+        return new AuditLog(directory, SEGMENT_SIZE, 64, 1_000_000, retentionMillis, clock);
+    }
+
+    private void awaitWritten(long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (auditLog.getWrittenCount() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(auditLog.getWrittenCount()).isEqualTo(count);
+    }
+
+    private long segmentCount() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static Employee employee(long id, String firstName) {
+        return Employee.builder().id(id).firstName(firstName).lastName("Das").email(firstName + "@hotmail.com").build();
+    }
+
+    // every reading is one millisecond after the previous one, starting at 1000 for the first segment header
+    private static final class TickingClock extends Clock {
+        private long millis = 999;
+
+        @Override
+        public synchronized long millis() {
+            return ++millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package net.dd.spring.guide.springboot.audit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditRingBufferTest {
+
+    // JUnit test for a full ring
+    @DisplayName("JUnit test for offer method on a full ring")
+    @Test
+    public void givenFullRing_whenOffer_thenRejectedWithoutBlocking() {
+        // given - precondition or setup
+        AuditRingBuffer ring = new AuditRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(ring.offer(new byte[]{(byte) i})).isTrue();
+        }
+
+        // when -  action or the behaviour that we are going test
+        boolean accepted = ring.offer(new byte[]{4});
+
+        // then - verify the output
+        assertThat(accepted).isFalse();
+        assertThat(ring.poll()).containsExactly(0);
+        assertThat(ring.offer(new byte[]{4})).isTrue();
+        assertThat(ring.size()).isEqualTo(4);
+    }
+
+    // JUnit test for concurrent producers
+    @DisplayName("JUnit test for offer method from concurrent producers")
+    @Test
+    public void givenConcurrentProducers_whenPoll_thenEveryRecordOnceInProducerOrder() throws Exception {
+        // given - precondition or setup
+        AuditRingBuffer ring = new AuditRingBuffer(256);
+        int producers = 4;
+        int perProducer = 50_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    byte[] record = ByteBuffer.allocate(8).putInt(producer).putInt(i).array();
+                    while (!ring.offer(record)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        // when -  action or the behaviour that we are going test
+        start.countDown();
+        int[] next = new int[producers];
+        Set<Long> seen = new HashSet<>();
+        boolean inOrder = true;
+        while (seen.size() < producers * perProducer) {
+            byte[] record = ring.poll();
+            if (record == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(record);
+            int producer = buffer.getInt();
+            int sequence = buffer.getInt();
+            inOrder &= sequence == next[producer]++;
+            seen.add(((long) producer << 32) | sequence);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // then - verify the output
+        assertThat(inOrder).isTrue();
+        assertThat(ring.poll()).isNull();
+    }
+}
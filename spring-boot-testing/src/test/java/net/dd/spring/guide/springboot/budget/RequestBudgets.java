@@ -0,0 +1,112 @@
+package net.dd.spring.guide.springboot.budget;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the cost of a request executed on the calling thread (MockMvc runs the whole
+ * dispatch synchronously) and checks it against the budgets checked in at
+ * {@code src/test/resources/request-budgets.properties}.
+ *
+ * Allocation is read from the per-thread allocated-bytes counter of the HotSpot
+ * {@code ThreadMXBean} and averaged over the measured iterations. When the request calls
+ * mocked collaborators, a baseline doing just those calls is measured the same way and
+ * subtracted, so Mockito's own bookkeeping does not count against the web layer.
+ *
+ * Latency is the median wall time of the measured iterations, taken after a warmup so the
+ * JIT has compiled the hot path. Wall time depends on the machine and whatever else runs on
+ * it, so it is only asserted for perf runs ({@code -Drequest-budgets.latency=true}).
+ */
+@Log4j2
+public final class RequestBudgets {
+
+    private static final String BUDGETS_RESOURCE = "/request-budgets.properties";
+
+    private static final int WARMUP_ITERATIONS = 500;
+    private static final int MEASURED_ITERATIONS = 200;
+    private static final boolean ASSERT_LATENCY = Boolean.getBoolean("request-budgets.latency");
+
+    private static final Properties BUDGETS = load();
+
+    private RequestBudgets() {
+    }
+
+    public interface Request {
+        void perform() throws Exception;
+    }
+
+    /**
+     * Runs the request, then asserts {@code <name>.bytes} (and {@code <name>.micros} on perf runs).
+     */
+    public static void assertWithinBudget(String name, Request request) throws Exception {
+        assertWithinBudget(name, request, () -> { });
+    }
+
+    /**
+     * Like {@link #assertWithinBudget(String, Request)}, with the allocations of
+     * {@code baseline}, typically the stubbed calls the request makes, subtracted.
+     */
+    public static void assertWithinBudget(String name, Request request, Request baseline) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assertThat(threads.isThreadAllocatedMemorySupported()).as("thread allocation counters").isTrue();
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            request.perform();
+            baseline.perform();
+        }
+        long[] nanos = new long[MEASURED_ITERATIONS];
+        long bytesPerRequest = allocatedPerIteration(threads, request, nanos)
+                - allocatedPerIteration(threads, baseline, new long[MEASURED_ITERATIONS]);
+        Arrays.sort(nanos);
+        long medianMicros = nanos[MEASURED_ITERATIONS / 2] / 1000;
+
+        long bytesBudget = budget(name + ".bytes");
+        long microsBudget = budget(name + ".micros");
+        log.info("{}: {} bytes/request (budget {}), median {} us (budget {}{})",
+                name, bytesPerRequest, bytesBudget, medianMicros, microsBudget, ASSERT_LATENCY ? "" : ", not asserted");
+        assertThat(bytesPerRequest).as("%s bytes allocated per request", name).isLessThanOrEqualTo(bytesBudget);
+        if (ASSERT_LATENCY) {
+            assertThat(medianMicros).as("%s median latency in microseconds", name).isLessThanOrEqualTo(microsBudget);
+        }
+    }
+
+    private static long allocatedPerIteration(com.sun.management.ThreadMXBean threads, Request request, long[] nanos)
+            throws Exception {
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            request.perform();
+            nanos[i] = System.nanoTime() - start;
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - allocatedBefore) / MEASURED_ITERATIONS;
+    }
+
+    private static long budget(String key) {
+        String value = BUDGETS.getProperty(key);
+        assertThat(value).as("budget %s in %s", key, BUDGETS_RESOURCE).isNotNull();
+        return Long.parseLong(value.trim());
+    }
+
+    private static Properties load() {
+        Properties properties = new Properties();
+        try (InputStream in = RequestBudgets.class.getResourceAsStream(BUDGETS_RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException(BUDGETS_RESOURCE + " not found on the test classpath");
+            }
+            properties.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,98 @@
+package net.dd.spring.guide.springboot.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.log4j.Log4j2;
+import net.dd.spring.guide.springboot.model.Employee;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares serializing a list page with Jackson on every request against writing the
+ * pre-encoded fragments. Not picked up by surefire's default includes; run it with
+ * {@code mvn test -Dtest=EmployeeJsonCacheBenchmark}.
+ */
+@Log4j2
+class EmployeeJsonCacheBenchmark {
+
+    private static final int EMPLOYEES = 1_000;
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 5_000;
+
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @DisplayName("Benchmark of Jackson serialization against pre-encoded list pages")
+    @Test
+    public void comparePreEncodedWithJackson() throws IOException {
+        List<Employee> employees = new ArrayList<>(EMPLOYEES);
+        for (long id = 1; id <= EMPLOYEES; id++) {
+            employees.add(Employee.builder().id(id).firstName("First" + id).lastName("Last" + id)
+                    .email("employee" + id + "@example.com").build());
+        }
+        EmployeeJsonCache jsonCache = new EmployeeJsonCache(objectMapper, new JsonCacheProperties());
+        jsonCache.putPage("all", employees, jsonCache.stamp());
+
+        Result jackson = measure(() -> objectMapper.writeValue(DISCARD, employees));
+        Result cached = measure(() -> jsonCache.getPage("all").writeTo(DISCARD));
+
+        log.info("jackson:     {} ops/s, {} bytes allocated/op", jackson.opsPerSecond(), jackson.bytesPerOp());
+        log.info("pre-encoded: {} ops/s, {} bytes allocated/op", cached.opsPerSecond(), cached.bytesPerOp());
+        assertThat(cached.bytesPerOp()).isLessThan(jackson.bytesPerOp());
+    }
+
+    private static Result measure(Operation operation) throws IOException {
+        for (int i = 0; i < WARMUP; i++) {
+            operation.run();
+        }
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            operation.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Result(ITERATIONS * 1_000_000_000L / Math.max(1, elapsed), allocated / ITERATIONS);
+    }
+
+    private interface Operation {
+        void run() throws IOException;
+    }
+
+    private static final class Result {
+        private final long opsPerSecond;
+        private final long bytesPerOp;
+
+        private Result(long opsPerSecond, long bytesPerOp) {
+            this.opsPerSecond = opsPerSecond;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        long opsPerSecond() {
+            return opsPerSecond;
+        }
+
+        long bytesPerOp() {
+            return bytesPerOp;
+        }
+    }
+}
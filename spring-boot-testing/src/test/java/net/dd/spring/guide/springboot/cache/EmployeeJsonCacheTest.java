@@ -0,0 +1,114 @@
+package net.dd.spring.guide.springboot.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.dd.spring.guide.springboot.event.EmployeeChangedEvent;
+import net.dd.spring.guide.springboot.model.Employee;
+import net.dd.spring.guide.springboot.model.EmployeeLookup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmployeeJsonCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private EmployeeJsonCache jsonCache;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        jsonCache = new EmployeeJsonCache(objectMapper, new JsonCacheProperties());
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Dipanjan")
+                .lastName("Das")
+                .email("dipanjan@hotmail.com")
+                .build();
+    }
+
+    // JUnit test for composing a list page from fragments
+    @DisplayName("JUnit test for putPage method")
+    @Test
+    public void givenEmployees_whenPutPage_thenSameJsonAsJackson() throws IOException {
+        // given - precondition or setup
+        Employee other = Employee.builder().id(2L).firstName("Tony").lastName("Stark").email("tony@gmail.com").build();
+        List<Employee> employees = List.of(employee, other);
+
+        // when -  action or the behaviour that we are going test
+        PreEncodedJson page = jsonCache.putPage("all", employees, jsonCache.stamp());
+
+        // then - verify the output
+        byte[] written = write(page);
+        assertThat(written).isEqualTo(objectMapper.writeValueAsBytes(employees));
+        assertThat(page.getContentLength()).isEqualTo(written.length);
+        assertThat(jsonCache.getPage("all")).isSameAs(page);
+        assertThat(write(jsonCache.getEmployee(2L))).isEqualTo(objectMapper.writeValueAsBytes(other));
+    }
+
+    // JUnit test for invalidation on change events
+    @DisplayName("JUnit test for onEmployeeChanged method")
+    @Test
+    public void givenCachedEmployee_whenEmployeeChanged_thenFragmentAndPagesEvicted() {
+        // given - precondition or setup
+        jsonCache.putPage("all", List.of(employee), jsonCache.stamp());
+
+        // when -  action or the behaviour that we are going test
+        jsonCache.onEmployeeChanged(EmployeeChangedEvent.updated(employee));
+
+        // then - verify the output
+        assertThat(jsonCache.getEmployee(1L)).isNull();
+        assertThat(jsonCache.getPage("all")).isNull();
+    }
+
+    // JUnit test for a read racing with a write
+    @DisplayName("JUnit test for putEmployee method with an outdated stamp")
+    @Test
+    public void givenStampTakenBeforeWrite_whenPutEmployee_thenNotCached() throws IOException {
+        // given - precondition or setup
+        long stamp = jsonCache.stamp();
+        jsonCache.invalidate(1L);
+
+        // when -  action or the behaviour that we are going test
+        PreEncodedJson json = jsonCache.putEmployee(employee, stamp);
+
+        // then - verify the output
+        assertThat(write(json)).isEqualTo(objectMapper.writeValueAsBytes(employee));
+        assertThat(jsonCache.getEmployee(1L)).isNull();
+    }
+
+    // JUnit test for multi-gets read through the cache
+    @DisplayName("JUnit test for getLookups method")
+    @Test
+    public void givenOneCachedEmployee_whenGetLookups_thenOnlyMissesLoadedAndSameJsonAsJackson() throws IOException {
+        // given - precondition or setup
+        Employee other = Employee.builder().id(2L).firstName("Tony").lastName("Stark").email("tony@gmail.com").build();
+        jsonCache.putEmployee(employee, jsonCache.stamp());
+        List<List<Long>> loaded = new ArrayList<>();
+
+        // when -  action or the behaviour that we are going test
+        PreEncodedJson json = jsonCache.getLookups(List.of(2L, 1L, 9L), ids -> {
+            loaded.add(ids);
+            return List.of(EmployeeLookup.found(other), EmployeeLookup.missing(9L));
+        });
+
+        // then - verify the output
+        assertThat(loaded).containsExactly(List.of(2L, 9L));
+        assertThat(write(json)).isEqualTo(objectMapper.writeValueAsBytes(List.of(EmployeeLookup.found(other),
+                EmployeeLookup.found(employee), EmployeeLookup.missing(9L))));
+        assertThat(jsonCache.getEmployee(2L)).isNotNull();
+    }
+
+    private static byte[] write(PreEncodedJson json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        json.writeTo(out);
+        return out.toByteArray();
+    }
+}
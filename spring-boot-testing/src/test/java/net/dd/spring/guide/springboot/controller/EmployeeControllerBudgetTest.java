@@ -0,0 +1,147 @@
+package net.dd.spring.guide.springboot.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.dd.spring.guide.springboot.model.Employee;
+import net.dd.spring.guide.springboot.model.EmployeeField;
+import net.dd.spring.guide.springboot.model.EmployeeLookup;
+import net.dd.spring.guide.springboot.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static net.dd.spring.guide.springboot.budget.RequestBudgets.assertWithinBudget;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(EmployeeController.class)
+public class EmployeeControllerBudgetTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private EmployeeService employeeService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private List<Employee> employees;
+
+    @BeforeEach
+    public void setup() {
+        employees = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            employees.add(Employee.builder().id(id).firstName("First" + id).lastName("Last" + id)
+                    .email("employee" + id + "@example.com").build());
+        }
+    }
+
+    //Junit test for the allocation budget of get employee by id.
+    @DisplayName("Budget test for get employee by id")
+    @Test
+    public void givenEmployee_whenGetById_thenWithinBudget() throws Exception {
+        //Given - Precondition or setup.
+        given(employeeService.getEmployeeById(1L)).willReturn(Optional.of(employees.get(0)));
+        //When - action or behaviour that we are going to test.
+        //Then - verify the output
+        assertWithinBudget("controller.get-by-id",
+                () -> mockMvc.perform(get("/api/employees/{id}", 1L)).andExpect(status().isOk()),
+                () -> employeeService.getEmployeeById(1L));
+    }
+
+    //Junit test for the allocation budget of get all employees.
+    @DisplayName("Budget test for get all employees")
+    @Test
+    public void givenEmployees_whenGetAll_thenWithinBudget() throws Exception {
+        //Given - Precondition or setup.
+        given(employeeService.getAllEmployees()).willReturn(employees);
+        //When - action or behaviour that we are going to test.
+        //Then - verify the output
+        assertWithinBudget("controller.get-all-100",
+                () -> mockMvc.perform(get("/api/employees")).andExpect(status().isOk()),
+                () -> employeeService.getAllEmployees());
+    }
+
+    //Junit test for the allocation budget of get employees page.
+    @DisplayName("Budget test for get employees page")
+    @Test
+    public void givenEmployees_whenGetPage_thenWithinBudget() throws Exception {
+        //Given - Precondition or setup.
+        given(employeeService.getEmployeesPage(0, 50, null, null)).willReturn(employees.subList(0, 50));
+        //When - action or behaviour that we are going to test.
+        //Then - verify the output
+        assertWithinBudget("controller.get-page-50",
+                () -> mockMvc.perform(get("/api/employees").param("page", "0").param("size", "50"))
+                        .andExpect(status().isOk()),
+                () -> employeeService.getEmployeesPage(0, 50, null, null));
+    }
+
+    //Junit test for the allocation budget of get employees by ids.
+    @DisplayName("Budget test for get employees by ids")
+    @Test
+    public void givenEmployees_whenGetByIds_thenWithinBudget() throws Exception {
+        //Given - Precondition or setup.
+        List<EmployeeLookup> lookups = new ArrayList<>();
+        List<Long> idList = new ArrayList<>();
+        StringBuilder ids = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            lookups.add(EmployeeLookup.found(employees.get(i)));
+            idList.add(i + 1L);
+            ids.append(i == 0 ? "" : ",").append(i + 1);
+        }
+        given(employeeService.getEmployeesByIds(ArgumentMatchers.anyList())).willReturn(lookups);
+        //When - action or behaviour that we are going to test.
+        //Then - verify the output
+        assertWithinBudget("controller.get-by-ids-20",
+                () -> mockMvc.perform(get("/api/employees").param("ids", ids.toString())).andExpect(status().isOk()),
+                () -> employeeService.getEmployeesByIds(idList));
+    }
+
+    //Junit test for the allocation budget of get employee by id with sparse fields.
+    @DisplayName("Budget test for get employee by id with sparse fields")
+    @Test
+    public void givenEmployee_whenGetByIdWithFields_thenWithinBudget() throws Exception {
+        //Given - Precondition or setup.
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 1L);
+        row.put("email", employees.get(0).getEmail());
+        Set<EmployeeField> fields = EnumSet.of(EmployeeField.ID, EmployeeField.EMAIL);
+        given(employeeService.getEmployeeById(ArgumentMatchers.eq(1L), ArgumentMatchers.anySet()))
+                .willReturn(Optional.of(row));
+        //When - action or behaviour that we are going to test.
+        //Then - verify the output
+        assertWithinBudget("controller.get-by-id-fields",
+                () -> mockMvc.perform(get("/api/employees/{id}", 1L).param("fields", "id,email"))
+                        .andExpect(status().isOk()),
+                () -> employeeService.getEmployeeById(1L, fields));
+    }
+
+    //Junit test for the allocation budget of create employee.
+    @DisplayName("Budget test for create employee")
+    @Test
+    public void givenEmployee_whenCreate_thenWithinBudget() throws Exception {
+        //Given - Precondition or setup.
+        given(employeeService.saveEmployee(ArgumentMatchers.any(Employee.class)))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        byte[] body = objectMapper.writeValueAsBytes(employees.get(0));
+        //When - action or behaviour that we are going to test.
+        //Then - verify the output
+        assertWithinBudget("controller.create",
+                () -> mockMvc.perform(post("/api/employees").contentType(MediaType.APPLICATION_JSON).content(body))
+                        .andExpect(status().isCreated()),
+                () -> employeeService.saveEmployee(employees.get(0)));
+    }
+}
@@ -2,6 +2,8 @@ package net.dd.spring.guide.springboot.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import net.dd.spring.guide.springboot.model.Employee;
+import net.dd.spring.guide.springboot.model.EmployeeField;
+import net.dd.spring.guide.springboot.model.EmployeeLookup;
 import net.dd.spring.guide.springboot.service.EmployeeService;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,6 +14,7 @@ import static org.mockito.BDDMockito.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
@@ -21,10 +24,13 @@ import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
-@WebMvcTest
+@WebMvcTest(EmployeeController.class)
 public class EmployeeControllerTest {
     @Autowired
     private MockMvc mockMvc;
@@ -63,6 +69,23 @@ public class EmployeeControllerTest {
                 .andExpect(jsonPath("$.email", CoreMatchers.is(employee.getEmail())));
     }
 
+    //Junit test for a create losing the race on the unique email index.
+    @DisplayName("Junit test for creat employee conflicting on the unique email index")
+    @Test
+    public void givenUniqueIndexViolation_whenPostCalled_thenConflict() throws Exception {
+        //Given - Precondition or setup.
+        given(employeeService.saveEmployee(ArgumentMatchers.any(Employee.class)))
+                .willThrow(new DataIntegrityViolationException("uk_employees_email_normalized"));
+        //When - action or behaviour that we are going to test.
+        ResultActions response = mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(employee)));
+        //Then - verify the output
+        response.andDo(print())
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message", CoreMatchers.is("Request conflicts with an existing resource")));
+    }
+
     //Junit test for
     @DisplayName("Junit testing for retrieving all employees")
     @Test
@@ -151,4 +174,68 @@ public class EmployeeControllerTest {
         //Then - verify the output
         response.andExpect(status().isOk()).andDo(print());
     }
-}
\ No newline at end of file
+
+    //Junit test for
+    @DisplayName("Junit testing for retrieving many employees by id")
+    @Test
+    public void givenEmployeeIds_whenGetEmployeesByIds_thenVerifyResponseInRequestOrder() throws Exception {
+        //Given - Precondition or setup.
+        employee.setId(2L);
+        given(employeeService.getEmployeesByIds(List.of(2L, 7L)))
+                .willReturn(List.of(EmployeeLookup.found(employee), EmployeeLookup.missing(7L)));
+        //When - action or behaviour that we are going to test.
+        ResultActions response = mockMvc.perform(get("/api/employees").param("ids", "2,7"));
+        //Then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", CoreMatchers.is(2)))
+                .andExpect(jsonPath("$[0].found", CoreMatchers.is(true)))
+                .andExpect(jsonPath("$[0].employee.email", CoreMatchers.is(employee.getEmail())))
+                .andExpect(jsonPath("$[1].id", CoreMatchers.is(7)))
+                .andExpect(jsonPath("$[1].found", CoreMatchers.is(false)));
+    }
+
+    //Junit test for
+    @DisplayName("Junit testing for retrieving all employees with sparse fieldset")
+    @Test
+    public void givenFields_whenGetAllEmployees_thenOnlyRequestedFieldsReturned() throws Exception {
+        //Given - Precondition or setup.
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 1L);
+        row.put("email", employee.getEmail());
+        given(employeeService.getAllEmployees(EnumSet.of(EmployeeField.ID, EmployeeField.EMAIL)))
+                .willReturn(List.of(row));
+        //When - action or behaviour that we are going to test.
+        ResultActions response = mockMvc.perform(get("/api/employees").param("fields", "email,id"));
+        //Then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$[0].email", CoreMatchers.is(employee.getEmail())))
+                .andExpect(jsonPath("$[0].firstName").doesNotExist());
+    }
+
+    //Junit test for
+    @DisplayName("Junit testing for unknown sparse fieldset field")
+    @Test
+    public void givenUnknownField_whenGetAllEmployees_thenBadRequest() throws Exception {
+        //When - action or behaviour that we are going to test.
+        ResultActions response = mockMvc.perform(get("/api/employees").param("fields", "salary"));
+        //Then - verify the output
+        response.andExpect(status().isBadRequest())
+                .andDo(print());
+    }
+
+    //Junit test for a page number past the offset paging limit.
+    @DisplayName("Junit testing for page beyond the offset paging limit")
+    @Test
+    public void givenPageBeyondLimit_whenGetEmployeesPage_thenBadRequest() throws Exception {
+        //When - action or behaviour that we are going to test.
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .param("page", String.valueOf(Integer.MAX_VALUE))
+                .param("size", "1000"));
+        //Then - verify the output
+        response.andExpect(status().isBadRequest())
+                .andDo(print());
+        verify(employeeService, never()).getEmployeesPage(anyInt(), anyInt(), any(), any());
+    }
+}
@@ -0,0 +1,109 @@
+package net.dd.spring.guide.springboot.dataset;
+
+import net.dd.spring.guide.springboot.model.EmailNormalizer;
+import net.dd.spring.guide.springboot.model.Employee;
+import net.dd.spring.guide.springboot.repository.EmployeeBatchInserter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmployeeDatasetGeneratorTest {
+
+    // JUnit test for determinism
+    @DisplayName("JUnit test for generate method with the same seed")
+    @Test
+    public void givenSameSeed_whenGenerate_thenSameEmployeesAtEveryIndex() {
+        // given - precondition or setup
+        EmployeeDatasetGenerator generator = new EmployeeDatasetGenerator(7);
+        EmployeeDatasetGenerator again = new EmployeeDatasetGenerator(7);
+        EmployeeDatasetGenerator otherSeed = new EmployeeDatasetGenerator(8);
+
+        // when -  action or the behaviour that we are going test
+        List<Employee> chunk = generator.generate(1_000, 100);
+
+        // then - verify the output
+        for (int i = 0; i < chunk.size(); i++) {
+            Employee single = again.generate(1_000 + i);
+            assertThat(chunk.get(i)).usingRecursiveComparison().isEqualTo(single);
+        }
+        assertThat(otherSeed.generate(1_000, 100)).extracting(Employee::getEmail)
+                .isNotEqualTo(chunk.stream().map(Employee::getEmail).collect(Collectors.toList()));
+    }
+
+    // JUnit test for uniqueness and skew
+    @DisplayName("JUnit test for generate method over many rows")
+    @Test
+    public void givenManyRows_whenGenerate_thenEmailsUniqueAndNamesSkewed() {
+        // given - precondition or setup
+        EmployeeDatasetGenerator generator = new EmployeeDatasetGenerator(42);
+        int rows = 200_000;
+        Set<String> emails = new HashSet<>(rows * 2);
+        Map<String, Integer> firstNames = new HashMap<>();
+
+        // when -  action or the behaviour that we are going test
+        for (long index = 0; index < rows; index++) {
+            Employee employee = generator.generate(index);
+            emails.add(EmailNormalizer.normalize(employee.getEmail()));
+            firstNames.merge(employee.getFirstName(), 1, Integer::sum);
+        }
+
+        // then - verify the output
+        assertThat(emails).hasSize(rows);
+        int mostCommon = firstNames.values().stream().max(Integer::compare).orElse(0);
+        int leastCommon = firstNames.values().stream().min(Integer::compare).orElse(0);
+        assertThat(mostCommon).isGreaterThan(leastCommon * 5);
+    }
+
+    // JUnit test for recognising generated rows
+    @DisplayName("JUnit test for indexOf method")
+    @Test
+    public void givenEmails_whenIndexOf_thenOnlyRowsOfTheSameSeedRecognised() {
+        // given - precondition or setup
+        EmployeeDatasetGenerator generator = new EmployeeDatasetGenerator(42);
+        String generated = generator.generate(123_456).getEmail();
+
+        // when -  action or the behaviour that we are going test
+        long index = generator.indexOf(generated);
+
+        // then - verify the output
+        assertThat(index).isEqualTo(123_456L);
+        assertThat(new EmployeeDatasetGenerator(7).indexOf(generated)).isEqualTo(-1L);
+        assertThat(generator.indexOf("das.dtx@hotmail.com")).isEqualTo(-1L);
+        assertThat(generator.indexOf("tony@gmail.com")).isEqualTo(-1L);
+    }
+
+    // JUnit test for loading through the batch insert path
+    @DisplayName("JUnit test for EmployeeDatasetLoader load method")
+    @Test
+    public void givenEmbeddedDatabase_whenLoad_thenRowsInserted() {
+        // given - precondition or setup
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:dataset;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table tbl_employees (id bigint auto_increment primary key,"
+                + " first_name varchar(255) not null, last_name varchar(255) not null, email varchar(255) not null,"
+                + " email_normalized varchar(255) unique, email_hash bigint)");
+        EmployeeDatasetLoader loader = new EmployeeDatasetLoader(new EmployeeBatchInserter(jdbcTemplate),
+                new DataSourceTransactionManager(dataSource));
+
+        // when -  action or the behaviour that we are going test
+        loader.load(new EmployeeDatasetGenerator(42), 0, 25_000, 10_000, 1000);
+        loader.load(new EmployeeDatasetGenerator(42), 25_000, 30_000, 10_000, 1000);
+
+        // then - verify the output
+        assertThat(jdbcTemplate.queryForObject("select count(*) from tbl_employees", Long.class)).isEqualTo(30_000L);
+        assertThat(jdbcTemplate.queryForObject("select email from tbl_employees where id = 1", String.class))
+                .isEqualTo(new EmployeeDatasetGenerator(42).generate(0).getEmail());
+        jdbcTemplate.execute("drop table tbl_employees");
+    }
+}
@@ -0,0 +1,153 @@
+package net.dd.spring.guide.springboot.deadline;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeadlineDataSourceTest {
+
+    private static final String SLOW_QUERY = "select sum(x) from system_range(1, 10000000000)";
+
+    private DriverManagerDataSource target;
+    private DeadlineDataSource dataSource;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        target = new DriverManagerDataSource("jdbc:h2:mem:deadlines;DB_CLOSE_DELAY=-1");
+        dataSource = new DeadlineDataSource(target, 50);
+        try (Connection connection = target.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("create table tbl_employees (id bigint primary key)");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        try (Connection connection = target.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("drop table tbl_employees");
+        }
+    }
+
+    // JUnit test for a statement running past the request deadline
+    @DisplayName("JUnit test for a statement exceeding the deadline")
+    @Test
+    public void givenDeadline_whenSlowQuery_thenCancelledWithTimeout() {
+        // given - precondition or setup
+        Deadline deadline = Deadline.after(Duration.ofMillis(300));
+        long start = System.nanoTime();
+
+        // when -  action or the behaviour that we are going test
+        Throwable failure = Deadline.within(deadline, () -> {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.executeQuery(SLOW_QUERY);
+                return null;
+            } catch (SQLException e) {
+                return e;
+            }
+        });
+
+        // then - verify the output
+        assertThat(failure).isInstanceOf(SQLTimeoutException.class);
+        // JDBC timeouts are whole seconds, so a 300 ms budget becomes one second
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+    }
+
+    // JUnit test for the timeout applied to each execution
+    @DisplayName("JUnit test for query timeouts derived from the deadline")
+    @Test
+    public void givenDeadlineAndCallerTimeout_whenExecute_thenShorterTimeoutApplied() throws SQLException {
+        // given - precondition or setup
+        Deadline deadline = Deadline.after(Duration.ofSeconds(10));
+        int[] timeouts = new int[3];
+
+        // when -  action or the behaviour that we are going test
+        Deadline.within(deadline, () -> {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement("select count(*) from tbl_employees")) {
+                statement.executeQuery().close();
+                timeouts[0] = statement.getQueryTimeout();
+                statement.setQueryTimeout(3);
+                statement.executeQuery().close();
+                timeouts[1] = statement.getQueryTimeout();
+                return null;
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeQuery("select count(*) from tbl_employees").close();
+            timeouts[2] = statement.getQueryTimeout();
+        }
+
+        // then - verify the output
+        assertThat(timeouts[0]).isBetween(9, 10);
+        assertThat(timeouts[1]).isEqualTo(3);
+        assertThat(timeouts[2]).isZero();
+    }
+
+    // JUnit test for failing fast on an exhausted budget
+    @DisplayName("JUnit test for getConnection with too little budget left")
+    @Test
+    public void givenAlmostExpiredDeadline_whenGetConnection_thenFailsWithoutConnecting() {
+        // given - precondition or setup
+        Deadline deadline = Deadline.after(Duration.ofMillis(10));
+
+        // when -  action or the behaviour that we are going test
+        Throwable failure = Deadline.within(deadline, () -> {
+            try (Connection ignored = dataSource.getConnection()) {
+                return null;
+            } catch (SQLException e) {
+                return e;
+            }
+        });
+
+        // then - verify the output
+        assertThat(failure).isInstanceOf(SQLTimeoutException.class)
+                .hasMessageContaining("less than the 50 ms");
+        assertThat(Deadline.current()).isNull();
+    }
+
+    // JUnit test for the pool checkout bounded by the request deadline
+    @DisplayName("JUnit test for getConnection with an exhausted pool")
+    @Test
+    public void givenExhaustedPool_whenGetConnection_thenWaitBoundedByDeadline() throws SQLException {
+        // given - precondition or setup
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:deadlines;DB_CLOSE_DELAY=-1");
+        pool.setMaximumPoolSize(1);
+        pool.setConnectionTimeout(30_000);
+        DeadlineDataSource bounded = new DeadlineDataSource(pool, 50);
+        Deadline deadline = Deadline.after(Duration.ofMillis(200));
+        long start = System.nanoTime();
+
+        // when -  action or the behaviour that we are going test
+        Throwable failure;
+        try (pool; Connection held = pool.getConnection()) {
+            failure = Deadline.within(deadline, () -> {
+                try (Connection ignored = bounded.getConnection()) {
+                    return null;
+                } catch (SQLException e) {
+                    return e;
+                }
+            });
+        }
+
+        // then - verify the output
+        assertThat(failure).isInstanceOf(SQLTimeoutException.class)
+                .hasMessageContaining("waiting");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+    }
+}
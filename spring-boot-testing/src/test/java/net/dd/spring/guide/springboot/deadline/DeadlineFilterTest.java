@@ -0,0 +1,114 @@
+package net.dd.spring.guide.springboot.deadline;
+
+import net.dd.spring.guide.springboot.limiter.EndpointClass;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeadlineFilterTest {
+
+    private DeadlineFilter filter;
+    private Deadline[] seen;
+    private FilterChain chain;
+
+    @BeforeEach
+    public void setup() {
+        filter = new DeadlineFilter("X-Request-Timeout",
+                Map.of(EndpointClass.READ, Duration.ofSeconds(2),
+                        EndpointClass.WRITE, Duration.ofSeconds(5),
+                        EndpointClass.LIST, Duration.ofSeconds(10),
+                        EndpointClass.HEAVY, Duration.ofSeconds(10)),
+                Duration.ofSeconds(30), Set.of("/api/employees/import"));
+        seen = new Deadline[1];
+        chain = (request, response) -> seen[0] = Deadline.current();
+    }
+
+    // JUnit test for per-endpoint defaults
+    @DisplayName("JUnit test for deadline filter without a timeout header")
+    @Test
+    public void givenNoHeader_whenFilter_thenEndpointDefaultApplied() throws Exception {
+        // when -  action or the behaviour that we are going test
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/employees"), new MockHttpServletResponse(), chain);
+        long listRemaining = seen[0].remainingMillis();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/employees/1"), new MockHttpServletResponse(), chain);
+        long readRemaining = seen[0].remainingMillis();
+
+        // then - verify the output
+        assertThat(listRemaining).isBetween(9_000L, 10_000L);
+        assertThat(readRemaining).isBetween(1_000L, 2_000L);
+        assertThat(Deadline.current()).isNull();
+    }
+
+    // JUnit test for client timeouts
+    @DisplayName("JUnit test for deadline filter with a timeout header")
+    @Test
+    public void givenTimeoutHeader_whenFilter_thenHeaderUsedAndCapped() throws Exception {
+        // given - precondition or setup
+        MockHttpServletRequest shortRequest = new MockHttpServletRequest("GET", "/api/employees/1");
+        shortRequest.addHeader("X-Request-Timeout", " 250 ");
+        MockHttpServletRequest longRequest = new MockHttpServletRequest("GET", "/api/employees/1");
+        longRequest.addHeader("X-Request-Timeout", "600000");
+
+        // when -  action or the behaviour that we are going test
+        filter.doFilter(shortRequest, new MockHttpServletResponse(), chain);
+        long shortRemaining = seen[0].remainingMillis();
+        filter.doFilter(longRequest, new MockHttpServletResponse(), chain);
+        long cappedRemaining = seen[0].remainingMillis();
+
+        // then - verify the output
+        assertThat(shortRemaining).isBetween(0L, 250L);
+        assertThat(cappedRemaining).isBetween(29_000L, 30_000L);
+    }
+
+    // JUnit test for malformed timeouts
+    @DisplayName("JUnit test for deadline filter with an invalid timeout header")
+    @Test
+    public void givenInvalidTimeoutHeader_whenFilter_thenBadRequestWithoutExecution() throws Exception {
+        // given - precondition or setup
+        MockHttpServletRequest notANumber = new MockHttpServletRequest("GET", "/api/employees/1");
+        notANumber.addHeader("X-Request-Timeout", "2s");
+        MockHttpServletRequest zero = new MockHttpServletRequest("GET", "/api/employees/1");
+        zero.addHeader("X-Request-Timeout", "0");
+        MockHttpServletResponse notANumberResponse = new MockHttpServletResponse();
+        MockHttpServletResponse zeroResponse = new MockHttpServletResponse();
+
+        // when -  action or the behaviour that we are going test
+        filter.doFilter(notANumber, notANumberResponse, chain);
+        filter.doFilter(zero, zeroResponse, chain);
+
+        // then - verify the output
+        assertThat(notANumberResponse.getStatus()).isEqualTo(400);
+        assertThat(notANumberResponse.getContentAsString()).contains("X-Request-Timeout");
+        assertThat(zeroResponse.getStatus()).isEqualTo(400);
+        assertThat(seen[0]).isNull();
+    }
+
+    // JUnit test for bulk endpoints
+    @DisplayName("JUnit test for deadline filter on the CSV import")
+    @Test
+    public void givenImportRequest_whenFilter_thenNoDeadline() throws Exception {
+        // given - precondition or setup
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/employees/import");
+        request.addHeader("X-Request-Timeout", "100");
+        boolean[] invoked = new boolean[1];
+
+        // when -  action or the behaviour that we are going test
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            invoked[0] = true;
+            seen[0] = Deadline.current();
+        });
+
+        // then - verify the output
+        assertThat(invoked[0]).isTrue();
+        assertThat(seen[0]).isNull();
+    }
+}
@@ -0,0 +1,82 @@
+package net.dd.spring.guide.springboot.deadline;
+
+import net.dd.spring.guide.springboot.exception.GatewayTimeoutException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeadlineInterceptorTest {
+
+    // JUnit test for calls without a deadline
+    @DisplayName("JUnit test for interceptor without a deadline")
+    @Test
+    public void givenNoDeadline_whenInvoke_thenFailuresPassThrough() {
+        // given - precondition or setup
+        QueryTimeoutException timeout = new QueryTimeoutException("slow");
+        Supplier<String> service = intercepted(() -> {
+            throw timeout;
+        });
+
+        // then - verify the output
+        assertThatThrownBy(service::get).isSameAs(timeout);
+    }
+
+    // JUnit test for failing fast
+    @DisplayName("JUnit test for interceptor with too little budget left")
+    @Test
+    public void givenAlmostExpiredDeadline_whenInvoke_thenGatewayTimeoutWithoutCall() {
+        // given - precondition or setup
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<String> service = intercepted(() -> {
+            calls.incrementAndGet();
+            return "employee";
+        });
+
+        // when -  action or the behaviour that we are going test
+        assertThatThrownBy(() -> Deadline.within(Deadline.after(Duration.ofMillis(5)), service))
+                // then - verify the output
+                .isSameAs(GatewayTimeoutException.DEADLINE_EXCEEDED);
+        assertThat(calls).hasValue(0);
+    }
+
+    // JUnit test for timeouts however they were wrapped
+    @DisplayName("JUnit test for interceptor mapping statement timeouts to 504")
+    @Test
+    public void givenStatementCancelledByDeadline_whenInvoke_thenGatewayTimeout() {
+        // given - precondition or setup
+        Deadline deadline = Deadline.after(Duration.ofSeconds(5));
+        Supplier<String> translated = intercepted(() -> {
+            throw new QueryTimeoutException("cancelled");
+        });
+        Supplier<String> wrapped = intercepted(() -> {
+            throw new CannotCreateTransactionException("no connection", new SQLTimeoutException("deadline"));
+        });
+        Supplier<String> unrelated = intercepted(() -> {
+            throw new IllegalStateException("bug");
+        });
+
+        // then - verify the output
+        assertThatThrownBy(() -> Deadline.within(deadline, translated)).isSameAs(GatewayTimeoutException.QUERY_TIMED_OUT);
+        assertThatThrownBy(() -> Deadline.within(deadline, wrapped)).isSameAs(GatewayTimeoutException.QUERY_TIMED_OUT);
+        assertThatThrownBy(() -> Deadline.within(deadline, unrelated)).isInstanceOf(IllegalStateException.class);
+        assertThat(Deadline.within(deadline, intercepted(() -> "employee"))).isEqualTo("employee");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<String> intercepted(Supplier<String> target) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addInterface(Supplier.class);
+        proxyFactory.addAdvice(new DeadlineInterceptor(10));
+        return (Supplier<String>) proxyFactory.getProxy();
+    }
+}
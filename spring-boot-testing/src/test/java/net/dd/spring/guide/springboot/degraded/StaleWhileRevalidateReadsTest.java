@@ -0,0 +1,342 @@
+package net.dd.spring.guide.springboot.degraded;
+
+import net.dd.spring.guide.springboot.deadline.Deadline;
+import net.dd.spring.guide.springboot.event.EmployeeChangedEvent;
+import net.dd.spring.guide.springboot.exception.ServiceUnavailableException;
+import net.dd.spring.guide.springboot.model.Employee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import javax.servlet.ServletException;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class StaleWhileRevalidateReadsTest {
+
+    private final DataSource dataSource = mock(DataSource.class);
+    private final List<Runnable> refreshes = new ArrayList<>();
+
+    private StaleWhileRevalidateReads reads;
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        DegradedReadProperties properties = new DegradedReadProperties();
+        properties.setFailureThreshold(3);
+        properties.setProbeInterval(Duration.ofHours(1));
+        properties.setMaxWait(Duration.ofMillis(10));
+        Clock clock = Clock.fixed(Instant.ofEpochMilli(10_000), ZoneOffset.UTC);
+        reads = new StaleWhileRevalidateReads(dataSource, properties, clock, refreshes::add);
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Ramesh")
+                .lastName("Fadatare")
+                .email("ramesh@gmail.com")
+                .build();
+        StaleRead.open();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        StaleRead.close();
+        reads.destroy();
+    }
+
+    // JUnit test for a read answered by the database
+    @DisplayName("JUnit test for getById method with a healthy database")
+    @Test
+    public void givenHealthyDatabase_whenGetById_thenReadOnCallerThreadAndNotStale() {
+        // given - precondition or setup
+        Thread caller = Thread.currentThread();
+        Thread[] loadedOn = new Thread[1];
+
+        // when -  action or the behaviour that we are going test
+        Optional<Employee> result = reads.getById(1L, () -> {
+            loadedOn[0] = Thread.currentThread();
+            return Optional.of(employee);
+        });
+
+        // then - verify the output
+        assertThat(result).containsSame(employee);
+        assertThat(loadedOn[0]).isSameAs(caller);
+        assertThat(StaleRead.consume()).isEqualTo(-1);
+        assertThat(reads.isDegraded()).isFalse();
+    }
+
+    // JUnit test for a failed read falling back to the last known value
+    @DisplayName("JUnit test for getById method with a failing query")
+    @Test
+    public void givenKnownEmployeeAndFailingQuery_whenGetById_thenLastKnownServedWritesStillAccepted() {
+        // given - precondition or setup
+        reads.onEmployeeChanged(EmployeeChangedEvent.created(employee));
+
+        // when -  action or the behaviour that we are going test
+        Optional<Employee> result = reads.getById(1L, failing());
+
+        // then - verify the output
+        assertThat(result).get().extracting(Employee::getFirstName).isEqualTo("Ramesh");
+        assertThat(result.get()).isNotSameAs(employee);
+        assertThat(StaleRead.consume()).isZero();
+        assertThat(reads.isDegraded()).isFalse();
+        assertThat(reads.getStaleReadCount()).isEqualTo(1);
+    }
+
+    // JUnit test for a failing read without a last known value
+    @DisplayName("JUnit test for getById method with an unknown employee and an unavailable pool")
+    @Test
+    public void givenUnknownEmployeeAndPoolExhausted_whenGetById_thenServiceUnavailable() {
+        // when -  action or the behaviour that we are going test
+        assertThatThrownBy(() -> reads.getById(1L, () -> {
+            throw new CannotCreateTransactionException("pool exhausted");
+        }))
+                // then - verify the output
+                .isSameAs(ServiceUnavailableException.DATABASE_DEGRADED);
+    }
+
+    // JUnit test for rejecting writes after repeated failures only
+    @DisplayName("JUnit test for degraded state after consecutive failures")
+    @Test
+    public void givenConsecutiveFailures_whenGetById_thenDegradedUntilNextSuccess() {
+        // given - precondition or setup
+        reads.onEmployeeChanged(EmployeeChangedEvent.created(employee));
+        reads.getById(1L, failing());
+        reads.getById(1L, failing());
+        boolean degradedBeforeThreshold = reads.isDegraded();
+
+        // when -  action or the behaviour that we are going test
+        reads.getById(1L, failing());
+        boolean degradedAtThreshold = reads.isDegraded();
+        reads.getById(1L, () -> Optional.of(employee));
+        boolean degradedUntilRefreshed = reads.isDegraded();
+        refreshes.forEach(Runnable::run);
+
+        // then - verify the output
+        assertThat(degradedBeforeThreshold).isFalse();
+        assertThat(degradedAtThreshold).isTrue();
+        assertThat(degradedUntilRefreshed).isTrue();
+        assertThat(reads.isDegraded()).isFalse();
+    }
+
+    // JUnit test for the probe confirming an outage early
+    @DisplayName("JUnit test for probe method after a failed read")
+    @Test
+    public void givenFailedReadAndDatabaseDown_whenProbe_thenDegraded() throws SQLException {
+        // given - precondition or setup
+        given(dataSource.getConnection()).willThrow(new SQLException("down"));
+        reads.onEmployeeChanged(EmployeeChangedEvent.created(employee));
+        reads.getById(1L, failing());
+
+        // when -  action or the behaviour that we are going test
+        reads.probe();
+
+        // then - verify the output
+        assertThat(reads.isDegraded()).isTrue();
+    }
+
+    // JUnit test for the probe ending the degraded state
+    @DisplayName("JUnit test for probe method once the database answers again")
+    @Test
+    public void givenDegradedAndDatabaseBack_whenProbe_thenRecovered() throws SQLException {
+        // given - precondition or setup
+        Connection connection = mock(Connection.class);
+        given(connection.isValid(1)).willReturn(true);
+        given(dataSource.getConnection()).willReturn(connection);
+        reads.onEmployeeChanged(EmployeeChangedEvent.created(employee));
+        for (int i = 0; i < 3; i++) {
+            reads.getById(1L, failing());
+        }
+
+        // when -  action or the behaviour that we are going test
+        reads.probe();
+
+        // then - verify the output
+        assertThat(reads.isDegraded()).isFalse();
+    }
+
+    // JUnit test for stale markers outside a request scope
+    @DisplayName("JUnit test for stale reads on threads without a request")
+    @Test
+    public void givenWorkerThread_whenStaleRead_thenNoMarkerLeftBehind() throws Exception {
+        // given - precondition or setup
+        reads.onEmployeeChanged(EmployeeChangedEvent.created(employee));
+
+        // when -  action or the behaviour that we are going test
+        long age = CompletableFuture.supplyAsync(() -> {
+            reads.getById(1L, failing());
+            return StaleRead.consume();
+        }).get();
+
+        // then - verify the output
+        assertThat(age).isEqualTo(-1);
+        assertThat(reads.getStaleReadCount()).isEqualTo(1);
+    }
+
+    // JUnit test for the request scope of stale markers
+    @DisplayName("JUnit test for stale read filter dropping unconsumed markers")
+    @Test
+    public void givenRequestFailingAfterStaleRead_whenFilterCompletes_thenMarkerCleared() {
+        // given - precondition or setup
+        StaleRead.close();
+        reads.onEmployeeChanged(EmployeeChangedEvent.created(employee));
+        StaleReadFilter filter = new StaleReadFilter();
+
+        // when -  action or the behaviour that we are going test
+        assertThatThrownBy(() -> filter.doFilter(new MockHttpServletRequest("PUT", "/api/employees/1"),
+                new MockHttpServletResponse(), (request, response) -> {
+                    reads.getById(1L, failing());
+                    throw new ServletException("write rejected");
+                })).isInstanceOf(ServletException.class);
+
+        // then - verify the output
+        assertThat(StaleRead.consume()).isEqualTo(-1);
+    }
+
+    // JUnit test for a statement cancelled by the request's own deadline
+    @DisplayName("JUnit test for getById method timing out under a request deadline")
+    @Test
+    public void givenRequestDeadline_whenQueryTimesOut_thenNotCountedAsDatabaseFailure() {
+        // given - precondition or setup
+        Deadline deadline = Deadline.after(Duration.ofSeconds(5));
+        reads.onEmployeeChanged(EmployeeChangedEvent.created(employee));
+        Supplier<Optional<Employee>> cancelled = () -> {
+            throw new QueryTimeoutException("statement cancelled");
+        };
+
+        // when -  action or the behaviour that we are going test
+        for (int i = 0; i < 3; i++) {
+            Deadline.within(deadline, () -> reads.getById(1L, cancelled));
+        }
+        boolean degradedByOwnDeadline = reads.isDegraded();
+        for (int i = 0; i < 3; i++) {
+            reads.getById(1L, cancelled);
+        }
+
+        // then - verify the output
+        assertThat(degradedByOwnDeadline).isFalse();
+        assertThat(reads.isDegraded()).isTrue();
+        assertThat(reads.getStaleReadCount()).isEqualTo(6);
+        assertThatThrownBy(() -> Deadline.within(deadline, () -> reads.getById(2L, cancelled)))
+                .isInstanceOf(QueryTimeoutException.class);
+    }
+
+    // JUnit test for a failed multi-get
+    @DisplayName("JUnit test for getByIds method with a failing query")
+    @Test
+    public void givenFailingQuery_whenGetByIds_thenServedStaleOnlyIfEveryIdKnown() {
+        // given - precondition or setup
+        Employee other = Employee.builder().id(2L).firstName("Tony").lastName("Stark").email("tony@gmail.com").build();
+        reads.getByIds(List.of(1L, 2L), () -> Map.of(1L, employee, 2L, other));
+
+        // when -  action or the behaviour that we are going test
+        Map<Long, Employee> result = reads.getByIds(List.of(2L, 1L), () -> {
+            throw new CannotGetJdbcConnectionException("connection timed out");
+        });
+
+        // then - verify the output
+        assertThat(result).containsOnlyKeys(1L, 2L);
+        assertThat(result.get(2L)).isNotSameAs(other).extracting(Employee::getFirstName).isEqualTo("Tony");
+        assertThat(StaleRead.consume()).isZero();
+        assertThat(reads.getStaleReadCount()).isEqualTo(1);
+        assertThatThrownBy(() -> reads.getByIds(List.of(1L, 3L), () -> {
+            throw new CannotGetJdbcConnectionException("connection timed out");
+        })).isSameAs(ServiceUnavailableException.DATABASE_DEGRADED);
+    }
+
+    // JUnit test for not waiting on a degraded database
+    @DisplayName("JUnit test for getById and getByIds methods while degraded")
+    @Test
+    public void givenDegraded_whenRead_thenLastKnownServedAndRefreshedInBackground() {
+        // given - precondition or setup
+        Employee other = Employee.builder().id(2L).firstName("Tony").lastName("Stark").email("tony@gmail.com").build();
+        reads.getByIds(List.of(1L, 2L), () -> Map.of(1L, employee, 2L, other));
+        for (int i = 0; i < 3; i++) {
+            reads.getById(1L, failing());
+        }
+        Thread caller = Thread.currentThread();
+        List<Thread> loadedOn = new ArrayList<>();
+
+        // when -  action or the behaviour that we are going test
+        Optional<Employee> result = reads.getById(1L, () -> {
+            loadedOn.add(Thread.currentThread());
+            return Optional.of(employee);
+        });
+        Optional<Employee> again = reads.getById(1L, () -> Optional.of(employee));
+        Map<Long, Employee> many = reads.getByIds(List.of(1L, 2L), () -> Map.of(1L, employee, 2L, other));
+
+        // then - verify the output
+        assertThat(result).get().extracting(Employee::getFirstName).isEqualTo("Ramesh");
+        assertThat(again).isPresent();
+        assertThat(many).containsOnlyKeys(1L, 2L);
+        assertThat(loadedOn).isEmpty();
+        assertThat(refreshes).hasSize(2);
+        assertThat(reads.getStaleReadCount()).isEqualTo(6);
+        CompletableFuture.runAsync(() -> refreshes.forEach(Runnable::run)).join();
+        assertThat(loadedOn).singleElement().isNotSameAs(caller);
+        assertThat(reads.isDegraded()).isFalse();
+    }
+
+    // JUnit test for not queuing behind a stalled read
+    @DisplayName("JUnit test for getById method while another read waits longer than max wait")
+    @Test
+    public void givenStalledRead_whenGetById_thenLastKnownServedWithoutWaiting() throws Exception {
+        // given - precondition or setup
+        reads.onEmployeeChanged(EmployeeChangedEvent.created(employee));
+        CountDownLatch waiting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Optional<Employee>> stalled = CompletableFuture.supplyAsync(() -> reads.getById(2L, () -> {
+            waiting.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Optional.empty();
+        }));
+        waiting.await();
+        Thread.sleep(50);
+
+        // when -  action or the behaviour that we are going test
+        Optional<Employee> result = reads.getById(1L, () -> {
+            throw new AssertionError("read went to the database");
+        });
+        release.countDown();
+
+        // then - verify the output
+        assertThat(result).get().extracting(Employee::getFirstName).isEqualTo("Ramesh");
+        assertThat(StaleRead.consume()).isZero();
+        assertThat(refreshes).hasSize(1);
+        assertThat(stalled.get()).isEmpty();
+        assertThat(reads.getById(1L, () -> Optional.of(employee))).containsSame(employee);
+        assertThat(reads.isDegraded()).isFalse();
+    }
+
+    private static Supplier<Optional<Employee>> failing() {
+        return () -> {
+            throw new CannotGetJdbcConnectionException("connection timed out");
+        };
+    }
+}
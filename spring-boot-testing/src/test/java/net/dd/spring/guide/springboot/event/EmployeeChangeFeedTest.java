@@ -0,0 +1,225 @@
+package net.dd.spring.guide.springboot.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.dd.spring.guide.springboot.controller.EmployeeStreamController;
+import net.dd.spring.guide.springboot.model.Employee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class EmployeeChangeFeedTest {
+
+    private static final long MAX_WAIT_MILLIS = 5000;
+
+    private EmployeeChangeFeed changeFeed;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setup() {
+        ChangeFeedProperties properties = new ChangeFeedProperties();
+        properties.setCapacity(4);
+        changeFeed = new EmployeeChangeFeed(properties, new SimpleMeterRegistry());
+        mockMvc = MockMvcBuilders.standaloneSetup(new EmployeeStreamController(changeFeed)).build();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        changeFeed.shutdown();
+    }
+
+    // JUnit test for resuming from Last-Event-ID
+    @DisplayName("JUnit test for subscribe replaying events after Last-Event-ID")
+    @Test
+    public void givenEventsInRing_whenSubscribeWithLastEventId_thenLaterEventsReplayed() throws Exception {
+        // given - precondition or setup
+        changeFeed.onEmployeeChanged(EmployeeChangedEvent.created(employee(1L, "dipanjan@hotmail.com")));
+        changeFeed.onEmployeeChanged(EmployeeChangedEvent.updated(employee(1L, "das.dtx@hotmail.com")));
+        changeFeed.onEmployeeChanged(EmployeeChangedEvent.deleted(1L));
+
+        // when -  action or the behaviour that we are going test
+        MvcResult result = subscribe("1");
+
+        // then - verify the output
+        awaitContent(result, "id:3\nevent:deleted");
+        String content = result.getResponse().getContentAsString();
+        assertThat(content).contains("id:2\nevent:updated").contains("das.dtx@hotmail.com");
+        assertThat(content).doesNotContain("id:1\n").doesNotContain("event:reset");
+    }
+
+    // JUnit test for a Last-Event-ID that has been overwritten
+    @DisplayName("JUnit test for subscribe with an id that fell out of the ring")
+    @Test
+    public void givenOverwrittenLastEventId_whenSubscribe_thenResetAndOnlyNewEvents() throws Exception {
+        // given - precondition or setup
+        for (long id = 1; id <= 6; id++) {
+            changeFeed.onEmployeeChanged(EmployeeChangedEvent.deleted(id));
+        }
+
+        // when -  action or the behaviour that we are going test
+        MvcResult result = subscribe("1");
+        awaitContent(result, "event:reset");
+        changeFeed.onEmployeeChanged(EmployeeChangedEvent.created(employee(7L, "tony@gmail.com")));
+
+        // then - verify the output
+        awaitContent(result, "id:7\nevent:created");
+        String content = result.getResponse().getContentAsString();
+        assertThat(content).contains("id:6\nevent:reset").contains("\"sequence\":6");
+        assertThat(content).doesNotContain("event:deleted");
+    }
+
+    // JUnit test for imported chunks reaching subscribers
+    @DisplayName("JUnit test for an imported chunk streamed as one created event per row")
+    @Test
+    public void givenSubscriber_whenChunkImported_thenCreatedEventPerRow() throws Exception {
+        // given - precondition or setup
+        MvcResult result = subscribe(null);
+
+        // when -  action or the behaviour that we are going test
+        changeFeed.onEmployeesImported(new EmployeesImportedEvent(List.of(
+                employee(9L, "ram@gmail.com"), employee(8L, "bidisa@hotmail.com"))));
+
+        // then - verify the output
+        awaitContent(result, "id:2\nevent:created");
+        String content = result.getResponse().getContentAsString();
+        assertThat(content.indexOf("bidisa@hotmail.com")).isLessThan(content.indexOf("ram@gmail.com"));
+    }
+
+    // JUnit test for releasing a subscriber when its connection completes
+    @DisplayName("JUnit test for emitter completion removing the subscriber")
+    @Test
+    public void givenSubscriber_whenConnectionCompletes_thenSubscriberRemoved() throws Exception {
+        // given - precondition or setup
+        MvcResult result = subscribe(null);
+        assertThat(changeFeed.getSubscriberCount()).isEqualTo(1);
+
+        // when -  action or the behaviour that we are going test
+        result.getRequest().getAsyncContext().complete();
+
+        // then - verify the output
+        await(() -> changeFeed.getSubscriberCount() == 0);
+        changeFeed.onEmployeeChanged(EmployeeChangedEvent.deleted(1L));
+        assertThat(result.getResponse().getContentAsString()).doesNotContain("event:deleted");
+    }
+
+    // JUnit test for a subscriber whose socket stops accepting writes
+    @DisplayName("JUnit test for a write exceeding the send timeout")
+    @Test
+    public void givenStuckSubscriber_whenSendTimesOut_thenDroppedAndOthersStillServed() throws Exception {
+        // given - precondition or setup
+        changeFeed.shutdown();
+        ChangeFeedProperties properties = new ChangeFeedProperties();
+        properties.setDispatchThreads(1);
+        properties.setSendTimeout(Duration.ofMillis(100));
+        changeFeed = new EmployeeChangeFeed(properties, new SimpleMeterRegistry());
+        mockMvc = MockMvcBuilders.standaloneSetup(new EmployeeStreamController(changeFeed)).build();
+        BlockingEmitter stuck = new BlockingEmitter();
+        changeFeed.subscribe(stuck, null);
+        MvcResult healthy = subscribe(null);
+
+        // when -  action or the behaviour that we are going test
+        changeFeed.onEmployeeChanged(EmployeeChangedEvent.deleted(1L));
+
+        // then - verify the output
+        try {
+            awaitContent(healthy, "id:1\nevent:deleted");
+            await(() -> changeFeed.getSubscriberCount() == 1);
+        } finally {
+            stuck.release.countDown();
+        }
+    }
+
+    // JUnit test for a subscriber falling behind its queue
+    @DisplayName("JUnit test for a subscriber whose queue overflows")
+    @Test
+    public void givenSlowSubscriber_whenQueueOverflows_thenDisconnected() throws Exception {
+        // given - precondition or setup
+        changeFeed.shutdown();
+        ChangeFeedProperties properties = new ChangeFeedProperties();
+        properties.setSubscriberQueueCapacity(2);
+        changeFeed = new EmployeeChangeFeed(properties, new SimpleMeterRegistry());
+        BlockingEmitter slow = new BlockingEmitter();
+        changeFeed.subscribe(slow, null);
+
+        // when -  action or the behaviour that we are going test
+        for (long id = 1; id <= 4; id++) {
+            changeFeed.onEmployeeChanged(EmployeeChangedEvent.deleted(id));
+        }
+
+        // then - verify the output
+        assertThat(changeFeed.getSubscriberCount()).isZero();
+        slow.release.countDown();
+        await(() -> slow.completed);
+    }
+
+    private MvcResult subscribe(String lastEventId) throws Exception {
+        return mockMvc.perform(lastEventId == null ? get("/api/employees/stream")
+                        : get("/api/employees/stream").header("Last-Event-ID", lastEventId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private static void awaitContent(MvcResult result, String expected) {
+        await(() -> {
+            try {
+                return result.getResponse().getContentAsString().contains(expected);
+            } catch (Exception e) {
+                throw new AssertionError(e);
+            }
+        });
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + MAX_WAIT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met within " + MAX_WAIT_MILLIS + " ms");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    private static Employee employee(long id, String email) {
+        return Employee.builder().id(id).firstName("Dipanjan").lastName("Das").email(email).build();
+    }
+
+    // an emitter whose writes block like a client that stopped reading
+    private static final class BlockingEmitter extends SseEmitter {
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
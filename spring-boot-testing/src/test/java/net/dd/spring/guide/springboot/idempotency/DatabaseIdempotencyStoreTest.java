@@ -0,0 +1,100 @@
+package net.dd.spring.guide.springboot.idempotency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class DatabaseIdempotencyStoreTest {
+
+    private static final Duration TTL = Duration.ofHours(1);
+    private static final Duration CLAIM_TIMEOUT = Duration.ofSeconds(1);
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @BeforeEach
+    public void setup() {
+        repository.deleteAll();
+    }
+
+    // JUnit test for a slow node finishing after its claim was taken over
+    @DisplayName("JUnit test for save method after the claim was taken over by another node")
+    @Test
+    public void givenClaimTakenOver_whenStaleOwnerSaves_thenNewOwnersResponseKept() {
+        // given - precondition or setup
+        DatabaseIdempotencyStore slowNode = store(1_000);
+        DatabaseIdempotencyStore otherNode = store(5_000);
+        assertThat(slowNode.claim("key-1", "hash")).isTrue();
+        assertThat(otherNode.claim("key-1", "hash")).isTrue();
+        otherNode.save("key-1", response("{\"id\":2}", 5_000));
+
+        // when -  action or the behaviour that we are going test
+        slowNode.save("key-1", response("{\"id\":1}", 1_000));
+
+        // then - verify the output
+        StoredResponse stored = store(5_000).find("key-1");
+        assertThat(stored).isNotNull();
+        assertThat(new String(stored.getBody(), StandardCharsets.UTF_8)).isEqualTo("{\"id\":2}");
+        assertThat(slowNode.find("key-1").getBody()).isEqualTo(stored.getBody());
+    }
+
+    // JUnit test for a slow node releasing after its claim was taken over
+    @DisplayName("JUnit test for release method after the claim was taken over by another node")
+    @Test
+    public void givenClaimTakenOver_whenStaleOwnerReleases_thenNewClaimKept() {
+        // given - precondition or setup
+        DatabaseIdempotencyStore slowNode = store(1_000);
+        DatabaseIdempotencyStore otherNode = store(5_000);
+        slowNode.claim("key-1", "hash");
+        otherNode.claim("key-1", "hash");
+
+        // when -  action or the behaviour that we are going test
+        slowNode.release("key-1");
+
+        // then - verify the output
+        assertThat(repository.findById("key-1")).isPresent();
+        assertThat(store(5_500).claim("key-1", "hash")).isFalse();
+    }
+
+    // JUnit test for the owner completing its claim
+    @DisplayName("JUnit test for save method by the owner of the claim")
+    @Test
+    public void givenClaim_whenOwnerSaves_thenResponseReplayedByOtherNodes() {
+        // given - precondition or setup
+        DatabaseIdempotencyStore node = store(1_000);
+        node.claim("key-1", "hash");
+
+        // when -  action or the behaviour that we are going test
+        node.save("key-1", response("{\"id\":1}", 1_000));
+
+        // then - verify the output
+        StoredResponse stored = store(2_000).find("key-1");
+        assertThat(stored).isNotNull();
+        assertThat(stored.getStatus()).isEqualTo(201);
+        assertThat(stored.getRequestHash()).isEqualTo("hash");
+        assertThat(repository.findById("key-1").get().getOwner()).isNull();
+    }
+
+    private DatabaseIdempotencyStore store(long nowMillis) {
+        Clock clock = Clock.fixed(Instant.ofEpochMilli(nowMillis), ZoneOffset.UTC);
+        return new DatabaseIdempotencyStore(repository, new InMemoryIdempotencyStore(100, TTL, clock), TTL,
+                CLAIM_TIMEOUT, clock);
+    }
+
+    private static StoredResponse response(String body, long createdAt) {
+        return new StoredResponse(201, MediaType.APPLICATION_JSON_VALUE, body.getBytes(StandardCharsets.UTF_8),
+                "hash", createdAt);
+    }
+}
@@ -0,0 +1,244 @@
+package net.dd.spring.guide.springboot.idempotency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyFilterTest {
+
+    private InMemoryIdempotencyStore store;
+    private IdempotencyFilter filter;
+    private AtomicInteger invocations;
+    private FilterChain createEmployeeChain;
+
+    @BeforeEach
+    public void setup() {
+        store = new InMemoryIdempotencyStore(100, Duration.ofMinutes(5), Clock.systemUTC());
+        filter = new IdempotencyFilter(store, Duration.ofSeconds(1), Clock.systemUTC());
+        invocations = new AtomicInteger();
+        createEmployeeChain = (request, response) -> {
+            invocations.incrementAndGet();
+            HttpServletResponse httpResponse = (HttpServletResponse) response;
+            httpResponse.setStatus(201);
+            httpResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            httpResponse.getOutputStream().write("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    // JUnit test for replaying a stored response
+    @DisplayName("JUnit test for idempotency filter replaying the first response")
+    @Test
+    public void givenRepeatedIdempotencyKey_whenPost_thenResponseReplayedWithoutExecution() throws Exception {
+        // given - precondition or setup
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(createEmployeeRequest("key-1"), first, createEmployeeChain);
+
+        // when -  action or the behaviour that we are going test
+        MockHttpServletResponse replayed = new MockHttpServletResponse();
+        filter.doFilter(createEmployeeRequest("key-1"), replayed, createEmployeeChain);
+
+        // then - verify the output
+        assertThat(invocations.get()).isEqualTo(1);
+        assertThat(first.getContentAsString()).isEqualTo("{\"id\":1}");
+        assertThat(replayed.getStatus()).isEqualTo(201);
+        assertThat(replayed.getContentAsString()).isEqualTo("{\"id\":1}");
+        assertThat(replayed.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    // JUnit test for distinct keys
+    @DisplayName("JUnit test for idempotency filter executing requests with different keys")
+    @Test
+    public void givenDifferentIdempotencyKeys_whenPost_thenEachRequestExecuted() throws Exception {
+        // when -  action or the behaviour that we are going test
+        filter.doFilter(createEmployeeRequest("key-1"), new MockHttpServletResponse(), createEmployeeChain);
+        filter.doFilter(createEmployeeRequest("key-2"), new MockHttpServletResponse(), createEmployeeChain);
+
+        // then - verify the output
+        assertThat(invocations.get()).isEqualTo(2);
+        assertThat(store.size()).isEqualTo(2);
+    }
+
+    // JUnit test for reusing a key with another request
+    @DisplayName("JUnit test for idempotency filter rejecting a key reused with a different body")
+    @Test
+    public void givenKeyUsedForOtherBody_whenPost_thenUnprocessableEntity() throws Exception {
+        // given - precondition or setup
+        filter.doFilter(createEmployeeRequest("key-1", "{\"email\":\"a@example.com\"}"),
+                new MockHttpServletResponse(), createEmployeeChain);
+
+        // when -  action or the behaviour that we are going test
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(createEmployeeRequest("key-1", "{\"email\":\"b@example.com\"}"), response,
+                createEmployeeChain);
+
+        // then - verify the output
+        assertThat(invocations.get()).isEqualTo(1);
+        assertThat(response.getStatus()).isEqualTo(422);
+        assertThat(response.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+    }
+
+    // JUnit test for two simultaneous requests with one key
+    @DisplayName("JUnit test for idempotency filter executing concurrent duplicates once")
+    @Test
+    public void givenConcurrentDuplicates_whenPost_thenExecutedOnceAndBothAnswered() throws Exception {
+        // given - precondition or setup
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slowChain = (request, response) -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            createEmployeeChain.doFilter(request, response);
+        };
+        ExecutorService clients = Executors.newFixedThreadPool(2);
+        try {
+            MockHttpServletResponse first = new MockHttpServletResponse();
+            MockHttpServletResponse second = new MockHttpServletResponse();
+
+            // when -  action or the behaviour that we are going test
+            Future<?> firstDone = clients.submit(() -> {
+                filter.doFilter(createEmployeeRequest("key-1", "{}"), first, slowChain);
+                return null;
+            });
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<?> secondDone = clients.submit(() -> {
+                filter.doFilter(createEmployeeRequest("key-1", "{}"), second, slowChain);
+                return null;
+            });
+            Thread.sleep(100);
+            release.countDown();
+            firstDone.get(5, TimeUnit.SECONDS);
+            secondDone.get(5, TimeUnit.SECONDS);
+
+            // then - verify the output
+            assertThat(invocations.get()).isEqualTo(1);
+            assertThat(first.getStatus()).isEqualTo(201);
+            assertThat(second.getStatus()).isEqualTo(201);
+            assertThat(second.getContentAsString()).isEqualTo("{\"id\":1}");
+            assertThat(second.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    // JUnit test for a key claimed by another node
+    @DisplayName("JUnit test for idempotency filter waiting for a request running on another node")
+    @Test
+    public void givenKeyClaimedElsewhere_whenPost_thenWaitsAndReplaysWithoutExecution() throws Exception {
+        // given - precondition or setup
+        IdempotencyStore sharedStore = new IdempotencyStore() {
+            @Override
+            public StoredResponse find(String key) {
+                return store.find(key);
+            }
+
+            @Override
+            public boolean claim(String key, String requestHash) {
+                return false;
+            }
+
+            @Override
+            public void save(String key, StoredResponse response) {
+                store.save(key, response);
+            }
+        };
+        IdempotencyFilter otherNodeAware = new IdempotencyFilter(sharedStore, Duration.ofSeconds(2), Clock.systemUTC());
+        Thread otherNode = new Thread(() -> {
+            try {
+                Thread.sleep(150);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            store.save("key-1", new StoredResponse(201, MediaType.APPLICATION_JSON_VALUE,
+                    "{\"id\":7}".getBytes(StandardCharsets.UTF_8), System.currentTimeMillis()));
+        });
+        otherNode.start();
+
+        // when -  action or the behaviour that we are going test
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        otherNodeAware.doFilter(createEmployeeRequest("key-1"), response, createEmployeeChain);
+        otherNode.join();
+
+        // then - verify the output
+        assertThat(invocations.get()).isZero();
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(response.getContentAsString()).isEqualTo("{\"id\":7}");
+    }
+
+    // JUnit test for a body over the limit
+    @DisplayName("JUnit test for idempotency filter rejecting a body larger than the limit")
+    @Test
+    public void givenBodyOverLimit_whenPost_thenPayloadTooLargeWithoutExecution() throws Exception {
+        // given - precondition or setup
+        IdempotencyFilter limited = new IdempotencyFilter(store, Duration.ofSeconds(1), DataSize.ofBytes(16),
+                Clock.systemUTC());
+        // a chunked upload announces no length, the limit has to hold while reading
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/employees") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "key-1");
+        request.setContent("{\"email\":\"someone@example.com\"}".getBytes(StandardCharsets.UTF_8));
+
+        // when -  action or the behaviour that we are going test
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        limited.doFilter(request, response, createEmployeeChain);
+
+        // then - verify the output
+        assertThat(invocations.get()).isZero();
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(store.size()).isZero();
+    }
+
+    // JUnit test for the bounded store
+    @DisplayName("JUnit test for in memory store evicting least recently used keys")
+    @Test
+    public void givenFullStore_whenSave_thenEldestKeyEvicted() {
+        // given - precondition or setup
+        InMemoryIdempotencyStore boundedStore = new InMemoryIdempotencyStore(2, Duration.ofMinutes(5), Clock.systemUTC());
+        StoredResponse response = new StoredResponse(201, null, new byte[0], System.currentTimeMillis());
+
+        // when -  action or the behaviour that we are going test
+        boundedStore.save("a", response);
+        boundedStore.save("b", response);
+        boundedStore.save("c", response);
+
+        // then - verify the output
+        assertThat(boundedStore.find("a")).isNull();
+        assertThat(boundedStore.find("c")).isNotNull();
+    }
+
+    private static MockHttpServletRequest createEmployeeRequest(String idempotencyKey) {
+        return createEmployeeRequest(idempotencyKey, "");
+    }
+
+    private static MockHttpServletRequest createEmployeeRequest(String idempotencyKey, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/employees");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
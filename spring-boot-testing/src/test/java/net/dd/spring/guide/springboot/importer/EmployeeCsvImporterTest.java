@@ -0,0 +1,163 @@
+package net.dd.spring.guide.springboot.importer;
+
+import net.dd.spring.guide.springboot.model.Employee;
+import net.dd.spring.guide.springboot.repository.EmployeeBatchInserter;
+import net.dd.spring.guide.springboot.repository.EmployeeRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+
+class EmployeeCsvImporterTest {
+
+    // JUnit test for parsing a chunk of CSV lines
+    @DisplayName("JUnit test for parse method with valid and invalid rows")
+    @Test
+    public void givenMixedRows_whenParse_thenValidRowsAndErrorsWithLineNumbers() {
+        // given - precondition or setup
+        List<String> lines = List.of(
+                "Dipanjan,Das,das.dtx@hotmail.com",
+                "\"Stark, Jr\",Tony,tony@gmail.com",
+                "",
+                "Ramesh,Fadatare",
+                "Ram,Kumar,not-an-email");
+
+        // when -  action or the behaviour that we are going test
+        EmployeeCsvImporter.ParsedChunk chunk = EmployeeCsvImporter.parse(10, lines);
+
+        // then - verify the output
+        assertThat(chunk.rowCount).isEqualTo(4);
+        assertThat(chunk.employees).hasSize(2);
+        assertThat(chunk.employees.get(1).getFirstName()).isEqualTo("Stark, Jr");
+        assertThat(chunk.lines).containsExactly(10L, 11L);
+        assertThat(chunk.errors).extracting(RowError::getLine).containsExactly(13L, 14L);
+    }
+
+    // JUnit test for reading lines through the memory mapped reader
+    @DisplayName("JUnit test for MappedLineReader reading CRLF and unterminated lines")
+    @Test
+    public void givenFile_whenReadThroughMappedReader_thenAllLinesReturned(@TempDir Path directory) throws IOException {
+        // given - precondition or setup
+        Path file = directory.resolve("employees.csv");
+        Files.write(file, "firstName,lastName,email\r\nDipanjan,Das,das.dtx@hotmail.com\nTony,Stark,tony@gmail.com"
+                .getBytes(StandardCharsets.UTF_8));
+
+        // when -  action or the behaviour that we are going test
+        List<String> lines = new ArrayList<>();
+        try (MappedLineReader reader = new MappedLineReader(file, 64)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+
+        // then - verify the output
+        assertThat(lines).containsExactly("firstName,lastName,email",
+                "Dipanjan,Das,das.dtx@hotmail.com", "Tony,Stark,tony@gmail.com");
+    }
+
+    // JUnit test for skipping lines over the maximum length
+    @DisplayName("JUnit test for line sources with a line longer than the maximum")
+    @Test
+    public void givenOverlongLine_whenReadLine_thenLineSkippedAndNextLineReturned(@TempDir Path directory) throws IOException {
+        // given - precondition or setup
+        String content = "Dipanjan,Das,das.dtx@hotmail.com\n" + "x".repeat(100_000) + "\r\nTony,Stark,tony@gmail.com";
+        Path file = directory.resolve("employees.csv");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+
+        // when -  action or the behaviour that we are going test
+        List<String> mapped;
+        try (LineSource source = new MappedLineReader(file, 64)) {
+            mapped = readAll(source);
+        }
+        List<String> streamed;
+        try (LineSource source = LineSource.of(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), 64)) {
+            streamed = readAll(source);
+        }
+
+        // then - verify the output
+        assertThat(mapped).containsExactly("Dipanjan,Das,das.dtx@hotmail.com", null, "Tony,Stark,tony@gmail.com");
+        assertThat(streamed).isEqualTo(mapped);
+    }
+
+    // JUnit test for reporting over-long lines
+    @DisplayName("JUnit test for importStream method with a line longer than the maximum")
+    @Test
+    public void givenOverlongLine_whenImportStream_thenReportedAsRowError() throws IOException {
+        // given - precondition or setup
+        EmployeeCsvImporter importer = importer(mock(EmployeeBatchInserter.class));
+        String csv = "firstName,lastName,email\n" + "x".repeat(5000) + "\nTony,Stark,tony@gmail.com\n";
+
+        // when -  action or the behaviour that we are going test
+        ImportReport report = importer.importStream(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        // then - verify the output
+        assertThat(report.getRowsRead()).isEqualTo(2);
+        assertThat(report.getRowsImported()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(RowError::getLine).containsExactly(2L);
+    }
+
+    // JUnit test for a unique key violation from a concurrent insert
+    @DisplayName("JUnit test for importStream method with an email inserted concurrently")
+    @Test
+    public void givenConcurrentlyInsertedEmail_whenImportStream_thenOtherRowsImportedAndConflictReported() throws IOException {
+        // given - precondition or setup
+        EmployeeBatchInserter batchInserter = mock(EmployeeBatchInserter.class);
+        willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            if (employees.stream().anyMatch(employee -> employee.getEmail().equals("tony@gmail.com"))) {
+                throw new DuplicateKeyException("duplicate key tony@gmail.com");
+            }
+            return null;
+        }).given(batchInserter).insert(anyList(), anyInt());
+        EmployeeCsvImporter importer = importer(batchInserter);
+        String csv = "Dipanjan,Das,das.dtx@hotmail.com\nTony,Stark,tony@gmail.com\nRamesh,Fadatare,ramesh@gmail.com\n";
+
+        // when -  action or the behaviour that we are going test
+        ImportReport report = importer.importStream(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        // then - verify the output
+        assertThat(report.getRowsImported()).isEqualTo(2);
+        assertThat(report.getDuplicateRows()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(RowError::getLine).containsExactly(2L);
+    }
+
+    private static EmployeeCsvImporter importer(EmployeeBatchInserter batchInserter) {
+        ImportProperties properties = new ImportProperties();
+        properties.setParallelism(1);
+        properties.setMaxLineLength(64);
+        return new EmployeeCsvImporter(mock(EmployeeRepository.class), batchInserter,
+                mock(PlatformTransactionManager.class), properties, mock(ApplicationEventPublisher.class));
+    }
+
+    private static List<String> readAll(LineSource source) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (;;) {
+            try {
+                String line = source.readLine();
+                if (line == null) {
+                    return lines;
+                }
+                lines.add(line);
+            } catch (LineTooLongException e) {
+                lines.add(null);
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package net.dd.spring.guide.springboot.integraton;
+
+import net.dd.spring.guide.springboot.job.BulkUpdateJob;
+import net.dd.spring.guide.springboot.job.BulkUpdateJobRepository;
+import net.dd.spring.guide.springboot.job.BulkUpdateJobService;
+import net.dd.spring.guide.springboot.job.BulkUpdateOperation;
+import net.dd.spring.guide.springboot.job.BulkUpdateProperties;
+import net.dd.spring.guide.springboot.job.BulkUpdateRequest;
+import net.dd.spring.guide.springboot.job.BulkUpdateStatus;
+import net.dd.spring.guide.springboot.model.Employee;
+import net.dd.spring.guide.springboot.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "employee.jobs.throttle=0ms")
+public class BulkUpdateJobITest {
+    @Autowired
+    private BulkUpdateJobService bulkUpdateJobService;
+    @Autowired
+    private BulkUpdateJobRepository jobRepository;
+    @Autowired
+    private BulkUpdateProperties properties;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @BeforeEach
+    void setup() {
+        jobRepository.deleteAll();
+        employeeRepository.deleteAll();
+    }
+
+    //Junit test for a chunked email domain rewrite.
+    @DisplayName("Integration test for email domain rewrite job")
+    @Test
+    public void givenEmployeesOfOldDomain_whenRewriteEmailDomainJob_thenOnlyMatchingEmailsRewritten() throws Exception {
+        //Given - Precondition or setup.
+        for (int i = 0; i < 5; i++) {
+            employeeRepository.save(Employee.builder().firstName("First" + i).lastName("Last" + i)
+                    .email("employee" + i + "@Old.com").build());
+        }
+        employeeRepository.save(Employee.builder().firstName("Tony").lastName("Stark").email("tony@gmail.com").build());
+        BulkUpdateRequest request = new BulkUpdateRequest();
+        request.setOperation(BulkUpdateOperation.REWRITE_EMAIL_DOMAIN);
+        request.setFrom("old.com");
+        request.setTo("new.com");
+        request.setChunkSize(2);
+
+        //When - action or behaviour that we are going to test.
+        BulkUpdateJob job = bulkUpdateJobService.createJob(request);
+
+        //Then - verify the output
+        BulkUpdateJob finished = awaitFinished(job.getId());
+        assertThat(finished.getStatus()).isEqualTo(BulkUpdateStatus.COMPLETED);
+        assertThat(finished.getRowsUpdated()).isEqualTo(5);
+        List<Employee> employees = employeeRepository.findAll();
+        assertThat(employees).extracting(Employee::getEmail)
+                .containsExactlyInAnyOrder("employee0@new.com", "employee1@new.com", "employee2@new.com",
+                        "employee3@new.com", "employee4@new.com", "tony@gmail.com");
+        assertThat(employeeRepository.findByEmail("EMPLOYEE3@new.com")).isPresent();
+    }
+
+    //Junit test for rewrites onto emails that already exist.
+    @DisplayName("Integration test for email domain rewrite job skipping taken emails")
+    @Test
+    public void givenNewEmailAlreadyTaken_whenRewriteEmailDomainJob_thenRowSkippedAndJobCompletes() throws Exception {
+        //Given - Precondition or setup.
+        employeeRepository.save(Employee.builder().firstName("Tony").lastName("Stark").email("tony@old.com").build());
+        employeeRepository.save(Employee.builder().firstName("Bruce").lastName("Banner").email("bruce@old.com").build());
+        employeeRepository.save(Employee.builder().firstName("Anthony").lastName("Stark").email("Tony@new.com").build());
+        BulkUpdateRequest request = new BulkUpdateRequest();
+        request.setOperation(BulkUpdateOperation.REWRITE_EMAIL_DOMAIN);
+        request.setFrom("old.com");
+        request.setTo("new.com");
+
+        //When - action or behaviour that we are going to test.
+        BulkUpdateJob job = bulkUpdateJobService.createJob(request);
+
+        //Then - verify the output
+        BulkUpdateJob finished = awaitFinished(job.getId());
+        assertThat(finished.getStatus()).isEqualTo(BulkUpdateStatus.COMPLETED);
+        assertThat(finished.getRowsUpdated()).isEqualTo(1);
+        assertThat(finished.getRowsSkipped()).isEqualTo(1);
+        assertThat(employeeRepository.findAll()).extracting(Employee::getEmail)
+                .containsExactlyInAnyOrder("tony@old.com", "bruce@new.com", "Tony@new.com");
+    }
+
+    //Junit test for cancelling a job another node is running.
+    @DisplayName("Integration test for cancelling a running job")
+    @Test
+    public void givenRunningJob_whenCancel_thenCancelledAndStaleRunnerWriteRejected() {
+        //Given - Precondition or setup.
+        long now = System.currentTimeMillis();
+        BulkUpdateJob running = jobRepository.save(runningJob("other-node", now + 60_000, 0));
+        BulkUpdateJob runnerCopy = jobRepository.findById(running.getId()).orElseThrow();
+
+        //When - action or behaviour that we are going to test.
+        BulkUpdateJob cancelled = bulkUpdateJobService.cancelJob(running.getId());
+
+        //Then - verify the output
+        assertThat(cancelled.getStatus()).isEqualTo(BulkUpdateStatus.CANCELLED);
+        // the runner's chunk commit carries the version it read, so it cannot flip the job back
+        runnerCopy.setLastProcessedId(1);
+        assertThatThrownBy(() -> jobRepository.save(runnerCopy))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        bulkUpdateJobService.scheduleClaimableJobs();
+        assertThat(bulkUpdateJobService.getJob(running.getId()).getStatus()).isEqualTo(BulkUpdateStatus.CANCELLED);
+    }
+
+    //Junit test for resuming a job whose owner stopped.
+    @DisplayName("Integration test for resuming a job after its lease expired")
+    @Test
+    public void givenJobOfCrashedNode_whenLeaseExpired_thenResumedFromLastCommittedChunk() throws Exception {
+        //Given - Precondition or setup.
+        long firstId = 0;
+        for (int i = 0; i < 6; i++) {
+            // the crashed node had already rewritten the first two rows
+            String domain = i < 2 ? "new.com" : "old.com";
+            Employee saved = employeeRepository.save(Employee.builder().firstName("First" + i).lastName("Last" + i)
+                    .email("employee" + i + "@" + domain).build());
+            if (i == 0) {
+                firstId = saved.getId();
+            }
+        }
+        BulkUpdateJob crashed = runningJob("crashed-node", System.currentTimeMillis() - 1, firstId + 1);
+        crashed.setRowsUpdated(2);
+        crashed.setMaxId(employeeRepository.findMaxId());
+        crashed = jobRepository.save(crashed);
+
+        //When - action or behaviour that we are going to test.
+        bulkUpdateJobService.scheduleClaimableJobs();
+
+        //Then - verify the output
+        BulkUpdateJob finished = awaitFinished(crashed.getId());
+        assertThat(finished.getStatus()).isEqualTo(BulkUpdateStatus.COMPLETED);
+        assertThat(finished.getOwner()).isEqualTo(properties.getNodeId());
+        assertThat(finished.getRowsUpdated()).isEqualTo(6);
+        assertThat(employeeRepository.findAll()).extracting(Employee::getEmail)
+                .allMatch(email -> email.endsWith("@new.com"));
+    }
+
+    private BulkUpdateJob runningJob(String owner, long leaseUntil, long lastProcessedId) {
+        long now = System.currentTimeMillis();
+        return BulkUpdateJob.builder()
+                .operation(BulkUpdateOperation.REWRITE_EMAIL_DOMAIN)
+                .fromValue("old.com")
+                .toValue("new.com")
+                .status(BulkUpdateStatus.RUNNING)
+                .chunkSize(2)
+                .maxId(Long.MAX_VALUE)
+                .lastProcessedId(lastProcessedId)
+                .owner(owner)
+                .leaseUntil(leaseUntil)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    private BulkUpdateJob awaitFinished(long id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        BulkUpdateJob job = bulkUpdateJobService.getJob(id);
+        while (job.getStatus() == BulkUpdateStatus.PENDING || job.getStatus() == BulkUpdateStatus.RUNNING) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(20);
+            job = bulkUpdateJobService.getJob(id);
+        }
+        return job;
+    }
+}
@@ -0,0 +1,160 @@
+package net.dd.spring.guide.springboot.integraton;
+
+import net.dd.spring.guide.springboot.SpringBootTestingApplication;
+import net.dd.spring.guide.springboot.cache.EmployeeJsonCache;
+import net.dd.spring.guide.springboot.coherence.EmployeeChangeTailer;
+import net.dd.spring.guide.springboot.importer.EmployeeCsvImporter;
+import net.dd.spring.guide.springboot.importer.ImportReport;
+import net.dd.spring.guide.springboot.model.Employee;
+import net.dd.spring.guide.springboot.service.EmployeeService;
+import net.dd.spring.guide.springboot.snapshot.EmployeeSnapshotStore;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs two application instances against one shared in-memory database and checks that a
+ * write handled by one node reaches the caches of the other through the change table.
+ */
+public class CacheCoherenceITest {
+
+    private static final Duration MAX_DELAY = Duration.ofSeconds(5);
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode("node-a");
+        nodeB = startNode("node-b");
+        EmployeeSnapshotStore snapshotStore = nodeB.getBean(EmployeeSnapshotStore.class);
+        awaitUntil(snapshotStore::isReady);
+        // make sure node B tails from before the first write
+        nodeB.getBean(EmployeeChangeTailer.class).poll();
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    //Junit test for
+    @DisplayName("Integration test for snapshot coherence across nodes")
+    @Test
+    public void givenTwoNodes_whenNodeAWrites_thenNodeBSnapshotFollows() {
+        //Given - Precondition or setup.
+        EmployeeService serviceA = nodeA.getBean(EmployeeService.class);
+        EmployeeService serviceB = nodeB.getBean(EmployeeService.class);
+        Employee employee = serviceA.saveEmployee(Employee.builder()
+                .firstName("Dipanjan")
+                .lastName("Das")
+                .email("dipanjan@hotmail.com")
+                .build());
+        awaitUntil(() -> serviceB.getAllEmployees().stream().anyMatch(e -> e.getId() == employee.getId()));
+
+        //When - action or behaviour that we are going to test.
+        employee.setFirstName("Dip");
+        serviceA.updateEmployee(employee);
+
+        //Then - verify the output
+        awaitUntil(() -> serviceB.getAllEmployees().stream()
+                .anyMatch(e -> e.getId() == employee.getId() && "Dip".equals(e.getFirstName())));
+
+        //When - action or behaviour that we are going to test.
+        serviceA.deleteEmployee(employee.getId());
+
+        //Then - verify the output
+        awaitUntil(() -> serviceB.getAllEmployees().stream().noneMatch(e -> e.getId() == employee.getId()));
+    }
+
+    //Junit test for
+    @DisplayName("Integration test for JSON cache invalidation across nodes")
+    @Test
+    public void givenCachedJsonOnNodeB_whenNodeAUpdates_thenNodeBEntryEvicted() {
+        //Given - Precondition or setup.
+        EmployeeService serviceA = nodeA.getBean(EmployeeService.class);
+        EmployeeService serviceB = nodeB.getBean(EmployeeService.class);
+        EmployeeJsonCache jsonCacheB = nodeB.getBean(EmployeeJsonCache.class);
+        Employee employee = serviceA.saveEmployee(Employee.builder()
+                .firstName("Tony")
+                .lastName("Stark")
+                .email("tony@gmail.com")
+                .build());
+        awaitUntil(() -> serviceB.getAllEmployees().stream().anyMatch(e -> e.getId() == employee.getId()));
+        jsonCacheB.putEmployee(employee, jsonCacheB.stamp());
+        assertThat(jsonCacheB.getEmployee(employee.getId())).isNotNull();
+
+        //When - action or behaviour that we are going to test.
+        employee.setEmail("tony.stark@gmail.com");
+        serviceA.updateEmployee(employee);
+
+        //Then - verify the output
+        awaitUntil(() -> jsonCacheB.getEmployee(employee.getId()) == null);
+    }
+
+    //Junit test for imported rows reaching the caches of both nodes.
+    @DisplayName("Integration test for snapshot and JSON cache after a CSV import")
+    @Test
+    public void givenCachedPageOnNodeA_whenNodeAImports_thenPageEvictedAndBothSnapshotsFollow() throws IOException {
+        //Given - Precondition or setup.
+        EmployeeService serviceA = nodeA.getBean(EmployeeService.class);
+        EmployeeService serviceB = nodeB.getBean(EmployeeService.class);
+        EmployeeJsonCache jsonCacheA = nodeA.getBean(EmployeeJsonCache.class);
+        awaitUntil(nodeA.getBean(EmployeeSnapshotStore.class)::isReady);
+        jsonCacheA.putPage("all", List.of(), jsonCacheA.stamp());
+        String csv = "firstName,lastName,email\nBidisa,Das,bidisa@hotmail.com\nRam,Kumar,ram@gmail.com\n";
+
+        //When - action or behaviour that we are going to test.
+        ImportReport report = nodeA.getBean(EmployeeCsvImporter.class)
+                .importStream(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        //Then - verify the output
+        assertThat(report.getRowsImported()).isEqualTo(2);
+        assertThat(jsonCacheA.getPage("all")).isNull();
+        assertThat(serviceA.getAllEmployees()).extracting(Employee::getEmail)
+                .contains("bidisa@hotmail.com", "ram@gmail.com");
+        awaitUntil(() -> serviceB.getAllEmployees().stream().anyMatch(e -> "ram@gmail.com".equals(e.getEmail())));
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId) {
+        return new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:coherence;DB_CLOSE_DELAY=-1",
+                        "server.port=0",
+                        "spring.main.banner-mode=off",
+                        "employee.coherence.enabled=true",
+                        "employee.coherence.node-id=" + nodeId,
+                        "employee.coherence.poll-interval=PT0.05S",
+                        "employee.snapshot.enabled=true",
+                        "employee.json-cache.enabled=true")
+                .run();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + MAX_DELAY.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within " + MAX_DELAY);
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package net.dd.spring.guide.springboot.integraton;
+
+import net.dd.spring.guide.springboot.model.Employee;
+import net.dd.spring.guide.springboot.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static net.dd.spring.guide.springboot.budget.RequestBudgets.assertWithinBudget;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+public class EmployeeControllerBudgetITest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private List<Employee> employees;
+
+    @BeforeEach
+    void setup() {
+        employeeRepository.deleteAll();
+        employees = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            employees.add(Employee.builder().firstName("First" + i).lastName("Last" + i)
+                    .email("employee" + i + "@example.com").build());
+        }
+        employees = employeeRepository.saveAll(employees);
+    }
+
+    //Junit test for the allocation budget of get employee by id against the database.
+    @DisplayName("Budget test for get employee by id against the database")
+    @Test
+    public void givenSavedEmployee_whenGetById_thenWithinBudget() throws Exception {
+        //Given - Precondition or setup.
+        long id = employees.get(0).getId();
+        //When - action or behaviour that we are going to test.
+        //Then - verify the output
+        assertWithinBudget("it.get-by-id",
+                () -> mockMvc.perform(get("/api/employees/{id}", id)).andExpect(status().isOk()));
+    }
+
+    //Junit test for the allocation budget of get all employees against the database.
+    @DisplayName("Budget test for get all employees against the database")
+    @Test
+    public void givenSavedEmployees_whenGetAll_thenWithinBudget() throws Exception {
+        //Given - Precondition or setup.
+        //When - action or behaviour that we are going to test.
+        //Then - verify the output
+        assertWithinBudget("it.get-all-100",
+                () -> mockMvc.perform(get("/api/employees")).andExpect(status().isOk()));
+    }
+}
@@ -17,6 +17,7 @@ import org.springframework.test.web.servlet.ResultActions;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -163,4 +164,98 @@ public class EmployeeControllerITest {
         response.andExpect(status().isOk()).andDo(print());
     }
 
+    //Junit test for upsert employee by email.
+    @DisplayName("Integration test for upsert employee by email")
+    @Test
+    public void givenEmployeeController_whenUpsertEmployeeByEmail_thenCreatedThenUpdated() throws Exception {
+        //Given - Precondition or setup.
+        Employee employee = Employee.builder()
+                .firstName("Dipanjan")
+                .lastName("Das")
+                .build();
+        Employee renamed = Employee.builder()
+                .firstName("Bidisa")
+                .lastName("Das")
+                .build();
+
+        //When - action or behaviour that we are going to test.
+        ResultActions created = mockMvc.perform(put("/api/employees/by-email/{email}", "das.dtx@hotmail.com")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(employee)));
+        ResultActions updated = mockMvc.perform(put("/api/employees/by-email/{email}", "Das.Dtx@Hotmail.com")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(renamed)));
+
+        //Then - verify the output
+        created.andExpect(status().isCreated())
+                .andExpect(jsonPath("$.firstName", CoreMatchers.is("Dipanjan")));
+        updated.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.firstName", CoreMatchers.is("Bidisa")))
+                .andExpect(jsonPath("$.email", CoreMatchers.is("Das.Dtx@Hotmail.com")));
+        assertThat(employeeRepository.count()).isEqualTo(1);
+    }
+
+    //Junit test for batched upsert employees by email.
+    @DisplayName("Integration test for batched upsert employees by email")
+    @Test
+    public void givenExistingEmployee_whenUpsertEmployeesByEmail_thenCreatedFlagsInRequestOrder() throws Exception {
+        //Given - Precondition or setup.
+        employeeRepository.save(Employee.builder().firstName("Dipanjan").lastName("Das").email("das.dtx@hotmail.com").build());
+        List<Employee> employees = new ArrayList<>();
+        employees.add(Employee.builder().firstName("Satyaranjan").lastName("Das").email("das.satyaranjan@hotmail.com").build());
+        employees.add(Employee.builder().firstName("Dipu").lastName("Das").email("das.dtx@hotmail.com").build());
+
+        //When - action or behaviour that we are going to test.
+        ResultActions response = mockMvc.perform(put("/api/employees/by-email")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(employees)));
+
+        //Then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", CoreMatchers.is(2)))
+                .andExpect(jsonPath("$[0].created", CoreMatchers.is(true)))
+                .andExpect(jsonPath("$[0].employee.firstName", CoreMatchers.is("Satyaranjan")))
+                .andExpect(jsonPath("$[1].created", CoreMatchers.is(false)))
+                .andExpect(jsonPath("$[1].employee.firstName", CoreMatchers.is("Dipu")));
+        assertThat(employeeRepository.count()).isEqualTo(2);
+    }
+
+    //Junit test for filter and sort query by name prefix.
+    @DisplayName("Integration test for filter and sort query")
+    @Test
+    public void givenEmployeeObjects_whenQueryEmployees_thenPrefixMatchesInIndexOrder() throws Exception {
+        //Given - Precondition or setup.
+        List<Employee> employeeList = new ArrayList<>();
+        employeeList.add(Employee.builder().firstName("Dipanjan").lastName("Das").email("das.dipanjan@hotmail.com").build());
+        employeeList.add(Employee.builder().firstName("Bidisa").lastName("Das").email("das.bidisa@hotmail.com").build());
+        employeeList.add(Employee.builder().firstName("Tony").lastName("Stark").email("tony@gmail.com").build());
+        employeeRepository.saveAll(employeeList);
+
+        //When - action or behaviour that we are going to test.
+        ResultActions response = mockMvc.perform(get("/api/employees/query")
+                .param("lastName", "Da")
+                .param("limit", "10"));
+        ResultActions explain = mockMvc.perform(get("/api/employees/query/explain")
+                .param("lastName", "Da")
+                .param("limit", "10"));
+        ResultActions rejected = mockMvc.perform(get("/api/employees/query")
+                .param("lastName", "Da")
+                .param("sort", "email")
+                .param("limit", "10"));
+
+        //Then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", CoreMatchers.is(2)))
+                .andExpect(jsonPath("$[0].firstName", CoreMatchers.is("Bidisa")))
+                .andExpect(jsonPath("$[1].firstName", CoreMatchers.is("Dipanjan")));
+        explain.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.index", CoreMatchers.is("idx_employees_last_first")))
+                .andExpect(jsonPath("$.plan.size()", CoreMatchers.is(1)));
+        rejected.andExpect(status().isBadRequest());
+    }
+
 }
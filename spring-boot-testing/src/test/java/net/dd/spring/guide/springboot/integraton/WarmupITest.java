@@ -0,0 +1,40 @@
+package net.dd.spring.guide.springboot.integraton;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// the seed rows are inserted before the runners, backfill first and warmup last
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"employee.warmup.enabled=true", "employee.warmup.iterations=10",
+                "spring.jpa.defer-datasource-initialization=true",
+                "spring.sql.init.data-locations=classpath:warmup-employees.sql"})
+public class WarmupITest {
+    @Autowired
+    private ApplicationAvailability applicationAvailability;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    //Junit test for warmup over HTTP against seeded employees.
+    @DisplayName("Integration test for warmup before readiness")
+    @Test
+    public void givenWarmupEnabled_whenApplicationStarted_thenWarmedUpAndAcceptingTraffic() {
+        //Given - Precondition or setup.
+        //When - action or behaviour that we are going to test.
+        ReadinessState readinessState = applicationAvailability.getReadinessState();
+        //Then - verify the output
+        assertThat(readinessState).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+        assertThat(meterRegistry.get("employee.warmup.iterations").gauge().value()).isEqualTo(10);
+        assertThat(meterRegistry.get("employee.warmup.failed-requests").gauge().value()).isZero();
+        assertThat(meterRegistry.get("employee.warmup.duration").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("http.server.requests").tag("uri", "/api/employees/{id}").tag("status", "200")
+                .timers().stream().mapToLong(Timer::count).sum()).isEqualTo(20);
+    }
+}
@@ -0,0 +1,50 @@
+package net.dd.spring.guide.springboot.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JfrEventInterceptorTest {
+
+    // JUnit test for query events recorded with row count and query name
+    @DisplayName("JUnit test for invoke method while recording")
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenRecording_whenRepositoryCalled_thenQueryEventCommitted(@TempDir Path tempDir) throws Exception {
+        // given - precondition or setup
+        ProxyFactory proxyFactory = new ProxyFactory(new ArrayList<>(List.of(1, 2, 3)));
+        proxyFactory.addAdvice(JfrEventInterceptor.repository());
+        List<Integer> repository = (List<Integer>) proxyFactory.getProxy();
+        Path file = tempDir.resolve("test.jfr");
+
+        // when -  action or the behaviour that we are going test
+        repository.subList(0, 1);
+        try (Recording recording = new Recording()) {
+            recording.enable(EmployeeQueryEvent.class);
+            recording.start();
+            repository.subList(0, 2);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // then - verify the output
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("net.dd.employee.Query"))
+                .collect(Collectors.toList());
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getString("query")).isEqualTo("subList");
+        assertThat(events.get(0).getInt("rows")).isEqualTo(2);
+        assertThat(events.get(0).getBoolean("failed")).isFalse();
+    }
+}
@@ -0,0 +1,31 @@
+package net.dd.spring.guide.springboot.jfr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JfrRecordingManagerTest {
+
+    // JUnit test for the events kept out of downloadable recordings
+    @DisplayName("JUnit test for recording settings disabling sensitive events")
+    @Test
+    public void givenProfileSettings_whenSettings_thenEnvironmentAndPropertiesDisabled() throws Exception {
+        // given - precondition or setup
+        JfrProperties properties = new JfrProperties();
+        properties.setSettings("profile");
+        JfrRecordingManager manager = new JfrRecordingManager(properties);
+
+        // when -  action or the behaviour that we are going test
+        Map<String, String> settings = manager.settings();
+
+        // then - verify the output
+        assertThat(settings).containsEntry("jdk.InitialEnvironmentVariable#enabled", "false")
+                .containsEntry("jdk.InitialSystemProperty#enabled", "false")
+                .containsEntry("jdk.JVMInformation#enabled", "false")
+                .containsEntry("jdk.SystemProcess#enabled", "false");
+        assertThat(settings).containsKey("jdk.ExecutionSample#enabled");
+    }
+}
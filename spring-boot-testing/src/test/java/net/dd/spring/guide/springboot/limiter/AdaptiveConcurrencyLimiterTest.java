@@ -0,0 +1,93 @@
+package net.dd.spring.guide.springboot.limiter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(50);
+
+    // JUnit test for request shedding at the limit
+    @DisplayName("JUnit test for tryAcquire rejecting requests above the limit")
+    @Test
+    public void givenSaturatedLimiter_whenTryAcquire_thenRejected() {
+        // given - precondition or setup
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("read", 2, 1, 10, 0.2, 100);
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        // when -  action or the behaviour that we are going test
+        boolean acquired = limiter.tryAcquire();
+
+        // then - verify the output
+        assertThat(acquired).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+        assertThat(limiter.getRejectedCount()).isEqualTo(1);
+    }
+
+    // JUnit test for limit growth under stable latency
+    @DisplayName("JUnit test for limit growing while latency stays at baseline")
+    @Test
+    public void givenStableLatency_whenReleasingAtLimit_thenLimitGrows() {
+        // given - precondition or setup
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("read", 4, 1, 100, 0.5, 100);
+
+        // when -  action or the behaviour that we are going test
+        for (int i = 0; i < 20; i++) {
+            saturateAndRelease(limiter, FAST);
+        }
+
+        // then - verify the output
+        assertThat(limiter.getLimit()).isGreaterThan(4);
+    }
+
+    // JUnit test for limit shrinking when latency rises
+    @DisplayName("JUnit test for limit shrinking when latency rises above baseline")
+    @Test
+    public void givenRisingLatency_whenReleasing_thenLimitShrinks() {
+        // given - precondition or setup
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("read", 20, 1, 100, 0.5, 1000);
+        saturateAndRelease(limiter, FAST);
+        int limitAtBaseline = limiter.getLimit();
+
+        // when -  action or the behaviour that we are going test
+        for (int i = 0; i < 10; i++) {
+            saturateAndRelease(limiter, SLOW);
+        }
+
+        // then - verify the output
+        assertThat(limiter.getLimit()).isLessThan(limitAtBaseline);
+    }
+
+    // JUnit test for back off on dropped requests
+    @DisplayName("JUnit test for limit backing off when requests are dropped")
+    @Test
+    public void givenDroppedRequests_whenReleasing_thenLimitBacksOffToMinimum() {
+        // given - precondition or setup
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("write", 10, 2, 100, 0.2, 100);
+
+        // when -  action or the behaviour that we are going test
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, true);
+        }
+
+        // then - verify the output
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    private static void saturateAndRelease(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(rttNanos, false);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package net.dd.spring.guide.springboot.limiter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private final AdaptiveConcurrencyLimiter read = new AdaptiveConcurrencyLimiter("read", 1, 1, 10, 0.2, 100);
+
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limiters(), 1);
+
+    // JUnit test for async requests
+    @DisplayName("JUnit test for doFilter method holding the permit until async processing completes")
+    @Test
+    public void givenAsyncRequest_whenDoFilter_thenPermitReleasedOnComplete() throws Exception {
+        // given - precondition or setup
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/async/employees/1");
+        request.setAsyncSupported(true);
+
+        // when -  action or the behaviour that we are going test
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        int inFlightWhileAsync = read.getInFlight();
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/employees/2"), rejected, (req, res) -> { });
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+
+        // then - verify the output
+        assertThat(inFlightWhileAsync).isEqualTo(1);
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(read.getInFlight()).isZero();
+    }
+
+    // JUnit test for blocking requests and the SSE feed
+    @DisplayName("JUnit test for doFilter method with a blocking request and the change stream")
+    @Test
+    public void givenBlockingRequestAndStream_whenDoFilter_thenPermitReleasedAndStreamNotLimited() throws Exception {
+        // given - precondition or setup
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/employees/1");
+        MockHttpServletRequest stream = new MockHttpServletRequest("GET", "/api/employees/stream");
+        stream.setAsyncSupported(true);
+
+        // when -  action or the behaviour that we are going test
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> { });
+        int inFlightAfterRequest = read.getInFlight();
+        filter.doFilter(stream, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        // then - verify the output
+        assertThat(inFlightAfterRequest).isZero();
+        assertThat(read.getInFlight()).isZero();
+        assertThat(read.getAcceptedCount()).isEqualTo(1);
+    }
+
+    private EndpointLimiters limiters() {
+        Map<EndpointClass, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(EndpointClass.class);
+        limiters.put(EndpointClass.READ, read);
+        limiters.put(EndpointClass.WRITE, new AdaptiveConcurrencyLimiter("write", 1, 1, 10, 0.2, 100));
+        limiters.put(EndpointClass.LIST, new AdaptiveConcurrencyLimiter("list", 1, 1, 10, 0.2, 100));
+        limiters.put(EndpointClass.HEAVY, new AdaptiveConcurrencyLimiter("heavy", 1, 1, 10, 0.2, 100));
+        return new EndpointLimiters(limiters);
+    }
+}
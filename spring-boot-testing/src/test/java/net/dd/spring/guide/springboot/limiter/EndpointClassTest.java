@@ -0,0 +1,78 @@
+package net.dd.spring.guide.springboot.limiter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EndpointClassTest {
+
+    // JUnit test for point reads, writes and lists
+    @DisplayName("JUnit test for of method with point reads, writes and list requests")
+    @Test
+    public void givenCheapRequests_whenOf_thenReadWriteOrList() {
+        // when -  action or the behaviour that we are going test
+        EndpointClass byId = EndpointClass.of(request("GET", "/api/employees/1"));
+        EndpointClass update = EndpointClass.of(request("PUT", "/api/employees/1"));
+        EndpointClass all = EndpointClass.of(request("GET", "/api/employees"));
+        MockHttpServletRequest page = request("GET", "/api/async/employees/");
+        page.setParameter("page", "0");
+
+        // then - verify the output
+        assertThat(byId).isEqualTo(EndpointClass.READ);
+        assertThat(update).isEqualTo(EndpointClass.WRITE);
+        assertThat(all).isEqualTo(EndpointClass.LIST);
+        assertThat(EndpointClass.of(page)).isEqualTo(EndpointClass.LIST);
+    }
+
+    // JUnit test for filtered queries and their plans
+    @DisplayName("JUnit test for of method with query and explain requests")
+    @Test
+    public void givenQueryOrExplain_whenOf_thenHeavy() {
+        // when -  action or the behaviour that we are going test
+        EndpointClass query = EndpointClass.of(request("GET", "/api/employees/query"));
+        EndpointClass explain = EndpointClass.of(request("GET", "/api/employees/query/explain"));
+
+        // then - verify the output
+        assertThat(query).isEqualTo(EndpointClass.HEAVY);
+        assertThat(explain).isEqualTo(EndpointClass.HEAVY);
+    }
+
+    // JUnit test for id lookups by size
+    @DisplayName("JUnit test for of method with id lookups of different sizes")
+    @Test
+    public void givenIdLookups_whenOf_thenFewIdsReadAndManyIdsHeavy() {
+        // given - precondition or setup
+        MockHttpServletRequest few = request("GET", "/api/employees");
+        few.setParameter("ids", "1,2,3");
+        MockHttpServletRequest many = request("GET", "/api/employees");
+        many.setParameter("ids", ids(EndpointClass.MAX_READ_IDS + 1));
+        MockHttpServletRequest repeated = request("GET", "/api/async/employees");
+        repeated.setParameter("ids", ids(EndpointClass.MAX_READ_IDS).split(","));
+        repeated.addParameter("ids", "1000");
+
+        // when -  action or the behaviour that we are going test
+        EndpointClass fewIds = EndpointClass.of(few);
+        EndpointClass manyIds = EndpointClass.of(many);
+        EndpointClass repeatedIds = EndpointClass.of(repeated);
+        EndpointClass posted = EndpointClass.of(request("POST", "/api/employees/lookup"));
+
+        // then - verify the output
+        assertThat(fewIds).isEqualTo(EndpointClass.READ);
+        assertThat(manyIds).isEqualTo(EndpointClass.HEAVY);
+        assertThat(repeatedIds).isEqualTo(EndpointClass.HEAVY);
+        assertThat(posted).isEqualTo(EndpointClass.HEAVY);
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        return new MockHttpServletRequest(method, uri);
+    }
+
+    private static String ids(int count) {
+        return LongStream.rangeClosed(1, count).mapToObj(Long::toString).collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,122 @@
+package net.dd.spring.guide.springboot.pool;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the sizer with synthetic samples, so the decisions do not depend on timing; only the
+ * smoke test runs queries against an embedded H2 pool.
+ */
+class AdaptivePoolSizerTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private HikariDataSource dataSource;
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptivePoolSizer sizer;
+
+    @BeforeEach
+    public void setup() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:pool-sizing;DB_CLOSE_DELAY=-1");
+        dataSource.setPoolName("pool-sizing-test");
+        dataSource.setMaximumPoolSize(2);
+        dataSource.setMinimumIdle(2);
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource.setMetricRegistry(meterRegistry);
+        sizer = new AdaptivePoolSizer(dataSource, meterRegistry,
+                new PoolSizingPolicy(2, 8, 5 * MILLI, 0.5, 2.0));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    // JUnit test for growing the pool while callers wait
+    @DisplayName("JUnit test for apply method with callers waiting for connections")
+    @Test
+    public void givenCallersWaiting_whenApply_thenPoolGrows() {
+        // given - precondition or setup
+        PoolSample sample = sample(100, 20 * MILLI, 10 * MILLI, 2, 4);
+
+        // when -  action or the behaviour that we are going test
+        sizer.apply(sample);
+
+        // then - verify the output
+        assertThat(dataSource.getHikariConfigMXBean().getMaximumPoolSize()).isEqualTo(3);
+        assertThat(sizer.getDecisions()).containsEntry(PoolSizingPolicy.Action.GROW, 1L);
+        assertThat((double) sizer.report().get("averageWaitMillis")).isEqualTo(20.0);
+    }
+
+    // JUnit test for holding the size when queries slow down
+    @DisplayName("JUnit test for apply method with queries slower than their baseline")
+    @Test
+    public void givenSlowQueries_whenApply_thenPoolNotGrownAndReportBlamesDatabase() {
+        // given - precondition or setup
+        sizer.apply(sample(100, 0, 2 * MILLI, 1, 0));
+
+        // when -  action or the behaviour that we are going test
+        sizer.apply(sample(100, 20 * MILLI, 10 * MILLI, 2, 4));
+
+        // then - verify the output
+        assertThat(dataSource.getHikariConfigMXBean().getMaximumPoolSize()).isEqualTo(2);
+        assertThat(sizer.getDecisions()).containsEntry(PoolSizingPolicy.Action.DATABASE_BOUND, 1L);
+        Map<?, ?> recommended = (Map<?, ?>) sizer.report().get("recommended");
+        assertThat((String) recommended.get("note")).contains("slow queries");
+    }
+
+    // JUnit test for the static recommendation
+    @DisplayName("JUnit test for report method")
+    @Test
+    public void givenObservedLoad_whenReport_thenRecommendsPoolSize() {
+        // given - precondition or setup: 100 acquires held 10 ms each in one second is 1 connection in use
+        sizer.apply(sample(100, 0, 10 * MILLI, 1, 0));
+        sizer.apply(sample(100, 0, 20 * MILLI, 2, 0));
+
+        // when -  action or the behaviour that we are going test
+        Map<String, Object> report = sizer.report();
+
+        // then - verify the output
+        assertThat((long) report.get("acquires")).isEqualTo(200);
+        assertThat((double) report.get("peakInUse")).isEqualTo(2.0);
+        Map<?, ?> recommended = (Map<?, ?>) report.get("recommended");
+        assertThat((int) recommended.get("maximumPoolSize")).isEqualTo(3);
+        assertThat((int) recommended.get("minimumIdle")).isEqualTo(2);
+    }
+
+    // JUnit test for sampling a live pool
+    @DisplayName("JUnit test for adjust method against a live pool")
+    @Test
+    public void givenQueriesRun_whenAdjust_thenIntervalRecorded() {
+        // given - precondition or setup
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (int i = 0; i < 5; i++) {
+            jdbcTemplate.queryForObject("select 1", Integer.class);
+        }
+
+        // when -  action or the behaviour that we are going test
+        sizer.adjust();
+
+        // then - verify the output
+        assertThat((long) sizer.report().get("acquires")).isGreaterThanOrEqualTo(5);
+        assertThat(sizer.getDecisions().values().stream().mapToLong(Long::longValue).sum()).isEqualTo(1);
+    }
+
+    private static PoolSample sample(long acquires, long averageWaitNanos, long averageUsageNanos,
+                                     int active, int pending) {
+        return new PoolSample(SECOND, acquires, acquires * averageWaitNanos, acquires * averageUsageNanos,
+                active, pending);
+    }
+}
@@ -0,0 +1,99 @@
+package net.dd.spring.guide.springboot.pool;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PoolSizingPolicyTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private PoolSizingPolicy policy;
+
+    @BeforeEach
+    public void setup() {
+        policy = new PoolSizingPolicy(4, 20, 5 * MILLI, 0.5, 2.0);
+    }
+
+    // JUnit test for growing a saturated pool
+    @DisplayName("JUnit test for decide method with waiting callers")
+    @Test
+    public void givenCallersWaiting_whenDecide_thenGrowByAQuarter() {
+        // given - precondition or setup
+        PoolSample sample = sample(1000, 20 * MILLI, 2 * MILLI, 8, 3);
+
+        // when -  action or the behaviour that we are going test
+        PoolSizingPolicy.Decision decision = policy.decide(8, sample);
+
+        // then - verify the output
+        assertThat(decision.getAction()).isEqualTo(PoolSizingPolicy.Action.GROW);
+        assertThat(decision.getSize()).isEqualTo(10);
+    }
+
+    // JUnit test for the upper bound
+    @DisplayName("JUnit test for decide method at the maximum size")
+    @Test
+    public void givenSaturatedPoolAtMax_whenDecide_thenPoolBound() {
+        // when -  action or the behaviour that we are going test
+        PoolSizingPolicy.Decision decision = policy.decide(20, sample(1000, 20 * MILLI, 2 * MILLI, 20, 5));
+
+        // then - verify the output
+        assertThat(decision.getAction()).isEqualTo(PoolSizingPolicy.Action.POOL_BOUND);
+        assertThat(decision.getSize()).isEqualTo(20);
+    }
+
+    // JUnit test for slow queries not growing the pool
+    @DisplayName("JUnit test for decide method with slowed down queries")
+    @Test
+    public void givenQueriesSlowerThanBaseline_whenDecide_thenDatabaseBound() {
+        // given - precondition or setup
+        policy.decide(8, sample(1000, MILLI, 2 * MILLI, 3, 0));
+
+        // when -  action or the behaviour that we are going test
+        PoolSizingPolicy.Decision decision = policy.decide(8, sample(1000, 50 * MILLI, 20 * MILLI, 8, 6));
+
+        // then - verify the output
+        assertThat(decision.getAction()).isEqualTo(PoolSizingPolicy.Action.DATABASE_BOUND);
+        assertThat(decision.getSize()).isEqualTo(8);
+        assertThat(policy.getBaselineUsageNanos()).isEqualTo(2 * MILLI);
+    }
+
+    // JUnit test for shrinking a mostly idle pool
+    @DisplayName("JUnit test for decide method with a mostly idle pool")
+    @Test
+    public void givenLowUtilization_whenDecide_thenShrinkByOne() {
+        // given - precondition or setup: 1000 acquires held 2 ms each in one second is 2 connections in use
+        PoolSample sample = sample(1000, MILLI / 10, 2 * MILLI, 2, 0);
+
+        // when -  action or the behaviour that we are going test
+        PoolSizingPolicy.Decision decision = policy.decide(10, sample);
+
+        // then - verify the output
+        assertThat(sample.getMeanInUse()).isEqualTo(2.0);
+        assertThat(decision.getAction()).isEqualTo(PoolSizingPolicy.Action.SHRINK);
+        assertThat(decision.getSize()).isEqualTo(9);
+    }
+
+    // JUnit test for the lower bound
+    @DisplayName("JUnit test for decide method at the minimum size")
+    @Test
+    public void givenIdlePoolAtMin_whenDecide_thenHold() {
+        // when -  action or the behaviour that we are going test
+        PoolSizingPolicy.Decision decision = policy.decide(4, sample(0, 0, 0, 0, 0));
+
+        // then - verify the output
+        assertThat(decision.getAction()).isEqualTo(PoolSizingPolicy.Action.HOLD);
+        assertThat(decision.getSize()).isEqualTo(4);
+    }
+
+    private static PoolSample sample(long acquires, long averageWaitNanos, long averageUsageNanos,
+                                     int active, int pending) {
+        return new PoolSample(SECOND, acquires, acquires * averageWaitNanos, acquires * averageUsageNanos,
+                active, pending);
+    }
+}
@@ -0,0 +1,74 @@
+package net.dd.spring.guide.springboot.repository;
+
+import net.dd.spring.guide.springboot.model.EmailNormalizer;
+import net.dd.spring.guide.springboot.model.Employee;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+@DataJpaTest
+class EmployeeEmailBackfillTest {
+    @Autowired
+    private EmployeeRepository mRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    private EmployeeEmailBackfill backfill;
+
+    @BeforeEach
+    public void setup() {
+        //Given -> Precondition or setup.
+        mRepository.deleteAll();
+        backfill = new EmployeeEmailBackfill(jdbcTemplate, new TransactionTemplate(transactionManager));
+    }
+
+    //Junit test for backfilling rows written before the normalized email columns existed.
+    @DisplayName("Junit test for backfill of normalized email")
+    @Test
+    public void givenLegacyRows_whenBackfill_thenFoundByEmail() {
+        //Given - Precondition or setup.
+        insertLegacy("Dipanjan", " Dipanjan@HOTMAIL.com");
+        insertLegacy("Ram", "ram@gmail.com");
+        //When - action or behaviour that we are going to test.
+        backfill.run(new DefaultApplicationArguments());
+        //Then - verify the output
+        Optional<Employee> employee = mRepository.findByEmail("dipanjan@hotmail.com");
+        assertThat(employee).isPresent();
+        assertThat(employee.get().getFirstName()).isEqualTo("Dipanjan");
+        assertThat(mRepository.findByEmail("RAM@gmail.com")).isPresent();
+        assertThat(jdbcTemplate.queryForObject(
+                "select email_hash from tbl_employees where first_name = 'Dipanjan'", Long.class))
+                .isEqualTo(EmailNormalizer.hash("dipanjan@hotmail.com"));
+    }
+
+    //Junit test for backfill leaving already covered rows alone.
+    @DisplayName("Junit test for backfill skipping rows that already have a hash")
+    @Test
+    public void givenRowWithHash_whenBackfill_thenRowUntouched() {
+        //Given - Precondition or setup.
+        jdbcTemplate.update("insert into tbl_employees (first_name, last_name, email, email_normalized, email_hash) "
+                + "values ('Dipanjan', 'Das', 'dipanjan@hotmail.com', 'dipanjan@hotmail.com', 42)");
+        //When - action or behaviour that we are going to test.
+        backfill.run(new DefaultApplicationArguments());
+        //Then - verify the output
+        assertThat(jdbcTemplate.queryForObject(
+                "select email_hash from tbl_employees where first_name = 'Dipanjan'", Long.class)).isEqualTo(42L);
+    }
+
+    private void insertLegacy(String firstName, String email) {
+        jdbcTemplate.update("insert into tbl_employees (first_name, last_name, email) values (?, 'Das', ?)",
+                firstName, email);
+    }
+}
@@ -0,0 +1,97 @@
+package net.dd.spring.guide.springboot.repository;
+
+import net.dd.spring.guide.springboot.model.EmailNormalizer;
+import net.dd.spring.guide.springboot.model.Employee;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+// DDL commits implicitly, so these tests run outside the per-test rollback
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmployeeEmailIndexMigrationTest {
+    @Autowired
+    private EmployeeRepository mRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    private EmployeeEmailIndexMigration migration;
+
+    @BeforeEach
+    public void setup() {
+        //Given -> Precondition or setup.
+        mRepository.deleteAll();
+        migration = new EmployeeEmailIndexMigration(jdbcTemplate, new TransactionTemplate(transactionManager));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        mRepository.deleteAll();
+        if (!migration.hasUniqueIndex()) {
+            migration.run(new DefaultApplicationArguments());
+        }
+    }
+
+    //Junit test for the schema generated unique index being recognised.
+    @DisplayName("Junit test for migration leaving an existing unique index alone")
+    @Test
+    public void givenUniqueIndex_whenMigrate_thenNothingChanged() {
+        //Given - Precondition or setup.
+        assertThat(migration.hasUniqueIndex()).isTrue();
+        //When - action or behaviour that we are going to test.
+        migration.run(new DefaultApplicationArguments());
+        //Then - verify the output
+        assertThat(migration.hasUniqueIndex()).isTrue();
+    }
+
+    //Junit test for deduplicating rows before the unique index is created.
+    @DisplayName("Junit test for migration quarantining duplicate emails and adding the index")
+    @Test
+    public void givenDuplicateEmailsWithoutIndex_whenMigrate_thenOldestKeptAndIndexCreated() {
+        //Given - Precondition or setup.
+        dropUniqueIndex();
+        insert("Dipanjan", "dipanjan@hotmail.com");
+        insert("Dipu", "Dipanjan@Hotmail.com");
+        //When - action or behaviour that we are going to test.
+        migration.run(new DefaultApplicationArguments());
+        //Then - verify the output
+        assertThat(migration.hasUniqueIndex()).isTrue();
+        Optional<Employee> employee = mRepository.findByEmail("DIPANJAN@hotmail.com");
+        assertThat(employee).isPresent();
+        assertThat(employee.get().getFirstName()).isEqualTo("Dipanjan");
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from tbl_employees where email_normalized is null", Integer.class)).isEqualTo(1);
+        assertThatThrownBy(() -> insert("Bidisa", "dipanjan@HOTMAIL.com"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private void dropUniqueIndex() {
+        jdbcTemplate.execute("alter table tbl_employees drop constraint if exists "
+                + EmployeeEmailIndexMigration.INDEX_NAME);
+        jdbcTemplate.execute("drop index if exists " + EmployeeEmailIndexMigration.INDEX_NAME);
+        assertThat(migration.hasUniqueIndex()).isFalse();
+    }
+
+    private void insert(String firstName, String email) {
+        String normalized = EmailNormalizer.normalize(email);
+        jdbcTemplate.update("insert into tbl_employees (first_name, last_name, email, email_normalized, email_hash) "
+                + "values (?, 'Das', ?, ?, ?)", firstName, email, normalized, EmailNormalizer.hash(normalized));
+    }
+}
@@ -0,0 +1,85 @@
+package net.dd.spring.guide.springboot.repository;
+
+import net.dd.spring.guide.springboot.exception.InvalidRequestException;
+import net.dd.spring.guide.springboot.model.EmployeeQuery;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmployeeQueryPlannerTest {
+
+    // JUnit test for a prefix filter sorted along its index
+    @DisplayName("JUnit test for plan method with name prefixes")
+    @Test
+    public void givenNamePrefixes_whenPlan_thenLastFirstIndexAndMatchingSort() {
+        // when -  action or the behaviour that we are going test
+        EmployeeQueryPlan plan = EmployeeQueryPlanner.plan(new EmployeeQuery("B", "Da", null, "lastName,desc", 20));
+
+        // then - verify the output
+        assertThat(plan.getIndex()).isEqualTo("idx_employees_last_first");
+        assertThat(plan.getSort()).isEqualTo(Sort.by(Sort.Direction.DESC, "lastName", "firstName", "id"));
+        assertThat(plan.getSql()).isEqualTo("select id, first_name, last_name, email from tbl_employees"
+                + " where last_name like ? escape '!' and first_name like ? escape '!'"
+                + " order by last_name desc, first_name desc, id desc limit ?");
+        assertThat(plan.getSqlArguments()).containsExactly("Da%", "B%", 20);
+    }
+
+    // JUnit test for email prefixes
+    @DisplayName("JUnit test for plan method with an email prefix")
+    @Test
+    public void givenEmailPrefixWithWildcards_whenPlan_thenNormalizedAndEscaped() {
+        // when -  action or the behaviour that we are going test
+        EmployeeQueryPlan plan = EmployeeQueryPlanner.plan(new EmployeeQuery(null, null, " Das_D%", null, 10));
+
+        // then - verify the output
+        assertThat(plan.getIndex()).isEqualTo("uk_employees_email_normalized");
+        assertThat(plan.getSort()).isEqualTo(Sort.by("emailNormalized", "id"));
+        assertThat(plan.getSqlArguments()).containsExactly("das!_d!%%", 10);
+    }
+
+    // JUnit test for name prefix normalization
+    @DisplayName("JUnit test for plan method with padded name prefixes")
+    @Test
+    public void givenPaddedNamePrefix_whenPlan_thenTrimmedButCaseKept() {
+        // when -  action or the behaviour that we are going test
+        EmployeeQueryPlan plan = EmployeeQueryPlanner.plan(new EmployeeQuery(" Bi ", null, null, null, 10));
+
+        // then - verify the output
+        assertThat(plan.getIndex()).isEqualTo("idx_employees_first_name");
+        assertThat(plan.getSqlArguments()).containsExactly("Bi%", 10);
+    }
+
+    // JUnit test for sorting without filters
+    @DisplayName("JUnit test for plan method without filters")
+    @Test
+    public void givenNoFilters_whenPlan_thenAnyIndexedSortAndCappedLimit() {
+        // when -  action or the behaviour that we are going test
+        EmployeeQueryPlan byId = EmployeeQueryPlanner.plan(new EmployeeQuery(null, null, null, null, 10_000));
+        EmployeeQueryPlan byFirstName = EmployeeQueryPlanner.plan(new EmployeeQuery(null, null, null, "firstName", 5));
+
+        // then - verify the output
+        assertThat(byId.getIndex()).isEqualTo("PRIMARY");
+        assertThat(byId.getLimit()).isEqualTo(EmployeeQueryPlanner.MAX_LIMIT);
+        assertThat(byId.isLimitCapped()).isTrue();
+        assertThat(byFirstName.getIndex()).isEqualTo("idx_employees_first_name");
+    }
+
+    // JUnit test for combinations that would need a filesort or a full scan
+    @DisplayName("JUnit test for plan method with combinations no index serves")
+    @Test
+    public void givenUnindexedCombinations_whenPlan_thenRejected() {
+        // then - verify the output
+        assertThatThrownBy(() -> EmployeeQueryPlanner.plan(new EmployeeQuery(null, "Da", null, "email", 10)))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessageContaining("only be sorted by lastName");
+        assertThatThrownBy(() -> EmployeeQueryPlanner.plan(new EmployeeQuery("B", null, "das", null, 10)))
+                .isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> EmployeeQueryPlanner.plan(new EmployeeQuery(null, null, null, "salary", 10)))
+                .isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> EmployeeQueryPlanner.plan(new EmployeeQuery(null, null, null, null, 0)))
+                .isInstanceOf(InvalidRequestException.class);
+    }
+}
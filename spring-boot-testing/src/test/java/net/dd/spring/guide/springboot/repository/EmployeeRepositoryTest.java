@@ -1,7 +1,9 @@
 package net.dd.spring.guide.springboot.repository;
 
 import lombok.extern.log4j.Log4j2;
+import net.dd.spring.guide.springboot.model.EmailNormalizer;
 import net.dd.spring.guide.springboot.model.Employee;
+import net.dd.spring.guide.springboot.model.EmployeeField;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -11,8 +13,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Log4j2
@@ -20,6 +25,8 @@ import java.util.Optional;
 class EmployeeRepositoryTest {
     @Autowired
     private EmployeeRepository mRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
     private Employee employee;
 
     @BeforeEach
@@ -91,6 +98,38 @@ class EmployeeRepositoryTest {
         assertThat(employeeByEmail.getEmail()).isEqualTo(employee.getEmail());
     }
 
+    //Junit test for case-insensitive lookup by email.
+    @DisplayName("Junit test for retrieve employee by email ignoring case")
+    @Test
+    public void givenEmployeeEmailInOtherCase_whenFindByEmail_thenFoundEmployeeObject() {
+        //Given - Precondition or setup.
+        mRepository.save(employee);
+        //When - action or behaviour that we are going to test.
+        Optional<Employee> employeeByEmail = mRepository.findByEmail(" Dipanjan@HOTMAIL.com ");
+        //Then - verify the output
+        assertThat(employeeByEmail).isPresent();
+        assertThat(employeeByEmail.get().getEmail()).isEqualTo(employee.getEmail());
+        assertThat(employeeByEmail.get().getEmailHash()).isEqualTo(EmailNormalizer.hash("dipanjan@hotmail.com"));
+    }
+
+    //Junit test for a hash collision on the email lookup.
+    @DisplayName("Junit test for retrieve employee by email when another email shares its hash")
+    @Test
+    public void givenOtherEmailWithSameHash_whenFindByEmail_thenReturnOnlyMatchingEmployee() {
+        //Given - Precondition or setup.
+        mRepository.saveAndFlush(employee);
+        jdbcTemplate.update("insert into tbl_employees (first_name, last_name, email, email_normalized, email_hash) "
+                        + "values (?, ?, ?, ?, ?)",
+                "Ram", "Das", "ram@hotmail.com", "ram@hotmail.com", EmailNormalizer.hash("dipanjan@hotmail.com"));
+        //When - action or behaviour that we are going to test.
+        Optional<Employee> employeeByEmail = mRepository.findByEmail("dipanjan@hotmail.com");
+        Optional<Employee> collidingByEmail = mRepository.findByEmail("ram@hotmail.com");
+        //Then - verify the output
+        assertThat(employeeByEmail).isPresent();
+        assertThat(employeeByEmail.get().getId()).isEqualTo(employee.getId());
+        assertThat(collidingByEmail).isEmpty();
+    }
+
     //Junit test for update employee operation
     @DisplayName("Junit test for update employee operation")
     @Test
@@ -173,4 +212,31 @@ class EmployeeRepositoryTest {
         assertThat(savedEmployee).isNotNull();
         assertThat(savedEmployee.getFirstName()).isEqualTo(employee.getFirstName());
     }
-}
\ No newline at end of file
+
+    //Junit test for set based email existence check.
+    @DisplayName("Junit test for find existing emails operation.")
+    @Test
+    public void givenSavedEmployee_whenFindExistingEmails_thenOnlyStoredEmailsReturned() {
+        //Given - Precondition or setup.
+        mRepository.save(employee);
+        //When - action or behaviour that we are going to test.
+        List<String> existingEmails = mRepository.findExistingEmails(List.of(employee.getEmail(), "unknown@hotmail.com"));
+        //Then - verify the output
+        assertThat(existingEmails).containsExactly(employee.getEmail());
+    }
+
+    //Junit test for column restricted query.
+    @DisplayName("Junit test for find all projected operation.")
+    @Test
+    public void givenSavedEmployee_whenFindAllProjected_thenOnlyRequestedFieldsReturned() {
+        //Given - Precondition or setup.
+        Employee savedEmployee = mRepository.save(employee);
+        //When - action or behaviour that we are going to test.
+        List<Map<String, Object>> rows = mRepository.findAllProjected(EnumSet.of(EmployeeField.ID, EmployeeField.EMAIL));
+        //Then - verify the output
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0)).containsOnlyKeys("id", "email");
+        assertThat(rows.get(0).get("id")).isEqualTo(savedEmployee.getId());
+        assertThat(rows.get(0).get("email")).isEqualTo(employee.getEmail());
+    }
+}
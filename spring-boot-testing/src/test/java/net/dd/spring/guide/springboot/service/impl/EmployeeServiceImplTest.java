@@ -1,7 +1,9 @@
 package net.dd.spring.guide.springboot.service.impl;
 
+import net.dd.spring.guide.springboot.exception.DuplicateResourceException;
 import net.dd.spring.guide.springboot.exception.ResourceNotFoundException;
 import net.dd.spring.guide.springboot.model.Employee;
+import net.dd.spring.guide.springboot.model.EmployeeLookup;
 import net.dd.spring.guide.springboot.repository.EmployeeRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,6 +13,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.EmptyResultDataAccessException;
 
 import java.util.Collections;
 import java.util.List;
@@ -20,12 +24,15 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class EmployeeServiceImplTest {
     @Mock
     private EmployeeRepository employeeRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private EmployeeServiceImpl employeeService;
@@ -76,12 +83,14 @@ class EmployeeServiceImplTest {
         System.out.println(employeeService);
 
         // when -  action or the behaviour that we are going test
-        org.junit.jupiter.api.Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+        DuplicateResourceException exception =
+                org.junit.jupiter.api.Assertions.assertThrows(DuplicateResourceException.class, () -> {
             employeeService.saveEmployee(employee);
         });
 
         // then
         verify(employeeRepository, never()).save(any(Employee.class));
+        assertThat(exception).isSameAs(DuplicateResourceException.EMAIL_TAKEN);
     }
 
     // JUnit test for getAllEmployees method
@@ -176,4 +185,37 @@ class EmployeeServiceImplTest {
         // then - verify the output
         verify(employeeRepository, times(1)).deleteById(employeeId);
     }
-}
\ No newline at end of file
+
+    // JUnit test for deleteEmployee method
+    @DisplayName("JUnit test for deleteEmployee method which throws exception")
+    @Test
+    public void givenMissingEmployeeId_whenDeleteEmployee_thenThrowsException(){
+        // given - precondition or setup
+        long employeeId = 1L;
+
+        willThrow(new EmptyResultDataAccessException(1)).given(employeeRepository).deleteById(employeeId);
+
+        // when -  action or the behaviour that we are going test
+        ResourceNotFoundException exception = org.junit.jupiter.api.Assertions.assertThrows(
+                ResourceNotFoundException.class, () -> employeeService.deleteEmployee(employeeId));
+
+        // then - verify the output
+        assertThat(exception.getStackTrace()).isEmpty();
+    }
+
+    // JUnit test for getEmployeesByIds method
+    @DisplayName("JUnit test for getEmployeesByIds method")
+    @Test
+    public void givenEmployeeIds_whenGetEmployeesByIds_thenReturnLookupsInRequestOrder(){
+        // given - precondition or setup
+        given(employeeRepository.findAllById(List.of(9L, 1L))).willReturn(List.of(employee));
+
+        // when -  action or the behaviour that we are going test
+        List<EmployeeLookup> lookups = employeeService.getEmployeesByIds(List.of(9L, 1L, 9L));
+
+        // then - verify the output
+        assertThat(lookups).extracting(EmployeeLookup::getId).containsExactly(9L, 1L, 9L);
+        assertThat(lookups).extracting(EmployeeLookup::isFound).containsExactly(false, true, false);
+        verify(employeeRepository, times(1)).findAllById(any());
+    }
+}
@@ -0,0 +1,127 @@
+package net.dd.spring.guide.springboot.snapshot;
+
+import net.dd.spring.guide.springboot.model.Employee;
+import net.dd.spring.guide.springboot.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeSnapshotStoreTest {
+    @Mock
+    private EmployeeRepository employeeRepository;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EmployeeSnapshotStore snapshotStore;
+    private final List<Runnable> compactions = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        SnapshotProperties properties = new SnapshotProperties();
+        properties.setCompactionThreshold(3);
+        snapshotStore = new EmployeeSnapshotStore(employeeRepository, entityManager, transactionManager, properties,
+                compactions::add);
+
+        given(employeeRepository.count()).willReturn(3L);
+        given(employeeRepository.streamAllOrderedById()).willReturn(Stream.of(
+                employee(1L, "Dipanjan", "Das", "dipanjan@hotmail.com"),
+                employee(2L, "Surjyatapa", "Das", "surjyatapa@hotmail.com"),
+                employee(3L, "Tony", "Stark", "tony@gmail.com")));
+        snapshotStore.load();
+    }
+
+    // JUnit test for serving the streamed rows
+    @DisplayName("JUnit test for getAll method after load")
+    @Test
+    public void givenLoadedSnapshot_whenGetAll_thenRowsReturnedInIdOrder() {
+        // when -  action or the behaviour that we are going test
+        List<Employee> employees = snapshotStore.getAll();
+
+        // then - verify the output
+        assertThat(snapshotStore.isReady()).isTrue();
+        assertThat(employees).extracting(Employee::getId).containsExactly(1L, 2L, 3L);
+        assertThat(employees.get(1).getEmail()).isEqualTo("surjyatapa@hotmail.com");
+    }
+
+    // JUnit test for incremental changes
+    @DisplayName("JUnit test for query method seeing applied changes")
+    @Test
+    public void givenAppliedChanges_whenQuery_thenChangesVisibleWithFilterAndPaging() {
+        // given - precondition or setup
+        snapshotStore.apply(1L, null);
+        snapshotStore.apply(4L, employee(4L, "Bidisa", "Das", "bidisa@hotmail.com"));
+
+        // when -  action or the behaviour that we are going test
+        List<Employee> das = snapshotStore.query(null, "Das", 0, 10);
+        List<Employee> secondPage = snapshotStore.query(null, null, 2, 2);
+
+        // then - verify the output
+        assertThat(das).extracting(Employee::getId).containsExactly(2L, 4L);
+        assertThat(secondPage).extracting(Employee::getId).containsExactly(4L);
+    }
+
+    // JUnit test for compaction
+    @DisplayName("JUnit test for compaction folding pending changes into the columns")
+    @Test
+    public void givenChangesPastThreshold_whenApply_thenCompactedWithoutDatabase() {
+        // given - precondition or setup
+        snapshotStore.apply(2L, employee(2L, "Surjyatapa", "Sen", "surjyatapa@hotmail.com"));
+        snapshotStore.apply(3L, null);
+        snapshotStore.apply(5L, employee(5L, "Ram", "Kumar", "ram@gmail.com"));
+        assertThat(compactions).hasSize(1);
+        assertThat(snapshotStore.getStats().getPendingChanges()).isEqualTo(3);
+
+        // when -  action or the behaviour that we are going test
+        compactions.remove(0).run();
+
+        // then - verify the output
+        SnapshotStats stats = snapshotStore.getStats();
+        assertThat(stats.getPendingChanges()).isZero();
+        assertThat(stats.getRows()).isEqualTo(3);
+        assertThat(snapshotStore.query(null, "Sen", 0, 10)).extracting(Employee::getId).containsExactly(2L);
+        assertThat(stats.getBytesPerRow()).isLessThan(stats.getEntityBytesPerRow());
+    }
+
+    // JUnit test for writes while a compaction is pending
+    @DisplayName("JUnit test for apply not waiting for a pending compaction")
+    @Test
+    public void givenPendingCompaction_whenApplyMore_thenServedFromOverlayAndFoldedOnSwap() {
+        // given - precondition or setup
+        snapshotStore.apply(1L, null);
+        snapshotStore.apply(4L, employee(4L, "Bidisa", "Das", "bidisa@hotmail.com"));
+        snapshotStore.apply(5L, employee(5L, "Ram", "Kumar", "ram@gmail.com"));
+        snapshotStore.apply(5L, employee(5L, "Ram", "Sen", "ram@gmail.com"));
+
+        // when -  action or the behaviour that we are going test
+        List<Employee> beforeSwap = snapshotStore.query(null, "Sen", 0, 10);
+        compactions.remove(0).run();
+        snapshotStore.apply(6L, employee(6L, "Tony", "Stark", "tony.stark@gmail.com"));
+
+        // then - verify the output
+        assertThat(beforeSwap).extracting(Employee::getId).containsExactly(5L);
+        assertThat(compactions).isEmpty();
+        assertThat(snapshotStore.getStats().getRows()).isEqualTo(4);
+        assertThat(snapshotStore.getStats().getPendingChanges()).isEqualTo(1);
+        assertThat(snapshotStore.getAll()).extracting(Employee::getId).containsExactly(2L, 3L, 4L, 5L, 6L);
+        assertThat(snapshotStore.query(null, "Kumar", 0, 10)).isEmpty();
+    }
+
+    private static Employee employee(long id, String firstName, String lastName, String email) {
+        return Employee.builder().id(id).firstName(firstName).lastName(lastName).email(email).build();
+    }
+}
@@ -0,0 +1,62 @@
+package net.dd.spring.guide.springboot.timing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServerTimingFilterTest {
+
+    private final ServerTimingFilter filter = new ServerTimingFilter(1);
+
+    // JUnit test for the header written after the body
+    @DisplayName("JUnit test for doFilter method")
+    @Test
+    public void givenTimedRequest_whenDoFilter_thenServerTimingHeaderAndBodyWritten() throws Exception {
+        // given - precondition or setup
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/employees/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Method toString = Object.class.getMethod("toString");
+        Method hashCode = Object.class.getMethod("hashCode");
+
+        // when -  action or the behaviour that we are going test
+        filter.doFilter(request, response, (req, res) -> {
+            ServerTiming timing = ServerTiming.current();
+            timing.serviceCalled(2_000_000);
+            timing.statementExecuted();
+            timing.repositoryCalled(toString, 1_500_000, 1);
+            timing.repositoryCalled(hashCode, 500_000, 0);
+            timing.serializationStarted();
+            res.getOutputStream().write("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+        });
+
+        // then - verify the output
+        assertThat(response.getContentAsString()).isEqualTo("{\"id\":1}");
+        assertThat(response.getHeader(ServerTimingFilter.SERVER_TIMING_HEADER))
+                .startsWith("service;dur=2.00, db0;dur=1.50;desc=\"toString, 1 statement\", "
+                        + "db-other;dur=0.50;desc=\"1 calls, 0 statements\", serialize;dur=")
+                .contains("total;dur=")
+                .endsWith(";desc=\"1 statement\"");
+        assertThat(ServerTiming.current()).isNull();
+    }
+
+    // JUnit test for streaming endpoints
+    @DisplayName("JUnit test for doFilter method on the SSE feed")
+    @Test
+    public void givenStreamRequest_whenDoFilter_thenNotTimed() throws Exception {
+        // given - precondition or setup
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/employees/stream");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // when -  action or the behaviour that we are going test
+        filter.doFilter(request, response, (req, res) -> assertThat(ServerTiming.current()).isNull());
+
+        // then - verify the output
+        assertThat(response.getHeader(ServerTimingFilter.SERVER_TIMING_HEADER)).isNull();
+    }
+}
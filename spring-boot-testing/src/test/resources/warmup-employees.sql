@@ -0,0 +1,3 @@
+insert into tbl_employees (first_name, last_name, email) values ('Dipanjan', 'Das', 'das.dipanjan@hotmail.com');
+insert into tbl_employees (first_name, last_name, email) values ('Bidisa', 'Das', 'das.bidisa@hotmail.com');
+insert into tbl_employees (first_name, last_name, email) values ('Tony', 'Stark', 'tony@gmail.com');